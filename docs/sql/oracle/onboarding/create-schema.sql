@@ -28,6 +28,8 @@ CREATE TABLE ES_ONBOARDING_PROCESS (
     ERROR_DETAIL VARCHAR2(256 CHAR),
     ERROR_ORIGIN VARCHAR2(256 CHAR),
     ERROR_SCORE INTEGER DEFAULT 0 NOT NULL,
+    OTP_FAILED_ATTEMPTS INTEGER DEFAULT 0 NOT NULL,
+    VERSION NUMBER(19) DEFAULT 0 NOT NULL,
     CUSTOM_DATA VARCHAR2(1024 CHAR) NOT NULL,
     FDS_DATA CLOB,
     TIMESTAMP_CREATED TIMESTAMP(6) NOT NULL,
@@ -66,6 +68,7 @@ CREATE INDEX ONBOARDING_PROCESS ON ES_ONBOARDING_OTP (PROCESS_ID);
 CREATE INDEX ONBOARDING_OTP_STATUS ON ES_ONBOARDING_OTP (STATUS);
 CREATE INDEX ONBOARDING_OTP_TIMESTAMP_1 ON ES_ONBOARDING_OTP (TIMESTAMP_CREATED);
 CREATE INDEX ONBOARDING_OTP_TIMESTAMP_2 ON ES_ONBOARDING_OTP (TIMESTAMP_LAST_UPDATED);
+CREATE INDEX ONBOARDING_OTP_PROCESS_TYPE ON ES_ONBOARDING_OTP (PROCESS_ID, TYPE, TIMESTAMP_CREATED);
 
 CREATE TABLE ES_IDENTITY_VERIFICATION (
     ID VARCHAR2(36 CHAR) NOT NULL PRIMARY KEY,
@@ -83,6 +86,11 @@ CREATE TABLE ES_IDENTITY_VERIFICATION (
     TIMESTAMP_LAST_UPDATED TIMESTAMP(6),
     TIMESTAMP_FINISHED TIMESTAMP(6),
     TIMESTAMP_FAILED TIMESTAMP(6),
+    CLIENT_EVALUATION_ATTEMPTS INTEGER DEFAULT 0 NOT NULL,
+    OTP_FAILED_ATTEMPTS INTEGER DEFAULT 0 NOT NULL,
+    SCA_ATTEMPTS INTEGER DEFAULT 0 NOT NULL,
+    VERSION NUMBER(19) DEFAULT 0 NOT NULL,
+    TIMESTAMP_NEXT_ATTEMPT TIMESTAMP(6),
     FOREIGN KEY (PROCESS_ID) REFERENCES ES_ONBOARDING_PROCESS (ID)
 );
 
@@ -106,6 +114,7 @@ CREATE TABLE ES_DOCUMENT_VERIFICATION (
     UPLOAD_ID VARCHAR2(36 CHAR),
     VERIFICATION_ID VARCHAR2(36 CHAR),
     PHOTO_ID VARCHAR2(256 CHAR),
+    DATA_HASH VARCHAR2(64 CHAR),
     VERIFICATION_SCORE INTEGER,
     REJECT_REASON CLOB,
     REJECT_ORIGIN VARCHAR2(256 CHAR),
@@ -134,6 +143,8 @@ CREATE TABLE ES_DOCUMENT_DATA (
     IDENTITY_VERIFICATION_ID VARCHAR2(36 CHAR) NOT NULL,
     FILENAME VARCHAR2(256 CHAR) NOT NULL,
     DATA BLOB NOT NULL,
+    DATA_SIZE NUMBER(19) DEFAULT 0 NOT NULL,
+    DATA_HASH VARCHAR2(64 CHAR),
     TIMESTAMP_CREATED TIMESTAMP(6) NOT NULL,
     FOREIGN KEY (IDENTITY_VERIFICATION_ID) REFERENCES ES_IDENTITY_VERIFICATION (ID)
 );
@@ -177,6 +188,33 @@ CREATE TABLE ES_SCA_RESULT
 CREATE INDEX IDENTITY_VERIFICATION_ID ON ES_SCA_RESULT (IDENTITY_VERIFICATION_ID);
 CREATE INDEX PROCESS_ID ON ES_SCA_RESULT (PROCESS_ID);
 
+CREATE TABLE ES_LIMIT_COUNTER (
+    COUNTER_KEY VARCHAR2(512 CHAR) NOT NULL PRIMARY KEY,
+    WINDOW_START TIMESTAMP(6) NOT NULL,
+    CURRENT_COUNT NUMBER(19) NOT NULL,
+    PREVIOUS_COUNT NUMBER(19) NOT NULL,
+    TIMESTAMP_EXPIRATION TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX LIMIT_COUNTER_EXPIRATION ON ES_LIMIT_COUNTER (TIMESTAMP_EXPIRATION);
+
+CREATE SEQUENCE ES_OUTBOX_SEQ INCREMENT BY 50 START WITH 1;
+
+CREATE TABLE ES_OUTBOX (
+    ID NUMBER(19) NOT NULL PRIMARY KEY,
+    MESSAGE_KEY VARCHAR2(256 CHAR) NOT NULL,
+    MESSAGE_TYPE VARCHAR2(64 CHAR) NOT NULL,
+    PAYLOAD CLOB NOT NULL,
+    STATUS VARCHAR2(32 CHAR) NOT NULL,
+    ATTEMPTS NUMBER(10) DEFAULT 0 NOT NULL,
+    ERROR_DETAIL VARCHAR2(1024 CHAR),
+    TIMESTAMP_CREATED TIMESTAMP(6) NOT NULL,
+    TIMESTAMP_NEXT_ATTEMPT TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX OUTBOX_STATUS_NEXT_ATTEMPT ON ES_OUTBOX (STATUS, TIMESTAMP_NEXT_ATTEMPT);
+CREATE INDEX OUTBOX_MESSAGE_KEY ON ES_OUTBOX (MESSAGE_KEY);
+
 -- Scheduler lock table - https://github.com/lukas-krecan/ShedLock#configure-lockprovider
 BEGIN EXECUTE IMMEDIATE 'CREATE TABLE shedlock (
     name VARCHAR2(64 CHAR) NOT NULL,
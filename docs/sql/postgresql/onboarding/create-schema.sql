@@ -32,6 +32,8 @@ CREATE TABLE es_onboarding_process (
     error_detail VARCHAR(256),
     error_origin VARCHAR(256),
     error_score INTEGER NOT NULL DEFAULT 0,
+    otp_failed_attempts INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     custom_data VARCHAR(1024) NOT NULL,
     fds_data TEXT,
     timestamp_created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -70,6 +72,7 @@ CREATE INDEX onboarding_process ON es_onboarding_otp (process_id);
 CREATE INDEX onboarding_otp_status ON es_onboarding_otp (status);
 CREATE INDEX onboarding_otp_timestamp_1 ON es_onboarding_otp (timestamp_created);
 CREATE INDEX onboarding_otp_timestamp_2 ON es_onboarding_otp (timestamp_last_updated);
+CREATE INDEX onboarding_otp_process_type ON es_onboarding_otp (process_id, type, timestamp_created);
 
 CREATE TABLE es_identity_verification (
     id VARCHAR(36) NOT NULL PRIMARY KEY,
@@ -87,6 +90,11 @@ CREATE TABLE es_identity_verification (
     timestamp_last_updated TIMESTAMP,
     timestamp_finished TIMESTAMP,
     timestamp_failed TIMESTAMP,
+    client_evaluation_attempts INTEGER DEFAULT 0 NOT NULL,
+    otp_failed_attempts INTEGER DEFAULT 0 NOT NULL,
+    sca_attempts INTEGER DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    timestamp_next_attempt TIMESTAMP,
     FOREIGN KEY (process_id) REFERENCES es_onboarding_process (id)
 );
 
@@ -110,6 +118,7 @@ CREATE TABLE es_document_verification (
     upload_id VARCHAR(36),
     verification_id VARCHAR(36),
     photo_id VARCHAR(256),
+    data_hash VARCHAR(64),
     verification_score INTEGER,
     reject_reason TEXT,
     reject_origin VARCHAR(256),
@@ -138,6 +147,8 @@ CREATE TABLE es_document_data (
     identity_verification_id VARCHAR(36) NOT NULL,
     filename VARCHAR(256) NOT NULL,
     data BYTEA NOT NULL,
+    data_size BIGINT DEFAULT 0 NOT NULL,
+    data_hash VARCHAR(64),
     timestamp_created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (identity_verification_id) REFERENCES es_identity_verification (id)
 );
@@ -181,6 +192,33 @@ CREATE TABLE es_sca_result
 CREATE INDEX identity_verification_id ON es_sca_result (identity_verification_id);
 CREATE INDEX process_id ON es_sca_result (process_id);
 
+CREATE TABLE es_limit_counter (
+    counter_key VARCHAR(512) NOT NULL PRIMARY KEY,
+    window_start TIMESTAMP NOT NULL,
+    current_count BIGINT NOT NULL,
+    previous_count BIGINT NOT NULL,
+    timestamp_expiration TIMESTAMP NOT NULL
+);
+
+CREATE INDEX limit_counter_expiration ON es_limit_counter (timestamp_expiration);
+
+CREATE SEQUENCE es_outbox_seq INCREMENT BY 50 START WITH 1;
+
+CREATE TABLE es_outbox (
+    id BIGINT NOT NULL PRIMARY KEY,
+    message_key VARCHAR(256) NOT NULL,
+    message_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    error_detail VARCHAR(1024),
+    timestamp_created TIMESTAMP NOT NULL,
+    timestamp_next_attempt TIMESTAMP NOT NULL
+);
+
+CREATE INDEX outbox_status_next_attempt ON es_outbox (status, timestamp_next_attempt);
+CREATE INDEX outbox_message_key ON es_outbox (message_key);
+
 -- Scheduler lock table - https://github.com/lukas-krecan/ShedLock#configure-lockprovider
 CREATE TABLE IF NOT EXISTS shedlock (
     name VARCHAR(64) NOT NULL,
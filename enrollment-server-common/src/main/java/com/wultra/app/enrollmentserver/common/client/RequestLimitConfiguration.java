@@ -0,0 +1,47 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.enrollmentserver.common.client;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@link RequestLimitFilter}.
+ */
+@Getter
+@Setter
+public class RequestLimitConfiguration {
+
+    /**
+     * Maximum number of concurrent requests to the target.
+     */
+    private int maxRequests = 100;
+
+    /**
+     * Maximum number of requests waiting for a free request slot. Further requests fail immediately.
+     */
+    private int maxPending = 1000;
+
+    /**
+     * Maximum time to wait for a free request slot.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+}
@@ -0,0 +1,147 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.enrollmentserver.common.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.*;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filter of a REST client limiting the number of concurrent requests to a target.
+ * <p>
+ * The connection pool of the REST client is not configurable, so the requests in progress are limited by this filter instead.
+ * A request holds a request slot from the subscription until the response is received. Requests exceeding
+ * the maximum number of requests wait for a free slot, requests exceeding the maximum number of pending requests
+ * or waiting longer than the pending acquire timeout fail with {@link WebClientRequestException}.
+ * <p>
+ * The filter waits for a free slot on the subscribing thread, so it is meant for clients called in a blocking way only,
+ * such as the PowerAuth REST clients. It must not be used by callers subscribing on a non-blocking thread,
+ * e.g. a Netty event loop, which would be blocked for up to the pending acquire timeout.
+ * <p>
+ * Requests in progress and requests waiting for a free slot are exported as the gauges {@value #METRIC_ACTIVE} and {@value #METRIC_PENDING}
+ * tagged by the target when a {@link MeterRegistry} is available.
+ */
+@Slf4j
+public class RequestLimitFilter implements ExchangeFilterFunction {
+
+    static final String METRIC_ACTIVE = "enrollment.client.requests.active";
+
+    static final String METRIC_PENDING = "enrollment.client.requests.pending";
+
+    private static final String METRIC_MAX = "enrollment.client.requests.max";
+
+    private final String target;
+
+    private final RequestLimitConfiguration configuration;
+
+    private final Semaphore requests;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Filter constructor.
+     *
+     * @param target Target name used in logs and metrics.
+     * @param configuration Filter configuration.
+     * @param meterRegistry Meter registry, metrics are not recorded when null.
+     */
+    public RequestLimitFilter(final String target, final RequestLimitConfiguration configuration, @Nullable final MeterRegistry meterRegistry) {
+        this.target = target;
+        this.configuration = configuration;
+        this.requests = new Semaphore(configuration.getMaxRequests(), true);
+
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_ACTIVE, this, RequestLimitFilter::getActive)
+                    .description("Number of requests to the target in progress")
+                    .tag("target", target)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PENDING, pending, AtomicInteger::get)
+                    .description("Number of requests waiting for a free request slot of the target")
+                    .tag("target", target)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_MAX, configuration, RequestLimitConfiguration::getMaxRequests)
+                    .description("Maximum number of concurrent requests to the target")
+                    .tag("target", target)
+                    .register(meterRegistry);
+        }
+        logger.info("Initialized request limit for target: {}, max requests: {}, max pending: {}, pending acquire timeout: {}",
+                target, configuration.getMaxRequests(), configuration.getMaxPending(), configuration.getPendingAcquireTimeout());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            final TimeoutException failure = acquire();
+            if (failure != null) {
+                return Mono.error(new WebClientRequestException(failure, request.method(), request.url(), request.headers()));
+            }
+            return next.exchange(request)
+                    .doFinally(signal -> requests.release());
+        });
+    }
+
+    /**
+     * Get the number of requests in progress.
+     *
+     * @return Number of requests in progress.
+     */
+    int getActive() {
+        return configuration.getMaxRequests() - requests.availablePermits();
+    }
+
+    /**
+     * Get the number of requests waiting for a free request slot.
+     *
+     * @return Number of pending requests.
+     */
+    int getPending() {
+        return pending.get();
+    }
+
+    @Nullable
+    private TimeoutException acquire() {
+        if (requests.tryAcquire()) {
+            return null;
+        }
+
+        try {
+            if (pending.incrementAndGet() > configuration.getMaxPending()) {
+                logger.warn("Pending requests limit reached, target: {}", target);
+                return new TimeoutException("Pending requests limit of " + target + " reached: " + configuration.getMaxPending());
+            }
+            if (!requests.tryAcquire(configuration.getPendingAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("No free request slot within {}, target: {}", configuration.getPendingAcquireTimeout(), target);
+                return new TimeoutException("No free request slot of " + target + " within " + configuration.getPendingAcquireTimeout());
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TimeoutException("Interrupted while waiting for a free request slot of " + target);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.enrollmentserver.common.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link RequestLimitFilter}.
+ */
+class RequestLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/status")).build();
+
+    @Test
+    void testFilter_requestReleased() {
+        final RequestLimitFilter tested = new RequestLimitFilter("test", createConfiguration(1, 0, Duration.ZERO), meterRegistry);
+        final Sinks.One<ClientResponse> response = Sinks.one();
+
+        final Mono<ClientResponse> result = tested.filter(request, it -> response.asMono()).cache();
+        result.subscribe();
+        assertEquals(1, meterRegistry.get(RequestLimitFilter.METRIC_ACTIVE).tag("target", "test").gauge().value());
+
+        response.tryEmitValue(ClientResponse.create(HttpStatus.OK).build());
+        assertEquals(HttpStatus.OK, result.block().statusCode());
+        assertEquals(0, tested.getActive());
+
+        // the released request slot is reused
+        assertEquals(HttpStatus.OK, tested.filter(request, okExchange()).block().statusCode());
+    }
+
+    @Test
+    void testFilter_pendingLimitReached() {
+        final RequestLimitFilter tested = new RequestLimitFilter("test", createConfiguration(1, 0, Duration.ofSeconds(5)), meterRegistry);
+        tested.filter(request, it -> Mono.never()).subscribe();
+
+        final Mono<ClientResponse> result = tested.filter(request, okExchange());
+        assertThrows(WebClientRequestException.class, result::block);
+        assertEquals(0, tested.getPending());
+    }
+
+    @Test
+    void testFilter_pendingAcquireTimeout() {
+        final RequestLimitFilter tested = new RequestLimitFilter("test", createConfiguration(1, 1, Duration.ofMillis(50)), meterRegistry);
+        tested.filter(request, it -> Mono.never()).subscribe();
+
+        final Mono<ClientResponse> result = tested.filter(request, okExchange());
+        assertThrows(WebClientRequestException.class, result::block);
+        assertEquals(1, tested.getActive());
+        assertEquals(0, tested.getPending());
+    }
+
+    private static ExchangeFunction okExchange() {
+        return it -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+    }
+
+    private static RequestLimitConfiguration createConfiguration(final int maxRequests, final int maxPending, final Duration pendingAcquireTimeout) {
+        final RequestLimitConfiguration configuration = new RequestLimitConfiguration();
+        configuration.setMaxRequests(maxRequests);
+        configuration.setMaxPending(maxPending);
+        configuration.setPendingAcquireTimeout(pendingAcquireTimeout);
+        return configuration;
+    }
+}
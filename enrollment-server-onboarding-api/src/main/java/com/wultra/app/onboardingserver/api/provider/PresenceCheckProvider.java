@@ -21,6 +21,7 @@ import com.wultra.app.enrollmentserver.model.integration.Image;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.enrollmentserver.model.integration.PresenceCheckResult;
 import com.wultra.app.enrollmentserver.model.integration.SessionInfo;
+import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.api.errorhandling.PresenceCheckException;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.core.annotations.PublicSpi;
@@ -43,6 +44,24 @@ public interface PresenceCheckProvider {
      */
     void initPresenceCheck(OwnerId id, Image photo) throws PresenceCheckException, RemoteCommunicationException;
 
+    /**
+     * Initializes presence check process, the trusted photo is obtained from the given supplier.
+     * <p>
+     * Providers may start remote calls which do not depend on the photo before calling the supplier,
+     * so that preparing the photo and the calls overlap. The supplier is called exactly once on the calling thread.
+     * The default implementation obtains the photo first and delegates to {@link #initPresenceCheck(OwnerId, Image)}.
+     *
+     * @param id Owner identification.
+     * @param photoSupplier Supplier of the trusted photo of the user.
+     * @throws DocumentVerificationException In case the photo could not be obtained.
+     * @throws PresenceCheckException In case of business logic error.
+     * @throws RemoteCommunicationException In case of remote communication error.
+     */
+    default void initPresenceCheckPipelined(OwnerId id, TrustedPhotoSupplier photoSupplier)
+            throws DocumentVerificationException, PresenceCheckException, RemoteCommunicationException {
+        initPresenceCheck(id, photoSupplier.get());
+    }
+
     /**
      * Configuration flag setting where the provider implementation expects the trusted photo of the user.
      * <p>
@@ -82,6 +101,23 @@ public interface PresenceCheckProvider {
      */
     void cleanupIdentityData(OwnerId id, SessionInfo sessionInfo) throws PresenceCheckException, RemoteCommunicationException;
 
+    /**
+     * Supplier of the trusted photo of the user.
+     */
+    @FunctionalInterface
+    interface TrustedPhotoSupplier {
+
+        /**
+         * Obtain the trusted photo.
+         *
+         * @return Trusted photo of the user.
+         * @throws DocumentVerificationException In case of business logic error of the document verification.
+         * @throws PresenceCheckException In case the photo could not be processed.
+         * @throws RemoteCommunicationException In case of remote communication error.
+         */
+        Image get() throws DocumentVerificationException, PresenceCheckException, RemoteCommunicationException;
+    }
+
     /**
      * Return type for {@link #trustedPhotoSource()}.
      */
@@ -0,0 +1,37 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+/**
+ * Remote call to a provider guarded by {@link ProviderCallGuard}.
+ *
+ * @param <T> Type of the result.
+ * @param <E> Type of the checked exception thrown by the call.
+ */
+@FunctionalInterface
+public interface ProviderCall<T, E extends Exception> {
+
+    /**
+     * Execute the remote call.
+     *
+     * @return Result of the call.
+     * @throws E In case of the call failure.
+     */
+    T call() throws E;
+
+}
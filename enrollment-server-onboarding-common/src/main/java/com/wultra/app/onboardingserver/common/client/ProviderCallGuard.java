@@ -0,0 +1,443 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import com.wultra.app.onboardingserver.common.util.ExponentialBackoff;
+import com.wultra.core.rest.client.base.RestClientException;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Guard of remote calls to a single provider.
+ * <p>
+ * Every call passes through:
+ * <ul>
+ *     <li>a bulkhead limiting the number of concurrent calls, so a slow provider cannot exhaust request threads,</li>
+ *     <li>a circuit breaker failing fast after consecutive transient failures,</li>
+ *     <li>a retry with jittered exponential backoff, applied to {@link ProviderCallType#IDEMPOTENT} and
+ *     {@link ProviderCallType#STATUS_POLL} calls only,</li>
+ *     <li>a hedged request for {@link ProviderCallType#STATUS_POLL} calls not completed within the hedge delay.
+ *     The first successful response wins, the slower call is left to complete and its result is discarded.
+ *     Both requests are executed by the application task executor, the call is executed directly when the executor is saturated.</li>
+ * </ul>
+ * Call latency is recorded to the timer {@value #METRIC_CALLS} tagged by provider, operation and outcome
+ * when a {@link MeterRegistry} is available.
+ */
+@Slf4j
+public class ProviderCallGuard {
+
+    static final String METRIC_CALLS = "onboarding.provider.calls";
+
+    private static final String METRIC_BULKHEAD_AVAILABLE = "onboarding.provider.bulkhead.available";
+
+    private static final String METRIC_CIRCUIT_BREAKER_STATE = "onboarding.provider.circuit-breaker.state";
+
+    private final String provider;
+
+    private final ProviderCallGuardConfiguration configuration;
+
+    private final Predicate<Exception> transientFailure;
+
+    private final Semaphore bulkhead;
+
+    private final CircuitBreaker circuitBreaker;
+
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    @Nullable
+    private final Executor hedgeExecutor;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private volatile long lastCallNanos = System.nanoTime();
+
+    /**
+     * Guard constructor using {@link #isTransientFailure(Exception)} to classify failures.
+     *
+     * @param provider Provider name used in logs and metrics.
+     * @param configuration Guard configuration.
+     * @param meterRegistry Meter registry, metrics are not recorded when null.
+     * @param taskExecutor Executor of hedged calls, hedging is disabled when null.
+     */
+    public ProviderCallGuard(
+            final String provider,
+            final ProviderCallGuardConfiguration configuration,
+            @Nullable final MeterRegistry meterRegistry,
+            @Nullable final Executor taskExecutor) {
+        this(provider, configuration, meterRegistry, taskExecutor, ProviderCallGuard::isTransientFailure);
+    }
+
+    /**
+     * Guard constructor.
+     *
+     * @param provider Provider name used in logs and metrics.
+     * @param configuration Guard configuration.
+     * @param meterRegistry Meter registry, metrics are not recorded when null.
+     * @param taskExecutor Executor of hedged calls, hedging is disabled when null.
+     * @param transientFailure Predicate deciding whether a failure is transient, i.e. retryable and counted by the circuit breaker.
+     */
+    public ProviderCallGuard(
+            final String provider,
+            final ProviderCallGuardConfiguration configuration,
+            @Nullable final MeterRegistry meterRegistry,
+            @Nullable final Executor taskExecutor,
+            final Predicate<Exception> transientFailure) {
+
+        this.provider = provider;
+        this.configuration = configuration;
+        this.transientFailure = transientFailure;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(configuration.getMaxConcurrentCalls(), true);
+        this.circuitBreaker = new CircuitBreaker(provider, configuration.getFailureThreshold(), configuration.getOpenStateDuration());
+        this.hedgeExecutor = isHedgingEnabled(configuration) ? taskExecutor : null;
+
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_BULKHEAD_AVAILABLE, bulkhead, Semaphore::availablePermits)
+                    .description("Number of available concurrent calls to the provider")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_CIRCUIT_BREAKER_STATE, circuitBreaker, it -> it.getState().ordinal())
+                    .description("Circuit breaker state of the provider, 0 closed, 1 open, 2 half-open")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+        }
+        logger.info("Initialized call guard for provider: {}, enabled: {}, max concurrent calls: {}, hedging enabled: {}",
+                provider, configuration.isEnabled(), configuration.getMaxConcurrentCalls(), hedgeExecutor != null);
+    }
+
+    /**
+     * Execute the given remote call.
+     *
+     * @param operation Operation name used in logs and metrics.
+     * @param type Call type.
+     * @param call Remote call.
+     * @return Result of the call.
+     * @param <T> Type of the result.
+     * @param <E> Type of the checked exception thrown by the call.
+     * @throws E In case of the call failure.
+     * @throws ProviderCallRejectedException When the call was rejected by the bulkhead or the circuit breaker.
+     */
+    public <T, E extends Exception> T call(final String operation, final ProviderCallType type, final ProviderCall<T, E> call) throws E {
+        lastCallNanos = System.nanoTime();
+        if (!configuration.isEnabled()) {
+            return call.call();
+        }
+
+        final int maxAttempts = type.isRetryable() ? Math.max(1, configuration.getMaxAttempts()) : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                recordRejected(operation);
+                throw new ProviderCallRejectedException("Circuit breaker is open for provider: %s, operation: %s".formatted(provider, operation));
+            }
+
+            try {
+                final T result = type == ProviderCallType.STATUS_POLL && hedgeExecutor != null
+                        ? callHedged(operation, call)
+                        : callWithinBulkhead(operation, call);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (ProviderCallRejectedException e) {
+                circuitBreaker.onRejected();
+                throw e;
+            } catch (Exception e) {
+                if (!transientFailure.test(e)) {
+                    // the provider responded, the failure is not related to its availability
+                    circuitBreaker.onSuccess();
+                    throw ProviderCallGuard.<E>rethrow(e);
+                }
+
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    throw ProviderCallGuard.<E>rethrow(e);
+                }
+
+                final Duration backoff = ExponentialBackoff.withEqualJitter(attempt, configuration.getInitialBackoff(), configuration.getMaxBackoff());
+                logger.warn("Call {} of provider {} failed, attempt {} of {}, retrying in {} ms, error: {}",
+                        operation, provider, attempt, maxAttempts, backoff.toMillis(), e.getMessage());
+                logger.debug("Call {} of provider {} failed", operation, provider, e);
+                if (!sleep(backoff)) {
+                    throw ProviderCallGuard.<E>rethrow(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the time elapsed since the last call passed to the guard.
+     *
+     * @return Idle duration.
+     */
+    public Duration getIdleDuration() {
+        return Duration.ofNanos(System.nanoTime() - lastCallNanos);
+    }
+
+    /**
+     * Decide whether the given failure is transient. Connection errors, server errors and throttling are transient,
+     * client errors are not.
+     *
+     * @param e Failure to classify.
+     * @return {@code true} if the failure is transient.
+     */
+    public static boolean isTransientFailure(final Exception e) {
+        if (e instanceof final RestClientException restClientException) {
+            return restClientException.getStatusCode() == null || isTransientStatus(restClientException.getStatusCode());
+        } else if (e instanceof final WebClientResponseException webClientResponseException) {
+            return isTransientStatus(webClientResponseException.getStatusCode());
+        } else if (e instanceof final PowerAuthClientException powerAuthClientException) {
+            // PowerAuth error is present only when the server responded with a business error
+            return powerAuthClientException.getPowerAuthError().isEmpty();
+        }
+        return true;
+    }
+
+    private static boolean isTransientStatus(final HttpStatusCode statusCode) {
+        return statusCode.is5xxServerError() || statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private <T, E extends Exception> T callWithinBulkhead(final String operation, final ProviderCall<T, E> call) throws E {
+        acquirePermit(operation);
+        final long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            final T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            bulkhead.release();
+            record(operation, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void acquirePermit(final String operation) {
+        try {
+            if (!bulkhead.tryAcquire(configuration.getMaxWaitDuration().toNanos(), TimeUnit.NANOSECONDS)) {
+                recordRejected(operation);
+                throw new ProviderCallRejectedException("Maximum concurrent calls reached for provider: %s, operation: %s".formatted(provider, operation));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderCallRejectedException("Interrupted while waiting for provider: %s, operation: %s".formatted(provider, operation));
+        }
+    }
+
+    private <T, E extends Exception> T callHedged(final String operation, final ProviderCall<T, E> call) throws E {
+        final CompletableFuture<T> primary;
+        try {
+            primary = submit(operation, call);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Hedge executor of provider {} is saturated, calling {} directly", provider, operation);
+            return callWithinBulkhead(operation, call);
+        }
+
+        try {
+            try {
+                return primary.get(configuration.getHedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.debug("Call {} of provider {} not completed within {} ms, sending hedged request",
+                        operation, provider, configuration.getHedgeDelay().toMillis());
+            }
+
+            final CompletableFuture<T> hedged;
+            try {
+                hedged = submit(operation + "-hedged", call);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Hedge executor of provider {} is saturated, waiting for {}", provider, operation);
+                return primary.get();
+            }
+            return firstSuccessful(primary, hedged).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderCallRejectedException("Interrupted while waiting for provider: %s, operation: %s".formatted(provider, operation));
+        } catch (ExecutionException e) {
+            throw ProviderCallGuard.<E>rethrow(unwrap(e));
+        }
+    }
+
+    private <T, E extends Exception> CompletableFuture<T> submit(final String operation, final ProviderCall<T, E> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return callWithinBulkhead(operation, call);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, hedgeExecutor);
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(final CompletableFuture<T> primary, final CompletableFuture<T> hedged) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        for (final CompletableFuture<T> future : List.of(primary, hedged)) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static Exception unwrap(final Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof final Error error) {
+            throw error;
+        }
+        return (Exception) cause;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(final Exception e) {
+        if (e instanceof final RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        // ProviderCall declares only E as a checked exception
+        return (E) e;
+    }
+
+    private static boolean sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(final String operation, final String outcome, final long durationNanos) {
+        if (meterRegistry == null) {
+            return;
+        }
+        timers.computeIfAbsent(new TimerKey(operation, outcome), key -> Timer.builder(METRIC_CALLS)
+                        .description("Latency of remote calls to the provider")
+                        .tag("provider", provider)
+                        .tag("operation", key.operation())
+                        .tag("outcome", key.outcome())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordRejected(final String operation) {
+        record(operation, "rejected", 0);
+    }
+
+    private static boolean isHedgingEnabled(final ProviderCallGuardConfiguration configuration) {
+        return configuration.isEnabled() && configuration.getHedgeDelay() != null && !configuration.getHedgeDelay().isNegative() && !configuration.getHedgeDelay().isZero();
+    }
+
+    /**
+     * Consecutive failures circuit breaker.
+     */
+    static class CircuitBreaker {
+
+        enum State {
+            CLOSED, OPEN, HALF_OPEN
+        }
+
+        private final String provider;
+
+        private final int failureThreshold;
+
+        private final long openStateDurationNanos;
+
+        private State state = State.CLOSED;
+
+        private int consecutiveFailures;
+
+        private long openedAt;
+
+        private boolean trialCallInProgress;
+
+        CircuitBreaker(final String provider, final int failureThreshold, final Duration openStateDuration) {
+            this.provider = provider;
+            this.failureThreshold = failureThreshold;
+            this.openStateDurationNanos = openStateDuration.toNanos();
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openStateDurationNanos) {
+                logger.info("Circuit breaker of provider {} half-open, permitting a trial call", provider);
+                state = State.HALF_OPEN;
+                trialCallInProgress = false;
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (trialCallInProgress) {
+                        yield false;
+                    }
+                    trialCallInProgress = true;
+                    yield true;
+                }
+            };
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                logger.info("Circuit breaker of provider {} closed", provider);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialCallInProgress = false;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                logger.warn("Circuit breaker of provider {} opened after {} consecutive failures", provider, consecutiveFailures);
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+            trialCallInProgress = false;
+        }
+
+        synchronized void onRejected() {
+            trialCallInProgress = false;
+        }
+    }
+
+    private record TimerKey(String operation, String outcome) {
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@link ProviderCallGuard}.
+ */
+@Getter
+@Setter
+public class ProviderCallGuardConfiguration {
+
+    /**
+     * Whether the guard is enabled. When disabled, the remote calls are executed directly.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of concurrent calls to the provider.
+     */
+    private int maxConcurrentCalls = 20;
+
+    /**
+     * Maximum time to wait for a free slot when the maximum number of concurrent calls is reached.
+     */
+    private Duration maxWaitDuration = Duration.ofMillis(500);
+
+    /**
+     * Number of consecutive transient failures opening the circuit breaker.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long the circuit breaker stays open before a trial call is permitted.
+     */
+    private Duration openStateDuration = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of attempts of an idempotent call, including the first one.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Backoff before the first retry, doubled with each next retry. The actual backoff is randomized by jitter.
+     */
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    /**
+     * Maximum backoff between retries.
+     */
+    private Duration maxBackoff = Duration.ofSeconds(2);
+
+    /**
+     * Delay after which a hedged request of a status poll is sent. Hedged requests are disabled when zero.
+     */
+    private Duration hedgeDelay = Duration.ZERO;
+
+}
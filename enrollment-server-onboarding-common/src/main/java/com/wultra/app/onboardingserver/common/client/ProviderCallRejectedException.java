@@ -0,0 +1,39 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a remote call was not executed because the provider bulkhead is full or its circuit breaker is open.
+ */
+public class ProviderCallRejectedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -2395361780498207463L;
+
+    /**
+     * Exception constructor.
+     *
+     * @param message Exception message.
+     */
+    public ProviderCallRejectedException(final String message) {
+        super(message);
+    }
+
+}
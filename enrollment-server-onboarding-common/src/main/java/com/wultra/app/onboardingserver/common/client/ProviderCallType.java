@@ -0,0 +1,45 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+/**
+ * Type of remote call to a provider, determines which resilience features are applied to the call.
+ */
+public enum ProviderCallType {
+
+    /**
+     * Call changing state at the provider side which is not safe to repeat. Executed at most once.
+     */
+    NON_IDEMPOTENT,
+
+    /**
+     * Call which is safe to repeat. Retried with jittered backoff in case of a transient failure.
+     */
+    IDEMPOTENT,
+
+    /**
+     * Read-only status poll. Retried as {@link #IDEMPOTENT} call, moreover a hedged request is sent when the first one
+     * does not complete within the configured hedge delay.
+     */
+    STATUS_POLL;
+
+    boolean isRetryable() {
+        return this != NON_IDEMPOTENT;
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import com.wultra.core.rest.client.base.RestClient;
+import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background lifecycle of a provider client.
+ * <p>
+ * Right after the application start and then periodically with the check interval:
+ * <ul>
+ *     <li>the token refresh is executed, so OAuth access tokens are renewed ahead of expiry instead of on a user request,</li>
+ *     <li>the warm-up is executed when there was no call passed through the {@link ProviderCallGuard} nor a warm-up
+ *     within the idle interval, so a TLS connection is kept open in the connection pool.</li>
+ * </ul>
+ * The warm-up passes through the guard as a single attempt, so it is rejected while the circuit breaker is open
+ * and its failures count towards opening it. The token refresh bypasses the guard, otherwise the provider would never
+ * be considered idle.
+ * The checks are scheduled by the {@link TaskScheduler} and executed by the application task executor, so a slow provider
+ * does not delay other scheduled jobs. A check is skipped while the previous one is running or the executor is saturated.
+ * Failures are only logged, the next check tries again. Duration of the background tasks is recorded to the timer
+ * {@value #METRIC_WARM_UP} tagged by provider, task and outcome when a {@link MeterRegistry} is available.
+ */
+@Slf4j
+public class ProviderClientWarmUp implements SmartLifecycle {
+
+    static final String METRIC_WARM_UP = "onboarding.provider.warm-up";
+
+    private static final ParameterizedTypeReference<String> STRING_TYPE_REFERENCE = new ParameterizedTypeReference<>() { };
+
+    private final String provider;
+
+    private final ProviderClientWarmUpConfiguration configuration;
+
+    private final ProviderCallGuard callGuard;
+
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    @Nullable
+    private final TaskScheduler taskScheduler;
+
+    @Nullable
+    private final Executor taskExecutor;
+
+    @Nullable
+    private final ProviderCall<?, ?> tokenRefresh;
+
+    private final ProviderCall<?, ?> warmUp;
+
+    private final AtomicBoolean checkRunning = new AtomicBoolean();
+
+    @Nullable
+    private ScheduledFuture<?> scheduledCheck;
+
+    private volatile long lastWarmUpNanos;
+
+    private volatile boolean warmedUp;
+
+    /**
+     * Warm-up constructor.
+     *
+     * @param provider Provider name used in logs and metrics.
+     * @param configuration Warm-up configuration.
+     * @param callGuard Guard of the provider calls, used to detect idle periods.
+     * @param meterRegistry Meter registry, metrics are not recorded when null.
+     * @param taskScheduler Scheduler of the checks, the warm-up is not started when null.
+     * @param taskExecutor Executor of the checks, the warm-up is not started when null.
+     * @param tokenRefresh Refresh of access tokens executed with each check, may be null.
+     * @param warmUp Warm-up of the connections executed after idle periods.
+     */
+    public ProviderClientWarmUp(
+            final String provider,
+            final ProviderClientWarmUpConfiguration configuration,
+            final ProviderCallGuard callGuard,
+            @Nullable final MeterRegistry meterRegistry,
+            @Nullable final TaskScheduler taskScheduler,
+            @Nullable final Executor taskExecutor,
+            @Nullable final ProviderCall<?, ?> tokenRefresh,
+            final ProviderCall<?, ?> warmUp) {
+
+        this.provider = provider;
+        this.configuration = configuration;
+        this.callGuard = callGuard;
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+        this.taskExecutor = taskExecutor;
+        this.tokenRefresh = tokenRefresh;
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Create a warm-up of connections sending a HEAD request to the base URL of the given REST client.
+     * Any HTTP response is considered as a success, because the connection has been established.
+     *
+     * @param restClient REST client.
+     * @return Warm-up call.
+     */
+    public static ProviderCall<Void, RestClientException> headRequest(final RestClient restClient) {
+        return () -> {
+            try {
+                restClient.head("", STRING_TYPE_REFERENCE);
+            } catch (RestClientException e) {
+                if (e.getStatusCode() == null) {
+                    throw e;
+                }
+            }
+            return null;
+        };
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!configuration.isEnabled() || scheduledCheck != null) {
+            return;
+        }
+        if (taskScheduler == null || taskExecutor == null) {
+            logger.warn("Warm-up of provider: {} not started, task scheduler or executor is not available", provider);
+            return;
+        }
+        scheduledCheck = taskScheduler.scheduleWithFixedDelay(this::submitCheck, configuration.getCheckInterval());
+        logger.info("Started warm-up of provider: {}, check interval: {}, idle interval: {}",
+                provider, configuration.getCheckInterval(), configuration.getIdleInterval());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel(false);
+            scheduledCheck = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduledCheck != null;
+    }
+
+    private void submitCheck() {
+        if (!checkRunning.compareAndSet(false, true)) {
+            logger.debug("Previous warm-up check of provider {} is still running", provider);
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    check();
+                } finally {
+                    checkRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            checkRunning.set(false);
+            logger.debug("Task executor is saturated, skipping warm-up check of provider {}", provider);
+        }
+    }
+
+    /**
+     * Execute a single check, refresh the tokens and warm up the connections after an idle period.
+     */
+    void check() {
+        if (tokenRefresh != null) {
+            execute("token-refresh", tokenRefresh);
+        }
+        if (isIdle()) {
+            execute("connection", () -> callGuard.call("warmUp", ProviderCallType.NON_IDEMPOTENT, warmUp));
+            lastWarmUpNanos = System.nanoTime();
+            warmedUp = true;
+        }
+    }
+
+    private boolean isIdle() {
+        if (!warmedUp) {
+            return true;
+        }
+        final long idleIntervalNanos = configuration.getIdleInterval().toNanos();
+        return callGuard.getIdleDuration().toNanos() >= idleIntervalNanos
+                && System.nanoTime() - lastWarmUpNanos >= idleIntervalNanos;
+    }
+
+    private void execute(final String task, final ProviderCall<?, ?> call) {
+        final long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            call.call();
+            outcome = "success";
+            logger.debug("Warm-up task {} of provider {} succeeded", task, provider);
+        } catch (Exception e) {
+            logger.warn("Warm-up task {} of provider {} failed, error: {}", task, provider, e.getMessage());
+            logger.debug("Warm-up task {} of provider {} failed", task, provider, e);
+        } finally {
+            record(task, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void record(final String task, final String outcome, final long durationNanos) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer.builder(METRIC_WARM_UP)
+                .description("Duration of background warm-up tasks of the provider client")
+                .tag("provider", provider)
+                .tag("task", task)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@link ProviderClientWarmUp}.
+ */
+@Getter
+@Setter
+public class ProviderClientWarmUpConfiguration {
+
+    /**
+     * Whether the background warm-up is enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * Interval of the background checks. Access tokens are refreshed ahead of expiry with each check.
+     */
+    private Duration checkInterval = Duration.ofSeconds(30);
+
+    /**
+     * Connections are warmed up when there was no call to the provider nor a warm-up within this duration.
+     * The value should be lower than the max idle time of the connection pool to keep a connection open.
+     */
+    private Duration idleInterval = Duration.ofSeconds(60);
+
+}
@@ -20,6 +20,8 @@ package com.wultra.app.onboardingserver.common.configuration;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
+
 /**
  * Common onboarding configuration.
  *
@@ -41,4 +43,114 @@ public class CommonOnboardingConfig {
     @Value("${enrollment-server-onboarding.identity-verification.max-failed-attempts-document-upload:5}")
     private int documentUploadMaxFailedAttempts;
 
+    /**
+     * How long cached activation flags are used before they are fetched from PowerAuth server again.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.activation-flags.cache-ttl:5s}")
+    private Duration activationFlagsCacheTtl;
+
+    /**
+     * Maximum number of activations with cached activation flags.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.activation-flags.cache-max-entries:10000}")
+    private long activationFlagsCacheMaxEntries;
+
+    /**
+     * How the onboarding process is locked when verified by identity verification requests.
+     */
+    @Value("${enrollment-server-onboarding.onboarding-process.lock-mode:PESSIMISTIC}")
+    private ProcessLockMode processLockMode;
+
+    /**
+     * Whether audit records are written by a background writer instead of the request thread.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.enabled:false}")
+    private boolean auditAsyncEnabled;
+
+    /**
+     * Capacity of the buffer of audit records waiting for the background writer.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.buffer-size:8192}")
+    private int auditAsyncBufferSize;
+
+    /**
+     * Number of audit records after which the background writer flushes them to the database.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.batch-size:500}")
+    private int auditAsyncBatchSize;
+
+    /**
+     * Maximum delay of flushing audit records by the background writer.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.flush-interval:1s}")
+    private Duration auditAsyncFlushInterval;
+
+    /**
+     * How long to wait on shutdown for the background writer to flush the buffered audit records.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.shutdown-timeout:10s}")
+    private Duration auditAsyncShutdownTimeout;
+
+    /**
+     * What to do with a new audit record when the buffer is full.
+     */
+    @Value("${enrollment-server-onboarding.audit.async.overflow-policy:BLOCK}")
+    private AuditOverflowPolicy auditAsyncOverflowPolicy;
+
+    /**
+     * Maximum number of outbox messages delivered by a single run of the relay.
+     */
+    @Value("${enrollment-server-onboarding.outbox.batch-size:100}")
+    private int outboxBatchSize;
+
+    /**
+     * Maximum number of delivery attempts of an outbox message before it is moved to the dead-letter state.
+     */
+    @Value("${enrollment-server-onboarding.outbox.max-attempts:10}")
+    private int outboxMaxAttempts;
+
+    /**
+     * Delay before the first retry of a failed outbox message delivery, doubled with each further failed attempt.
+     */
+    @Value("${enrollment-server-onboarding.outbox.initial-backoff:10s}")
+    private Duration outboxInitialBackoff;
+
+    /**
+     * Maximal delay between two delivery attempts of an outbox message.
+     */
+    @Value("${enrollment-server-onboarding.outbox.max-backoff:10m}")
+    private Duration outboxMaxBackoff;
+
+    /**
+     * Lock mode of the onboarding process.
+     */
+    public enum ProcessLockMode {
+
+        /**
+         * Lock the process row until the end of the transaction, concurrent requests wait.
+         */
+        PESSIMISTIC,
+
+        /**
+         * Do not lock the process row, verify its version on commit, concurrent modifications are retried.
+         */
+        OPTIMISTIC
+    }
+
+    /**
+     * Policy applied when the buffer of audit records is full.
+     */
+    public enum AuditOverflowPolicy {
+
+        /**
+         * Wait until the background writer frees space in the buffer.
+         */
+        BLOCK,
+
+        /**
+         * Drop debug level records, wait with the other ones.
+         */
+        DROP_DEBUG
+    }
+
 }
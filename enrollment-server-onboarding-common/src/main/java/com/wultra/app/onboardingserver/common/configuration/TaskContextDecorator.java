@@ -0,0 +1,66 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.configuration;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Decorator propagating the logging context and the current observation of the submitting thread to the task.
+ * The previous logging context of the executing thread is restored when the task finishes.
+ */
+class TaskContextDecorator implements TaskDecorator {
+
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Decorator constructor.
+     *
+     * @param observationRegistry Observation registry.
+     */
+    TaskContextDecorator(final ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+        final Observation observation = observationRegistry.getCurrentObservation();
+        return () -> {
+            final Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            setContext(context);
+            try (Observation.Scope ignored = observation != null ? observation.openScope() : null) {
+                runnable.run();
+            } finally {
+                setContext(previousContext);
+            }
+        };
+    }
+
+    private static void setContext(final Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
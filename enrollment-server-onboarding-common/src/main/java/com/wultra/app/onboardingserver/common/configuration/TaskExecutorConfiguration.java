@@ -0,0 +1,46 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Configuration of the application task executor auto-configured by Spring Boot, used for background tasks,
+ * e.g. concurrent activation status fetches or hedged provider calls.
+ * <p>
+ * The task decorator is applied to the application task executor by Spring Boot. Logging context and the current
+ * observation are propagated to the tasks. The pool is configured by {@code spring.task.execution.*} properties.
+ */
+@Configuration
+public class TaskExecutorConfiguration {
+
+    /**
+     * Prepare the decorator of the application task executor.
+     *
+     * @param observationRegistry Observation registry.
+     * @return Task decorator.
+     */
+    @Bean
+    public TaskDecorator taskContextDecorator(final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new TaskContextDecorator(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
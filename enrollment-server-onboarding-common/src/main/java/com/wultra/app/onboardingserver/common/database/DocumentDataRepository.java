@@ -25,6 +25,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Repository for document data records.
@@ -41,4 +42,38 @@ public interface DocumentDataRepository extends CrudRepository<DocumentDataEntit
     @Query("DELETE FROM DocumentDataEntity d WHERE d.timestampCreated < :dateCleanup")
     int cleanupDocumentData(Date dateCleanup);
 
+    /**
+     * Get count and total size of document data of the given activation created since the given timestamp.
+     *
+     * @param activationId Activation ID.
+     * @param createdAfter Minimal creation timestamp.
+     * @return Document data usage.
+     */
+    @Query("SELECT new com.wultra.app.onboardingserver.common.database.DocumentDataUsage(COUNT(d), COALESCE(SUM(d.dataSize), 0)) " +
+            "FROM DocumentDataEntity d " +
+            "WHERE d.activationId = :activationId AND d.timestampCreated >= :createdAfter")
+    DocumentDataUsage findUsage(String activationId, Date createdAfter);
+
+    /**
+     * Get count and total size of all document data.
+     *
+     * @return Document data usage.
+     */
+    @Query("SELECT new com.wultra.app.onboardingserver.common.database.DocumentDataUsage(COUNT(d), COALESCE(SUM(d.dataSize), 0)) " +
+            "FROM DocumentDataEntity d")
+    DocumentDataUsage findTotalUsage();
+
+    /**
+     * Find IDs of document data of the given activation with the given hash created since the given timestamp.
+     *
+     * @param activationId Activation ID.
+     * @param dataHash Hash of the document data.
+     * @param createdAfter Minimal creation timestamp.
+     * @return Document data IDs, the newest first.
+     */
+    @Query("SELECT d.id FROM DocumentDataEntity d " +
+            "WHERE d.activationId = :activationId AND d.dataHash = :dataHash AND d.timestampCreated >= :createdAfter " +
+            "ORDER BY d.timestampCreated DESC")
+    List<String> findIdsByDataHash(String activationId, String dataHash, Date createdAfter);
+
 }
@@ -53,18 +53,77 @@ public interface DocumentVerificationRepository extends JpaRepository<DocumentVe
             "AND d.status IN :statuses")
     List<String> findExpiredVerifications(Date cleanupDate, List<DocumentStatus> statuses);
 
-    @Modifying
-    @Query("UPDATE DocumentVerificationEntity d " +
-            "SET d.otherSideId = :otherSideId " +
-            "WHERE d.id = :id")
-    int setOtherDocumentSide(String id, String otherSideId);
-
     @Query("SELECT d " +
             "FROM DocumentVerificationEntity d " +
             "WHERE d.identityVerification = :identityVerification " +
             "AND d.status IN :statuses")
     List<DocumentVerificationEntity> findAllDocumentVerifications(IdentityVerificationEntity identityVerification, List<DocumentStatus> statuses);
 
+    /**
+     * Find document verifications of the given identity verification in the given statuses with any of the given data hashes,
+     * which are not part of a verification in the document verification provider yet. The newest document verifications are first.
+     *
+     * @param identityVerification Identity verification.
+     * @param dataHashes Hashes of the document data.
+     * @param statuses Document statuses.
+     * @return Document verifications.
+     */
+    @Query("SELECT d " +
+            "FROM DocumentVerificationEntity d " +
+            "WHERE d.identityVerification = :identityVerification " +
+            "AND d.dataHash IN :dataHashes " +
+            "AND d.status IN :statuses " +
+            "AND d.verificationId IS NULL " +
+            "ORDER BY d.timestampCreated DESC")
+    List<DocumentVerificationEntity> findUnverifiedByDataHashes(IdentityVerificationEntity identityVerification, Collection<String> dataHashes, Collection<DocumentStatus> statuses);
+
+    /**
+     * Count document verifications of the given identity verification in the given statuses.
+     *
+     * @param identityVerification Identity verification.
+     * @param statuses Document statuses.
+     * @return Count of document verifications.
+     */
+    @Query("SELECT COUNT(d) " +
+            "FROM DocumentVerificationEntity d " +
+            "WHERE d.identityVerification = :identityVerification " +
+            "AND d.status IN :statuses")
+    int countDocumentVerifications(IdentityVerificationEntity identityVerification, List<DocumentStatus> statuses);
+
+    /**
+     * Find status of the newest identity verification of the given activation together with its documents used for verification,
+     * ordered by the creation timestamp. A single projection with {@code null} document fields is returned when there is no such document.
+     *
+     * @param activationId Activation ID.
+     * @return Document status projections, empty when there is no identity verification.
+     */
+    @Query("SELECT new com.wultra.app.onboardingserver.common.database.DocumentStatusProjection(" +
+            "i.id, i.status, d.id, d.activationId, d.type, d.side, d.status, d.filename, d.errorDetail, d.rejectReason) " +
+            "FROM IdentityVerificationEntity i " +
+            "LEFT JOIN DocumentVerificationEntity d ON d.identityVerification = i AND d.usedForVerification = true " +
+            "WHERE i.activationId = :activationId " +
+            "AND i.timestampCreated = (SELECT MAX(i2.timestampCreated) FROM IdentityVerificationEntity i2 WHERE i2.activationId = :activationId) " +
+            "ORDER BY i.id, d.timestampCreated")
+    List<DocumentStatusProjection> findDocumentStatuses(String activationId);
+
+    /**
+     * Find status of the newest identity verification of the given activation together with the documents of the given IDs,
+     * ordered by the creation timestamp. The documents are not restricted to the activation, callers are expected to check it.
+     * A single projection with {@code null} document fields is returned when there is no such document.
+     *
+     * @param activationId Activation ID.
+     * @param documentIds Document verification IDs.
+     * @return Document status projections, empty when there is no identity verification.
+     */
+    @Query("SELECT new com.wultra.app.onboardingserver.common.database.DocumentStatusProjection(" +
+            "i.id, i.status, d.id, d.activationId, d.type, d.side, d.status, d.filename, d.errorDetail, d.rejectReason) " +
+            "FROM IdentityVerificationEntity i " +
+            "LEFT JOIN DocumentVerificationEntity d ON d.id IN :documentIds " +
+            "WHERE i.activationId = :activationId " +
+            "AND i.timestampCreated = (SELECT MAX(i2.timestampCreated) FROM IdentityVerificationEntity i2 WHERE i2.activationId = :activationId) " +
+            "ORDER BY i.id, d.timestampCreated")
+    List<DocumentStatusProjection> findDocumentStatuses(String activationId, Collection<String> documentIds);
+
     @Query("SELECT d " +
             "FROM DocumentVerificationEntity d " +
             "WHERE d.identityVerification = :identityVerification " +
@@ -100,6 +159,19 @@ public interface DocumentVerificationRepository extends JpaRepository<DocumentVe
             "AND d.status IN :statuses")
     List<String> findDocumentVerifications(Collection<String> identityVerificationIds, Collection<DocumentStatus> statuses);
 
+    /**
+     * Return IDs of document verifications left in {@code UPLOAD_IN_PROGRESS} without any submit result,
+     * i.e. the submission to the provider was interrupted before its result was stored.
+     *
+     * @param createdBefore timestamp of creation to be older than
+     * @return document verification IDs
+     */
+    @Query("SELECT d.id FROM DocumentVerificationEntity d " +
+            "WHERE d.timestampCreated < :createdBefore " +
+            "AND d.status = com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus.UPLOAD_IN_PROGRESS " +
+            "AND NOT EXISTS (SELECT r.id FROM DocumentResultEntity r WHERE r.documentVerification = d)")
+    List<String> findInterruptedSubmits(Date createdBefore);
+
     /**
      * Mark the given document verifications as failed.
      *
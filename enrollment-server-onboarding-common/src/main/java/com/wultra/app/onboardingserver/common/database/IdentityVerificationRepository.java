@@ -18,8 +18,11 @@
 
 package com.wultra.app.onboardingserver.common.database;
 
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -41,8 +44,26 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
 
     Optional<IdentityVerificationEntity> findFirstByActivationIdOrderByTimestampCreatedDesc(String activationId);
 
+    /**
+     * Find identity verification by ID and lock it for update.
+     *
+     * @param id Identity verification ID.
+     * @return Identity verification.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM IdentityVerificationEntity i WHERE i.id = :id")
+    Optional<IdentityVerificationEntity> findByIdWithLock(String id);
+
     List<IdentityVerificationEntity> findByActivationIdOrderByTimestampCreatedDesc(String activationId);
 
+    /**
+     * Count identity verifications of the given activation.
+     *
+     * @param activationId Activation ID.
+     * @return Count of identity verifications.
+     */
+    int countByActivationId(String activationId);
+
     /**
      * @return All identity verification entities with in progress verification of uploaded documents
      */
@@ -55,7 +76,10 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
     /**
      * Return all identity verifications eligible for change to next state.
      *
+     * Client evaluations waiting for a retry are included only when the next attempt is due.
+     *
      * @param documentVerificationProvider Document verification production name.
+     * @param now Current timestamp.
      * @return identity verifications
      */
     @Query("""
@@ -72,7 +96,8 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
                    OR (id.phase = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.DOCUMENT_VERIFICATION_FINAL
                     AND id.status = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.ACCEPTED)
                    OR (id.phase = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.CLIENT_EVALUATION
-                    AND id.status = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.IN_PROGRESS)
+                    AND id.status = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.IN_PROGRESS
+                    AND (id.timestampNextAttempt IS NULL OR id.timestampNextAttempt <= :now))
                    OR (id.phase = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.CLIENT_EVALUATION
                     AND id.status = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.ACCEPTED)
                    OR (id.phase = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.PRESENCE_CHECK
@@ -84,7 +109,7 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
                    )
             """
     )
-    Stream<IdentityVerificationEntity> streamAllIdentityVerificationsToChangeState(final String documentVerificationProvider);
+    Stream<IdentityVerificationEntity> streamAllIdentityVerificationsToChangeState(final String documentVerificationProvider, final Date now);
 
     /**
      * Return identity verification IDs by the given process ID. Include only not yet finished entities.
@@ -118,7 +143,7 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
      * @param errorOrigin error origin
      */
     @Modifying
-    @Query("UPDATE IdentityVerificationEntity i SET " +
+    @Query("UPDATE VERSIONED IdentityVerificationEntity i SET " +
             "i.phase = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.COMPLETED, " +
             "i.status = com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.FAILED, " +
             "i.timestampLastUpdated = :timestampExpired, " +
@@ -127,4 +152,28 @@ public interface IdentityVerificationRepository extends CrudRepository<IdentityV
             "i.errorOrigin = :errorOrigin " +
             "WHERE i.id IN :ids")
     void terminate(Collection<String> ids, Date timestampExpired, String errorDetail, ErrorOrigin errorOrigin);
+
+    /**
+     * Find everything needed for the precomplete evaluation of the given identity verification by a single query:
+     * its documents in the given statuses, statuses of the newest user verification and activation OTPs of the process
+     * and the latest SCA result. A single projection with {@code null} document fields is returned when there is no such document.
+     *
+     * @param identityVerificationId Identity verification ID.
+     * @param statuses Document statuses.
+     * @return Precomplete projections, empty when there is no identity verification.
+     */
+    @Query("SELECT new com.wultra.app.onboardingserver.common.database.PrecompleteProjection(d.id, d.type, d.side, d.status, " +
+            "(SELECT o.status FROM OnboardingOtpEntity o WHERE o.process.id = i.processId " +
+            "AND o.type = com.wultra.app.enrollmentserver.model.enumeration.OtpType.USER_VERIFICATION " +
+            "ORDER BY o.timestampCreated DESC LIMIT 1), " +
+            "(SELECT o.status FROM OnboardingOtpEntity o WHERE o.process.id = i.processId " +
+            "AND o.type = com.wultra.app.enrollmentserver.model.enumeration.OtpType.ACTIVATION " +
+            "ORDER BY o.timestampCreated DESC LIMIT 1), " +
+            "(SELECT s.scaResult FROM ScaResultEntity s WHERE s.identityVerification = i " +
+            "ORDER BY s.timestampCreated DESC LIMIT 1)) " +
+            "FROM IdentityVerificationEntity i " +
+            "LEFT JOIN DocumentVerificationEntity d ON d.identityVerification = i AND d.status IN :statuses " +
+            "WHERE i.id = :identityVerificationId " +
+            "ORDER BY d.timestampCreated")
+    List<PrecompleteProjection> findPrecompleteProjections(String identityVerificationId, Collection<DocumentStatus> statuses);
 }
@@ -0,0 +1,77 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.onboardingserver.common.database.entity.LimitCounterEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository for {@link LimitCounterEntity}.
+ */
+@Repository
+public interface LimitCounterRepository extends CrudRepository<LimitCounterEntity, String> {
+
+    /**
+     * Atomically increment the counter. The counter is moved to the given window when its window is older,
+     * the count of the current window becomes the previous count when the windows follow each other.
+     *
+     * @param counterKey Counter key.
+     * @param windowStart Start of the current window.
+     * @param previousWindowStart Start of the previous window.
+     * @param timestampExpiration Expiration of the counter moved to the current window.
+     * @return Count of updated rows, zero when the counter does not exist.
+     */
+    @Modifying
+    @Query("UPDATE LimitCounterEntity c SET " +
+            "c.previousCount = CASE WHEN c.windowStart >= :windowStart THEN c.previousCount " +
+            "WHEN c.windowStart = :previousWindowStart THEN c.currentCount ELSE 0 END, " +
+            "c.currentCount = CASE WHEN c.windowStart >= :windowStart THEN c.currentCount + 1 ELSE 1 END, " +
+            "c.timestampExpiration = CASE WHEN c.windowStart >= :windowStart THEN c.timestampExpiration ELSE :timestampExpiration END, " +
+            "c.windowStart = CASE WHEN c.windowStart >= :windowStart THEN c.windowStart ELSE :windowStart END " +
+            "WHERE c.counterKey = :counterKey")
+    int increment(String counterKey, Date windowStart, Date previousWindowStart, Date timestampExpiration);
+
+    /**
+     * Insert a new counter with the count of one. Unlike {@link #save(Object)} merging the entity with an assigned ID,
+     * the insert fails with a constraint violation when the counter has been created concurrently.
+     *
+     * @param counterKey Counter key.
+     * @param windowStart Start of the current window.
+     * @param timestampExpiration Expiration of the counter.
+     * @return Count of inserted rows.
+     */
+    @Modifying
+    @Query("INSERT INTO LimitCounterEntity (counterKey, windowStart, currentCount, previousCount, timestampExpiration) " +
+            "VALUES (:counterKey, :windowStart, 1, 0, :timestampExpiration)")
+    int create(String counterKey, Date windowStart, Date timestampExpiration);
+
+    /**
+     * Delete counters expired before the given timestamp.
+     *
+     * @param timestamp Timestamp.
+     * @return Count of deleted counters.
+     */
+    @Modifying
+    @Query("DELETE FROM LimitCounterEntity c WHERE c.timestampExpiration < :timestamp")
+    int deleteExpired(Date timestamp);
+}
@@ -19,9 +19,7 @@
 package com.wultra.app.onboardingserver.common.database;
 
 import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
-import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
-import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -40,8 +38,16 @@ import java.util.Optional;
 @Repository
 public interface OnboardingOtpRepository extends CrudRepository<OnboardingOtpEntity, String> {
 
-    @Query("SELECT o FROM OnboardingOtpEntity o WHERE o.process.id = :processId AND o.type = :type AND o.timestampCreated = " +
-            "(SELECT MAX(o2.timestampCreated) FROM OnboardingOtpEntity o2 WHERE o2.process.id = :processId AND o2.type = :type)")
+    /**
+     * Return the newest OTP of the given process and type, fetched together with its process and identity verification.
+     *
+     * @param processId process ID
+     * @param type OTP type
+     * @return the newest OTP
+     */
+    @Query("SELECT o FROM OnboardingOtpEntity o JOIN FETCH o.process LEFT JOIN FETCH o.identityVerification " +
+            "WHERE o.process.id = :processId AND o.type = :type " +
+            "ORDER BY o.timestampCreated DESC LIMIT 1")
     Optional<OnboardingOtpEntity> findNewestByProcessIdAndType(String processId, OtpType type);
 
     /**
@@ -71,30 +77,6 @@ public interface OnboardingOtpRepository extends CrudRepository<OnboardingOtpEnt
             "WHERE o.id IN :ids")
     void terminate(Collection<String> ids, Date timestampExpired);
 
-    /**
-     * Count failed OTP attempts of the given process and OTP type not used for identity verification.
-     *
-     * @param process process
-     * @param type OTP type
-     * @return failed attempts count
-     * @see #countFailedAttempts(OnboardingProcessEntity, OtpType, IdentityVerificationEntity)
-     */
-    @Query("SELECT SUM(o.failedAttempts) FROM OnboardingOtpEntity o " +
-            "WHERE o.process = :process AND o.identityVerification is null AND o.type = :type")
-    int countFailedAttempts(OnboardingProcessEntity process, OtpType type);
-
-    /**
-     * Count failed OTP attempts of the given process, OTP type and identity verification.
-     *
-     * @param process process
-     * @param type OTP type
-     * @return failed attempts count
-     * @see #countFailedAttempts(OnboardingProcessEntity, OtpType)
-     */
-    @Query("SELECT SUM(o.failedAttempts) FROM OnboardingOtpEntity o " +
-            "WHERE o.process = :process AND o.identityVerification = :identityVerification AND o.type = :type")
-    int countFailedAttempts(OnboardingProcessEntity process, OtpType type, IdentityVerificationEntity identityVerification);
-
     @Query("SELECT MAX(o.timestampCreated) FROM OnboardingOtpEntity o WHERE o.process.id = :processId AND o.type = :type")
     Date getNewestOtpCreatedTimestamp(String processId, OtpType type);
 
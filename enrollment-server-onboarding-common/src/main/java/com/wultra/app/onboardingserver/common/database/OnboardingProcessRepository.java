@@ -92,6 +92,20 @@ public interface OnboardingProcessRepository extends CrudRepository<OnboardingPr
             "AND p.activationId = :activationId")
     Optional<OnboardingProcessEntity> findByActivationIdAndStatusWithLock(String activationId, OnboardingStatus status);
 
+    /**
+     * Find an existing process by activation identifier and process status. The process is not locked, its version
+     * is verified at the end of the transaction and {@link jakarta.persistence.OptimisticLockException} is thrown
+     * when the process has been modified concurrently.
+     *
+     * @param activationId Activation identifier.
+     * @param status Onboarding process status.
+     * @return Optional onboarding process.
+     */
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("SELECT p FROM OnboardingProcessEntity p WHERE p.status = :status " +
+            "AND p.activationId = :activationId")
+    Optional<OnboardingProcessEntity> findByActivationIdAndStatusWithOptimisticLock(String activationId, OnboardingStatus status);
+
     /**
      * Find process by activation identifier. Do not lock the process.
      *
@@ -103,16 +117,6 @@ public interface OnboardingProcessRepository extends CrudRepository<OnboardingPr
             "ORDER BY p.timestampCreated DESC")
     Optional<OnboardingProcessEntity> findByActivationId(String activationId);
 
-    /**
-     * Count onboarding processes for user with timestamp created after given timestamp.
-     *
-     * @param userId User identifier.
-     * @param dateAfter Timestamp for comparison.
-     * @return Count of onboarding processes satisfying query criteria.
-     */
-    @Query("SELECT count(p) FROM OnboardingProcessEntity p WHERE p.userId = :userId AND p.timestampCreated > :dateAfter")
-    int countByUserIdAndTimestamp(String userId, Date dateAfter);
-
     /**
      * Return onboarding process IDs by the given timestamp and status. Lock these processes using PESSIMISTIC_WRITE
      * lock until the end of the transaction.
@@ -163,7 +167,7 @@ public interface OnboardingProcessRepository extends CrudRepository<OnboardingPr
      * @param errorOrigin error origin
      */
     @Modifying
-    @Query("UPDATE OnboardingProcessEntity p SET " +
+    @Query("UPDATE VERSIONED OnboardingProcessEntity p SET " +
             "p.status = com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus.FAILED, " +
             "p.timestampLastUpdated = :timestampExpired, " +
             "p.timestampFailed = :timestampExpired, " +
@@ -0,0 +1,60 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.onboardingserver.common.database.entity.OutboxEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for {@link OutboxEntity}.
+ */
+@Repository
+public interface OutboxRepository extends CrudRepository<OutboxEntity, Long> {
+
+    /**
+     * Return pending messages due for delivery. A message is returned only when no older message of the same key
+     * remains, so that messages with the same key are delivered in the order of creation. Delivered messages are
+     * deleted, so a dead message blocks the following messages of its key until it is removed or set pending again.
+     *
+     * @param now Current timestamp.
+     * @param limit Maximum number of messages.
+     * @return Messages to deliver.
+     */
+    @Query("SELECT o FROM OutboxEntity o " +
+            "WHERE o.status = com.wultra.app.onboardingserver.common.database.entity.OutboxEntity.Status.PENDING " +
+            "AND o.timestampNextAttempt <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM OutboxEntity p " +
+            "    WHERE p.messageKey = o.messageKey " +
+            "    AND (p.timestampCreated < o.timestampCreated OR (p.timestampCreated = o.timestampCreated AND p.id < o.id))) " +
+            "ORDER BY o.timestampCreated, o.id")
+    List<OutboxEntity> findDeliverable(Date now, Limit limit);
+
+    /**
+     * Count messages in the given status.
+     *
+     * @param status Message status.
+     * @return Count of messages.
+     */
+    long countByStatus(OutboxEntity.Status status);
+}
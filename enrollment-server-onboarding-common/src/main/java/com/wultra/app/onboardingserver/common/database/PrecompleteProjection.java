@@ -0,0 +1,58 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.enrollmentserver.model.enumeration.OtpStatus;
+import com.wultra.app.onboardingserver.common.database.entity.ScaResultEntity;
+
+/**
+ * Read-only projection of a document verification together with the newest OTP statuses and the latest SCA result
+ * of the identity verification, contains only the fields needed for the precomplete evaluation.
+ * <p>
+ * Document fields are {@code null} when the identity verification has no matching document.
+ * OTP statuses and SCA result are {@code null} when there is no such record, they are the same in all projections of one identity verification.
+ *
+ * @param documentId Document verification ID.
+ * @param type Document type.
+ * @param side Card side.
+ * @param status Document status.
+ * @param userVerificationOtpStatus Status of the newest user verification OTP.
+ * @param activationOtpStatus Status of the newest activation OTP.
+ * @param scaResult Latest SCA result.
+ */
+public record PrecompleteProjection(
+        String documentId,
+        DocumentType type,
+        CardSide side,
+        DocumentStatus status,
+        OtpStatus userVerificationOtpStatus,
+        OtpStatus activationOtpStatus,
+        ScaResultEntity.Result scaResult) {
+
+    /**
+     * Whether the projection contains a document.
+     *
+     * @return {@code true} when a document is present.
+     */
+    public boolean hasDocument() {
+        return documentId != null;
+    }
+}
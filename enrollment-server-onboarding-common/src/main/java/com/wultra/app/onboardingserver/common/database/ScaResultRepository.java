@@ -33,14 +33,6 @@ import java.util.Optional;
 @Repository
 public interface ScaResultRepository extends CrudRepository<ScaResultEntity, Long> {
 
-    /**
-     * Count SCA attempts for the given identity verification.
-     *
-     * @param identityVerification Identity verification to identify SCA attempts.
-     * @return count of SCA attempts
-     */
-    int countByIdentityVerification(IdentityVerificationEntity identityVerification);
-
     /**
      * Find the latest SCA attempt.
      *
@@ -23,6 +23,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UuidGenerator;
 
@@ -69,6 +70,19 @@ public class DocumentDataEntity implements Serializable {
     @Column(name = "data", nullable = false)
     private byte[] data;
 
+    /**
+     * Size of {@link #data} in bytes.
+     */
+    @Column(name = "data_size", nullable = false)
+    @ColumnDefault("0")
+    private long dataSize;
+
+    /**
+     * Hex encoded SHA-256 hash of {@link #data}.
+     */
+    @Column(name = "data_hash")
+    private String dataHash;
+
     @Column(name = "timestamp_created", nullable = false)
     private Date timestampCreated;
 
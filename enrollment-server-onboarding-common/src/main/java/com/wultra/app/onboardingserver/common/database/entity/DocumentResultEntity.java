@@ -21,11 +21,13 @@ package com.wultra.app.onboardingserver.common.database.entity;
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentProcessingPhase;
 import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.RejectOrigin;
+import com.wultra.app.onboardingserver.common.database.type.JsonStringJdbcType;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcType;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -88,6 +90,7 @@ public class DocumentResultEntity implements Serializable {
      * JSON serialized document with the verification result
      */
     @Column(name = "verification_result")
+    @JdbcType(JsonStringJdbcType.class)
     private String verificationResult;
 
     /**
@@ -104,6 +107,7 @@ public class DocumentResultEntity implements Serializable {
      * JSON serialized data extracted from the uploaded document
      */
     @Column(name = "extracted_data")
+    @JdbcType(JsonStringJdbcType.class)
     private String extractedData;
 
     /**
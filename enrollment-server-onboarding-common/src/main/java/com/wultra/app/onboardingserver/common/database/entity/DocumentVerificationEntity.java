@@ -129,6 +129,12 @@ public class DocumentVerificationEntity implements Serializable {
     @Column(name = "photo_id")
     private String photoId;
 
+    /**
+     * Hex encoded SHA-256 hash of the submitted document data
+     */
+    @Column(name = "data_hash")
+    private String dataHash;
+
     /**
      * Overall score achieved during document verification and fraud detection (0 - 100)
      */
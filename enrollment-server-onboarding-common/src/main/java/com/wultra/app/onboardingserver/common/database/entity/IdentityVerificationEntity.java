@@ -22,12 +22,18 @@ import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase;
 import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.RejectOrigin;
+import com.wultra.app.enrollmentserver.model.integration.SessionInfo;
+import com.wultra.app.onboardingserver.common.database.type.JsonStringJdbcType;
+import com.wultra.app.onboardingserver.common.json.JsonView;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcType;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serial;
@@ -98,6 +104,7 @@ public class IdentityVerificationEntity implements Serializable {
     private ErrorOrigin errorOrigin;
 
     @Column(name = "session_info")
+    @JdbcType(JsonStringJdbcType.class)
     private String sessionInfo;
 
     @Column(name = "timestamp_created", nullable = false)
@@ -112,10 +119,53 @@ public class IdentityVerificationEntity implements Serializable {
     @Column(name = "timestamp_failed")
     private Date timestampFailed;
 
+    /**
+     * Count of failed client evaluation attempts.
+     */
+    @Column(name = "client_evaluation_attempts", nullable = false)
+    @ColumnDefault("0")
+    private int clientEvaluationAttempts;
+
+    /**
+     * Timestamp when the next attempt of the current step may be executed, {@code null} when due immediately.
+     */
+    @Column(name = "timestamp_next_attempt")
+    private Date timestampNextAttempt;
+
+    /**
+     * Count of failed attempts of user verification OTP codes of the identity verification.
+     */
+    @Column(name = "otp_failed_attempts", nullable = false)
+    @ColumnDefault("0")
+    private int otpFailedAttempts;
+
+    /**
+     * Count of SCA attempts of the identity verification, incremented with each {@link ScaResultEntity} created.
+     */
+    @Column(name = "sca_attempts", nullable = false)
+    @ColumnDefault("0")
+    private int scaAttempts;
+
+    /**
+     * Version for optimistic concurrency control, incremented on each update.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @OneToMany(mappedBy = "identityVerification", cascade = CascadeType.ALL)
     @OrderBy("timestampCreated")
     private Set<DocumentVerificationEntity> documentVerifications = new LinkedHashSet<>();
 
+    /**
+     * Parsed view of {@link #sessionInfo}.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient JsonView<SessionInfo> sessionInfoView;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -128,6 +178,18 @@ public class IdentityVerificationEntity implements Serializable {
         return Objects.hash(activationId, timestampCreated);
     }
 
+    /**
+     * Return parsed view of {@link #sessionInfo}. The view is shared, callers must write changes back to {@link #sessionInfo}.
+     *
+     * @return session info view
+     */
+    public JsonView<SessionInfo> sessionInfoView() {
+        if (sessionInfoView == null) {
+            sessionInfoView = new JsonView<>();
+        }
+        return sessionInfoView;
+    }
+
     /**
      * Checks if the presence check was initialized or not
      * <p>
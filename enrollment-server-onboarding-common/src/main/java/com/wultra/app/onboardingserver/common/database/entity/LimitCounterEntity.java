@@ -0,0 +1,90 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Entity representing a sliding window limit counter.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Entity
+@Table(name = "es_limit_counter")
+public class LimitCounterEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2930166374451367329L;
+
+    /**
+     * Counter key, e.g. limit name and user ID.
+     */
+    @Id
+    @Column(name = "counter_key", nullable = false)
+    private String counterKey;
+
+    /**
+     * Start of the current fixed window.
+     */
+    @Column(name = "window_start", nullable = false)
+    private Date windowStart;
+
+    /**
+     * Count of events within the current fixed window.
+     */
+    @Column(name = "current_count", nullable = false)
+    private long currentCount;
+
+    /**
+     * Count of events within the previous fixed window.
+     */
+    @Column(name = "previous_count", nullable = false)
+    private long previousCount;
+
+    /**
+     * Timestamp since which the counter may be removed.
+     */
+    @Column(name = "timestamp_expiration", nullable = false)
+    private Date timestampExpiration;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof final LimitCounterEntity that)) return false;
+        return counterKey.equals(that.counterKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(counterKey);
+    }
+}
@@ -20,17 +20,23 @@ package com.wultra.app.onboardingserver.common.database.entity;
 
 import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
+import com.wultra.app.onboardingserver.common.database.type.JsonStringJdbcType;
+import com.wultra.app.onboardingserver.common.json.JsonView;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcType;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -72,12 +78,14 @@ public class OnboardingProcessEntity implements Serializable {
      * Json with custom data such as preferred locale.
      */
     @Column(name = "custom_data", nullable = false)
+    @JdbcType(JsonStringJdbcType.class)
     private String customData = "{}";
 
     /**
      * Optional Json with fraud detection system data, vendor specific format.
      */
     @Column(name = "fds_data")
+    @JdbcType(JsonStringJdbcType.class)
     private String fdsData;
 
     @Column(name = "user_id")
@@ -107,6 +115,21 @@ public class OnboardingProcessEntity implements Serializable {
     @Column(name = "error_score")
     private int errorScore;
 
+    /**
+     * Count of failed attempts of activation OTP codes of the process.
+     */
+    @Column(name = "otp_failed_attempts", nullable = false)
+    @ColumnDefault("0")
+    private int otpFailedAttempts;
+
+    /**
+     * Version for optimistic concurrency control, incremented on each update.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @Column(name = "timestamp_created", nullable = false)
     private Date timestampCreated;
 
@@ -124,6 +147,15 @@ public class OnboardingProcessEntity implements Serializable {
     @ToString.Exclude
     private Set<OnboardingOtpEntity> otps = new LinkedHashSet<>();
 
+    /**
+     * Parsed view of {@link #customData}, see {@link OnboardingProcessEntityWrapper}.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient JsonView<Map<String, Object>> customDataView;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -135,5 +167,12 @@ public class OnboardingProcessEntity implements Serializable {
     public int hashCode() {
         return Objects.hash(identificationData, timestampCreated);
     }
+
+    JsonView<Map<String, Object>> customDataView() {
+        if (customDataView == null) {
+            customDataView = new JsonView<>();
+        }
+        return customDataView;
+    }
 }
 
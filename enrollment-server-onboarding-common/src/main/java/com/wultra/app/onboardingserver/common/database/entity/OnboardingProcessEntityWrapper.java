@@ -20,15 +20,16 @@ package com.wultra.app.onboardingserver.common.database.entity;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wultra.app.onboardingserver.common.json.JsonCodec;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Collections;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Wrapper for {@link OnboardingProcessEntity}.
+ * <p>
+ * The {@code customData} are parsed once and the parsed view is kept with the entity, so it is shared by all wrappers
+ * of the same entity instance. The JSON is written back only when a value has changed.
  *
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
@@ -44,9 +45,9 @@ public final class OnboardingProcessEntityWrapper {
 
     private static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
 
-    private final OnboardingProcessEntity entity;
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT_TYPE = new TypeReference<>() {};
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final OnboardingProcessEntity entity;
 
     public OnboardingProcessEntityWrapper(final OnboardingProcessEntity entity) {
         this.entity = entity;
@@ -126,7 +127,7 @@ public final class OnboardingProcessEntityWrapper {
             if (fdsData == null) {
                 return null;
             }
-            return mapper.readValue(fdsData, new TypeReference<>() {});
+            return JsonCodec.read(fdsData, JSON_OBJECT_TYPE);
         } catch (JsonProcessingException e) {
             logger.warn("Problem to parse fds_data of process ID: {}", entity.getId(), e);
             return null;
@@ -144,7 +145,7 @@ public final class OnboardingProcessEntityWrapper {
                 entity.setFdsData(null);
             } else {
                 logger.debug("Setting fds_data: {} of process ID: {}", fdsData, entity.getId());
-                entity.setFdsData(mapper.writeValueAsString(fdsData));
+                entity.setFdsData(JsonCodec.write(fdsData));
             }
         } catch (JsonProcessingException e) {
             logger.warn("Problem to parse fds_data of process ID: {}", entity.getId(), e);
@@ -155,8 +156,15 @@ public final class OnboardingProcessEntityWrapper {
         try {
             logger.debug("Setting {} to custom_data: {} of process ID: {}", key, entity.getCustomData(), entity.getId());
             final Map<String, Object> json = readCustomData();
-            json.put(key, value);
-            entity.setCustomData(mapper.writeValueAsString(json));
+            if (json.containsKey(key) && Objects.equals(json.get(key), value)) {
+                logger.debug("Value of {} not changed in custom_data of process ID: {}", key, entity.getId());
+                return;
+            }
+            final Map<String, Object> updated = new LinkedHashMap<>(json);
+            updated.put(key, value);
+            final String customData = JsonCodec.write(updated);
+            entity.setCustomData(customData);
+            entity.customDataView().set(customData, Collections.unmodifiableMap(updated));
         } catch (JsonProcessingException e) {
             logger.warn("Problem to parse custom_data of process ID: {}", entity.getId(), e);
         }
@@ -174,11 +182,13 @@ public final class OnboardingProcessEntityWrapper {
     }
 
     private Map<String, Object> readCustomData() throws JsonProcessingException {
-        final Map<String, Object> value = mapper.readValue(entity.getCustomData(), new TypeReference<>() {});
-        if (value == null) {
-            logger.warn("Read null value from custom_data: {} of process ID: {} ", entity.getCustomData(), entity.getId());
-            return Collections.emptyMap();
-        }
-        return value;
+        return entity.customDataView().get(entity.getCustomData(), customData -> {
+            final Map<String, Object> value = JsonCodec.read(customData, JSON_OBJECT_TYPE);
+            if (value == null) {
+                logger.warn("Read null value from custom_data: {} of process ID: {} ", customData, entity.getId());
+                return Collections.emptyMap();
+            }
+            return Collections.unmodifiableMap(value);
+        });
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Message waiting in the transactional outbox for delivery to an external system.
+ * The message is written in the same transaction as the business change and deleted once delivered.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "es_outbox")
+@ToString(exclude = "payload")
+@EqualsAndHashCode(of = "id")
+public class OutboxEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4184302766217893115L;
+
+    /**
+     * Autogenerated identifier
+     */
+    @Id
+    @SequenceGenerator(name = "es_outbox", sequenceName = "es_outbox_seq")
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "es_outbox")
+    private Long id;
+
+    /**
+     * Messages with the same key, e.g. process ID, are delivered in the order of creation.
+     */
+    @Column(name = "message_key", nullable = false)
+    private String messageKey;
+
+    /**
+     * Type of the message determining its handler.
+     */
+    @Column(name = "message_type", nullable = false)
+    private String messageType;
+
+    /**
+     * Message payload in JSON.
+     */
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    /**
+     * Count of failed delivery attempts.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Error of the last failed delivery attempt.
+     */
+    @Column(name = "error_detail")
+    private String errorDetail;
+
+    @Column(name = "timestamp_created", nullable = false)
+    private Date timestampCreated;
+
+    /**
+     * Timestamp since which the message may be delivered.
+     */
+    @Column(name = "timestamp_next_attempt", nullable = false)
+    private Date timestampNextAttempt;
+
+    public enum Status {
+
+        /**
+         * Waiting for delivery.
+         */
+        PENDING,
+
+        /**
+         * Delivery failed permanently, the message is kept for investigation and does not block messages with the same key.
+         */
+        DEAD
+    }
+}
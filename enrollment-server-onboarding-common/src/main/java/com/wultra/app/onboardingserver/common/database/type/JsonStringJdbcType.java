@@ -0,0 +1,91 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database.type;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.descriptor.jdbc.BasicBinder;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+import org.hibernate.type.descriptor.jdbc.VarcharJdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * JDBC type of string attributes holding JSON.
+ * <p>
+ * On PostgreSQL, the value is bound with an unspecified type so that the database casts it to the type of the column.
+ * The same mapping works for both {@code text} and {@code jsonb} columns, the conversion of the columns to {@code jsonb}
+ * is optional. Other databases bind the value as a plain string.
+ */
+public class JsonStringJdbcType extends VarcharJdbcType {
+
+    @Override
+    public String getFriendlyName() {
+        return "JSON_STRING";
+    }
+
+    @Override
+    public JdbcType resolveIndicatedType(final JdbcTypeIndicators indicators, final JavaType<?> domainJtd) {
+        return this;
+    }
+
+    @Override
+    public <X> ValueBinder<X> getBinder(final JavaType<X> javaType) {
+        return new BasicBinder<>(javaType, this) {
+            @Override
+            protected void doBind(final PreparedStatement st, final X value, final int index, final WrapperOptions options) throws SQLException {
+                final String json = javaType.unwrap(value, String.class, options);
+                if (isPostgreSql(options)) {
+                    st.setObject(index, json, Types.OTHER);
+                } else {
+                    st.setString(index, json);
+                }
+            }
+
+            @Override
+            protected void doBind(final CallableStatement st, final X value, final String name, final WrapperOptions options) throws SQLException {
+                final String json = javaType.unwrap(value, String.class, options);
+                if (isPostgreSql(options)) {
+                    st.setObject(name, json, Types.OTHER);
+                } else {
+                    st.setString(name, json);
+                }
+            }
+
+            @Override
+            protected void doBindNull(final PreparedStatement st, final int index, final WrapperOptions options) throws SQLException {
+                st.setNull(index, isPostgreSql(options) ? Types.OTHER : Types.VARCHAR);
+            }
+
+            @Override
+            protected void doBindNull(final CallableStatement st, final String name, final WrapperOptions options) throws SQLException {
+                st.setNull(name, isPostgreSql(options) ? Types.OTHER : Types.VARCHAR);
+            }
+        };
+    }
+
+    private static boolean isPostgreSql(final WrapperOptions options) {
+        return options.getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared JSON codec for values stored in JSON columns.
+ * <p>
+ * The codec holds a single pre-configured {@link ObjectMapper} and caches an {@link ObjectReader} and
+ * {@link ObjectWriter} per target type, so hot paths do not construct mappers nor resolve (de)serializers repeatedly.
+ * Readers and writers are immutable and thread-safe.
+ */
+public final class JsonCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private JsonCodec() {
+        throw new IllegalStateException("Should not be instantiated");
+    }
+
+    /**
+     * Deserialize the given JSON to the given type.
+     *
+     * @param json JSON.
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Deserialized value.
+     * @throws JsonProcessingException In case of invalid JSON.
+     */
+    public static <T> T read(final String json, final Class<T> type) throws JsonProcessingException {
+        return reader(MAPPER.constructType(type)).readValue(json);
+    }
+
+    /**
+     * Deserialize the given JSON to the given generic type.
+     *
+     * @param json JSON.
+     * @param type Target type reference.
+     * @param <T> Target type.
+     * @return Deserialized value.
+     * @throws JsonProcessingException In case of invalid JSON.
+     */
+    public static <T> T read(final String json, final TypeReference<T> type) throws JsonProcessingException {
+        return reader(MAPPER.constructType(type)).readValue(json);
+    }
+
+    /**
+     * Serialize the given value to JSON.
+     *
+     * @param value Value to serialize, may be {@code null}.
+     * @return JSON.
+     * @throws JsonProcessingException In case of serialization error.
+     */
+    public static String write(final Object value) throws JsonProcessingException {
+        if (value == null) {
+            return MAPPER.writeValueAsString(null);
+        }
+        return WRITERS.computeIfAbsent(value.getClass(), MAPPER::writerFor).writeValueAsString(value);
+    }
+
+    private static ObjectReader reader(final JavaType type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.json;
+
+import java.util.Objects;
+
+/**
+ * Parsed view of a JSON column, attached to an entity instance.
+ * <p>
+ * The view remembers the source JSON it was parsed from and is reused only while the column still holds
+ * the same JSON, so any direct change of the column invalidates it. Like the entity itself, the view is not thread-safe.
+ *
+ * @param <T> Type of the parsed value.
+ */
+public final class JsonView<T> {
+
+    private String source;
+
+    private T value;
+
+    /**
+     * Return the parsed value of the given JSON, parse it only when it differs from the remembered source.
+     *
+     * @param json Current JSON of the column.
+     * @param parser Parser used when the view is not valid for the given JSON.
+     * @param <E> Exception thrown by the parser.
+     * @return Parsed value, may be {@code null} when the parser returns {@code null}.
+     * @throws E In case of invalid JSON.
+     */
+    public <E extends Exception> T get(final String json, final Parser<T, E> parser) throws E {
+        if (value != null && Objects.equals(source, json)) {
+            return value;
+        }
+        final T parsed = parser.parse(json);
+        set(json, parsed);
+        return parsed;
+    }
+
+    /**
+     * Remember the given value as the parsed view of the given JSON, typically after writing the JSON to the column.
+     *
+     * @param json JSON stored in the column.
+     * @param value Value the JSON was serialized from.
+     */
+    public void set(final String json, final T value) {
+        this.source = json;
+        this.value = value;
+    }
+
+    /**
+     * JSON parser.
+     *
+     * @param <T> Type of the parsed value.
+     * @param <E> Exception thrown in case of invalid JSON.
+     */
+    @FunctionalInterface
+    public interface Parser<T, E extends Exception> {
+
+        /**
+         * Parse the given JSON.
+         *
+         * @param json JSON.
+         * @return Parsed value.
+         * @throws E In case of invalid JSON.
+         */
+        T parse(String json) throws E;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import com.wultra.app.onboardingserver.common.database.LimitCounterRepository;
+import com.wultra.app.onboardingserver.common.database.entity.LimitCounterEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Limit counters stored in the database table {@code es_limit_counter}, shared by all the nodes.
+ * <p>
+ * A counter is incremented by a single atomic update in its own transaction, so the row lock is released
+ * immediately and the event is counted even when the calling transaction is rolled back.
+ */
+@Component
+@ConditionalOnProperty(name = "enrollment-server-onboarding.limit-counter.backend", havingValue = "database", matchIfMissing = true)
+@Slf4j
+public class DatabaseLimitCounter implements LimitCounter {
+
+    private final LimitCounterRepository limitCounterRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Counter constructor.
+     *
+     * @param limitCounterRepository Limit counter repository.
+     * @param transactionManager Transaction manager.
+     */
+    public DatabaseLimitCounter(final LimitCounterRepository limitCounterRepository, final PlatformTransactionManager transactionManager) {
+        this.limitCounterRepository = limitCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long increment(final String key, final Duration window, final Instant now) {
+        final SlidingWindow current = SlidingWindow.of(now, window);
+        try {
+            return transactionTemplate.execute(status -> increment(key, current, now));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Limit counter {} created concurrently, retrying increment", key);
+            return transactionTemplate.execute(status -> increment(key, current, now));
+        }
+    }
+
+    @Override
+    public long count(final String key, final Duration window, final Instant now) {
+        final SlidingWindow current = SlidingWindow.of(now, window);
+        return limitCounterRepository.findById(key)
+                .map(counter -> count(counter, current, now))
+                .orElse(0L);
+    }
+
+    @Override
+    public int cleanup(final Instant now) {
+        final int count = transactionTemplate.execute(status -> limitCounterRepository.deleteExpired(Date.from(now)));
+        logger.debug("Removed {} expired limit counters", count);
+        return count;
+    }
+
+    private long increment(final String key, final SlidingWindow current, final Instant now) {
+        final int updated = limitCounterRepository.increment(key, Date.from(current.start()), Date.from(current.previousStart()), Date.from(current.expiration()));
+        if (updated > 0) {
+            return limitCounterRepository.findById(key)
+                    .map(counter -> count(counter, current, now))
+                    .orElseThrow(() -> new IllegalStateException("Limit counter not found: " + key));
+        }
+
+        limitCounterRepository.create(key, Date.from(current.start()), Date.from(current.expiration()));
+        return 1;
+    }
+
+    private static long count(final LimitCounterEntity counter, final SlidingWindow current, final Instant now) {
+        return current.count(counter.getWindowStart().toInstant(), counter.getCurrentCount(), counter.getPreviousCount(), now);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Limit counters kept in memory, suitable for a single node deployment only.
+ * Counters are lost on restart.
+ */
+@Component
+@ConditionalOnProperty(name = "enrollment-server-onboarding.limit-counter.backend", havingValue = "memory")
+@Slf4j
+public class InMemoryLimitCounter implements LimitCounter {
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long increment(final String key, final Duration window, final Instant now) {
+        final SlidingWindow current = SlidingWindow.of(now, window);
+        final Counter counter = counters.compute(key, (k, value) -> increment(value, current));
+        return current.count(counter.windowStart(), counter.currentCount(), counter.previousCount(), now);
+    }
+
+    @Override
+    public long count(final String key, final Duration window, final Instant now) {
+        final Counter counter = counters.get(key);
+        if (counter == null) {
+            return 0;
+        }
+        return SlidingWindow.of(now, window).count(counter.windowStart(), counter.currentCount(), counter.previousCount(), now);
+    }
+
+    @Override
+    public int cleanup(final Instant now) {
+        int count = 0;
+        final Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiration().isBefore(now)) {
+                iterator.remove();
+                count++;
+            }
+        }
+        logger.debug("Removed {} expired limit counters", count);
+        return count;
+    }
+
+    private static Counter increment(final Counter counter, final SlidingWindow current) {
+        if (counter == null || counter.windowStart().isBefore(current.previousStart())) {
+            return new Counter(current.start(), 1, 0, current.expiration());
+        } else if (counter.windowStart().isBefore(current.start())) {
+            return new Counter(current.start(), 1, counter.currentCount(), current.expiration());
+        } else {
+            return new Counter(counter.windowStart(), counter.currentCount() + 1, counter.previousCount(), counter.expiration());
+        }
+    }
+
+    private record Counter(Instant windowStart, long currentCount, long previousCount, Instant expiration) {
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Backend of sliding window counters used to enforce rate limits, e.g. number of started processes per user.
+ * <p>
+ * A counter keeps only the count of the current and the previous fixed window. The count within the sliding window
+ * ending now is approximated by weighting the count of the previous window by its overlap with the sliding window,
+ * so the enforcement costs the same regardless of the history size.
+ * <p>
+ * The approximation assumes events evenly spread over the previous window and may undercount bursts. Events at the end
+ * of the previous window are mostly forgotten by the end of the current one, so up to about twice the limit
+ * of events may be recorded within a single sliding window.
+ *
+ * @see DatabaseLimitCounter
+ * @see InMemoryLimitCounter
+ */
+public interface LimitCounter {
+
+    /**
+     * Record a new event of the given counter.
+     *
+     * @param key Counter key, e.g. limit name and user ID.
+     * @param window Length of the sliding window.
+     * @param now Current timestamp.
+     * @return Count of events within the sliding window including the new one.
+     */
+    long increment(String key, Duration window, Instant now);
+
+    /**
+     * Get count of events of the given counter.
+     *
+     * @param key Counter key, e.g. limit name and user ID.
+     * @param window Length of the sliding window.
+     * @param now Current timestamp.
+     * @return Count of events within the sliding window.
+     */
+    long count(String key, Duration window, Instant now);
+
+    /**
+     * Remove counters without any event within their sliding window.
+     *
+     * @param now Current timestamp.
+     * @return Count of removed counters.
+     */
+    int cleanup(Instant now);
+
+}
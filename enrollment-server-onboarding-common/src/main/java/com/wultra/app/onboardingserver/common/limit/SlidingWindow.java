@@ -0,0 +1,92 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fixed window aligned to the epoch, the current window of a sliding window counter.
+ *
+ * @param start Start of the window.
+ * @param length Length of the window.
+ */
+record SlidingWindow(Instant start, Duration length) {
+
+    /**
+     * Get the fixed window containing the given timestamp.
+     *
+     * @param now Current timestamp.
+     * @param length Length of the window.
+     * @return Current window.
+     */
+    static SlidingWindow of(final Instant now, final Duration length) {
+        if (length.isNegative() || length.isZero()) {
+            throw new IllegalArgumentException("Invalid window length: " + length);
+        }
+        final long lengthMillis = length.toMillis();
+        final long startMillis = Math.floorDiv(now.toEpochMilli(), lengthMillis) * lengthMillis;
+        return new SlidingWindow(Instant.ofEpochMilli(startMillis), length);
+    }
+
+    /**
+     * Get start of the previous window.
+     *
+     * @return Start of the previous window.
+     */
+    Instant previousStart() {
+        return start.minus(length);
+    }
+
+    /**
+     * Get timestamp since which the counts of this window are no longer needed.
+     *
+     * @return Expiration of the window.
+     */
+    Instant expiration() {
+        return start.plus(length).plus(length);
+    }
+
+    /**
+     * Estimate count of events within the sliding window ending at the given timestamp, rounded up.
+     * Counts of a stored window later than this one, e.g. written by a node with a clock ahead, are considered
+     * as counts of this window.
+     *
+     * @param counterStart Start of the stored window of the counter.
+     * @param currentCount Count of events within the stored window.
+     * @param previousCount Count of events within the window preceding the stored one.
+     * @param now Current timestamp.
+     * @return Count of events within the sliding window.
+     */
+    long count(final Instant counterStart, final long currentCount, final long previousCount, final Instant now) {
+        if (!counterStart.isBefore(start)) {
+            return currentCount + weightPrevious(previousCount, now);
+        } else if (counterStart.equals(previousStart())) {
+            return weightPrevious(currentCount, now);
+        } else {
+            return 0;
+        }
+    }
+
+    private long weightPrevious(final long previousCount, final Instant now) {
+        final long lengthMillis = length.toMillis();
+        final long elapsedMillis = Math.max(0, Duration.between(start, now).toMillis());
+        final long overlapMillis = Math.max(0, lengthMillis - elapsedMillis);
+        return (previousCount * overlapMillis + lengthMillis - 1) / lengthMillis;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.outbox;
+
+import com.wultra.app.onboardingserver.common.errorhandling.OutboxDeliveryException;
+
+/**
+ * Handler delivering outbox messages of a single type. Handlers are looked up by {@link #getType()}.
+ * <p>
+ * A message may be delivered more than once, e.g. when the node fails after the delivery, so the delivery should be idempotent.
+ *
+ * @param <T> Payload type.
+ */
+public interface OutboxHandler<T> {
+
+    /**
+     * Get type of the messages handled by this handler.
+     *
+     * @return Message type.
+     */
+    String getType();
+
+    /**
+     * Get class of the message payload.
+     *
+     * @return Payload class.
+     */
+    Class<T> getPayloadType();
+
+    /**
+     * Deliver the given message payload.
+     *
+     * @param payload Message payload.
+     * @throws OutboxDeliveryException Thrown when the delivery failed and should be retried.
+     */
+    void deliver(T payload) throws OutboxDeliveryException;
+}
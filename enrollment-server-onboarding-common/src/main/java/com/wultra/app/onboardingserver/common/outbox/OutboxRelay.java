@@ -0,0 +1,153 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.app.onboardingserver.common.database.OutboxRepository;
+import com.wultra.app.onboardingserver.common.database.entity.OutboxEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.OutboxDeliveryException;
+import com.wultra.app.onboardingserver.common.json.JsonCodec;
+import com.wultra.app.onboardingserver.common.util.ExponentialBackoff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relay delivering messages from the transactional outbox by the registered {@link OutboxHandler handlers}.
+ * <p>
+ * Handlers are called outside of any database transaction. A delivered message is deleted, a failed one is retried
+ * with an exponential backoff and moved to the {@link OutboxEntity.Status#DEAD} state after the maximum number of attempts.
+ * Only the oldest pending message of each key is delivered by a single run, so the messages with the same key
+ * are delivered in order. The relay is expected to run on a single node at a time.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final int ERROR_DETAIL_MAX_LENGTH = 1024;
+
+    private final OutboxRepository outboxRepository;
+
+    private final Map<String, OutboxHandler<?>> handlers;
+
+    private final CommonOnboardingConfig config;
+
+    public OutboxRelay(final OutboxRepository outboxRepository, final List<OutboxHandler<?>> handlers, final CommonOnboardingConfig config) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(OutboxHandler::getType, Function.identity()));
+        this.config = config;
+    }
+
+    /**
+     * Deliver a batch of due messages.
+     *
+     * @return Relay result.
+     */
+    public Result relay() {
+        final List<OutboxEntity> messages = outboxRepository.findDeliverable(new Date(), Limit.of(config.getOutboxBatchSize()));
+        if (messages.isEmpty()) {
+            logger.debug("No outbox message to deliver");
+            return new Result(0, 0);
+        }
+
+        int delivered = 0;
+        for (OutboxEntity message : messages) {
+            if (deliver(message)) {
+                delivered++;
+            }
+        }
+        logger.info("Delivered {} of {} outbox messages", delivered, messages.size());
+        return new Result(messages.size(), delivered);
+    }
+
+    private boolean deliver(final OutboxEntity message) {
+        final OutboxHandler<?> handler = handlers.get(message.getMessageType());
+        if (handler == null) {
+            markDead(message, "No handler for message type: " + message.getMessageType());
+            return false;
+        }
+
+        try {
+            deliver(handler, message.getPayload());
+        } catch (JsonProcessingException e) {
+            markDead(message, "Invalid payload: " + e.getOriginalMessage());
+            return false;
+        } catch (OutboxDeliveryException | RuntimeException e) {
+            logger.debug("Delivery of {} failed", message, e);
+            markFailed(message, e.getMessage());
+            return false;
+        }
+
+        outboxRepository.delete(message);
+        logger.debug("Delivered {}", message);
+        return true;
+    }
+
+    private static <T> void deliver(final OutboxHandler<T> handler, final String payload) throws JsonProcessingException, OutboxDeliveryException {
+        handler.deliver(JsonCodec.read(payload, handler.getPayloadType()));
+    }
+
+    private void markFailed(final OutboxEntity message, final String errorDetail) {
+        final int attempts = message.getAttempts() + 1;
+        if (attempts >= config.getOutboxMaxAttempts()) {
+            message.setAttempts(attempts);
+            markDead(message, errorDetail);
+            return;
+        }
+
+        final Duration backoff = ExponentialBackoff.withEqualJitter(attempts, config.getOutboxInitialBackoff(), config.getOutboxMaxBackoff());
+        final Date timestampNextAttempt = Date.from(new Date().toInstant().plus(backoff));
+        message.setAttempts(attempts);
+        message.setErrorDetail(truncate(errorDetail));
+        message.setTimestampNextAttempt(timestampNextAttempt);
+        outboxRepository.save(message);
+        logger.info("Delivery of {} failed: {}, next attempt at {}", message, errorDetail, timestampNextAttempt);
+    }
+
+    private void markDead(final OutboxEntity message, final String errorDetail) {
+        message.setStatus(OutboxEntity.Status.DEAD);
+        message.setErrorDetail(truncate(errorDetail));
+        outboxRepository.save(message);
+        logger.warn("Delivery of {} failed permanently: {}", message, errorDetail);
+    }
+
+    private static String truncate(final String errorDetail) {
+        if (errorDetail == null || errorDetail.length() <= ERROR_DETAIL_MAX_LENGTH) {
+            return errorDetail;
+        }
+        return errorDetail.substring(0, ERROR_DETAIL_MAX_LENGTH);
+    }
+
+    /**
+     * Result of a single run of the relay.
+     *
+     * @param found Number of messages due for delivery.
+     * @param delivered Number of delivered messages.
+     */
+    public record Result(int found, int delivered) {
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wultra.app.onboardingserver.common.database.OutboxRepository;
+import com.wultra.app.onboardingserver.common.database.entity.OutboxEntity;
+import com.wultra.app.onboardingserver.common.json.JsonCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Service writing messages to the transactional outbox. Messages are delivered by {@link OutboxRelay}
+ * after the transaction of the business change commits and are discarded when it rolls back.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+
+    public OutboxService(final OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Write a message to the outbox. Must be called within the transaction of the business change.
+     *
+     * @param key Message key, messages with the same key are delivered in the order of creation.
+     * @param type Message type, see {@link OutboxHandler#getType()}.
+     * @param payload Message payload serialized to JSON.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(final String key, final String type, final Object payload) {
+        final Date now = new Date();
+        final OutboxEntity message = new OutboxEntity();
+        message.setMessageKey(key);
+        message.setMessageType(type);
+        message.setPayload(serialize(payload));
+        message.setStatus(OutboxEntity.Status.PENDING);
+        message.setTimestampCreated(now);
+        message.setTimestampNextAttempt(now);
+        outboxRepository.save(message);
+        logger.debug("Enqueued {}", message);
+    }
+
+    private static String serialize(final Object payload) {
+        try {
+            return JsonCodec.write(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize outbox message payload", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Local cache of activation flags keyed by activation ID.
+ * <p>
+ * Entries expire after a short TTL to pick up changes made outside this node. Changes made by {@link ActivationFlagService}
+ * invalidate the entry. Concurrent lookups of the same activation share a single in-flight request, the request is
+ * executed on the thread which started the lookup. Failed lookups are not cached.
+ */
+@Component
+@Slf4j
+class ActivationFlagCache {
+
+    private final AsyncCache<String, List<String>> flags;
+
+    /**
+     * Cache constructor.
+     *
+     * @param config Common onboarding configuration.
+     */
+    ActivationFlagCache(final CommonOnboardingConfig config) {
+        flags = Caffeine.newBuilder()
+                .maximumSize(config.getActivationFlagsCacheMaxEntries())
+                .expireAfterWrite(config.getActivationFlagsCacheTtl())
+                .buildAsync();
+    }
+
+    /**
+     * Get activation flags, load them only when not cached or being loaded by another thread.
+     *
+     * @param activationId Activation ID.
+     * @param loader Loader of activation flags.
+     * @return Unmodifiable list of activation flags.
+     * @throws PowerAuthClientException In case of a failure when loading the activation flags.
+     */
+    List<String> get(final String activationId, final ProviderCall<List<String>, PowerAuthClientException> loader) throws PowerAuthClientException {
+        final CompletableFuture<List<String>> future = new CompletableFuture<>();
+        final CompletableFuture<List<String>> inFlight = flags.asMap().putIfAbsent(activationId, future);
+        if (inFlight != null) {
+            logger.debug("Using cached activation flags, activation ID: {}", activationId);
+            return join(inFlight);
+        }
+
+        try {
+            final List<String> result = List.copyOf(loader.call());
+            future.complete(result);
+            return result;
+        } catch (PowerAuthClientException | RuntimeException e) {
+            // failed future is removed from the cache
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Invalidate activation flags after they have been changed.
+     *
+     * @param activationId Activation ID.
+     */
+    void invalidate(final String activationId) {
+        logger.debug("Invalidating cached activation flags, activation ID: {}", activationId);
+        flags.synchronous().invalidate(activationId);
+    }
+
+    private static List<String> join(final CompletableFuture<List<String>> future) throws PowerAuthClientException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof final PowerAuthClientException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof final RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -20,6 +20,9 @@
 package com.wultra.app.onboardingserver.common.service;
 
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallRejectedException;
+import com.wultra.app.onboardingserver.common.client.ProviderCallType;
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.security.powerauth.client.PowerAuthClient;
@@ -31,7 +34,9 @@ import com.wultra.security.powerauth.client.model.response.ListActivationFlagsRe
 import io.getlime.security.powerauth.rest.api.spring.service.HttpCustomizationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -52,15 +57,25 @@ public class ActivationFlagService {
 
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
+    private final ProviderCallGuard powerAuthCallGuard;
+    private final ActivationFlagCache activationFlagCache;
 
     /**
      * Service constructor.
      * @param powerAuthClient PowerAuth service client.
      * @param httpCustomizationService HTTP customization service.
+     * @param powerAuthCallGuard Guard of PowerAuth service calls.
+     * @param activationFlagCache Cache of activation flags.
      */
-    public ActivationFlagService(PowerAuthClient powerAuthClient, HttpCustomizationService httpCustomizationService) {
+    public ActivationFlagService(
+            PowerAuthClient powerAuthClient,
+            HttpCustomizationService httpCustomizationService,
+            @Qualifier("powerAuthCallGuard") ProviderCallGuard powerAuthCallGuard,
+            ActivationFlagCache activationFlagCache) {
         this.powerAuthClient = powerAuthClient;
         this.httpCustomizationService = httpCustomizationService;
+        this.powerAuthCallGuard = powerAuthCallGuard;
+        this.activationFlagCache = activationFlagCache;
     }
 
     /**
@@ -79,7 +94,7 @@ public class ActivationFlagService {
             activationFlags.add(ACTIVATION_FLAG_VERIFICATION_IN_PROGRESS);
 
             updateActivationFlags(ownerId, activationFlags);
-        } catch (PowerAuthClientException ex) {
+        } catch (PowerAuthClientException | ProviderCallRejectedException ex) {
             logger.warn("Activation flag request failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
             throw new RemoteCommunicationException("Communication with PowerAuth server failed");
@@ -104,7 +119,7 @@ public class ActivationFlagService {
             }
 
             updateActivationFlags(ownerId, activationFlags);
-        } catch (PowerAuthClientException ex) {
+        } catch (PowerAuthClientException | ProviderCallRejectedException ex) {
             logger.warn("Activation flag request failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
             throw new RemoteCommunicationException("Communication with PowerAuth server failed");
@@ -126,7 +141,7 @@ public class ActivationFlagService {
 
             // Remove flag VERIFICATION_IN_PROGRESS
             removeActivationFlags(ownerId, Collections.singletonList(ACTIVATION_FLAG_VERIFICATION_IN_PROGRESS));
-        } catch (PowerAuthClientException ex) {
+        } catch (PowerAuthClientException | ProviderCallRejectedException ex) {
             logger.warn("Activation flag request failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
             throw new RemoteCommunicationException("Communication with PowerAuth server failed");
@@ -134,14 +149,14 @@ public class ActivationFlagService {
     }
 
     /**
-     * Obtain list of activation flags.
+     * Obtain list of activation flags. The flags may be served from a short-lived cache.
      * @param ownerId Owner identification.
      * @throws RemoteCommunicationException Thrown when list of activation flags could not be obtained.
      */
     public List<String> listActivationFlags(OwnerId ownerId) throws RemoteCommunicationException {
         try {
-            return listActivationFlagsInternal(ownerId);
-        } catch (PowerAuthClientException ex) {
+            return activationFlagCache.get(ownerId.getActivationId(), () -> listActivationFlagsInternal(ownerId));
+        } catch (PowerAuthClientException | ProviderCallRejectedException ex) {
             logger.warn("Activation flag request failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
             throw new RemoteCommunicationException("Communication with PowerAuth server failed");
@@ -149,18 +164,17 @@ public class ActivationFlagService {
     }
 
     /**
-     * Obtain list of activation flags.
+     * Obtain list of activation flags from PowerAuth server, bypassing the cache.
      * @param ownerId Owner identification.
      * @throws PowerAuthClientException Thrown when list of activation flags could not be obtained.
      */
     private List<String> listActivationFlagsInternal(OwnerId ownerId) throws PowerAuthClientException {
         final ListActivationFlagsRequest listRequest = new ListActivationFlagsRequest();
         listRequest.setActivationId(ownerId.getActivationId());
-        final ListActivationFlagsResponse response = powerAuthClient.listActivationFlags(
-                listRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final MultiValueMap<String, String> queryParams = httpCustomizationService.getQueryParams();
+        final MultiValueMap<String, String> httpHeaders = httpCustomizationService.getHttpHeaders();
+        final ListActivationFlagsResponse response = powerAuthCallGuard.call("listActivationFlags", ProviderCallType.IDEMPOTENT, () ->
+                powerAuthClient.listActivationFlags(listRequest, queryParams, httpHeaders));
 
         return new ArrayList<>(response.getActivationFlags());
     }
@@ -175,11 +189,16 @@ public class ActivationFlagService {
         final UpdateActivationFlagsRequest updateRequest = new UpdateActivationFlagsRequest();
         updateRequest.setActivationId(ownerId.getActivationId());
         updateRequest.getActivationFlags().addAll(activationFlags);
-        powerAuthClient.updateActivationFlags(
-                updateRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final MultiValueMap<String, String> queryParams = httpCustomizationService.getQueryParams();
+        final MultiValueMap<String, String> httpHeaders = httpCustomizationService.getHttpHeaders();
+        // setting the complete list of flags is safe to repeat
+        try {
+            powerAuthCallGuard.call("updateActivationFlags", ProviderCallType.IDEMPOTENT, () ->
+                    powerAuthClient.updateActivationFlags(updateRequest, queryParams, httpHeaders));
+        } finally {
+            // the flags may have been changed even when the call failed
+            activationFlagCache.invalidate(ownerId.getActivationId());
+        }
     }
 
     /**
@@ -192,10 +211,14 @@ public class ActivationFlagService {
         final RemoveActivationFlagsRequest removeRequest = new RemoveActivationFlagsRequest();
         removeRequest.setActivationId(ownerId.getActivationId());
         removeRequest.getActivationFlags().addAll(activationFlagsToRemove);
-        powerAuthClient.removeActivationFlags(
-                removeRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final MultiValueMap<String, String> queryParams = httpCustomizationService.getQueryParams();
+        final MultiValueMap<String, String> httpHeaders = httpCustomizationService.getHttpHeaders();
+        try {
+            powerAuthCallGuard.call("removeActivationFlags", ProviderCallType.IDEMPOTENT, () ->
+                    powerAuthClient.removeActivationFlags(removeRequest, queryParams, httpHeaders));
+        } finally {
+            // the flags may have been changed even when the call failed
+            activationFlagCache.invalidate(ownerId.getActivationId());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig.AuditOverflowPolicy;
+import com.wultra.core.audit.base.Audit;
+import com.wultra.core.audit.base.model.AuditDetail;
+import com.wultra.core.audit.base.model.AuditLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer of audit records.
+ * <p>
+ * Callers put records to a bounded {@link AuditRingBuffer} and return immediately. A single background thread drains
+ * the buffer to {@link Audit} and flushes the records to the database in batches, when the batch size is reached
+ * or the flush interval elapsed. When the buffer is full, the caller waits until the writer frees space or a debug
+ * record is dropped, according to the {@link AuditOverflowPolicy}. On shutdown, the buffered records are flushed.
+ * <p>
+ * The audit library resolves the calling class and the thread name on the thread writing the record and does not allow
+ * to set them, so the {@code calling_class} and {@code thread_name} columns contain this writer. The real values are
+ * captured on the calling thread and added to the audit detail as the {@value #PARAM_CALLING_CLASS}
+ * and {@value #PARAM_THREAD_NAME} params. The calling class is resolved by a lazy stack walk stopped at the first
+ * frame outside the audit service, which still runs on the calling thread.
+ * <p>
+ * Records are written synchronously when the writer is disabled or not running.
+ */
+@Component
+@Slf4j
+class AsyncAuditWriter implements SmartLifecycle {
+
+    static final String PARAM_CALLING_CLASS = "callingClass";
+
+    static final String PARAM_THREAD_NAME = "threadName";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final long FULL_WAIT_MILLIS = 100;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Audit audit;
+
+    private final CommonOnboardingConfig config;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Object drainLock = new Object();
+
+    private final Object spaceLock = new Object();
+
+    private volatile int waitingCount;
+
+    private AuditRingBuffer<AuditEntry> buffer;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    /**
+     * Writer constructor.
+     *
+     * @param audit Audit.
+     * @param config Common onboarding configuration.
+     */
+    AsyncAuditWriter(final Audit audit, final CommonOnboardingConfig config) {
+        this.audit = audit;
+        this.config = config;
+    }
+
+    /**
+     * Write the audit record, asynchronously when the writer is running.
+     *
+     * @param level Audit level.
+     * @param message Message, arguments may be put to via template {@code {}}.
+     * @param auditDetail Audit detail.
+     * @param args Message arguments.
+     */
+    void write(final AuditLevel level, final String message, final AuditDetail auditDetail, final Object... args) {
+        if (!running) {
+            audit.log(message, level, auditDetail, args);
+            return;
+        }
+        if (!audit.isLevelEnabled(level)) {
+            return;
+        }
+
+        auditDetail.getParam().put(PARAM_CALLING_CLASS, resolveCallingClass());
+        auditDetail.getParam().put(PARAM_THREAD_NAME, Thread.currentThread().getName());
+        final AuditEntry entry = new AuditEntry(level, message, auditDetail, args);
+        boolean added;
+        while (!(added = buffer.offer(entry))) {
+            if (level == AuditLevel.DEBUG && config.getAuditAsyncOverflowPolicy() == AuditOverflowPolicy.DROP_DEBUG) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            if (!running || !awaitSpace()) {
+                break;
+            }
+        }
+
+        if (!added && running) {
+            // interrupted while waiting for space
+            audit.log(message, level, auditDetail, args);
+        } else if (!running) {
+            // the writer may have finished before the record was added
+            drain(Integer.MAX_VALUE);
+            if (!added) {
+                audit.log(message, level, auditDetail, args);
+            }
+        }
+    }
+
+    /**
+     * Wait until the writer frees space in the buffer. The writer notifies the waiting callers after each drain,
+     * the timeout only guards against a writer which has stopped.
+     *
+     * @return False when interrupted.
+     */
+    private boolean awaitSpace() {
+        synchronized (spaceLock) {
+            waitingCount++;
+            try {
+                LockSupport.unpark(writer);
+                // the writer may have drained the buffer before the waiting count was visible
+                if (running && buffer.size() >= buffer.capacity()) {
+                    spaceLock.wait(FULL_WAIT_MILLIS);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waitingCount--;
+            }
+        }
+    }
+
+    private void signalSpace() {
+        if (waitingCount > 0) {
+            synchronized (spaceLock) {
+                spaceLock.notifyAll();
+            }
+        }
+    }
+
+    private static String resolveCallingClass() {
+        return STACK_WALKER.walk(frames -> frames
+                .map(StackWalker.StackFrame::getClassName)
+                .filter(className -> !className.equals(AsyncAuditWriter.class.getName()) && !className.startsWith(AuditService.class.getName()))
+                .findFirst()
+                .orElse(null));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!config.isAuditAsyncEnabled() || running) {
+            return;
+        }
+        buffer = new AuditRingBuffer<>(config.getAuditAsyncBufferSize());
+        writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        running = true;
+        writer.start();
+        logger.info("Started asynchronous audit writer, buffer size: {}, batch size: {}, overflow policy: {}",
+                buffer.capacity(), config.getAuditAsyncBatchSize(), config.getAuditAsyncOverflowPolicy());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        signalSpace();
+        try {
+            writer.join(config.getAuditAsyncShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Asynchronous audit writer has not finished in {}, pending records: {}",
+                    config.getAuditAsyncShutdownTimeout(), buffer.size());
+        } else {
+            logger.info("Stopped asynchronous audit writer");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server, so the requests being finished are still audited asynchronously.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        final int batchSize = config.getAuditAsyncBatchSize();
+        final long flushIntervalNanos = config.getAuditAsyncFlushInterval().toNanos();
+        long lastFlushNanos = System.nanoTime();
+        int pendingCount = 0;
+        while (running) {
+            final int count = drain(batchSize);
+            if (count > 0) {
+                signalSpace();
+            }
+            pendingCount += count;
+            reportDropped();
+            if (pendingCount >= batchSize || (pendingCount > 0 && System.nanoTime() - lastFlushNanos >= flushIntervalNanos)) {
+                flush();
+                pendingCount = 0;
+                lastFlushNanos = System.nanoTime();
+            }
+            if (count == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+
+        // graceful shutdown, write all the buffered records
+        drain(Integer.MAX_VALUE);
+        reportDropped();
+        flush();
+    }
+
+    /**
+     * Write buffered records to the audit. Guarded by a lock, because the ring buffer allows a single consumer only.
+     */
+    private int drain(final int maxCount) {
+        synchronized (drainLock) {
+            int count = 0;
+            AuditEntry entry;
+            while (count < maxCount && (entry = buffer.poll()) != null) {
+                log(entry);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private void log(final AuditEntry entry) {
+        try {
+            audit.log(entry.message(), entry.level(), entry.auditDetail(), entry.args());
+        } catch (RuntimeException e) {
+            logger.warn("Writing of audit record failed, error: {}", e.getMessage());
+            logger.debug("Writing of audit record failed", e);
+        }
+    }
+
+    private void flush() {
+        try {
+            audit.flush();
+        } catch (RuntimeException e) {
+            logger.warn("Flushing of audit records failed, error: {}", e.getMessage());
+            logger.debug("Flushing of audit records failed", e);
+        }
+    }
+
+    private void reportDropped() {
+        final long count = droppedCount.getAndSet(0);
+        if (count > 0) {
+            logger.warn("Dropped {} debug audit records, the buffer was full", count);
+        }
+    }
+
+    private record AuditEntry(AuditLevel level, String message, AuditDetail auditDetail, Object[] args) {
+    }
+}
@@ -21,13 +21,15 @@ import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificati
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
-import com.wultra.core.audit.base.Audit;
 import com.wultra.core.audit.base.model.AuditDetail;
+import com.wultra.core.audit.base.model.AuditLevel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
  * Service implementing audit functionality.
+ * <p>
+ * Audit details are created on the calling thread, the records are written by {@link AsyncAuditWriter}.
  *
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
@@ -42,11 +44,16 @@ public class AuditService {
     private static final String DOCUMENT_ID = "documentId";
     private static final String DOCUMENT_VERIFICATION_ID = "documentVerificationId";
 
-    private final Audit audit;
+    private final AsyncAuditWriter auditWriter;
 
+    /**
+     * Service constructor.
+     *
+     * @param auditWriter Audit writer.
+     */
     @Autowired
-    public AuditService(final Audit audit) {
-        this.audit = audit;
+    public AuditService(final AsyncAuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
     }
 
     /**
@@ -58,7 +65,7 @@ public class AuditService {
      */
     public void audit(final OnboardingProcessEntity process, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.PROCESS, process, null);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -71,7 +78,7 @@ public class AuditService {
      */
     public void audit(final OnboardingProcessEntity process, final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.PROCESS, process, identityVerification.getId());
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -84,7 +91,7 @@ public class AuditService {
      */
     public void audit(final OnboardingOtpEntity otp, final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(otp, identityVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -96,7 +103,7 @@ public class AuditService {
      */
     public void audit(final OnboardingOtpEntity otp, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(otp);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -108,7 +115,7 @@ public class AuditService {
      */
     public void auditDebug(final OnboardingOtpEntity otp, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(otp);
-        audit.debug(message, auditDetail, args);
+        auditWriter.write(AuditLevel.DEBUG, message, auditDetail, args);
     }
 
     /**
@@ -120,7 +127,7 @@ public class AuditService {
      */
     public void audit(final DocumentVerificationEntity documentVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(documentVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -132,7 +139,7 @@ public class AuditService {
      */
     public void auditDebug(final DocumentVerificationEntity documentVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(documentVerification);
-        audit.debug(message, auditDetail, args);
+        auditWriter.write(AuditLevel.DEBUG, message, auditDetail, args);
     }
 
     /**
@@ -144,7 +151,7 @@ public class AuditService {
      */
     public void audit(final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.IDENTITY_VERIFICATION, identityVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -156,7 +163,7 @@ public class AuditService {
      */
     public void auditDocumentVerificationProvider(final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.DOCUMENT_VERIFICATION_PROVIDER, identityVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -168,7 +175,7 @@ public class AuditService {
      */
     public void auditPresenceCheckProvider(final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.PRESENCE_CHECK_PROVIDER, identityVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -180,7 +187,7 @@ public class AuditService {
      */
     public void auditActivation(final OnboardingProcessEntity process, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.ACTIVATION, process, null);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -192,7 +199,7 @@ public class AuditService {
      */
     public void auditOnboardingProvider(final OnboardingProcessEntity process, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.ONBOARDING_PROVIDER, process, null);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     /**
@@ -204,7 +211,7 @@ public class AuditService {
      */
     public void auditOnboardingProviderDebug(final OnboardingProcessEntity process, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.ONBOARDING_PROVIDER, process, null);
-        audit.debug(message, auditDetail, args);
+        auditWriter.write(AuditLevel.DEBUG, message, auditDetail, args);
     }
 
     /**
@@ -216,7 +223,7 @@ public class AuditService {
      */
     public void auditOnboardingProvider(final IdentityVerificationEntity identityVerification, final String message, final Object... args) {
         final AuditDetail auditDetail = createAuditDetail(AuditType.ONBOARDING_PROVIDER, identityVerification);
-        audit.info(message, auditDetail, args);
+        auditWriter.write(AuditLevel.INFO, message, auditDetail, args);
     }
 
     private static AuditDetail createAuditDetail(final OnboardingOtpEntity otp, final IdentityVerificationEntity identityVerification) {
@@ -23,8 +23,14 @@ import com.wultra.app.onboardingserver.common.api.model.UpdateProcessRequest;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
 /**
  * Implementation of {@link OnboardingService} which is shared both for enrollment and onboarding.
  *
@@ -33,10 +39,15 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CommonOnboardingService implements OnboardingService {
 
+    static final String METRIC_PROCESS_LOCK_WAIT = "onboarding.process.lock.wait";
+
     protected final OnboardingProcessRepository onboardingProcessRepository;
 
     protected final AuditService auditService;
 
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
     /**
      * Service constructor.
      *
@@ -44,8 +55,23 @@ public class CommonOnboardingService implements OnboardingService {
      * @param auditService Audit service.
      */
     public CommonOnboardingService(final OnboardingProcessRepository onboardingProcessRepository, final AuditService auditService) {
+        this(onboardingProcessRepository, auditService, null);
+    }
+
+    /**
+     * Service constructor.
+     *
+     * @param onboardingProcessRepository Onboarding process repository.
+     * @param auditService Audit service.
+     * @param meterRegistry Meter registry, lock wait time is not recorded when null.
+     */
+    public CommonOnboardingService(
+            final OnboardingProcessRepository onboardingProcessRepository,
+            final AuditService auditService,
+            @Nullable final MeterRegistry meterRegistry) {
         this.onboardingProcessRepository = onboardingProcessRepository;
         this.auditService = auditService;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -67,10 +93,31 @@ public class CommonOnboardingService implements OnboardingService {
      */
     public OnboardingProcessEntity findProcessWithLock(String processId) throws OnboardingProcessException {
         logger.debug("Onboarding process will be locked using PESSIMISTIC_WRITE lock, {}", processId);
-        return onboardingProcessRepository.findByIdWithLock(processId).orElseThrow(() ->
+        return lockProcess("find-by-id", "pessimistic", () -> onboardingProcessRepository.findByIdWithLock(processId)).orElseThrow(() ->
                 new OnboardingProcessException("Onboarding process not found, process ID: " + processId));
     }
 
+    /**
+     * Execute the given query locking an onboarding process and record the time spent by the query,
+     * including waiting for the lock, to the timer {@value #METRIC_PROCESS_LOCK_WAIT}.
+     *
+     * @param operation Operation name used in metrics.
+     * @param mode Lock mode used in metrics.
+     * @param query Query locking the process.
+     * @return Optional onboarding process.
+     */
+    protected Optional<OnboardingProcessEntity> lockProcess(final String operation, final String mode, final Supplier<Optional<OnboardingProcessEntity>> query) {
+        if (meterRegistry == null) {
+            return query.get();
+        }
+        return Timer.builder(METRIC_PROCESS_LOCK_WAIT)
+                .description("Time spent by locking an onboarding process, including waiting for the lock")
+                .tag("operation", operation)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(query);
+    }
+
     @Override
     public String findUserIdByProcessId(final String processId) throws OnboardingProcessException {
         return findProcessWithLock(processId).getUserId();
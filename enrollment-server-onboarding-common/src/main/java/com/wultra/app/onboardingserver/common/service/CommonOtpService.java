@@ -93,23 +93,23 @@ public class CommonOtpService implements OtpService {
     }
 
     protected OtpVerifyResponse verifyOtpCode(String processId, OwnerId ownerId, String otpCode, OtpType otpType) throws OnboardingProcessException {
-        final OnboardingProcessEntity process = onboardingProcessRepository.findById(processId).orElseThrow(() ->
-            new OnboardingProcessException("Onboarding process not found: " + processId));
-
+        // the process and identity verification are fetched together with the OTP
         final OnboardingOtpEntity otp = onboardingOtpRepository.findNewestByProcessIdAndType(processId, otpType).orElseThrow(() ->
-                new OnboardingProcessException("Onboarding OTP not found, process ID: " + processId));
+                onboardingProcessRepository.existsById(processId)
+                        ? new OnboardingProcessException("Onboarding OTP not found, process ID: " + processId)
+                        : new OnboardingProcessException("Onboarding process not found: " + processId));
+        OnboardingProcessEntity process = otp.getProcess();
 
         // Verify OTP code
         final Date now = ownerId.getTimestamp();
         boolean expired = false;
         boolean verified = false;
-        int failedAttempts = fetchFailedAttemptsCount(process, otpType);
-        int maxFailedAttempts = commonOnboardingConfig.getOtpMaxFailedAttempts();
+        final int maxFailedAttempts = commonOnboardingConfig.getOtpMaxFailedAttempts();
         if (OtpStatus.ACTIVE != otp.getStatus()) {
             logger.warn("Unexpected not active {}, process ID: {}", otp, processId);
-        } else if (failedAttempts >= maxFailedAttempts) {
+        } else if (getFailedAttempts(process, otp) >= maxFailedAttempts) {
             logger.warn("Unexpected OTP code verification when already exhausted max failed attempts, process ID: {}", processId);
-            failProcessOrIdentityVerification(process, otp, ownerId);
+            process = failProcessOrIdentityVerification(process, otp, ownerId);
         } else if (otp.hasExpired()) {
             logger.info("Expired OTP code received, process ID: {}", processId);
             expired = true;
@@ -132,7 +132,7 @@ public class CommonOtpService implements OtpService {
             auditService.audit(otp, "OTP {} verified for user: {}", otpType, process.getUserId());
         } else {
             auditService.audit(otp, "OTP {} verification failed for user: {}", otpType, process.getUserId());
-            handleFailedOtpVerification(process, ownerId, otp, otpType);
+            process = handleFailedOtpVerification(process, ownerId, otp, otpType);
         }
 
         final OtpVerifyResponse response = new OtpVerifyResponse();
@@ -148,14 +148,41 @@ public class CommonOtpService implements OtpService {
         return response;
     }
 
-    private int fetchFailedAttemptsCount(final OnboardingProcessEntity process, final OtpType otpType) throws OnboardingProcessException {
-        if (otpType == OtpType.ACTIVATION) {
-            return onboardingOtpRepository.countFailedAttempts(process, otpType);
+    /**
+     * Get failed attempts of the given OTP type. Activation OTP attempts are counted over the whole process,
+     * user verification OTP attempts over the identity verification.
+     */
+    private int getFailedAttempts(final OnboardingProcessEntity process, final OnboardingOtpEntity otp) throws OnboardingProcessException {
+        if (otp.getType() == OtpType.ACTIVATION) {
+            return process.getOtpFailedAttempts();
         } else {
-            final String activationId = process.getActivationId();
-            final IdentityVerificationEntity identityVerification = identityVerificationRepository.findFirstByActivationIdOrderByTimestampCreatedDesc(activationId)
-                    .orElseThrow(() -> new OnboardingProcessException("Identity verification not found, activation ID: " + activationId));
-            return onboardingOtpRepository.countFailedAttempts(process, otpType, identityVerification);
+            return getIdentityVerification(process, otp).getOtpFailedAttempts();
+        }
+    }
+
+    private IdentityVerificationEntity getIdentityVerification(final OnboardingProcessEntity process, final OnboardingOtpEntity otp) throws OnboardingProcessException {
+        if (otp.getIdentityVerification() != null) {
+            return otp.getIdentityVerification();
+        }
+        final String activationId = process.getActivationId();
+        return identityVerificationRepository.findFirstByActivationIdOrderByTimestampCreatedDesc(activationId)
+                .orElseThrow(() -> new OnboardingProcessException("Identity verification not found, activation ID: " + activationId));
+    }
+
+    /**
+     * Increment failed attempts of the given OTP type.
+     *
+     * @return Failed attempts including the current one.
+     */
+    private int incrementFailedAttempts(final OnboardingProcessEntity process, final OnboardingOtpEntity otp) throws OnboardingProcessException {
+        if (otp.getType() == OtpType.ACTIVATION) {
+            process.setOtpFailedAttempts(process.getOtpFailedAttempts() + 1);
+            return process.getOtpFailedAttempts();
+        } else {
+            final IdentityVerificationEntity identityVerification = getIdentityVerification(process, otp);
+            identityVerification.setOtpFailedAttempts(identityVerification.getOtpFailedAttempts() + 1);
+            identityVerificationRepository.save(identityVerification);
+            return identityVerification.getOtpFailedAttempts();
         }
     }
 
@@ -165,16 +192,15 @@ public class CommonOtpService implements OtpService {
      * @param ownerId Owner identification.
      * @param otp OTP entity.
      * @param otpType OTP type.
+     * @return Updated onboarding process entity.
      * @throws OnboardingProcessException In case process is not found.
      */
-    private void handleFailedOtpVerification(OnboardingProcessEntity process, OwnerId ownerId, OnboardingOtpEntity otp, OtpType otpType) throws OnboardingProcessException {
-        int failedAttempts = fetchFailedAttemptsCount(process, otpType);
+    private OnboardingProcessEntity handleFailedOtpVerification(OnboardingProcessEntity process, OwnerId ownerId, OnboardingOtpEntity otp, OtpType otpType) throws OnboardingProcessException {
+        final int failedAttempts = incrementFailedAttempts(process, otp);
         final int maxFailedAttempts = commonOnboardingConfig.getOtpMaxFailedAttempts();
         otp.setFailedAttempts(otp.getFailedAttempts() + 1);
         otp.setTotalAttempts(otp.getTotalAttempts() + 1);
         otp.setTimestampLastUpdated(ownerId.getTimestamp());
-        otp = onboardingOtpRepository.save(otp);
-        failedAttempts++;
         if (failedAttempts >= maxFailedAttempts) {
             otp.setStatus(OtpStatus.FAILED);
             otp.setErrorDetail(OnboardingOtpEntity.ERROR_MAX_FAILED_ATTEMPTS);
@@ -183,7 +209,7 @@ public class CommonOtpService implements OtpService {
             onboardingOtpRepository.save(otp);
             auditService.audit(otp, "OTP max attempts reached for user: {}", process.getUserId());
 
-            failProcessOrIdentityVerification(process, otp, ownerId);
+            process = failProcessOrIdentityVerification(process, otp, ownerId);
         } else {
             // Increase error score for process based on OTP type
             if (otpType == OtpType.ACTIVATION) {
@@ -199,14 +225,13 @@ public class CommonOtpService implements OtpService {
                 otp.setStatus(OtpStatus.FAILED);
                 otp.setErrorDetail(process.getErrorDetail());
                 otp.setErrorOrigin(ErrorOrigin.OTP_VERIFICATION);
-                otp.setTimestampLastUpdated(ownerId.getTimestamp());
                 otp.setTimestampFailed(ownerId.getTimestamp());
-                onboardingOtpRepository.save(otp);
                 auditService.audit(otp, "OTP failed because of failed process for user: {}", process.getUserId());
             }
+            onboardingOtpRepository.save(otp);
         }
 
-        onboardingProcessRepository.save(process);
+        return onboardingProcessRepository.save(process);
     }
 
     /**
@@ -25,7 +25,6 @@ import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConf
 import com.wultra.app.onboardingserver.common.database.DocumentVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
-import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.enumeration.OnboardingProcessError;
@@ -93,8 +92,9 @@ public class IdentityVerificationLimitService {
      */
     public void checkIdentityVerificationLimit(OwnerId ownerId) throws RemoteCommunicationException, IdentityVerificationException, OnboardingProcessLimitException {
         // Make sure that the maximum attempt number of identity verifications is not exceeded based on count of database rows.
-        final List<IdentityVerificationEntity> identityVerifications = identityVerificationRepository.findByActivationIdOrderByTimestampCreatedDesc(ownerId.getActivationId());
-        if (identityVerifications.size() >= config.getVerificationMaxFailedAttempts()) {
+        final int identityVerificationCount = identityVerificationRepository.countByActivationId(ownerId.getActivationId());
+        if (identityVerificationCount >= config.getVerificationMaxFailedAttempts()) {
+            final List<IdentityVerificationEntity> identityVerifications = identityVerificationRepository.findByActivationIdOrderByTimestampCreatedDesc(ownerId.getActivationId());
             final OnboardingProcessEntity process = onboardingProcessRepository.findByActivationIdAndStatus(ownerId.getActivationId(), OnboardingStatus.VERIFICATION_IN_PROGRESS)
                     .orElseThrow(() -> new IdentityVerificationException("Onboarding process not found, activation ID: " + ownerId.getActivationId()));
 
@@ -136,8 +136,8 @@ public class IdentityVerificationLimitService {
      */
     public void checkDocumentUploadLimit(OwnerId ownerId, IdentityVerificationEntity identityVerification)
             throws IdentityVerificationLimitException, RemoteCommunicationException, IdentityVerificationException, OnboardingProcessLimitException, OnboardingProcessException {
-        final List<DocumentVerificationEntity> documentVerificationsFailed = documentVerificationRepository.findAllDocumentVerifications(identityVerification, DocumentStatus.ALL_FAILED);
-        if (documentVerificationsFailed.size() > config.getDocumentUploadMaxFailedAttempts()) {
+        final int documentVerificationsFailedCount = documentVerificationRepository.countDocumentVerifications(identityVerification, DocumentStatus.ALL_FAILED);
+        if (documentVerificationsFailedCount > config.getDocumentUploadMaxFailedAttempts()) {
             resetIdentityVerification(ownerId, ErrorOrigin.PROCESS_LIMIT_CHECK, IdentityVerificationEntity.ERROR_MAX_FAILED_ATTEMPTS_DOCUMENT_UPLOAD);
             throw new IdentityVerificationLimitException("Max failed attempts reached for document upload, " + ownerId);
         }
@@ -0,0 +1,53 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff of retried operations.
+ */
+public final class ExponentialBackoff {
+
+    private ExponentialBackoff() {
+        throw new IllegalStateException("Should not be instantiated");
+    }
+
+    /**
+     * Compute the backoff before the given attempt. The initial backoff is doubled with each attempt and capped
+     * by the maximal backoff, then randomized by equal jitter, keeping at least half of the backoff, so that
+     * the retries of operations failed at the same time are spread.
+     *
+     * @param attempt Number of the failed attempt, starting with one.
+     * @param initialBackoff Backoff after the first failed attempt.
+     * @param maxBackoff Maximal backoff.
+     * @return Randomized backoff.
+     */
+    public static Duration withEqualJitter(final int attempt, final Duration initialBackoff, final Duration maxBackoff) {
+        final long initialMillis = initialBackoff.toMillis();
+        final long maxMillis = maxBackoff.toMillis();
+        final int exponent = Math.max(0, Math.min(attempt - 1, 30));
+        final long delayMillis = Math.min(maxMillis, initialMillis << exponent);
+        if (delayMillis <= 0) {
+            return Duration.ZERO;
+        }
+        final long halfDelay = delayMillis / 2;
+        return Duration.ofMillis(halfDelay + ThreadLocalRandom.current().nextLong(halfDelay + 1));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link ProviderCallGuard}.
+ */
+class ProviderCallGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testCall_success() throws Exception {
+        final ProviderCallGuard tested = new ProviderCallGuard("test", createConfiguration(), meterRegistry, null);
+
+        assertEquals("result", tested.call("operation", ProviderCallType.NON_IDEMPOTENT, () -> "result"));
+        assertEquals(1, meterRegistry.get(ProviderCallGuard.METRIC_CALLS).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testCall_idempotentRetried() throws Exception {
+        final ProviderCallGuard tested = new ProviderCallGuard("test", createConfiguration(), meterRegistry, null);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = tested.call("operation", ProviderCallType.IDEMPOTENT, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RestClientException("Connection refused");
+            }
+            return "result";
+        });
+
+        assertEquals("result", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testCall_nonIdempotentNotRetried() {
+        final ProviderCallGuard tested = new ProviderCallGuard("test", createConfiguration(), meterRegistry, null);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RestClientException.class, () -> tested.call("operation", ProviderCallType.NON_IDEMPOTENT, () -> {
+            attempts.incrementAndGet();
+            throw new RestClientException("Connection refused");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testCall_clientErrorNotRetried() {
+        final ProviderCallGuard tested = new ProviderCallGuard("test", createConfiguration(), meterRegistry, null);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RestClientException.class, () -> tested.call("operation", ProviderCallType.IDEMPOTENT, () -> {
+            attempts.incrementAndGet();
+            throw new RestClientException("Not found", HttpStatus.NOT_FOUND, "", new HttpHeaders());
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testCall_circuitBreakerOpen() {
+        final ProviderCallGuardConfiguration configuration = createConfiguration();
+        configuration.setFailureThreshold(2);
+        final ProviderCallGuard tested = new ProviderCallGuard("test", configuration, meterRegistry, null);
+        final AtomicInteger attempts = new AtomicInteger();
+        final ProviderCall<String, RestClientException> failingCall = () -> {
+            attempts.incrementAndGet();
+            throw new RestClientException("Connection refused");
+        };
+
+        assertThrows(RestClientException.class, () -> tested.call("operation", ProviderCallType.NON_IDEMPOTENT, failingCall));
+        assertThrows(RestClientException.class, () -> tested.call("operation", ProviderCallType.NON_IDEMPOTENT, failingCall));
+        assertThrows(ProviderCallRejectedException.class, () -> tested.call("operation", ProviderCallType.NON_IDEMPOTENT, failingCall));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testCall_bulkheadFull() throws Exception {
+        final ProviderCallGuardConfiguration configuration = createConfiguration();
+        configuration.setMaxConcurrentCalls(1);
+        configuration.setMaxWaitDuration(Duration.ofMillis(10));
+        final ProviderCallGuard tested = new ProviderCallGuard("test", configuration, meterRegistry, null);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread blocking = new Thread(() -> {
+            try {
+                tested.call("operation", ProviderCallType.NON_IDEMPOTENT, () -> {
+                    started.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocking.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ProviderCallRejectedException.class, () -> tested.call("operation", ProviderCallType.NON_IDEMPOTENT, () -> "result"));
+
+        release.countDown();
+        blocking.join();
+        assertEquals("result", tested.call("operation", ProviderCallType.NON_IDEMPOTENT, () -> "result"));
+    }
+
+    @Test
+    void testCall_statusPollHedged() throws Exception {
+        final ProviderCallGuardConfiguration configuration = createConfiguration();
+        configuration.setHedgeDelay(Duration.ofMillis(50));
+        final ExecutorService taskExecutor = Executors.newCachedThreadPool();
+        try {
+            final ProviderCallGuard tested = new ProviderCallGuard("test", configuration, meterRegistry, taskExecutor);
+            final AtomicInteger attempts = new AtomicInteger();
+            final CountDownLatch release = new CountDownLatch(1);
+
+            final String result = tested.call("operation", ProviderCallType.STATUS_POLL, () -> {
+                if (attempts.incrementAndGet() == 1) {
+                    // the first request hangs, the hedged one answers
+                    release.await(5, TimeUnit.SECONDS);
+                    return "slow";
+                }
+                return "hedged";
+            });
+
+            assertEquals("hedged", result);
+            assertEquals(2, attempts.get());
+            release.countDown();
+        } finally {
+            taskExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCall_disabled() throws Exception {
+        final ProviderCallGuardConfiguration configuration = createConfiguration();
+        configuration.setEnabled(false);
+        final ProviderCallGuard tested = new ProviderCallGuard("test", configuration, meterRegistry, null);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RestClientException.class, () -> tested.call("operation", ProviderCallType.IDEMPOTENT, () -> {
+            attempts.incrementAndGet();
+            throw new RestClientException("Connection refused");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    private static ProviderCallGuardConfiguration createConfiguration() {
+        final ProviderCallGuardConfiguration configuration = new ProviderCallGuardConfiguration();
+        configuration.setInitialBackoff(Duration.ofMillis(1));
+        configuration.setMaxBackoff(Duration.ofMillis(5));
+        return configuration;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.client;
+
+import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for {@link ProviderClientWarmUp}.
+ */
+class ProviderClientWarmUpTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ProviderCallGuard callGuard = new ProviderCallGuard("test", new ProviderCallGuardConfiguration(), meterRegistry, null);
+
+    @Test
+    void testCheck_tokenRefreshedAndConnectionWarmedUpOnce() {
+        final AtomicInteger tokenRefreshes = new AtomicInteger();
+        final AtomicInteger warmUps = new AtomicInteger();
+        final ProviderClientWarmUp tested = new ProviderClientWarmUp("test", createConfiguration(Duration.ofHours(1)), callGuard, meterRegistry,
+                null, null, tokenRefreshes::incrementAndGet, warmUps::incrementAndGet);
+
+        tested.check();
+        tested.check();
+
+        assertEquals(2, tokenRefreshes.get());
+        assertEquals(1, warmUps.get());
+        assertEquals(1, meterRegistry.get(ProviderClientWarmUp.METRIC_WARM_UP).tag("task", "connection").timer().count());
+    }
+
+    @Test
+    void testCheck_warmedUpAfterIdle() {
+        final AtomicInteger warmUps = new AtomicInteger();
+        final ProviderClientWarmUp tested = new ProviderClientWarmUp("test", createConfiguration(Duration.ZERO), callGuard, meterRegistry,
+                null, null, null, warmUps::incrementAndGet);
+
+        tested.check();
+        tested.check();
+
+        assertEquals(2, warmUps.get());
+    }
+
+    @Test
+    void testCheck_warmUpPassesThroughGuard() {
+        final ProviderClientWarmUp tested = new ProviderClientWarmUp("test", createConfiguration(Duration.ofHours(1)), callGuard, meterRegistry,
+                null, null, null, () -> null);
+
+        tested.check();
+
+        assertEquals(1, meterRegistry.get(ProviderCallGuard.METRIC_CALLS).tag("operation", "warmUp").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testCheck_failureRecorded() {
+        final ProviderClientWarmUp tested = new ProviderClientWarmUp("test", createConfiguration(Duration.ZERO), callGuard, meterRegistry,
+                null, null, null, () -> {
+                    throw new RestClientException("Connection refused");
+                });
+
+        tested.check();
+
+        assertEquals(1, meterRegistry.get(ProviderClientWarmUp.METRIC_WARM_UP).tag("outcome", "error").timer().count());
+    }
+
+    private static ProviderClientWarmUpConfiguration createConfiguration(final Duration idleInterval) {
+        final ProviderClientWarmUpConfiguration configuration = new ProviderClientWarmUpConfiguration();
+        configuration.setIdleInterval(idleInterval);
+        return configuration;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test for {@link TaskContextDecorator}.
+ */
+class TaskContextDecoratorTest {
+
+    private final TaskContextDecorator tested = new TaskContextDecorator(ObservationRegistry.NOOP);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void testDecorate_contextPropagatedAndRestored() {
+        MDC.put("processId", "submitting");
+        final AtomicReference<String> propagated = new AtomicReference<>();
+        final Runnable decorated = tested.decorate(() -> propagated.set(MDC.get("processId")));
+
+        MDC.put("processId", "executing");
+        decorated.run();
+
+        assertEquals("submitting", propagated.get());
+        assertEquals("executing", MDC.get("processId"));
+    }
+
+    @Test
+    void testDecorate_emptyContext() {
+        final AtomicReference<String> propagated = new AtomicReference<>();
+        final Runnable decorated = tested.decorate(() -> propagated.set(MDC.get("processId")));
+
+        MDC.put("processId", "executing");
+        decorated.run();
+
+        assertNull(propagated.get());
+        assertEquals("executing", MDC.get("processId"));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Test for {@link DocumentVerificationRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@Sql
+class DocumentVerificationRepositoryTest {
+
+    @Autowired
+    private DocumentVerificationRepository tested;
+
+    @Test
+    void testFindDocumentStatuses() {
+        assertThat(tested.findDocumentStatuses("a1"))
+                .containsExactly(
+                        new DocumentStatusProjection("v2", IdentityVerificationStatus.IN_PROGRESS, "d2", "a1", DocumentType.ID_CARD, CardSide.BACK, DocumentStatus.ACCEPTED, "f2", null, null),
+                        new DocumentStatusProjection("v2", IdentityVerificationStatus.IN_PROGRESS, "d3", "a1", DocumentType.ID_CARD, CardSide.FRONT, DocumentStatus.REJECTED, "f3", null, "blurred"));
+    }
+
+    @Test
+    void testFindDocumentStatuses_noDocument() {
+        assertThat(tested.findDocumentStatuses("a2"))
+                .singleElement()
+                .satisfies(it -> {
+                    assertThat(it.identityVerificationStatus()).isEqualTo(IdentityVerificationStatus.IN_PROGRESS);
+                    assertThat(it.hasDocument()).isFalse();
+                });
+    }
+
+    @Test
+    void testFindDocumentStatuses_notExisting() {
+        assertThat(tested.findDocumentStatuses("a3")).isEmpty();
+    }
+
+    @Test
+    void testFindDocumentStatuses_filter() {
+        assertThat(tested.findDocumentStatuses("a1", List.of("d1", "d4")))
+                .extracting(DocumentStatusProjection::identityVerificationId, DocumentStatusProjection::documentId)
+                .containsExactly(
+                        tuple("v2", "d1"),
+                        tuple("v2", "d4"));
+
+        assertThat(tested.findDocumentStatuses("a2", List.of("d2")))
+                .singleElement()
+                .extracting(DocumentStatusProjection::activationId)
+                .isEqualTo("a1");
+
+        assertThat(tested.findDocumentStatuses("a2", List.of()))
+                .singleElement()
+                .satisfies(it -> assertThat(it.hasDocument()).isFalse());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.enrollmentserver.model.enumeration.OtpStatus;
+import com.wultra.app.onboardingserver.common.database.entity.ScaResultEntity;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link IdentityVerificationRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@Sql
+class IdentityVerificationRepositoryTest {
+
+    @Autowired
+    private IdentityVerificationRepository tested;
+
+    @Test
+    void testFindPrecompleteProjections() {
+        assertThat(tested.findPrecompleteProjections("v1", DocumentStatus.ALL_PROCESSED))
+                .containsExactly(
+                        new PrecompleteProjection("d1", DocumentType.ID_CARD, CardSide.FRONT, DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS),
+                        new PrecompleteProjection("d2", DocumentType.ID_CARD, CardSide.BACK, DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS),
+                        new PrecompleteProjection("d3", DocumentType.DRIVING_LICENSE, null, DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS));
+    }
+
+    @Test
+    void testFindPrecompleteProjections_noRecords() {
+        assertThat(tested.findPrecompleteProjections("v2", DocumentStatus.ALL_PROCESSED))
+                .singleElement()
+                .satisfies(it -> {
+                    assertThat(it.hasDocument()).isFalse();
+                    assertThat(it.userVerificationOtpStatus()).isNull();
+                    assertThat(it.activationOtpStatus()).isNull();
+                    assertThat(it.scaResult()).isNull();
+                });
+    }
+
+    @Test
+    void testFindPrecompleteProjections_notExisting() {
+        assertThat(tested.findPrecompleteProjections("v3", DocumentStatus.ALL_PROCESSED)).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link OnboardingOtpRepository}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+class OnboardingOtpRepositoryTest {
+
+    @Autowired
+    private OnboardingOtpRepository tested;
+
+    @Test
+    @Sql
+    void testFindNewestByProcessIdAndType() {
+        assertThat(tested.findNewestByProcessIdAndType("p1", OtpType.USER_VERIFICATION))
+                .get()
+                .satisfies(otp -> {
+                    assertThat(otp.getId()).isEqualTo("o3");
+                    assertThat(otp.getProcess().getOtpFailedAttempts()).isEqualTo(1);
+                    assertThat(otp.getIdentityVerification().getOtpFailedAttempts()).isEqualTo(2);
+                });
+
+        assertThat(tested.findNewestByProcessIdAndType("p1", OtpType.ACTIVATION))
+                .get()
+                .extracting(OnboardingOtpEntity::getId)
+                .isEqualTo("o1");
+
+        assertThat(tested.findNewestByProcessIdAndType("p2", OtpType.ACTIVATION))
+                .isEmpty();
+    }
+
+}
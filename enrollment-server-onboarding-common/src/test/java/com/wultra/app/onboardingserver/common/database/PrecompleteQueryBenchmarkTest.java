@@ -0,0 +1,123 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database;
+
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the precomplete evaluation queries on H2, comparing {@link IdentityVerificationRepository#findPrecompleteProjections}
+ * with the separate document, OTP and SCA result queries used before.
+ * <p>
+ * Only the number of statements is asserted, the measured durations are logged for information as they depend on the machine.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@Sql
+@Slf4j
+class PrecompleteQueryBenchmarkTest {
+
+    private static final int WARM_UP_ITERATIONS = 100;
+
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private IdentityVerificationRepository identityVerificationRepository;
+
+    @Autowired
+    private DocumentVerificationRepository documentVerificationRepository;
+
+    @Autowired
+    private OnboardingOtpRepository onboardingOtpRepository;
+
+    @Autowired
+    private ScaResultRepository scaResultRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private IdentityVerificationEntity identityVerification;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        identityVerification = identityVerificationRepository.findById("v1").orElseThrow();
+    }
+
+    @Test
+    void testPrecompleteQueries() {
+        final long separateStatements = measure("separate queries", this::runSeparateQueries);
+        final long singleStatements = measure("single query", this::runSingleQuery);
+
+        // the SCA result query loads also the eager identity verification association
+        assertThat(separateStatements).isGreaterThanOrEqualTo(4);
+        assertThat(singleStatements).isEqualTo(1);
+    }
+
+    private void runSeparateQueries() {
+        documentVerificationRepository.findAllDocumentVerifications(identityVerification, DocumentStatus.ALL_PROCESSED);
+        onboardingOtpRepository.findNewestByProcessIdAndType("p1", OtpType.USER_VERIFICATION);
+        onboardingOtpRepository.findNewestByProcessIdAndType("p1", OtpType.ACTIVATION);
+        scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(identityVerification);
+    }
+
+    private void runSingleQuery() {
+        identityVerificationRepository.findPrecompleteProjections("v1", DocumentStatus.ALL_PROCESSED);
+    }
+
+    /**
+     * Run the given evaluation repeatedly and log the mean duration.
+     *
+     * @return Number of statements prepared by a single evaluation.
+     */
+    private long measure(final String name, final Runnable evaluation) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            evaluation.run();
+            entityManager.clear();
+        }
+
+        statistics.clear();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            evaluation.run();
+            entityManager.clear();
+        }
+        final long durationNanos = System.nanoTime() - start;
+
+        final long statements = statistics.getPrepareStatementCount() / ITERATIONS;
+        logger.info("Precomplete evaluation by {}: {} statements, mean {} us", name, statements, durationNanos / ITERATIONS / 1_000);
+        return statements;
+    }
+}
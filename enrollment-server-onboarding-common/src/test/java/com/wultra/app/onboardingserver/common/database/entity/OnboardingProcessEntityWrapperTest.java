@@ -57,6 +57,30 @@ class OnboardingProcessEntityWrapperTest {
         );
     }
 
+    @Test
+    void testSetValue_unchanged() {
+        final OnboardingProcessEntity process = new OnboardingProcessEntity();
+        final String customData = "{\"ipAddress\" : \"127.0.0.1\"}";
+        process.setCustomData(customData);
+
+        final OnboardingProcessEntityWrapper tested = new OnboardingProcessEntityWrapper(process);
+        tested.setIpAddress("127.0.0.1");
+
+        assertSame(customData, process.getCustomData());
+    }
+
+    @Test
+    void testGetValues_customDataChangedDirectly() {
+        final OnboardingProcessEntity process = new OnboardingProcessEntity();
+        final OnboardingProcessEntityWrapper tested = new OnboardingProcessEntityWrapper(process);
+        tested.setUserAgent("Mozilla/5.0");
+        assertEquals("Mozilla/5.0", tested.getUserAgent());
+
+        process.setCustomData("{\"userAgent\":\"Chrome/10.0\"}");
+
+        assertEquals("Chrome/10.0", new OnboardingProcessEntityWrapper(process).getUserAgent());
+    }
+
     @Test
     void testSetFdsValues() {
         final OnboardingProcessEntity process = new OnboardingProcessEntity();
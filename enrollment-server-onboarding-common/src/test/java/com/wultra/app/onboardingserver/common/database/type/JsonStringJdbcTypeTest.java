@@ -0,0 +1,64 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.database.type;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.StringJavaType;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link JsonStringJdbcType}.
+ */
+class JsonStringJdbcTypeTest {
+
+    private final ValueBinder<String> tested = new JsonStringJdbcType().getBinder(StringJavaType.INSTANCE);
+
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+
+    private final WrapperOptions options = mock(WrapperOptions.class);
+
+    @Test
+    void testBind_postgreSql() throws Exception {
+        when(options.getDialect()).thenReturn(new PostgreSQLDialect());
+
+        tested.bind(statement, "{\"locale\":\"en\"}", 1, options);
+        tested.bind(statement, null, 2, options);
+
+        verify(statement).setObject(1, "{\"locale\":\"en\"}", Types.OTHER);
+        verify(statement).setNull(2, Types.OTHER);
+    }
+
+    @Test
+    void testBind_otherDatabase() throws Exception {
+        when(options.getDialect()).thenReturn(new H2Dialect());
+
+        tested.bind(statement, "{\"locale\":\"en\"}", 1, options);
+        tested.bind(statement, null, 2, options);
+
+        verify(statement).setString(1, "{\"locale\":\"en\"}");
+        verify(statement).setNull(2, Types.VARCHAR);
+    }
+}
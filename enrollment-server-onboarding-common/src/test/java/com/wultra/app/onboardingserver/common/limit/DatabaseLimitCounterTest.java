@@ -0,0 +1,112 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import com.wultra.app.onboardingserver.common.database.LimitCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for {@link DatabaseLimitCounter}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DatabaseLimitCounter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseLimitCounterTest {
+
+    private static final Duration WINDOW = Duration.ofHours(24);
+
+    private static final Instant DAY = Instant.parse("2025-10-19T00:00:00Z");
+
+    @Autowired
+    private DatabaseLimitCounter tested;
+
+    @Autowired
+    private LimitCounterRepository limitCounterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        limitCounterRepository.deleteAll();
+    }
+
+    @Test
+    void testIncrement() {
+        assertEquals(0, tested.count("user", WINDOW, DAY));
+        assertEquals(1, tested.increment("user", WINDOW, DAY));
+        assertEquals(2, tested.increment("user", WINDOW, DAY.plus(Duration.ofHours(23))));
+        assertEquals(2, tested.count("user", WINDOW, DAY.plus(Duration.ofHours(23))));
+        assertEquals(0, tested.count("other", WINDOW, DAY));
+    }
+
+    @Test
+    void testCreate_concurrentlyCreated() {
+        tested.increment("user", WINDOW, DAY);
+        final Date windowStart = Date.from(DAY);
+        final Date expiration = Date.from(DAY.plus(WINDOW).plus(WINDOW));
+
+        // the increment retries on the violation instead of overwriting the counter
+        assertThrows(DataIntegrityViolationException.class, () ->
+                transactionTemplate.execute(status -> limitCounterRepository.create("user", windowStart, expiration)));
+        assertEquals(1, tested.count("user", WINDOW, DAY));
+    }
+
+    @Test
+    void testSlidingWindow() {
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+
+        final Instant nextDay = DAY.plus(WINDOW);
+        assertEquals(3, tested.count("user", WINDOW, nextDay.plus(Duration.ofHours(6))));
+        assertEquals(4, tested.increment("user", WINDOW, nextDay.plus(Duration.ofHours(6))));
+        assertEquals(1, tested.count("user", WINDOW, nextDay.plus(WINDOW)));
+
+        // the counter skips a whole window
+        assertEquals(1, tested.increment("user", WINDOW, nextDay.plus(WINDOW).plus(WINDOW)));
+    }
+
+    @Test
+    void testCleanup() {
+        tested.increment("user1", WINDOW, DAY);
+        tested.increment("user2", WINDOW, DAY.plus(WINDOW));
+
+        assertEquals(1, tested.cleanup(DAY.plus(WINDOW).plus(WINDOW).plusSeconds(1)));
+        assertEquals(0, tested.count("user1", WINDOW, DAY.plus(WINDOW)));
+        assertEquals(1, tested.count("user2", WINDOW, DAY.plus(WINDOW)));
+    }
+}
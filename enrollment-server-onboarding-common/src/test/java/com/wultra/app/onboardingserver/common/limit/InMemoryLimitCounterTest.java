@@ -0,0 +1,77 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for {@link InMemoryLimitCounter}.
+ */
+class InMemoryLimitCounterTest {
+
+    private static final Duration WINDOW = Duration.ofHours(24);
+
+    private static final Instant DAY = Instant.parse("2025-10-19T00:00:00Z");
+
+    private final InMemoryLimitCounter tested = new InMemoryLimitCounter();
+
+    @Test
+    void testIncrement() {
+        assertEquals(0, tested.count("user", WINDOW, DAY));
+        assertEquals(1, tested.increment("user", WINDOW, DAY));
+        assertEquals(2, tested.increment("user", WINDOW, DAY.plus(Duration.ofHours(23))));
+        assertEquals(2, tested.count("user", WINDOW, DAY.plus(Duration.ofHours(23))));
+        assertEquals(0, tested.count("other", WINDOW, DAY));
+    }
+
+    @Test
+    void testSlidingWindow() {
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+        tested.increment("user", WINDOW, DAY);
+
+        // a quarter of the next day elapsed, three quarters of the previous count are within the sliding window
+        final Instant nextDay = DAY.plus(WINDOW);
+        assertEquals(3, tested.count("user", WINDOW, nextDay.plus(Duration.ofHours(6))));
+        assertEquals(4, tested.increment("user", WINDOW, nextDay.plus(Duration.ofHours(6))));
+
+        // rounded up
+        assertEquals(2, tested.count("user", WINDOW, nextDay.plus(Duration.ofHours(18))));
+
+        // the previous day is out of the sliding window
+        assertEquals(1, tested.count("user", WINDOW, nextDay.plus(WINDOW)));
+        assertEquals(0, tested.count("user", WINDOW, nextDay.plus(WINDOW).plus(WINDOW)));
+    }
+
+    @Test
+    void testCleanup() {
+        tested.increment("user1", WINDOW, DAY);
+        tested.increment("user2", WINDOW, DAY.plus(WINDOW));
+
+        assertEquals(0, tested.cleanup(DAY.plus(WINDOW)));
+        assertEquals(1, tested.cleanup(DAY.plus(WINDOW).plus(WINDOW).plusSeconds(1)));
+        assertEquals(0, tested.count("user1", WINDOW, DAY.plus(WINDOW)));
+        assertEquals(1, tested.count("user2", WINDOW, DAY.plus(WINDOW)));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.outbox;
+
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.app.onboardingserver.common.database.OutboxRepository;
+import com.wultra.app.onboardingserver.common.database.entity.OutboxEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.OutboxDeliveryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link OutboxRelay}.
+ */
+class OutboxRelayTest {
+
+    private static final String TYPE = "test";
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+
+    private final TestHandler handler = new TestHandler();
+
+    private OutboxRelay tested;
+
+    @BeforeEach
+    void setUp() {
+        final CommonOnboardingConfig config = new CommonOnboardingConfig();
+        config.setOutboxBatchSize(10);
+        config.setOutboxMaxAttempts(3);
+        config.setOutboxInitialBackoff(Duration.ofSeconds(10));
+        config.setOutboxMaxBackoff(Duration.ofMinutes(10));
+        tested = new OutboxRelay(outboxRepository, List.of(handler), config);
+    }
+
+    @Test
+    void testRelay_delivered() {
+        final OutboxEntity message = createMessage(TYPE, "{\"value\":\"v1\"}", 0);
+        when(outboxRepository.findDeliverable(any(Date.class), eq(Limit.of(10)))).thenReturn(List.of(message));
+
+        final OutboxRelay.Result result = tested.relay();
+
+        assertEquals(new OutboxRelay.Result(1, 1), result);
+        assertEquals(List.of(new Payload("v1")), handler.delivered);
+        verify(outboxRepository).delete(message);
+    }
+
+    @Test
+    void testRelay_failedRetried() {
+        final OutboxEntity message = createMessage(TYPE, "{\"value\":\"v1\"}", 0);
+        when(outboxRepository.findDeliverable(any(Date.class), any(Limit.class))).thenReturn(List.of(message));
+        handler.fail = true;
+
+        final Date before = new Date();
+        final OutboxRelay.Result result = tested.relay();
+
+        assertEquals(new OutboxRelay.Result(1, 0), result);
+        assertEquals(OutboxEntity.Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertEquals("unavailable", message.getErrorDetail());
+        assertTrue(message.getTimestampNextAttempt().getTime() >= before.getTime() + 5_000);
+        verify(outboxRepository).save(message);
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void testRelay_failedMaxAttempts() {
+        final OutboxEntity message = createMessage(TYPE, "{\"value\":\"v1\"}", 2);
+        when(outboxRepository.findDeliverable(any(Date.class), any(Limit.class))).thenReturn(List.of(message));
+        handler.fail = true;
+
+        tested.relay();
+
+        assertEquals(OutboxEntity.Status.DEAD, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        verify(outboxRepository).save(message);
+    }
+
+    @Test
+    void testRelay_unknownType() {
+        final OutboxEntity message = createMessage("unknown", "{}", 0);
+        when(outboxRepository.findDeliverable(any(Date.class), any(Limit.class))).thenReturn(List.of(message));
+
+        tested.relay();
+
+        assertEquals(OutboxEntity.Status.DEAD, message.getStatus());
+        assertEquals(0, message.getAttempts());
+        assertTrue(handler.delivered.isEmpty());
+        verify(outboxRepository).save(message);
+    }
+
+    @Test
+    void testRelay_invalidPayload() {
+        final OutboxEntity message = createMessage(TYPE, "not a json", 0);
+        when(outboxRepository.findDeliverable(any(Date.class), any(Limit.class))).thenReturn(List.of(message));
+
+        tested.relay();
+
+        assertEquals(OutboxEntity.Status.DEAD, message.getStatus());
+        assertTrue(handler.delivered.isEmpty());
+    }
+
+    private static OutboxEntity createMessage(final String type, final String payload, final int attempts) {
+        final OutboxEntity message = new OutboxEntity();
+        message.setId(1L);
+        message.setMessageKey("process-1");
+        message.setMessageType(type);
+        message.setPayload(payload);
+        message.setStatus(OutboxEntity.Status.PENDING);
+        message.setAttempts(attempts);
+        message.setTimestampCreated(new Date());
+        message.setTimestampNextAttempt(new Date());
+        return message;
+    }
+
+    record Payload(String value) {
+    }
+
+    static class TestHandler implements OutboxHandler<Payload> {
+
+        private final List<Payload> delivered = new ArrayList<>();
+
+        private boolean fail;
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+        @Override
+        public Class<Payload> getPayloadType() {
+            return Payload.class;
+        }
+
+        @Override
+        public void deliver(final Payload payload) throws OutboxDeliveryException {
+            if (fail) {
+                throw new OutboxDeliveryException("unavailable");
+            }
+            delivered.add(payload);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link ActivationFlagCache}.
+ */
+class ActivationFlagCacheTest {
+
+    private static final String ACTIVATION_ID = "a1";
+
+    private ActivationFlagCache tested;
+
+    @BeforeEach
+    void setUp() {
+        final CommonOnboardingConfig config = new CommonOnboardingConfig();
+        config.setActivationFlagsCacheTtl(Duration.ofMinutes(1));
+        config.setActivationFlagsCacheMaxEntries(100);
+        tested = new ActivationFlagCache(config);
+    }
+
+    @Test
+    void testGet_cached() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(List.of("FLAG"), tested.get(ACTIVATION_ID, () -> load(loads)));
+        assertEquals(List.of("FLAG"), tested.get(ACTIVATION_ID, () -> load(loads)));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_invalidated() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+
+        tested.get(ACTIVATION_ID, () -> load(loads));
+        tested.invalidate(ACTIVATION_ID);
+        tested.get(ACTIVATION_ID, () -> load(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_failureNotCached() throws Exception {
+        assertThrows(PowerAuthClientException.class, () -> tested.get(ACTIVATION_ID, () -> {
+            throw new PowerAuthClientException("Connection refused");
+        }));
+
+        assertEquals(List.of("FLAG"), tested.get(ACTIVATION_ID, () -> load(new AtomicInteger())));
+    }
+
+    @Test
+    void testGet_concurrentLookupsCoalesced() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return tested.get(ACTIVATION_ID, () -> {
+                    loading.countDown();
+                    await(release);
+                    return load(loads);
+                });
+            } catch (PowerAuthClientException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        final CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return tested.get(ACTIVATION_ID, () -> load(loads));
+            } catch (PowerAuthClientException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        release.countDown();
+
+        assertEquals(List.of("FLAG"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("FLAG"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> load(final AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of("FLAG");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig.AuditOverflowPolicy;
+import com.wultra.core.audit.base.Audit;
+import com.wultra.core.audit.base.model.AuditDetail;
+import com.wultra.core.audit.base.model.AuditLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link AsyncAuditWriter}.
+ */
+class AsyncAuditWriterTest {
+
+    private static final AuditDetail AUDIT_DETAIL = AuditDetail.builder().type("test").build();
+
+    private final Audit audit = mock(Audit.class);
+
+    private final CommonOnboardingConfig config = new CommonOnboardingConfig();
+
+    private AsyncAuditWriter tested;
+
+    @BeforeEach
+    void setUp() {
+        when(audit.isLevelEnabled(any())).thenReturn(true);
+        config.setAuditAsyncEnabled(true);
+        config.setAuditAsyncBufferSize(16);
+        config.setAuditAsyncBatchSize(10);
+        config.setAuditAsyncFlushInterval(Duration.ofSeconds(1));
+        config.setAuditAsyncShutdownTimeout(Duration.ofSeconds(10));
+        config.setAuditAsyncOverflowPolicy(AuditOverflowPolicy.BLOCK);
+        tested = new AsyncAuditWriter(audit, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tested.stop();
+    }
+
+    @Test
+    void testWrite_flushedOnStop() {
+        tested.start();
+        for (int i = 0; i < 100; i++) {
+            tested.write(AuditLevel.INFO, "Record {}", AUDIT_DETAIL, i);
+        }
+        tested.stop();
+
+        verify(audit, times(100)).log(eq("Record {}"), eq(AuditLevel.INFO), eq(AUDIT_DETAIL), any());
+        verify(audit, atLeastOnce()).flush();
+    }
+
+    @Test
+    void testWrite_callingClassAndThreadName() throws Exception {
+        final CountDownLatch written = new CountDownLatch(1);
+        final AuditDetail auditDetail = AuditDetail.builder().type("test").build();
+        doAnswer(invocation -> {
+            written.countDown();
+            return null;
+        }).when(audit).log(any(), any(), any(), any(Object[].class));
+
+        tested.start();
+        tested.write(AuditLevel.INFO, "Record", auditDetail);
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(AsyncAuditWriterTest.class.getName(), auditDetail.getParam().get(AsyncAuditWriter.PARAM_CALLING_CLASS));
+        assertEquals(Thread.currentThread().getName(), auditDetail.getParam().get(AsyncAuditWriter.PARAM_THREAD_NAME));
+    }
+
+    @Test
+    void testWrite_blockWhenFull() throws Exception {
+        config.setAuditAsyncBufferSize(2);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return null;
+        }).when(audit).log(eq("Blocking"), any(), any(), any(Object[].class));
+
+        tested.start();
+        tested.write(AuditLevel.INFO, "Blocking", AUDIT_DETAIL);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // the writer is blocked, fill the buffer and wait for free space in another thread
+        tested.write(AuditLevel.INFO, "Info", AUDIT_DETAIL);
+        tested.write(AuditLevel.INFO, "Info", AUDIT_DETAIL);
+        final CountDownLatch waitingWritten = new CountDownLatch(1);
+        final Thread waiting = new Thread(() -> {
+            tested.write(AuditLevel.DEBUG, "Debug", AUDIT_DETAIL);
+            waitingWritten.countDown();
+        });
+        waiting.start();
+        assertFalse(waitingWritten.await(200, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(waitingWritten.await(5, TimeUnit.SECONDS));
+        tested.stop();
+
+        verify(audit, times(2)).log(eq("Info"), eq(AuditLevel.INFO), eq(AUDIT_DETAIL), any(Object[].class));
+        verify(audit).log(eq("Debug"), eq(AuditLevel.DEBUG), eq(AUDIT_DETAIL), any(Object[].class));
+    }
+
+    @Test
+    void testWrite_disabled() {
+        config.setAuditAsyncEnabled(false);
+        tested.start();
+
+        tested.write(AuditLevel.DEBUG, "Record", AUDIT_DETAIL);
+
+        verify(audit).log(eq("Record"), eq(AuditLevel.DEBUG), eq(AUDIT_DETAIL), any(Object[].class));
+        assertFalse(tested.isRunning());
+    }
+
+    @Test
+    void testWrite_dropDebugWhenFull() throws Exception {
+        config.setAuditAsyncBufferSize(2);
+        config.setAuditAsyncOverflowPolicy(AuditOverflowPolicy.DROP_DEBUG);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return null;
+        }).when(audit).log(eq("Blocking"), any(), any(), any(Object[].class));
+
+        tested.start();
+        tested.write(AuditLevel.INFO, "Blocking", AUDIT_DETAIL);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // the writer is blocked, fill the buffer
+        tested.write(AuditLevel.INFO, "Info", AUDIT_DETAIL);
+        tested.write(AuditLevel.INFO, "Info", AUDIT_DETAIL);
+        tested.write(AuditLevel.DEBUG, "Debug", AUDIT_DETAIL);
+
+        release.countDown();
+        tested.stop();
+
+        verify(audit, times(2)).log(eq("Info"), eq(AuditLevel.INFO), eq(AUDIT_DETAIL), any(Object[].class));
+        verify(audit, never()).log(eq("Debug"), any(), any(), any(Object[].class));
+    }
+}
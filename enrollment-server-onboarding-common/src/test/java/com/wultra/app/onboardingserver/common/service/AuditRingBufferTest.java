@@ -0,0 +1,88 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link AuditRingBuffer}.
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void testOfferPoll_wrapAround() {
+        final AuditRingBuffer<Integer> tested = new AuditRingBuffer<>(3);
+        assertEquals(4, tested.capacity());
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(tested.offer(i));
+            }
+            assertFalse(tested.offer(4));
+            assertEquals(4, tested.size());
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, tested.poll());
+            }
+            assertNull(tested.poll());
+        }
+    }
+
+    @Test
+    void testOffer_concurrentProducers() throws Exception {
+        final int producers = 4;
+        final int count = 10_000;
+        final AuditRingBuffer<Integer> tested = new AuditRingBuffer<>(64);
+        final ExecutorService executor = Executors.newFixedThreadPool(producers);
+        final CountDownLatch done = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                final int offset = p * count;
+                executor.execute(() -> {
+                    for (int i = 0; i < count; i++) {
+                        while (!tested.offer(offset + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+
+            final Set<Integer> received = new HashSet<>();
+            while (received.size() < producers * count) {
+                final Integer element = tested.poll();
+                if (element != null) {
+                    assertTrue(received.add(element), "Duplicate element: " + element);
+                }
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNull(tested.poll());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
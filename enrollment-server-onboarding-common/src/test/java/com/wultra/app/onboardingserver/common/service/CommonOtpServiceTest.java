@@ -0,0 +1,197 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.service;
+
+import com.wultra.app.enrollmentserver.api.model.onboarding.response.OtpVerifyResponse;
+import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
+import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.OtpStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig;
+import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
+import com.wultra.app.onboardingserver.common.database.OnboardingOtpRepository;
+import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
+import com.wultra.app.onboardingserver.common.enumeration.OnboardingProcessError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link CommonOtpService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CommonOtpServiceTest {
+
+    private static final String PROCESS_ID = "p1";
+
+    private static final String OTP_CODE = "12345678";
+
+    private static final String WRONG_OTP_CODE = "87654321";
+
+    @Mock
+    private OnboardingOtpRepository onboardingOtpRepository;
+
+    @Mock
+    private OnboardingProcessRepository onboardingProcessRepository;
+
+    @Mock
+    private IdentityVerificationRepository identityVerificationRepository;
+
+    @Mock
+    private OnboardingProcessLimitService processLimitService;
+
+    @Mock
+    private IdentityVerificationLimitService verificationLimitService;
+
+    @Mock
+    private AuditService auditService;
+
+    private CommonOtpService tested;
+
+    @BeforeEach
+    void setUp() {
+        final CommonOnboardingConfig config = new CommonOnboardingConfig();
+        config.setOtpMaxFailedAttempts(3);
+        tested = new CommonOtpService(onboardingOtpRepository, onboardingProcessRepository, identityVerificationRepository,
+                config, processLimitService, verificationLimitService, auditService);
+    }
+
+    @Test
+    void testVerifyOtpActivationCode_wrongCodeCounted() throws Exception {
+        final OnboardingProcessEntity process = createProcess(0);
+        final OnboardingOtpEntity otp = createOtp(process, OtpType.ACTIVATION);
+        when(onboardingOtpRepository.findNewestByProcessIdAndType(PROCESS_ID, OtpType.ACTIVATION)).thenReturn(Optional.of(otp));
+        when(processLimitService.incrementErrorScore(process, OnboardingProcessError.ERROR_ACTIVATION_OTP_FAILED, createOwnerId())).thenReturn(process);
+        when(processLimitService.checkOnboardingProcessErrorLimits(process)).thenReturn(process);
+        when(onboardingProcessRepository.save(process)).thenReturn(process);
+
+        final OtpVerifyResponse response = tested.verifyOtpActivationCode(PROCESS_ID, createOwnerId(), WRONG_OTP_CODE);
+
+        assertFalse(response.isVerified());
+        assertEquals(2, response.getRemainingAttempts());
+        assertEquals(1, process.getOtpFailedAttempts());
+        assertEquals(1, otp.getFailedAttempts());
+        assertEquals(1, otp.getTotalAttempts());
+        assertEquals(OtpStatus.ACTIVE, otp.getStatus());
+        verify(onboardingOtpRepository).save(otp);
+        verify(processLimitService, never()).failProcess(any(), any(), any());
+    }
+
+    @Test
+    void testVerifyOtpActivationCode_maxFailedAttemptsReached() throws Exception {
+        final OnboardingProcessEntity process = createProcess(2);
+        final OnboardingOtpEntity otp = createOtp(process, OtpType.ACTIVATION);
+        final OnboardingProcessEntity failedProcess = createProcess(3);
+        failedProcess.setStatus(OnboardingStatus.FAILED);
+        when(onboardingOtpRepository.findNewestByProcessIdAndType(PROCESS_ID, OtpType.ACTIVATION)).thenReturn(Optional.of(otp));
+        when(processLimitService.failProcess(process, OnboardingOtpEntity.ERROR_MAX_FAILED_ATTEMPTS, ErrorOrigin.PROCESS_LIMIT_CHECK)).thenReturn(failedProcess);
+        when(onboardingProcessRepository.save(failedProcess)).thenReturn(failedProcess);
+
+        final OtpVerifyResponse response = tested.verifyOtpActivationCode(PROCESS_ID, createOwnerId(), WRONG_OTP_CODE);
+
+        assertFalse(response.isVerified());
+        assertEquals(0, response.getRemainingAttempts());
+        assertEquals(OnboardingStatus.FAILED, response.getOnboardingStatus());
+        assertEquals(3, process.getOtpFailedAttempts());
+        assertEquals(OtpStatus.FAILED, otp.getStatus());
+        assertEquals(OnboardingOtpEntity.ERROR_MAX_FAILED_ATTEMPTS, otp.getErrorDetail());
+        verify(processLimitService, never()).incrementErrorScore(any(), any(), any());
+    }
+
+    @Test
+    void testVerifyOtpActivationCode_alreadyExhausted() throws Exception {
+        final OnboardingProcessEntity process = createProcess(3);
+        final OnboardingOtpEntity otp = createOtp(process, OtpType.ACTIVATION);
+        when(onboardingOtpRepository.findNewestByProcessIdAndType(PROCESS_ID, OtpType.ACTIVATION)).thenReturn(Optional.of(otp));
+        when(processLimitService.failProcess(process, OnboardingOtpEntity.ERROR_MAX_FAILED_ATTEMPTS, ErrorOrigin.PROCESS_LIMIT_CHECK)).thenReturn(process);
+
+        final OtpVerifyResponse response = tested.verifyOtpActivationCode(PROCESS_ID, createOwnerId(), OTP_CODE);
+
+        assertFalse(response.isVerified());
+        assertEquals(3, process.getOtpFailedAttempts());
+        assertEquals(0, otp.getTotalAttempts());
+        verify(onboardingOtpRepository, never()).save(any());
+    }
+
+    @Test
+    void testVerifyOtpCode_userVerificationMaxFailedAttemptsReached() throws Exception {
+        final OnboardingProcessEntity process = createProcess(0);
+        process.setStatus(OnboardingStatus.VERIFICATION_IN_PROGRESS);
+        final IdentityVerificationEntity identityVerification = new IdentityVerificationEntity();
+        identityVerification.setOtpFailedAttempts(2);
+        final OnboardingOtpEntity otp = createOtp(process, OtpType.USER_VERIFICATION);
+        otp.setIdentityVerification(identityVerification);
+        final OwnerId ownerId = createOwnerId();
+        when(onboardingOtpRepository.findNewestByProcessIdAndType(PROCESS_ID, OtpType.USER_VERIFICATION)).thenReturn(Optional.of(otp));
+        when(onboardingProcessRepository.save(process)).thenReturn(process);
+
+        final OtpVerifyResponse response = tested.verifyOtpCode(PROCESS_ID, ownerId, WRONG_OTP_CODE, OtpType.USER_VERIFICATION);
+
+        assertFalse(response.isVerified());
+        assertEquals(0, response.getRemainingAttempts());
+        assertEquals(3, identityVerification.getOtpFailedAttempts());
+        assertEquals(0, process.getOtpFailedAttempts());
+        assertEquals(OtpStatus.FAILED, otp.getStatus());
+        verify(identityVerificationRepository).save(identityVerification);
+        verify(verificationLimitService).resetIdentityVerification(ownerId, ErrorOrigin.OTP_VERIFICATION, "OTP for user verification failed");
+        verify(processLimitService, never()).failProcess(any(), any(), any());
+    }
+
+    private static OnboardingProcessEntity createProcess(final int otpFailedAttempts) {
+        final OnboardingProcessEntity process = new OnboardingProcessEntity();
+        process.setId(PROCESS_ID);
+        process.setUserId("u1");
+        process.setStatus(OnboardingStatus.ACTIVATION_IN_PROGRESS);
+        process.setOtpFailedAttempts(otpFailedAttempts);
+        return process;
+    }
+
+    private static OnboardingOtpEntity createOtp(final OnboardingProcessEntity process, final OtpType type) {
+        final Date now = new Date();
+        final OnboardingOtpEntity otp = new OnboardingOtpEntity();
+        otp.setProcess(process);
+        otp.setType(type);
+        otp.setStatus(OtpStatus.ACTIVE);
+        otp.setOtpCode(OTP_CODE);
+        otp.setTimestampCreated(now);
+        otp.setTimestampExpiration(Date.from(now.toInstant().plus(Duration.ofMinutes(5))));
+        return otp;
+    }
+
+    private static OwnerId createOwnerId() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+        ownerId.setUserId("u1");
+        ownerId.setTimestamp(new Date(0));
+        return ownerId;
+    }
+}
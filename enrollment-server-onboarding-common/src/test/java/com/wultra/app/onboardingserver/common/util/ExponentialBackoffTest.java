@@ -0,0 +1,53 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link ExponentialBackoff}.
+ */
+class ExponentialBackoffTest {
+
+    @Test
+    void testWithEqualJitter_doubled() {
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            final long expected = 100L << (attempt - 1);
+            final Duration backoff = ExponentialBackoff.withEqualJitter(attempt, Duration.ofMillis(100), Duration.ofSeconds(10));
+            assertTrue(backoff.toMillis() >= expected / 2, "attempt " + attempt + ": " + backoff);
+            assertTrue(backoff.toMillis() <= expected, "attempt " + attempt + ": " + backoff);
+        }
+    }
+
+    @Test
+    void testWithEqualJitter_capped() {
+        final Duration backoff = ExponentialBackoff.withEqualJitter(100, Duration.ofMillis(100), Duration.ofSeconds(1));
+        assertTrue(backoff.toMillis() >= 500, backoff.toString());
+        assertTrue(backoff.toMillis() <= 1000, backoff.toString());
+    }
+
+    @Test
+    void testWithEqualJitter_zero() {
+        assertEquals(Duration.ZERO, ExponentialBackoff.withEqualJitter(1, Duration.ZERO, Duration.ofSeconds(1)));
+    }
+}
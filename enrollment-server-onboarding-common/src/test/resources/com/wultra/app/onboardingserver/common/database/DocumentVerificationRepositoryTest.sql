@@ -0,0 +1,14 @@
+-- Activation 'a1' with an older identity verification 'v1' and the newest one 'v2', activation 'a2' without documents.
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, timestamp_created, timestamp_last_updated) VALUES
+    ('v1', 'a1', 'u1', 'p1', 'FAILED', 'DOCUMENT_UPLOAD', DATEADD('MINUTE', -10, now()), now()),
+    ('v2', 'a1', 'u1', 'p1', 'IN_PROGRESS', 'DOCUMENT_UPLOAD', now(), now()),
+    ('v3', 'a2', 'u2', 'p2', 'IN_PROGRESS', 'DOCUMENT_UPLOAD', now(), now());
+
+INSERT INTO es_document_verification(id, activation_id, identity_verification_id, type, side, status, filename, reject_reason, used_for_verification, timestamp_created, timestamp_last_updated) VALUES
+    ('d1', 'a1', 'v1', 'ID_CARD', 'FRONT', 'FAILED', 'f1', null, false, DATEADD('MINUTE', -10, now()), now()),
+    ('d2', 'a1', 'v2', 'ID_CARD', 'BACK', 'ACCEPTED', 'f2', null, true, DATEADD('MINUTE', -1, now()), now()),
+    ('d3', 'a1', 'v2', 'ID_CARD', 'FRONT', 'REJECTED', 'f3', 'blurred', true, now(), now()),
+    ('d4', 'a1', 'v2', 'PASSPORT', null, 'DISPOSED', 'f4', null, false, now(), now());
+
+INSERT INTO es_document_result(id, document_verification_id, phase, timestamp_created) VALUES
+    (1, 'd3', 'VERIFICATION', now());
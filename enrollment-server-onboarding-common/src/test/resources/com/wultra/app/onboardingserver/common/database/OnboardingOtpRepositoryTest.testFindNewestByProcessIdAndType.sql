@@ -0,0 +1,12 @@
+-- Process with an activation OTP and two user verification OTP codes, the newest one is 'o3'.
+INSERT INTO es_onboarding_process(id, identification_data, custom_data, status, error_score, otp_failed_attempts, timestamp_created) VALUES
+    ('p1', '{}', '{}', 'VERIFICATION_IN_PROGRESS', 0, 1, now()),
+    ('p2', '{}', '{}', 'ACTIVATION_IN_PROGRESS', 0, 0, now());
+
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, otp_failed_attempts, timestamp_created, timestamp_last_updated) VALUES
+    ('v1', 'a1', 'u1', 'p1', 'VERIFICATION_PENDING', 'OTP_VERIFICATION', 2, now(), now());
+
+INSERT INTO es_onboarding_otp(id, process_id, identity_verification_id, otp_code, status, type, failed_attempts, total_attempts, timestamp_created, timestamp_expiration) VALUES
+    ('o1', 'p1', null, 'code-1', 'VERIFIED', 'ACTIVATION', 1, 2, DATEADD('MINUTE', -10, now()), now()),
+    ('o2', 'p1', 'v1', 'code-2', 'FAILED', 'USER_VERIFICATION', 2, 2, DATEADD('MINUTE', -5, now()), now()),
+    ('o3', 'p1', 'v1', 'code-3', 'ACTIVE', 'USER_VERIFICATION', 0, 0, now(), DATEADD('MINUTE', 5, now()));
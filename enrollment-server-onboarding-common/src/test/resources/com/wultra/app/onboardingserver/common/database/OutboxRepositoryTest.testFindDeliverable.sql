@@ -0,0 +1,7 @@
+-- Key 'p1' delivers its oldest message first, key 'p2' is blocked by a dead message, key 'p3' is due after its dead message was removed.
+INSERT INTO es_outbox(id, message_key, message_type, payload, status, attempts, timestamp_created, timestamp_next_attempt) VALUES
+    (1, 'p1', 'first', '{}', 'PENDING', 0, DATEADD('MINUTE', -10, now()), DATEADD('MINUTE', -10, now())),
+    (2, 'p1', 'second', '{}', 'PENDING', 0, DATEADD('MINUTE', -5, now()), DATEADD('MINUTE', -5, now())),
+    (3, 'p2', 'first', '{}', 'DEAD', 10, DATEADD('MINUTE', -10, now()), DATEADD('MINUTE', -10, now())),
+    (4, 'p2', 'second', '{}', 'PENDING', 0, DATEADD('MINUTE', -5, now()), DATEADD('MINUTE', -5, now())),
+    (5, 'p3', 'first', '{}', 'PENDING', 0, DATEADD('MINUTE', -5, now()), DATEADD('MINUTE', -5, now()));
@@ -0,0 +1,23 @@
+-- Process 'p1' with identity verification 'v1' ready to be completed, process 'p2' with identity verification 'v2' without documents, OTPs and SCA result.
+INSERT INTO es_onboarding_process(id, identification_data, custom_data, status, error_score, otp_failed_attempts, timestamp_created) VALUES
+    ('p1', '{}', '{}', 'VERIFICATION_IN_PROGRESS', 0, 0, now()),
+    ('p2', '{}', '{}', 'VERIFICATION_IN_PROGRESS', 0, 0, now());
+
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, timestamp_created, timestamp_last_updated) VALUES
+    ('v1', 'a1', 'u1', 'p1', 'VERIFICATION_PENDING', 'OTP_VERIFICATION', now(), now()),
+    ('v2', 'a2', 'u2', 'p2', 'IN_PROGRESS', 'DOCUMENT_UPLOAD', now(), now());
+
+INSERT INTO es_document_verification(id, activation_id, identity_verification_id, type, side, status, filename, used_for_verification, timestamp_created, timestamp_last_updated) VALUES
+    ('d1', 'a1', 'v1', 'ID_CARD', 'FRONT', 'ACCEPTED', 'f1', true, DATEADD('MINUTE', -3, now()), now()),
+    ('d2', 'a1', 'v1', 'ID_CARD', 'BACK', 'ACCEPTED', 'f2', true, DATEADD('MINUTE', -2, now()), now()),
+    ('d3', 'a1', 'v1', 'DRIVING_LICENSE', null, 'ACCEPTED', 'f3', true, DATEADD('MINUTE', -1, now()), now()),
+    ('d4', 'a1', 'v1', 'PASSPORT', null, 'DISPOSED', 'f4', false, now(), now());
+
+INSERT INTO es_onboarding_otp(id, process_id, identity_verification_id, otp_code, status, type, failed_attempts, total_attempts, timestamp_created, timestamp_expiration) VALUES
+    ('o1', 'p1', null, 'code-1', 'VERIFIED', 'ACTIVATION', 0, 1, DATEADD('MINUTE', -10, now()), now()),
+    ('o2', 'p1', 'v1', 'code-2', 'FAILED', 'USER_VERIFICATION', 1, 1, DATEADD('MINUTE', -5, now()), now()),
+    ('o3', 'p1', 'v1', 'code-3', 'VERIFIED', 'USER_VERIFICATION', 0, 1, now(), DATEADD('MINUTE', 5, now()));
+
+INSERT INTO es_sca_result(id, identity_verification_id, process_id, sca_result, timestamp_created) VALUES
+    (1, 'v1', 'p1', 'FAILED', DATEADD('MINUTE', -5, now())),
+    (2, 'v1', 'p1', 'SUCCESS', now());
@@ -34,4 +34,9 @@ public class Document extends DocumentMetadata {
     @ToString.Exclude
     private byte[] data;
 
+    /**
+     * Hex encoded SHA-256 hash of the data.
+     */
+    private String dataHash;
+
 }
@@ -19,6 +19,10 @@ package com.wultra.app.onboardingserver.provider.innovatrics;
 
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallRejectedException;
+import com.wultra.app.onboardingserver.common.client.ProviderCallType;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.app.onboardingserver.provider.innovatrics.model.api.CustomerInspectResponse;
 import com.wultra.app.onboardingserver.provider.innovatrics.model.api.EvaluateCustomerLivenessRequest;
@@ -72,16 +76,25 @@ class InnovatricsApiService {
      */
     private final InnovatricsConfigProps configProps;
 
+    /**
+     * Guard of Innovatrics calls.
+     */
+    private final ProviderCallGuard callGuard;
+
     /**
      * Service constructor.
      *
      * @param restClient REST template for Innovatrics calls.
+     * @param configProps Configuration properties.
+     * @param callGuard Guard of Innovatrics calls.
      */
     @Autowired
     public InnovatricsApiService(@Qualifier("restClientInnovatrics") final RestClient restClient,
-                                 InnovatricsConfigProps configProps) {
+                                 InnovatricsConfigProps configProps,
+                                 @Qualifier("innovatricsCallGuard") final ProviderCallGuard callGuard) {
         this.restClient = restClient;
         this.configProps = configProps;
+        this.callGuard = callGuard;
     }
 
     public EvaluateCustomerLivenessResponse evaluateLiveness(final String customerId, final OwnerId ownerId) throws RemoteCommunicationException {
@@ -93,7 +106,8 @@ class InnovatricsApiService {
         try {
             logger.info("Calling liveness/evaluation, {}", ownerId);
             logger.debug("Calling {}, {}", apiPath, request);
-            final ResponseEntity<EvaluateCustomerLivenessResponse> response = restClient.post(apiPath, request, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<EvaluateCustomerLivenessResponse> response = call("evaluateLiveness", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.post(apiPath, request, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for liveness/evaluation, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -112,7 +126,8 @@ class InnovatricsApiService {
         try {
             logger.info("Calling /inspect, {}", ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<CustomerInspectResponse> response = restClient.post(apiPath, null, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CustomerInspectResponse> response = call("inspectCustomer", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.post(apiPath, null, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for /inspect, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -131,7 +146,8 @@ class InnovatricsApiService {
         try {
             logger.info("Deleting liveness, {}", ownerId);
             logger.debug("Deleting {}", apiPath);
-            final ResponseEntity<Void> response = restClient.delete(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<Void> response = call("deleteLiveness", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.delete(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for liveness delete, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -149,7 +165,8 @@ class InnovatricsApiService {
         try {
             logger.info("Deleting selfie, {}", ownerId);
             logger.debug("Deleting {}", apiPath);
-            final ResponseEntity<Void> response = restClient.delete(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<Void> response = call("deleteSelfie", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.delete(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for selfie delete, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -167,7 +184,8 @@ class InnovatricsApiService {
         try {
             logger.info("Calling liveness creation, {}", ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<CreateCustomerLivenessResponse> response = restClient.put(apiPath, null, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateCustomerLivenessResponse> response = call("createLiveness", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.put(apiPath, null, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for liveness creation, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -188,7 +206,8 @@ class InnovatricsApiService {
         try {
             logger.info("Calling liveness record creation, {}", ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<CreateCustomerLivenessRecordResponse> response = restClient.post(apiPath, requestData, EMPTY_QUERY_PARAMS, httpHeaders, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateCustomerLivenessRecordResponse> response = call("createLivenessRecord", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post(apiPath, requestData, EMPTY_QUERY_PARAMS, httpHeaders, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for liveness record creation, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -209,7 +228,8 @@ class InnovatricsApiService {
         try {
             logger.info("Calling selfie creation, {}", ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<CreateSelfieResponse> response = restClient.put(apiPath, request, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateSelfieResponse> response = call("createSelfie", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.put(apiPath, request, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for selfie creation, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -234,7 +254,8 @@ class InnovatricsApiService {
         try {
             logger.info("Creating customer, {}", ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<CreateCustomerResponse> response = restClient.post(apiPath, null, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateCustomerResponse> response = call("createCustomer", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post(apiPath, null, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for creating customer, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -268,7 +289,8 @@ class InnovatricsApiService {
         try {
             logger.info("Creating new document of type {} for customer {}, {}", documentType, customerId, ownerId);
             logger.debug("Calling {}, {}", apiPath, request);
-            final ResponseEntity<CreateDocumentResponse> response = restClient.put(apiPath, request, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateDocumentResponse> response = call("createDocument", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.put(apiPath, request, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for creating document, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -307,7 +329,8 @@ class InnovatricsApiService {
         try {
             logger.info("Providing {} side document page for customer {}, {}", convertSide(side), customerId, ownerId);
             logger.debug("Calling {}, {}", apiPath, request);
-            final ResponseEntity<CreateDocumentPageResponse> response = restClient.put(apiPath, request, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<CreateDocumentPageResponse> response = call("provideDocumentPage", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.put(apiPath, request, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for providing document page, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -332,7 +355,8 @@ class InnovatricsApiService {
         try {
             logger.info("Getting details about customer {}, {}", customerId, ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<GetCustomerResponse> response = restClient.get(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<GetCustomerResponse> response = call("getCustomer", ProviderCallType.STATUS_POLL, () ->
+                    restClient.get(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for getting details about customer, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -357,7 +381,8 @@ class InnovatricsApiService {
         try {
             logger.info("Getting document portrait of customer {}, {}", customerId, ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<ImageCrop> response = restClient.get(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<ImageCrop> response = call("getDocumentPortrait", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.get(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for getting document portrait, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -385,7 +410,8 @@ class InnovatricsApiService {
         try {
             logger.info("Getting document inspect of customer {}, {}", customerId, ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<DocumentInspectResponse> response = restClient.post(apiPath, null, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<DocumentInspectResponse> response = call("inspectDocument", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.post(apiPath, null, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for getting document inspect, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -409,7 +435,8 @@ class InnovatricsApiService {
         try {
             logger.info("Deleting customer {}, {}", customerId, ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<Void> response = restClient.delete(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<Void> response = call("deleteCustomer", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.delete(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for deleting customer, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -430,7 +457,8 @@ class InnovatricsApiService {
         try {
             logger.info("Deleting document of customer {}, {}", customerId, ownerId);
             logger.debug("Calling {}", apiPath);
-            final ResponseEntity<Void> response = restClient.delete(apiPath, new ParameterizedTypeReference<>() {});
+            final ResponseEntity<Void> response = call("deleteDocument", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.delete(apiPath, new ParameterizedTypeReference<>() {}));
             logger.info("Got {} for deleting customer's document, {}", response.getStatusCode(), ownerId);
             logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
             logger.trace("{} response: {}", apiPath, response);
@@ -439,6 +467,14 @@ class InnovatricsApiService {
         }
     }
 
+    private <T> T call(final String operation, final ProviderCallType type, final ProviderCall<T, RestClientException> call) throws RestClientException {
+        try {
+            return callGuard.call(operation, type, call);
+        } catch (ProviderCallRejectedException e) {
+            throw new RestClientException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Converts internal DocumentType enum to string value used by Innovatrics.
      * @param type represents type of document.
@@ -17,16 +17,25 @@
  */
 package com.wultra.app.onboardingserver.provider.innovatrics;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUp;
 import com.wultra.core.rest.client.base.DefaultRestClient;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.concurrent.Executor;
 
 /**
  * Innovatrics configuration.
@@ -65,4 +74,42 @@ class InnovatricsConfig {
         return new DefaultRestClient(restClientConfiguration);
     }
 
+    /**
+     * Prepares guard of Innovatrics calls.
+     *
+     * @param configProps Configuration properties
+     * @param meterRegistry Meter registry
+     * @param taskExecutor Task executor
+     * @return Guard of Innovatrics service API calls.
+     */
+    @Bean("innovatricsCallGuard")
+    public ProviderCallGuard innovatricsCallGuard(
+            final InnovatricsConfigProps configProps,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderCallGuard("innovatrics", configProps.getCallGuard(), meterRegistry.getIfAvailable(), taskExecutor.getIfAvailable());
+    }
+
+    /**
+     * Prepares background warm-up of Innovatrics connections.
+     *
+     * @param configProps Configuration properties
+     * @param restClient REST client for Innovatrics service API calls
+     * @param callGuard Guard of Innovatrics calls
+     * @param meterRegistry Meter registry
+     * @param taskScheduler Task scheduler
+     * @param taskExecutor Task executor
+     * @return Warm-up of Innovatrics client.
+     */
+    @Bean("innovatricsClientWarmUp")
+    public ProviderClientWarmUp innovatricsClientWarmUp(
+            final InnovatricsConfigProps configProps,
+            @Qualifier("restClientInnovatrics") final RestClient restClient,
+            @Qualifier("innovatricsCallGuard") final ProviderCallGuard callGuard,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final ObjectProvider<TaskScheduler> taskScheduler,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderClientWarmUp("innovatrics", configProps.getWarmUp(), callGuard, meterRegistry.getIfAvailable(), taskScheduler.getIfAvailable(), taskExecutor.getIfAvailable(), null, ProviderClientWarmUp.headRequest(restClient));
+    }
+
 }
@@ -17,6 +17,8 @@
  */
 package com.wultra.app.onboardingserver.provider.innovatrics;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUpConfiguration;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import lombok.Getter;
 import lombok.Setter;
@@ -63,6 +65,16 @@ class InnovatricsConfigProps {
      */
     private RestClientConfiguration restClientConfig;
 
+    /**
+     * Guard of Innovatrics calls configuration.
+     */
+    private ProviderCallGuardConfiguration callGuard = new ProviderCallGuardConfiguration();
+
+    /**
+     * Background connection warm-up configuration.
+     */
+    private ProviderClientWarmUpConfiguration warmUp = new ProviderClientWarmUpConfiguration();
+
     private PresenceCheckConfiguration presenceCheckConfiguration;
 
     private DocumentVerificationConfiguration documentVerificationConfiguration;
@@ -18,13 +18,13 @@
 package com.wultra.app.onboardingserver.provider.innovatrics;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.enrollmentserver.model.integration.SessionInfo;
 import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
+import com.wultra.app.onboardingserver.common.json.JsonCodec;
 import com.wultra.app.onboardingserver.common.service.AuditService;
 import com.wultra.app.onboardingserver.provider.innovatrics.model.api.CreateCustomerLivenessRecordResponse;
 import com.wultra.app.onboardingserver.provider.innovatrics.model.api.CreateSelfieResponse;
@@ -118,7 +118,7 @@ class InnovatricsLivenessService {
         final String sessionInfoString = StringUtils.defaultIfEmpty(identityVerification.getSessionInfo(), "{}");
         final SessionInfo sessionInfo;
         try {
-            sessionInfo = new ObjectMapper().readValue(sessionInfoString, SessionInfo.class);
+            sessionInfo = identityVerification.sessionInfoView().get(sessionInfoString, json -> JsonCodec.read(json, SessionInfo.class));
         } catch (JsonProcessingException e) {
             throw new IdentityVerificationException("Unable to deserialize session info", e);
         }
@@ -20,24 +20,33 @@ package com.wultra.app.onboardingserver.provider.iproov;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUp;
 import com.wultra.app.onboardingserver.provider.iproov.model.api.AuthTokenResponse;
 import com.wultra.core.rest.client.base.DefaultRestClient;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONObject;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.ClientCredentialsReactiveOAuth2AuthorizedClientProvider;
 import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.endpoint.AbstractWebClientReactiveOAuth2AccessTokenResponseClient;
 import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
@@ -61,6 +70,7 @@ import reactor.netty.transport.ProxyProvider;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * iProov configuration.
@@ -75,6 +85,8 @@ class IProovConfig {
 
     private static final String OAUTH_REGISTRATION_ID = "iproov";
 
+    private static final String ANONYMOUS_PRINCIPAL = "anonymousUser";
+
     /**
      * @return Object mapper bean specific to iProov json format
      */
@@ -105,18 +117,29 @@ class IProovConfig {
         return new DefaultRestClient(restClientConfiguration);
     }
 
-
-    @Bean
-    public WebClient iproovManagemenentWebClient(final IProovConfigProps configProps) {
-        final AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager = authorizedClientServiceReactiveOAuth2AuthorizedClientManager(configProps);
-
-        final ServerOAuth2AuthorizedClientExchangeFilterFunction oAuth2ExchangeFilterFunction = new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
-        oAuth2ExchangeFilterFunction.setDefaultClientRegistrationId(OAUTH_REGISTRATION_ID);
-
-        return createWebClient(oAuth2ExchangeFilterFunction, configProps, "user management client");
+    /**
+     * Prepares guard of iProov calls
+     * @param configProps Configuration properties
+     * @param meterRegistry Meter registry
+     * @param taskExecutor Task executor
+     * @return Guard of iProov service API calls
+     */
+    @Bean("iproovCallGuard")
+    public ProviderCallGuard iproovCallGuard(
+            final IProovConfigProps configProps,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderCallGuard("iproov", configProps.getCallGuard(), meterRegistry.getIfAvailable(), taskExecutor.getIfAvailable());
     }
 
-    private static AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientServiceReactiveOAuth2AuthorizedClientManager(final IProovConfigProps configProps) {
+
+    /**
+     * Prepares OAuth authorized client manager of the iProov management calls
+     * @param configProps Configuration properties
+     * @return Authorized client manager
+     */
+    @Bean("iproovAuthorizedClientManager")
+    public AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager iproovAuthorizedClientManager(final IProovConfigProps configProps) {
         final String tokenUri = UriComponentsBuilder.fromHttpUrl(configProps.getServiceBaseUrl() + "/{apiKey}/access_token")
                 .buildAndExpand(configProps.getApiKey())
                 .toUriString();
@@ -135,6 +158,8 @@ class IProovConfig {
 
         final ClientCredentialsReactiveOAuth2AuthorizedClientProvider authorizedClientProvider = new ClientCredentialsReactiveOAuth2AuthorizedClientProvider();
         authorizedClientProvider.setAccessTokenResponseClient(accessTokenResponseClient(configProps));
+        // the token is considered expired ahead of its expiry, so the warm-up refreshes it before a user request needs it
+        authorizedClientProvider.setClockSkew(configProps.getOAuthTokenRefreshAhead());
 
         final AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager =
                 new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(clientRegistrations, clientService);
@@ -142,6 +167,59 @@ class IProovConfig {
         return authorizedClientManager;
     }
 
+    @Bean
+    public WebClient iproovManagemenentWebClient(
+            final IProovConfigProps configProps,
+            @Qualifier("iproovAuthorizedClientManager") final AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager) {
+
+        final ServerOAuth2AuthorizedClientExchangeFilterFunction oAuth2ExchangeFilterFunction = new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+        oAuth2ExchangeFilterFunction.setDefaultClientRegistrationId(OAUTH_REGISTRATION_ID);
+
+        return createWebClient(oAuth2ExchangeFilterFunction, configProps, "user management client", "iproov-management");
+    }
+
+    /**
+     * Prepares background refresh of the OAuth token and warm-up of the iProov connections
+     * @param configProps Configuration properties
+     * @param restClient REST client for iProov enroll and verification calls
+     * @param managementWebClient WebClient for iProov management calls
+     * @param authorizedClientManager Authorized client manager of the management calls
+     * @param callGuard Guard of iProov calls
+     * @param meterRegistry Meter registry
+     * @param taskScheduler Task scheduler
+     * @param taskExecutor Task executor
+     * @return Warm-up of iProov client
+     */
+    @Bean("iproovClientWarmUp")
+    public ProviderClientWarmUp iproovClientWarmUp(
+            final IProovConfigProps configProps,
+            @Qualifier("restClientIProov") final RestClient restClient,
+            @Qualifier("iproovManagemenentWebClient") final WebClient managementWebClient,
+            @Qualifier("iproovAuthorizedClientManager") final AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager,
+            @Qualifier("iproovCallGuard") final ProviderCallGuard callGuard,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final ObjectProvider<TaskScheduler> taskScheduler,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+
+        final Duration timeout = configProps.getRestClientConfig().getResponseTimeout();
+        // the principal matches the one used by the exchange filter function without a security context
+        final OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(OAUTH_REGISTRATION_ID)
+                .principal(ANONYMOUS_PRINCIPAL)
+                .build();
+        final ProviderCall<?, RuntimeException> tokenRefresh = () -> authorizedClientManager.authorize(authorizeRequest).block(timeout);
+
+        final ProviderCall<Void, RestClientException> restClientWarmUp = ProviderClientWarmUp.headRequest(restClient);
+        final ProviderCall<?, Exception> warmUp = () -> {
+            restClientWarmUp.call();
+            return managementWebClient.head()
+                    .uri(configProps.getServiceBaseUrl())
+                    .exchangeToMono(ClientResponse::releaseBody)
+                    .block(timeout);
+        };
+
+        return new ProviderClientWarmUp("iproov", configProps.getWarmUp(), callGuard, meterRegistry.getIfAvailable(), taskScheduler.getIfAvailable(), taskExecutor.getIfAvailable(), tokenRefresh, warmUp);
+    }
+
     // TODO (racansky, 2023-06-05) remove when iProov fix API according the RFC
     private static ReactiveOAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> accessTokenResponseClient(final IProovConfigProps configProps) {
         @SuppressWarnings("unchecked")
@@ -166,22 +244,24 @@ class IProovConfig {
                 });
         });
 
-        final WebClient webClient = createWebClient(tokenResponseFilter, configProps, "oAuth client");
+        final WebClient webClient = createWebClient(tokenResponseFilter, configProps, "oAuth client", "iproov-oauth");
 
         final AbstractWebClientReactiveOAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> accessTokenResponseClient = new WebClientReactiveClientCredentialsTokenResponseClient();
         accessTokenResponseClient.setWebClient(webClient);
         return accessTokenResponseClient;
     }
 
-    private static WebClient createWebClient(final ExchangeFilterFunction filter, IProovConfigProps configProps, final String logContext) {
+    private static WebClient createWebClient(final ExchangeFilterFunction filter, IProovConfigProps configProps, final String logContext, final String poolName) {
         final RestClientConfiguration restClientConfig = configProps.getRestClientConfig();
         final Duration connectionTimeout = restClientConfig.getConnectionTimeout();
         final Duration responseTimeout = restClientConfig.getResponseTimeout();
         final Duration maxIdleTime = Objects.requireNonNull(restClientConfig.getMaxIdleTime(), "maxIdleTime must be specified");
         logger.info("Setting {} connectionTimeout: {}, responseTimeout: {}, maxIdleTime: {}", logContext, connectionTimeout, responseTimeout, maxIdleTime);
 
-        final ConnectionProvider connectionProvider = ConnectionProvider.builder("custom")
+        // pool saturation is exported as reactor.netty.connection.provider.* gauges tagged by the pool name
+        final ConnectionProvider connectionProvider = ConnectionProvider.builder(poolName)
                 .maxIdleTime(maxIdleTime)
+                .metrics(true)
                 .build();
         HttpClient httpClient = HttpClient.create(connectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectionTimeout.toMillis()))
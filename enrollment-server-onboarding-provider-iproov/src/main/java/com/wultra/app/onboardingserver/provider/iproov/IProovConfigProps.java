@@ -17,6 +17,8 @@
  */
 package com.wultra.app.onboardingserver.provider.iproov;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUpConfiguration;
 import com.wultra.app.onboardingserver.provider.iproov.model.api.ServerClaimRequest;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import lombok.Getter;
@@ -26,6 +28,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * iProov configuration properties.
  *
@@ -82,11 +86,31 @@ class IProovConfigProps {
      */
     private String oAuthClientPassword;
 
+    /**
+     * How long ahead of expiry the OAuth access token is refreshed.
+     */
+    private Duration oAuthTokenRefreshAhead = Duration.ofMinutes(2);
+
+    /**
+     * Maximum time to wait for the enrolment token, including the user lookup and deletion
+     */
+    private Duration enrolTokenTimeout = Duration.ofMinutes(3);
+
     /**
      * REST client configuration
      */
     private RestClientConfiguration restClientConfig;
 
+    /**
+     * Guard of iProov calls configuration
+     */
+    private ProviderCallGuardConfiguration callGuard = new ProviderCallGuardConfiguration();
+
+    /**
+     * Background token refresh and connection warm-up configuration
+     */
+    private ProviderClientWarmUpConfiguration warmUp = new ProviderClientWarmUpConfiguration();
+
     public void setRiskProfile(String riskProfile) {
         // prevent blank value which is invalid and potentially hard to catch
         this.riskProfile = StringUtils.isNotBlank(riskProfile) ? riskProfile : null;
@@ -24,6 +24,7 @@ import com.wultra.app.enrollmentserver.model.integration.Image;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.enrollmentserver.model.integration.PresenceCheckResult;
 import com.wultra.app.enrollmentserver.model.integration.SessionInfo;
+import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.api.errorhandling.PresenceCheckException;
 import com.wultra.app.onboardingserver.api.provider.PresenceCheckProvider;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
@@ -43,6 +44,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the {@link PresenceCheckProvider} with <a href="https://www.iproov.com/">iProov</a>.
@@ -82,9 +84,32 @@ class IProovPresenceCheckProvider implements PresenceCheckProvider {
     @Override
     public void initPresenceCheck(final OwnerId id, final Image photo) throws PresenceCheckException, RemoteCommunicationException {
         Assert.notNull(photo, "iProov presence check requires trusted photo");
-        iProovRestApiService.deleteUserIfAlreadyExists(id);
+        final CompletableFuture<ResponseEntity<String>> enrolToken = iProovRestApiService.prepareEnrolToken(id);
+        enrolUserImage(id, enrolToken, photo);
+    }
+
+    /**
+     * The user check, deletion and enrol token generation run non-blocking while the trusted photo is being fetched.
+     */
+    @Override
+    public void initPresenceCheckPipelined(final OwnerId id, final TrustedPhotoSupplier photoSupplier)
+            throws DocumentVerificationException, PresenceCheckException, RemoteCommunicationException {
+        final CompletableFuture<ResponseEntity<String>> enrolToken = iProovRestApiService.prepareEnrolToken(id);
+        final Image photo;
+        try {
+            photo = photoSupplier.get();
+            Assert.notNull(photo, "iProov presence check requires trusted photo");
+        } catch (DocumentVerificationException | PresenceCheckException | RemoteCommunicationException | RuntimeException e) {
+            // do not enrol a user whose photo is not available
+            enrolToken.cancel(true);
+            throw e;
+        }
+        enrolUserImage(id, enrolToken, photo);
+    }
 
-        final ResponseEntity<String> responseEntityToken = callGenerateEnrolToken(id);
+    private void enrolUserImage(final OwnerId id, final CompletableFuture<ResponseEntity<String>> enrolToken, final Image photo)
+            throws PresenceCheckException, RemoteCommunicationException {
+        final ResponseEntity<String> responseEntityToken = callGenerateEnrolToken(enrolToken, id);
 
         final String body = responseEntityToken.getBody();
         if (body == null) {
@@ -222,11 +247,11 @@ class IProovPresenceCheckProvider implements PresenceCheckProvider {
         logger.info("No data deleted, retention policy left to iProov server, {}", id);
     }
 
-    private ResponseEntity<String> callGenerateEnrolToken(OwnerId id) throws RemoteCommunicationException {
+    private ResponseEntity<String> callGenerateEnrolToken(CompletableFuture<ResponseEntity<String>> enrolToken, OwnerId id) throws RemoteCommunicationException {
         try {
-            return iProovRestApiService.generateEnrolToken(id);
+            return iProovRestApiService.awaitEnrolToken(enrolToken, id);
         } catch (RestClientException e) {
-            if (e.getStatusCode().is4xxClientError()) {
+            if (e.getStatusCode() != null && e.getStatusCode().is4xxClientError()) {
                 return new ResponseEntity<>(e.getResponse(), e.getStatusCode());
             } else {
                 throw new RemoteCommunicationException("Failed REST call to generate an enrol token in iProov, " + id, e);
@@ -19,6 +19,11 @@ package com.wultra.app.onboardingserver.provider.iproov;
 
 import com.wultra.app.enrollmentserver.model.integration.Image;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderCallRejectedException;
+import com.wultra.app.onboardingserver.common.client.ProviderCallType;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.app.onboardingserver.provider.iproov.model.api.ClaimValidateRequest;
 import com.wultra.app.onboardingserver.provider.iproov.model.api.ClientErrorResponse;
@@ -36,12 +41,15 @@ import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 
 /**
@@ -93,34 +101,92 @@ class IProovRestApiService {
      */
     private final WebClient managementWebClient;
 
+    /**
+     * Guard of iProov calls.
+     */
+    private final ProviderCallGuard callGuard;
+
     /**
      * Service constructor.
      *
      * @param configProps Configuration properties.
      * @param restClient REST template for IProov enroll and verification calls.
      * @param webClient WebClient for IProov management calls.
+     * @param callGuard Guard of iProov calls.
      */
     @Autowired
     public IProovRestApiService(
             IProovConfigProps configProps,
             @Qualifier("restClientIProov") RestClient restClient,
-            @Qualifier("iproovManagemenentWebClient") WebClient webClient) {
+            @Qualifier("iproovManagemenentWebClient") WebClient webClient,
+            @Qualifier("iproovCallGuard") ProviderCallGuard callGuard) {
         this.configProps = configProps;
         this.restClient = restClient;
         this.managementWebClient = webClient;
+        this.callGuard = callGuard;
     }
 
     /**
-     * Generates an enrolment token for a new user to enrol the service
+     * Deletes the given user if already exists and then generates an enrolment token for a new user to enrol the service.
+     * <p>
+     * The calls are composed into a single non-blocking pipeline, no thread waits for them. The returned future
+     * is completed with the response of the token generation, or exceptionally with {@link RestClientException}
+     * in case of an error response. Cancelling the future cancels the pipeline, management calls in progress
+     * are aborted and the token is not requested. A token request already sent cannot be aborted by the REST client,
+     * its response is discarded.
      *
      * @param id Owner identification.
-     * @return Response entity with the result json
+     * @return Future of the response entity with the result json
      */
-    public ResponseEntity<String> generateEnrolToken(OwnerId id) throws RestClientException {
+    public CompletableFuture<ResponseEntity<String>> prepareEnrolToken(final OwnerId id) {
+        final String userId = getUserId(id);
+        return deleteUserIfAlreadyExists(userId, id)
+                .then(Mono.defer(() -> generateEnrolToken(id)))
+                .toFuture();
+    }
+
+    private Mono<ResponseEntity<String>> generateEnrolToken(final OwnerId id) {
         final ServerClaimRequest request = createServerClaimRequest(id);
 
         logger.debug("Calling /claim/enrol/token userId={}, {}", request.getUserId(), id);
-        return restClient.post("/claim/enrol/token", request, STRING_TYPE_REFERENCE);
+        return Mono.create(sink -> {
+            try {
+                restClient.postNonBlocking("/claim/enrol/token", request, STRING_TYPE_REFERENCE, sink::success, sink::error);
+            } catch (RestClientException e) {
+                sink.error(e);
+            }
+        });
+    }
+
+    /**
+     * Waits for the enrolment token prepared by {@link #prepareEnrolToken(OwnerId)}.
+     * <p>
+     * This is the only place blocking on the preparation, the guard applies to the whole preparation.
+     * The preparation is cancelled when not completed within the configured enrol token timeout.
+     *
+     * @param enrolToken Future of the enrolment token.
+     * @param id Owner identification.
+     * @return Response entity with the result json
+     */
+    public ResponseEntity<String> awaitEnrolToken(final CompletableFuture<ResponseEntity<String>> enrolToken, final OwnerId id) throws RestClientException {
+        final Duration timeout = configProps.getEnrolTokenTimeout();
+        return call("generateEnrolToken", () -> {
+            try {
+                return enrolToken.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                enrolToken.cancel(true);
+                throw new RestClientException("Enrol token not generated within %s ms, %s".formatted(timeout.toMillis(), id), e);
+            } catch (InterruptedException e) {
+                enrolToken.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RestClientException("Interrupted when generating an enrol token, " + id, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof final RestClientException cause) {
+                    throw cause;
+                }
+                throw new RestClientException("Failed to generate an enrol token, " + id, e.getCause());
+            }
+        });
     }
 
     /**
@@ -151,7 +217,8 @@ class IProovRestApiService {
         httpHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
 
         logger.debug("Calling /claim/enroll/image token={}, {}", token, id);
-        return restClient.post("/claim/enrol/image", bodyBuilder.build(), EMPTY_QUERY_PARAMS, httpHeaders, STRING_TYPE_REFERENCE);
+        return call("enrolUserImageForToken", () ->
+                restClient.post("/claim/enrol/image", bodyBuilder.build(), EMPTY_QUERY_PARAMS, httpHeaders, STRING_TYPE_REFERENCE));
     }
 
     /**
@@ -164,7 +231,7 @@ class IProovRestApiService {
         final ServerClaimRequest request = createServerClaimRequest(id);
 
         logger.debug("Calling /claim/verify/token userId={}, {}", request.getUserId(), id);
-        return restClient.post("/claim/verify/token", request, STRING_TYPE_REFERENCE);
+        return call("generateVerificationToken", () -> restClient.post("/claim/verify/token", request, STRING_TYPE_REFERENCE));
     }
 
     /**
@@ -186,33 +253,37 @@ class IProovRestApiService {
         request.setUserId(userId);
 
         logger.debug("Calling /claim/verify/validate userId={}, token={}, {}", userId, token, id);
-        return restClient.post("/claim/verify/validate", request, STRING_TYPE_REFERENCE);
+        return call("validateVerification", () -> restClient.post("/claim/verify/validate", request, STRING_TYPE_REFERENCE));
     }
 
     /**
      * Deletes the given user if already exists at iProov.
      *
+     * @param userId iProov user ID.
      * @param id Owner identification.
+     * @return Mono completed when the user does not exist at iProov.
      */
-    public void deleteUserIfAlreadyExists(final OwnerId id) {
-        final String userId = getUserId(id);
+    private Mono<Void> deleteUserIfAlreadyExists(final String userId, final OwnerId id) {
         logger.debug("Checking whether iProov exists userId: {}, {}", userId, id);
-        final boolean userExists = doesUserExists(userId, new OwnerId());
-        logger.info("iProov userId: {}, exists: {}, {}", userId, userExists, id);
-        if (userExists) {
-            logger.debug("Deleting iProov userId: {}, {}", userId, id);
-            deleteUser(userId, id);
-            logger.info("Deleted iProov userId: {}, {}", userId, id);
-        }
+        return managementCall(doesUserExists(userId, id))
+                .flatMap(userExists -> {
+                    logger.info("iProov userId: {}, exists: {}, {}", userId, userExists, id);
+                    if (!userExists) {
+                        return Mono.empty();
+                    }
+                    logger.debug("Deleting iProov userId: {}, {}", userId, id);
+                    return managementCall(deleteUser(userId, id))
+                            .doOnSuccess(ignored -> logger.info("Deleted iProov userId: {}, {}", userId, id));
+                });
     }
 
-    private boolean doesUserExists(final String userId, final OwnerId id) {
-        return Objects.requireNonNullElse(managementWebClient.get()
+    private Mono<Boolean> doesUserExists(final String userId, final OwnerId id) {
+        return managementWebClient.get()
                 .uri(configProps.getServiceBaseUrl() + "/users/{userId}", userId)
                 .exchangeToMono(response -> {
                     final HttpStatusCode httpStatusCode = response.statusCode();
                     if (httpStatusCode == HttpStatus.OK) {
-                        return Mono.just(true);
+                        return response.releaseBody().thenReturn(true);
                     } else if (httpStatusCode == HttpStatus.BAD_REQUEST) {
                         return response.bodyToMono(Map.class).flatMap(map -> {
                             final Object errorCode = map.get(ClientErrorResponse.JSON_PROPERTY_ERROR);
@@ -225,28 +296,55 @@ class IProovRestApiService {
                     }
                     return response.createError();
                 })
+                .defaultIfEmpty(false)
                 .doOnError(e -> {
                     if (e instanceof final WebClientResponseException exception) {
                         logger.error("Get user - Error response body: {}, userId: {}, {}", exception.getResponseBodyAsString(), userId, id);
                     } else {
                         logger.error("Get user - Error, userId: {}, {}", userId, id, e);
                     }
-                })
-                .block(), false);
+                });
     }
 
-    private void deleteUser(final String userId, final OwnerId id) {
-        managementWebClient.delete()
+    private Mono<Void> deleteUser(final String userId, final OwnerId id) {
+        return managementWebClient.delete()
                 .uri(configProps.getServiceBaseUrl() + "/users/{userId}", userId)
-                .exchangeToMono(Mono::just)
+                .exchangeToMono(ClientResponse::releaseBody)
                 .doOnError(e -> {
                     if (e instanceof final WebClientResponseException exception) {
                         logger.error("Delete user - Error response body: {}, userId: {}, {}", exception.getResponseBodyAsString(), userId, id);
                     } else {
-                        logger.error("Get user - Error, userId: {}, {}", userId, id, e);
+                        logger.error("Delete user - Error, userId: {}, {}", userId, id, e);
                     }
-                })
-                .block();
+                });
+    }
+
+    /**
+     * User lookup and deletion do not change the state when repeated, so transient failures are retried
+     * with the backoff of the call guard. The mono is subscribed again on every attempt.
+     */
+    private <T> Mono<T> managementCall(final Mono<T> call) {
+        final Duration timeout = configProps.getRestClientConfig().getResponseTimeout();
+        final ProviderCallGuardConfiguration guardConfig = configProps.getCallGuard();
+        final Mono<T> attempt = call.timeout(timeout);
+        if (!guardConfig.isEnabled() || guardConfig.getMaxAttempts() <= 1) {
+            return attempt;
+        }
+        return attempt.retryWhen(Retry.backoff(guardConfig.getMaxAttempts() - 1L, guardConfig.getInitialBackoff())
+                .maxBackoff(guardConfig.getMaxBackoff())
+                .filter(e -> e instanceof final Exception exception && ProviderCallGuard.isTransientFailure(exception))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /**
+     * Enrol and verification calls issue or consume one-time tokens, so they are never retried.
+     */
+    private <T> T call(final String operation, final ProviderCall<T, RestClientException> call) throws RestClientException {
+        try {
+            return callGuard.call(operation, ProviderCallType.NON_IDEMPOTENT, call);
+        } catch (ProviderCallRejectedException e) {
+            throw new RestClientException(e.getMessage(), e);
+        }
     }
 
     private ServerClaimRequest createServerClaimRequest(OwnerId id) {
@@ -17,11 +17,34 @@
  */
 package com.wultra.app.onboardingserver.provider.iproov;
 
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.core.rest.client.base.RestClient;
+import com.wultra.core.rest.client.base.RestClientConfiguration;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Lukas Lukovsky, lukas.lukovsky@wultra.com
@@ -38,4 +61,57 @@ class IProovRestApiServiceTest {
         assertEquals(IProovRestApiService.USER_ID_MAX_LENGTH, userIdEnsured.length());
     }
 
+    @Test
+    void testPrepareEnrolToken_existingUserDeleted() throws Exception {
+        final List<HttpMethod> managementCalls = new CopyOnWriteArrayList<>();
+        final RestClient restClient = mock(RestClient.class);
+        doAnswer(invocation -> {
+            final Consumer<ResponseEntity<String>> onSuccess = invocation.getArgument(3);
+            onSuccess.accept(ResponseEntity.ok("{\"token\":\"token\"}"));
+            return null;
+        }).when(restClient).postNonBlocking(eq("/claim/enrol/token"), any(), any(ParameterizedTypeReference.class), any(), any());
+
+        final IProovRestApiService tested = createService(restClient, request -> {
+            managementCalls.add(request.method());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+
+        final ResponseEntity<String> result = tested.prepareEnrolToken(createOwnerId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(HttpMethod.GET, HttpMethod.DELETE), managementCalls);
+    }
+
+    @Test
+    void testPrepareEnrolToken_cancelled() {
+        final AtomicBoolean userCheckCancelled = new AtomicBoolean();
+        final RestClient restClient = mock(RestClient.class);
+        final IProovRestApiService tested = createService(restClient, request ->
+                Mono.<ClientResponse>never().doOnCancel(() -> userCheckCancelled.set(true)));
+
+        final CompletableFuture<ResponseEntity<String>> enrolToken = tested.prepareEnrolToken(createOwnerId());
+        enrolToken.cancel(true);
+
+        assertTrue(userCheckCancelled.get());
+        verifyNoInteractions(restClient);
+    }
+
+    private static IProovRestApiService createService(final RestClient restClient, final ExchangeFunction exchangeFunction) {
+        final RestClientConfiguration restClientConfig = new RestClientConfiguration();
+        restClientConfig.setResponseTimeout(Duration.ofSeconds(5));
+        final IProovConfigProps configProps = new IProovConfigProps();
+        configProps.setServiceBaseUrl("http://localhost/api/v2");
+        configProps.setRestClientConfig(restClientConfig);
+        final WebClient webClient = WebClient.builder().exchangeFunction(exchangeFunction).build();
+        final ProviderCallGuard callGuard = new ProviderCallGuard("iproov", new ProviderCallGuardConfiguration(), null, null);
+        return new IProovRestApiService(configProps, restClient, webClient, callGuard);
+    }
+
+    private static OwnerId createOwnerId() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("activation-id");
+        ownerId.setUserId("user-id");
+        return ownerId;
+    }
+
 }
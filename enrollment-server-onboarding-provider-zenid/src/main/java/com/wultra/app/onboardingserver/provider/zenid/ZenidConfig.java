@@ -19,20 +19,28 @@ package com.wultra.app.onboardingserver.provider.zenid;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUp;
 import com.wultra.core.rest.client.base.DefaultRestClient;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 import java.time.OffsetDateTime;
+import java.util.concurrent.Executor;
 
 /**
  * ZenID configuration.
@@ -90,4 +98,40 @@ class ZenidConfig {
         return new DefaultRestClient(restClientConfiguration, createJavaTimeModule());
     }
 
+    /**
+     * Prepares guard of ZenID calls
+     * @param configProps Configuration properties
+     * @param meterRegistry Meter registry
+     * @param taskExecutor Task executor
+     * @return Guard of ZenID service API calls
+     */
+    @Bean("zenidCallGuard")
+    public ProviderCallGuard zenidCallGuard(
+            final ZenidConfigProps configProps,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderCallGuard("zenid", configProps.getCallGuard(), meterRegistry.getIfAvailable(), taskExecutor.getIfAvailable());
+    }
+
+    /**
+     * Prepares background warm-up of ZenID connections
+     * @param configProps Configuration properties
+     * @param restClient REST client for ZenID service API calls
+     * @param callGuard Guard of ZenID calls
+     * @param meterRegistry Meter registry
+     * @param taskScheduler Task scheduler
+     * @param taskExecutor Task executor
+     * @return Warm-up of ZenID client
+     */
+    @Bean("zenidClientWarmUp")
+    public ProviderClientWarmUp zenidClientWarmUp(
+            final ZenidConfigProps configProps,
+            @Qualifier("restClientZenid") final RestClient restClient,
+            @Qualifier("zenidCallGuard") final ProviderCallGuard callGuard,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final ObjectProvider<TaskScheduler> taskScheduler,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderClientWarmUp("zenid", configProps.getWarmUp(), callGuard, meterRegistry.getIfAvailable(), taskScheduler.getIfAvailable(), taskExecutor.getIfAvailable(), null, ProviderClientWarmUp.headRequest(restClient));
+    }
+
 }
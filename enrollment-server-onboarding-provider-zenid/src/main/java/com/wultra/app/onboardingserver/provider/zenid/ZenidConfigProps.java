@@ -17,6 +17,8 @@
  */
 package com.wultra.app.onboardingserver.provider.zenid;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUpConfiguration;
 import com.wultra.app.onboardingserver.provider.zenid.model.api.ZenidSharedMineAllResult;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import lombok.Getter;
@@ -81,6 +83,16 @@ class ZenidConfigProps {
      */
     private RestClientConfiguration restClientConfig;
 
+    /**
+     * Guard of ZenID calls configuration
+     */
+    private ProviderCallGuardConfiguration callGuard = new ProviderCallGuardConfiguration();
+
+    /**
+     * Background connection warm-up configuration.
+     */
+    private ProviderClientWarmUpConfiguration warmUp = new ProviderClientWarmUpConfiguration();
+
     /**
      * Return profile name.
      *
@@ -21,6 +21,10 @@ import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.enrollmentserver.model.integration.SubmittedDocument;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallRejectedException;
+import com.wultra.app.onboardingserver.common.client.ProviderCallType;
 import com.wultra.app.onboardingserver.provider.zenid.model.api.*;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientException;
@@ -81,18 +85,26 @@ class ZenidRestApiService {
      */
     private final RestClient restClient;
 
+    /**
+     * Guard of ZenID calls.
+     */
+    private final ProviderCallGuard callGuard;
+
     /**
      * Service constructor.
      *
      * @param configProps Configuration properties.
      * @param restClient REST client for ZenID calls.
+     * @param callGuard Guard of ZenID calls.
      */
     @Autowired
     public ZenidRestApiService(
             ZenidConfigProps configProps,
-            @Qualifier("restClientZenid") RestClient restClient) {
+            @Qualifier("restClientZenid") RestClient restClient,
+            @Qualifier("zenidCallGuard") ProviderCallGuard callGuard) {
         this.configProps = configProps;
         this.restClient = restClient;
+        this.callGuard = callGuard;
     }
 
     /**
@@ -121,7 +133,8 @@ class ZenidRestApiService {
         httpHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
 
         final ResponseEntity<ZenidWebUploadSampleResponse> response =
-                restClient.post("/api/sample", bodyBuilder.build(), queryParams, httpHeaders, RESPONSE_TYPE_REFERENCE_UPLOAD_SAMPLE);
+                call("uploadSample", ProviderCallType.NON_IDEMPOTENT, () ->
+                        restClient.post("/api/sample", bodyBuilder.build(), queryParams, httpHeaders, RESPONSE_TYPE_REFERENCE_UPLOAD_SAMPLE));
         logger.debug("/api/sample response status code: {}, {}", response.getStatusCode(), ownerId);
         logger.trace("/api/sample response: {}, {}", response, ownerId);
         return response;
@@ -136,7 +149,8 @@ class ZenidRestApiService {
     public ResponseEntity<ZenidWebUploadSampleResponse> syncSample(String documentId)
             throws RestClientException {
         String apiPath = "/api/sample/" + documentId;
-        final ResponseEntity<ZenidWebUploadSampleResponse> response = restClient.get(apiPath, RESPONSE_TYPE_REFERENCE_UPLOAD_SAMPLE);
+        final ResponseEntity<ZenidWebUploadSampleResponse> response =
+                call("syncSample", ProviderCallType.STATUS_POLL, () -> restClient.get(apiPath, RESPONSE_TYPE_REFERENCE_UPLOAD_SAMPLE));
         logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
         logger.trace("{} response {}", apiPath, response);
         return response;
@@ -159,7 +173,8 @@ class ZenidRestApiService {
                 queryParams.add("profile", profile));
 
         final ResponseEntity<ZenidWebInvestigateResponse> response =
-                restClient.get("/api/investigateSamples", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_INVESTIGATE);
+                call("investigateSamples", ProviderCallType.NON_IDEMPOTENT, () ->
+                        restClient.get("/api/investigateSamples", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_INVESTIGATE));
         logger.debug("/api/investigateSamples response status code: {} for IDs: {}", response.getStatusCode(), sampleIds);
         logger.trace("/api/investigateSamples response: {} for IDs: {}", response, sampleIds);
         return response;
@@ -175,7 +190,8 @@ class ZenidRestApiService {
         MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
         queryParams.add("sampleId", sampleId);
         final ResponseEntity<ZenidWebDeleteSampleResponse> response =
-                restClient.get("/api/deleteSample", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_DELETE);
+                call("deleteSample", ProviderCallType.IDEMPOTENT, () ->
+                        restClient.get("/api/deleteSample", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_DELETE));
         logger.debug("/api/deleteSample/{} response: {}", sampleId, response);
         return response;
     }
@@ -189,7 +205,8 @@ class ZenidRestApiService {
         final String apiPath = String.format("/History/Image/%s", imageHash);
         final HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setAccept(List.of(MediaType.APPLICATION_OCTET_STREAM));
-        final ResponseEntity<byte[]> result = restClient.get(apiPath, EMPTY_QUERY_PARAMS, httpHeaders, RESPONSE_TYPE_BYTE_ARRAY);
+        final ResponseEntity<byte[]> result =
+                call("getImage", ProviderCallType.IDEMPOTENT, () -> restClient.get(apiPath, EMPTY_QUERY_PARAMS, httpHeaders, RESPONSE_TYPE_BYTE_ARRAY));
         logger.debug("{} called", apiPath);
         return result;
     }
@@ -208,7 +225,8 @@ class ZenidRestApiService {
     public ResponseEntity<ZenidWebInvestigateResponse> getInvestigation(String investigationId)
             throws RestClientException {
         String apiPath = String.format("/api/investigation/%s", investigationId);
-        final ResponseEntity<ZenidWebInvestigateResponse> response = restClient.get(apiPath, RESPONSE_TYPE_REFERENCE_INVESTIGATE);
+        final ResponseEntity<ZenidWebInvestigateResponse> response =
+                call("getInvestigation", ProviderCallType.STATUS_POLL, () -> restClient.get(apiPath, RESPONSE_TYPE_REFERENCE_INVESTIGATE));
         logger.debug("{} response status code: {}", apiPath, response.getStatusCode());
         logger.trace("{} response: {}", apiPath, response);
         return response;
@@ -225,11 +243,20 @@ class ZenidRestApiService {
         queryParams.add("token", token);
 
         final ResponseEntity<ZenidWebInitSdkResponse> response =
-                restClient.get("/api/initSdk", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_INIT_SDK);
+                call("initSdk", ProviderCallType.NON_IDEMPOTENT, () ->
+                        restClient.get("/api/initSdk", queryParams, EMPTY_ADDITIONAL_HEADERS, RESPONSE_TYPE_REFERENCE_INIT_SDK));
         logger.debug("/api/initSdk response: {}", response);
         return response;
     }
 
+    private <T> T call(final String operation, final ProviderCallType type, final ProviderCall<T, RestClientException> call) throws RestClientException {
+        try {
+            return callGuard.call(operation, type, call);
+        } catch (ProviderCallRejectedException e) {
+            throw new RestClientException(e.getMessage(), e);
+        }
+    }
+
     private MultiValueMap<String, String> buildQueryParams(OwnerId ownerId, SubmittedDocument document) {
         MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
 
@@ -0,0 +1,95 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.concurrency;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interceptor of methods annotated by {@link RetryOnConflict}. Runs outside the transaction of the method
+ * and retries the whole invocation with a randomized linear backoff. The backoff blocks the request thread,
+ * so it is limited to {@value #MAX_BACKOFF_MILLIS} ms per attempt.
+ */
+@Slf4j
+class ConflictRetryInterceptor implements MethodInterceptor {
+
+    static final long MAX_BACKOFF_MILLIS = 10;
+
+    private final int maxAttempts;
+
+    private final long backoffMillis;
+
+    /**
+     * Interceptor constructor.
+     *
+     * @param maxAttempts Maximum number of attempts, including the first one.
+     * @param backoff Base delay before a retry, multiplied by the number of the failed attempt, at most {@value #MAX_BACKOFF_MILLIS} ms.
+     */
+    ConflictRetryInterceptor(final int maxAttempts, final Duration backoff) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = Math.min(backoff.toMillis(), MAX_BACKOFF_MILLIS);
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        if (maxAttempts <= 1
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof final ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+
+        final String methodName = invocation.getMethod().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return proxyInvocation.invocableClone().proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Concurrent modification in {}, giving up after {} attempts", methodName, attempt);
+                    throw e;
+                }
+                logger.info("Concurrent modification in {}, retrying attempt {} of {}", methodName, attempt, maxAttempts);
+                logger.debug("Concurrent modification detail", e);
+                if (!sleep(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean sleep(final int attempt) {
+        final long delay = backoffMillis * attempt;
+        if (delay <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
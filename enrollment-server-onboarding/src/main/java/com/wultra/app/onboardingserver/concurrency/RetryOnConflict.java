@@ -0,0 +1,34 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.concurrency;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a transactional method to be retried when it fails due to a concurrent modification detected
+ * by optimistic concurrency control. The whole transaction is retried, so the method must not be called
+ * within an existing transaction, otherwise it is not retried.
+ * <p>
+ * Effects outside the database, e.g. calls of providers or PowerAuth, would be repeated by the retry,
+ * so only methods updating the database may be annotated. Other methods fail with a conflict error.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
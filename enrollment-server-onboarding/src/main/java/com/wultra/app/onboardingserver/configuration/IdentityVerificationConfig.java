@@ -21,6 +21,7 @@ import lombok.Data;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
 
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
@@ -55,6 +56,18 @@ public class IdentityVerificationConfig {
     @Value("${enrollment-server-onboarding.identity-verification.data-retention:1h}")
     private Duration dataRetentionTime;
 
+    /**
+     * Maximal total size of document photos cached locally, photos expire after {@link #dataRetentionTime}.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.photo-cache.max-size:50MB}")
+    private DataSize photoCacheMaxSize;
+
+    /**
+     * Maximal count of document results with memoized rejection reasons.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.rejection-reasons-cache.max-entries:10000}")
+    private long rejectionReasonsCacheMaxEntries;
+
     @Value("${enrollment-server-onboarding.onboarding-process.verification.expiration:1h}")
     private Duration verificationExpirationTime;
 
@@ -67,6 +80,54 @@ public class IdentityVerificationConfig {
     @Value("${enrollment-server-onboarding.identity-verification.max-failed-attempts-document-upload:5}")
     private int documentUploadMaxFailedAttempts;
 
+    /**
+     * Time after which a document submission without any result from the provider is considered interrupted.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-submit-timeout:5m}")
+    private Duration documentSubmitTimeout;
+
+    /**
+     * Whether documents are submitted to the provider asynchronously, after the submit request has been answered.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-submit.async-enabled:false}")
+    private boolean documentSubmitAsyncEnabled;
+
+    /**
+     * Count of threads submitting documents to the provider asynchronously.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-submit.pool-size:8}")
+    private int documentSubmitPoolSize;
+
+    /**
+     * Maximal count of document submissions waiting for a free thread. Further submissions are processed synchronously.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-submit.queue-capacity:100}")
+    private int documentSubmitQueueCapacity;
+
+    /**
+     * Maximal time to wait for the activation status fetched by the precomplete check.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.precomplete.activation-status-timeout:60s}")
+    private Duration precompleteActivationStatusTimeout;
+
+    /**
+     * Maximal count of uploaded documents of an activation waiting for a submit.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-upload.max-count:20}")
+    private int documentUploadMaxCount;
+
+    /**
+     * Maximal total size of uploaded documents of an activation waiting for a submit.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-upload.max-size:100MB}")
+    private DataSize documentUploadMaxSize;
+
+    /**
+     * Time after which an uploaded document not submitted yet expires.
+     */
+    @Value("${enrollment-server-onboarding.identity-verification.document-upload.ttl:1h}")
+    private Duration documentUploadTtl;
+
     @Value("${enrollment-server-onboarding.presence-check.max-failed-attempts:5}")
     private int presenceCheckMaxFailedAttempts;
 
@@ -79,6 +140,18 @@ public class IdentityVerificationConfig {
     @Value("${enrollment-server-onboarding.client-evaluation.max-failed-attempts:5}")
     private int clientEvaluationMaxFailedAttempts;
 
+    /**
+     * Delay before the first retry of a failed client evaluation, doubled with each further failed attempt.
+     */
+    @Value("${enrollment-server-onboarding.client-evaluation.initial-backoff:10s}")
+    private Duration clientEvaluationInitialBackoff;
+
+    /**
+     * Maximal delay between two client evaluation attempts.
+     */
+    @Value("${enrollment-server-onboarding.client-evaluation.max-backoff:5m}")
+    private Duration clientEvaluationMaxBackoff;
+
     @Value("${enrollment-server-onboarding.client-evaluation.include-extracted-data:false}")
     private boolean sendingExtractedDataEnabled;
 
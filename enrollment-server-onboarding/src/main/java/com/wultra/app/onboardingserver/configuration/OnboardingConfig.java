@@ -44,6 +44,18 @@ public class OnboardingConfig extends CommonOnboardingConfig {
     @Value("${enrollment-server-onboarding.onboarding-process.activation.expiration:5m}")
     private Duration activationExpirationTime;
 
+    /**
+     * How long cached activation statuses are used before they are fetched from PowerAuth server again.
+     */
+    @Value("${enrollment-server-onboarding.onboarding-process.activation.status-cache-ttl:5s}")
+    private Duration activationStatusCacheTtl;
+
+    /**
+     * Maximum number of activations with cached activation status.
+     */
+    @Value("${enrollment-server-onboarding.onboarding-process.activation.status-cache-max-entries:10000}")
+    private long activationStatusCacheMaxEntries;
+
     @Value("${enrollment-server-onboarding.onboarding-process.otp.expiration:5m}")
     private Duration otpExpirationTime;
 
@@ -0,0 +1,51 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.configuration;
+
+import com.wultra.app.enrollmentserver.common.client.RequestLimitConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUpConfiguration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties of the client of PowerAuth service.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "powerauth.service")
+@Getter @Setter
+public class PowerAuthServiceConfigProperties {
+
+    /**
+     * Limit of concurrent requests to PowerAuth service configuration.
+     */
+    private RequestLimitConfiguration requestLimit = new RequestLimitConfiguration();
+
+    /**
+     * Guard of PowerAuth service calls configuration.
+     */
+    private ProviderCallGuardConfiguration callGuard = new ProviderCallGuardConfiguration();
+
+    /**
+     * Background connection warm-up configuration.
+     */
+    private ProviderClientWarmUpConfiguration warmUp = new ProviderClientWarmUpConfiguration();
+
+}
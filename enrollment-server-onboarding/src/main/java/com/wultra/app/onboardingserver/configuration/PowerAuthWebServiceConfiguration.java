@@ -18,20 +18,29 @@
 
 package com.wultra.app.onboardingserver.configuration;
 
+import com.wultra.app.enrollmentserver.common.client.RequestLimitFilter;
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderClientWarmUp;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
 import com.wultra.security.powerauth.rest.client.PowerAuthRestClient;
 import com.wultra.security.powerauth.rest.client.PowerAuthRestClientConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.StringUtils;
 
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 /**
  * PowerAuth service configuration class.
@@ -59,6 +68,12 @@ public class PowerAuthWebServiceConfiguration {
     @Value("${powerauth.service.restClientConfig.maxIdleTime}")
     private Duration powerAuthServiceMaxIdleTime;
 
+    @Value("${powerauth.service.restClientConfig.connectTimeout:5s}")
+    private Duration powerAuthServiceConnectTimeout;
+
+    @Value("${powerauth.service.restClientConfig.maxLifeTime:#{null}}")
+    private Duration powerAuthServiceMaxLifeTime;
+
     @Value("${powerauth.service.security.clientToken}")
     private String clientToken;
 
@@ -66,10 +81,16 @@ public class PowerAuthWebServiceConfiguration {
     private String clientSecret;
 
     @Bean
-    public PowerAuthClient powerAuthClient() throws PowerAuthClientException {
+    public PowerAuthClient powerAuthClient(
+            final PowerAuthServiceConfigProperties powerAuthServiceConfigProperties,
+            final ObjectProvider<MeterRegistry> meterRegistry) throws PowerAuthClientException {
+
         final PowerAuthRestClientConfiguration config = new PowerAuthRestClientConfiguration();
+        config.setConnectTimeout(powerAuthServiceConnectTimeout);
         config.setResponseTimeout(powerAuthServiceTimeout);
         config.setMaxIdleTime(powerAuthServiceMaxIdleTime);
+        config.setMaxLifeTime(powerAuthServiceMaxLifeTime);
+        config.setFilter(new RequestLimitFilter("powerauth", powerAuthServiceConfigProperties.getRequestLimit(), meterRegistry.getIfAvailable()));
 
         if (StringUtils.hasText(clientToken)) {
             logger.info("Configuring security for PowerAuthRestClient.");
@@ -80,4 +101,43 @@ public class PowerAuthWebServiceConfiguration {
         return new PowerAuthRestClient(powerAuthServiceUrl, config);
     }
 
-}
\ No newline at end of file
+    /**
+     * Guard of PowerAuth service calls.
+     *
+     * @param powerAuthServiceConfigProperties PowerAuth service configuration properties.
+     * @param meterRegistry Meter registry.
+     * @param taskExecutor Task executor.
+     * @return Call guard.
+     */
+    @Bean
+    public ProviderCallGuard powerAuthCallGuard(
+            final PowerAuthServiceConfigProperties powerAuthServiceConfigProperties,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderCallGuard("powerauth", powerAuthServiceConfigProperties.getCallGuard(), meterRegistry.getIfAvailable(), taskExecutor.getIfAvailable());
+    }
+
+    /**
+     * Background warm-up of PowerAuth service connections.
+     *
+     * @param powerAuthClient PowerAuth client.
+     * @param powerAuthServiceConfigProperties PowerAuth service configuration properties.
+     * @param powerAuthCallGuard Guard of PowerAuth service calls.
+     * @param meterRegistry Meter registry.
+     * @param taskScheduler Task scheduler.
+     * @param taskExecutor Task executor.
+     * @return Client warm-up.
+     */
+    @Bean
+    public ProviderClientWarmUp powerAuthClientWarmUp(
+            final PowerAuthClient powerAuthClient,
+            final PowerAuthServiceConfigProperties powerAuthServiceConfigProperties,
+            @Qualifier("powerAuthCallGuard") final ProviderCallGuard powerAuthCallGuard,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final ObjectProvider<TaskScheduler> taskScheduler,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
+        return new ProviderClientWarmUp("powerauth", powerAuthServiceConfigProperties.getWarmUp(), powerAuthCallGuard, meterRegistry.getIfAvailable(), taskScheduler.getIfAvailable(), taskExecutor.getIfAvailable(),
+                null, powerAuthClient::getSystemStatus);
+    }
+
+}
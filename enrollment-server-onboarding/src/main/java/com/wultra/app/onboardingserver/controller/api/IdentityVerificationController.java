@@ -21,6 +21,7 @@ import com.wultra.app.enrollmentserver.api.model.onboarding.request.*;
 import com.wultra.app.enrollmentserver.api.model.onboarding.response.*;
 import com.wultra.app.onboardingserver.common.errorhandling.*;
 import com.wultra.app.onboardingserver.errorhandling.DocumentSubmitException;
+import com.wultra.app.onboardingserver.errorhandling.DocumentUploadLimitException;
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.api.errorhandling.PresenceCheckException;
 import com.wultra.app.onboardingserver.impl.service.IdentityVerificationRestService;
@@ -152,6 +153,7 @@ public class IdentityVerificationController {
      * @throws PowerAuthEncryptionException Thrown when request decryption fails.
      * @throws DocumentVerificationException Thrown when document is invalid.
      * @throws OnboardingProcessException Thrown when finished onboarding process is not found.
+     * @throws DocumentUploadLimitException Thrown when limit of uploaded documents is reached.
      */
     @PostMapping("document/upload")
     @PowerAuthEncryption(scope = EncryptionScope.ACTIVATION_SCOPE)
@@ -161,7 +163,7 @@ public class IdentityVerificationController {
     public ObjectResponse<DocumentUploadResponse> uploadDocument(@EncryptedRequestBody byte[] requestData,
                                                                  @Parameter(hidden = true) EncryptionContext encryptionContext,
                                                                  @Parameter(hidden = true) PowerAuthApiAuthentication apiAuthentication)
-            throws IdentityVerificationException, PowerAuthAuthenticationException, PowerAuthEncryptionException, DocumentVerificationException, OnboardingProcessException {
+            throws IdentityVerificationException, PowerAuthAuthenticationException, PowerAuthEncryptionException, DocumentVerificationException, OnboardingProcessException, DocumentUploadLimitException {
 
         return identityVerificationRestService.uploadDocument(requestData, encryptionContext, apiAuthentication);
     }
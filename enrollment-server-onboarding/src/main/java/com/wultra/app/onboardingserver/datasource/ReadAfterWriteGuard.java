@@ -0,0 +1,71 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Tracks writes committed by the current thread, so that read-only transactions following a write
+ * in the same thread read their own writes from the primary.
+ * <p>
+ * Request threads are pooled, so the guard only covers reads within the request which committed the write.
+ * It gives no guarantee for the following requests of the same client, reads which must observe
+ * their writes have to stay on the primary.
+ */
+class ReadAfterWriteGuard implements TransactionExecutionListener {
+
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    private final long primaryAfterWriteNanos;
+
+    /**
+     * Guard constructor.
+     *
+     * @param primaryAfterWrite Duration after a committed write during which the primary is used.
+     */
+    ReadAfterWriteGuard(final Duration primaryAfterWrite) {
+        this.primaryAfterWriteNanos = primaryAfterWrite.toNanos();
+    }
+
+    @Override
+    public void afterCommit(final TransactionExecution transaction, final Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            lastWrite.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Whether the current thread committed a write recently.
+     *
+     * @return {@code true} when the primary should be used for reading.
+     */
+    boolean isRecentWrite() {
+        final Long timestamp = lastWrite.get();
+        if (timestamp == null) {
+            return false;
+        }
+        if (System.nanoTime() - timestamp < primaryAfterWriteNanos) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the optional read replica data source.
+ * <p>
+ * Connection pool of the replica is configured by {@code enrollment-server-onboarding.datasource.replica.hikari.*}
+ * properties, the same way as the primary pool by {@code spring.datasource.hikari.*}.
+ */
+@ConfigurationProperties("enrollment-server-onboarding.datasource.replica")
+@Getter
+@Setter
+public class ReadReplicaConfigProperties {
+
+    /**
+     * Whether read-only transactions are routed to the read replica.
+     */
+    private boolean enabled;
+
+    /**
+     * JDBC URL of the read replica.
+     */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Maximal replication lag, the primary is used when exceeded.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Query executed on the replica returning replication lag in seconds. Lag is not checked when empty.
+     */
+    private String lagQuery;
+
+    /**
+     * Interval of the replication lag check.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(10);
+
+    /**
+     * Duration after a committed write within the same thread during which read-only transactions use the primary.
+     */
+    private Duration primaryAfterWrite = Duration.ofSeconds(5);
+}
@@ -0,0 +1,99 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the optional read replica.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy} obtaining the physical connection
+ * on the first statement. Connections of read-only transactions, i.e. {@code @Transactional(readOnly = true)}
+ * including read methods of Spring Data repositories, are obtained from {@link ReadReplicaRoutingDataSource},
+ * other connections from the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "enrollment-server-onboarding.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaConfigProperties.class)
+@Slf4j
+class ReadReplicaDataSourceConfiguration {
+
+    private static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    private static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("enrollment-server-onboarding.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(final ReadReplicaConfigProperties properties) {
+        logger.info("Initializing read replica data source for url={}", properties.getUrl());
+        final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        // defaults, may be overridden by the hikari properties
+        dataSource.setPoolName("HikariPool-Enrollment-Server-Onboarding-Replica");
+        dataSource.setAutoCommit(false);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier(REPLICA_DATA_SOURCE) final DataSource replicaDataSource, final ReadReplicaConfigProperties properties) {
+        return new ReplicaLagMonitor(replicaDataSource, properties);
+    }
+
+    @Bean
+    ReadAfterWriteGuard readAfterWriteGuard(final ReadReplicaConfigProperties properties) {
+        return new ReadAfterWriteGuard(properties.getPrimaryAfterWrite());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(
+            @Qualifier(PRIMARY_DATA_SOURCE) final DataSource primaryDataSource,
+            @Qualifier(REPLICA_DATA_SOURCE) final DataSource replicaDataSource,
+            final ReplicaLagMonitor replicaLagMonitor,
+            final ReadAfterWriteGuard readAfterWriteGuard) {
+
+        final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, readAfterWriteGuard));
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Data source used for read-only connections. Connections are obtained from the read replica unless its replication
+ * lag is not known to be within the threshold or the current thread has just committed a write.
+ */
+class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    private final ReadAfterWriteGuard readAfterWriteGuard;
+
+    /**
+     * Data source constructor.
+     *
+     * @param primaryDataSource Primary data source.
+     * @param replicaDataSource Replica data source.
+     * @param replicaLagMonitor Replica lag monitor.
+     * @param readAfterWriteGuard Read after write guard.
+     */
+    ReadReplicaRoutingDataSource(
+            final DataSource primaryDataSource,
+            final DataSource replicaDataSource,
+            final ReplicaLagMonitor replicaLagMonitor,
+            final ReadAfterWriteGuard readAfterWriteGuard) {
+
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readAfterWriteGuard = readAfterWriteGuard;
+        setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!replicaLagMonitor.isReplicaUsable() || readAfterWriteGuard.isRecentWrite()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically checks replication lag of the read replica. The replica is considered unusable when the lag exceeds
+ * the configured threshold or the check fails. Until the first successful check, the replica is not used.
+ */
+@Slf4j
+class ReplicaLagMonitor {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+
+    /**
+     * Monitor constructor.
+     *
+     * @param replicaDataSource Replica data source.
+     * @param properties Read replica configuration properties.
+     */
+    ReplicaLagMonitor(final DataSource replicaDataSource, final ReadReplicaConfigProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = properties.getLagQuery();
+        this.maxLag = properties.getMaxLag();
+        this.replicaUsable = !StringUtils.hasText(lagQuery);
+    }
+
+    /**
+     * Check replication lag of the replica.
+     */
+    @Scheduled(fixedDelayString = "${enrollment-server-onboarding.datasource.replica.lag-check-interval:PT10S}")
+    void checkLag() {
+        if (!StringUtils.hasText(lagQuery)) {
+            return;
+        }
+
+        boolean usable;
+        try {
+            final Double lagSeconds = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            final Duration lag = lagSeconds == null ? null : Duration.ofMillis(Math.round(lagSeconds * 1000));
+            usable = lag != null && lag.compareTo(maxLag) <= 0;
+            logger.debug("Replication lag of the read replica: {}", lag);
+        } catch (DataAccessException e) {
+            logger.debug("Replication lag check failed", e);
+            logger.warn("Replication lag check failed: {}", e.getMessage());
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Read replica is usable, read-only transactions are routed to the replica");
+            } else {
+                logger.warn("Read replica is not usable, read-only transactions are routed to the primary");
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * Whether the replica may be used.
+     *
+     * @return {@code true} when the replication lag is within the threshold.
+     */
+    boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+}
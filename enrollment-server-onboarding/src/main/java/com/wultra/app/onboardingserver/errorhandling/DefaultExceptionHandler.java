@@ -23,9 +23,11 @@ import com.wultra.app.onboardingserver.api.errorhandling.PresenceCheckException;
 import com.wultra.app.onboardingserver.common.errorhandling.*;
 import io.getlime.core.rest.model.base.response.ErrorResponse;
 import io.getlime.security.powerauth.rest.api.spring.exception.PowerAuthAuthenticationException;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -55,6 +57,18 @@ public class DefaultExceptionHandler {
         return new ErrorResponse("ERROR_GENERIC", "Unknown error occurred while processing request.");
     }
 
+    /**
+     * Handling of document upload limit exceptions.
+     * @param ex Exception.
+     * @return Response with error details.
+     */
+    @ExceptionHandler(DocumentUploadLimitException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public @ResponseBody ErrorResponse handleDocumentUploadLimitException(DocumentUploadLimitException ex) {
+        logger.warn("Document upload limit reached", ex);
+        return new ErrorResponse("DOCUMENT_UPLOAD_LIMIT_REACHED", "Document upload limit reached.");
+    }
+
     /**
      * Exception handler for invalid request exception.
      * @param ex Exception.
@@ -165,6 +179,19 @@ public class DefaultExceptionHandler {
         return new ErrorResponse("REMOTE_COMMUNICATION_ERROR", "Communication with remote system failed.");
     }
 
+    /**
+     * Handling of concurrent modification detected by optimistic locking.
+     * @param ex Exception.
+     * @return Response with error details.
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody ErrorResponse handleOptimisticLockingFailureException(Exception ex) {
+        logger.warn("Concurrent modification of onboarding process: {}", ex.getMessage());
+        logger.debug("Concurrent modification of onboarding process", ex);
+        return new ErrorResponse("CONCURRENT_MODIFICATION", "Onboarding process was modified concurrently.");
+    }
+
     /**
      * Handling of onboarding process exceptions.
      * @param ex Exception.
@@ -0,0 +1,34 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.errorhandling;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown in case of a limit of uploaded documents reached.
+ */
+public class DocumentUploadLimitException extends Exception {
+
+    @Serial
+    private static final long serialVersionUID = 4150283924108352412L;
+
+    public DocumentUploadLimitException(String message) {
+        super(message);
+    }
+
+}
@@ -19,8 +19,10 @@
 
 package com.wultra.app.onboardingserver.impl.service;
 
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.entity.Activation;
 import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
 import com.wultra.security.powerauth.client.model.request.GetActivationStatusRequest;
@@ -28,8 +30,12 @@ import com.wultra.security.powerauth.client.model.request.RemoveActivationReques
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
 /**
  * Service for working with activations.
+ * <p>
+ * Activation statuses are cached for a short time, see {@link ActivationStatusCache}.
  *
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
@@ -37,15 +43,24 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class ActivationService {
 
+    /**
+     * Maximal number of users looked up by a single bulk request.
+     */
+    private static final int LOOKUP_BATCH_SIZE = 100;
+
     private final PowerAuthClient powerAuthClient;
 
+    private final ActivationStatusCache activationStatusCache;
+
     /**
      * All-arg constructor.
      *
      * @param powerAuthClient PowerAuth service client.
+     * @param activationStatusCache Activation status cache.
      */
-    public ActivationService(final PowerAuthClient powerAuthClient) {
+    public ActivationService(final PowerAuthClient powerAuthClient, final ActivationStatusCache activationStatusCache) {
         this.powerAuthClient = powerAuthClient;
+        this.activationStatusCache = activationStatusCache;
     }
 
     /**
@@ -62,6 +77,8 @@ public class ActivationService {
             powerAuthClient.removeActivation(request);
         } catch (PowerAuthClientException e) {
             throw new RemoteCommunicationException("Communication with PowerAuth server failed: " + e.getMessage(), e);
+        } finally {
+            activationStatusCache.invalidate(activationId);
         }
     }
 
@@ -77,7 +94,74 @@ public class ActivationService {
         request.setActivationId(activationId);
 
         try {
-            return powerAuthClient.getActivationStatus(request).getActivationStatus();
+            return activationStatusCache.get(activationId, () -> powerAuthClient.getActivationStatus(request).getActivationStatus());
+        } catch (PowerAuthClientException e) {
+            throw new RemoteCommunicationException("Communication with PowerAuth server failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Return current activation status fetched from PowerAuth server, bypassing the cache. The cache is updated by the fetched status.
+     *
+     * @param activationId Activation ID.
+     * @return activation status
+     * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
+     */
+    public ActivationStatus fetchCurrentActivationStatus(final String activationId) throws RemoteCommunicationException {
+        final GetActivationStatusRequest request = new GetActivationStatusRequest();
+        request.setActivationId(activationId);
+
+        try {
+            final ActivationStatus activationStatus = powerAuthClient.getActivationStatus(request).getActivationStatus();
+            activationStatusCache.put(activationId, activationStatus);
+            return activationStatus;
+        } catch (PowerAuthClientException e) {
+            activationStatusCache.invalidate(activationId);
+            throw new RemoteCommunicationException("Communication with PowerAuth server failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Return activation statuses of the given owners. Activations not cached are looked up in bulk by user IDs,
+     * an activation not found by the bulk lookup is fetched individually.
+     *
+     * @param ownerIds Owner identifications with activation ID and user ID.
+     * @return activation statuses keyed by activation ID
+     * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
+     */
+    public Map<String, ActivationStatus> fetchActivationStatuses(final Collection<OwnerId> ownerIds) throws RemoteCommunicationException {
+        final Set<String> activationIds = new HashSet<>();
+        ownerIds.forEach(it -> activationIds.add(it.getActivationId()));
+        final Map<String, ActivationStatus> result = new HashMap<>(activationStatusCache.getAllPresent(activationIds));
+
+        final List<String> userIds = ownerIds.stream()
+                .filter(it -> !result.containsKey(it.getActivationId()))
+                .map(OwnerId::getUserId)
+                .distinct()
+                .toList();
+        logger.debug("Looking up activations of {} users, {} activation statuses cached", userIds.size(), result.size());
+
+        for (int i = 0; i < userIds.size(); i += LOOKUP_BATCH_SIZE) {
+            for (Activation activation : lookupActivations(userIds.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, userIds.size())))) {
+                final String activationId = activation.getActivationId();
+                if (activationIds.contains(activationId)) {
+                    activationStatusCache.put(activationId, activation.getActivationStatus());
+                    result.put(activationId, activation.getActivationStatus());
+                }
+            }
+        }
+
+        for (String activationId : activationIds) {
+            if (!result.containsKey(activationId)) {
+                result.put(activationId, fetchActivationStatus(activationId));
+            }
+        }
+        return result;
+    }
+
+    private List<Activation> lookupActivations(final List<String> userIds) throws RemoteCommunicationException {
+        try {
+            return powerAuthClient.lookupActivations(userIds, null, null, null, null, null);
         } catch (PowerAuthClientException e) {
             throw new RemoteCommunicationException("Communication with PowerAuth server failed: " + e.getMessage(), e);
         }
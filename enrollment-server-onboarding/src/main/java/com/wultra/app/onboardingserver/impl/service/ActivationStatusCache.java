@@ -0,0 +1,128 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wultra.app.onboardingserver.common.client.ProviderCall;
+import com.wultra.app.onboardingserver.configuration.OnboardingConfig;
+import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Local cache of activation statuses keyed by activation ID.
+ * <p>
+ * Entries expire after a short TTL to pick up changes made outside this node. Activations removed by {@link ActivationService}
+ * invalidate the entry. Concurrent lookups of the same activation share a single in-flight request, the request is
+ * executed on the thread which started the lookup. Failed lookups are not cached.
+ */
+@Component
+@Slf4j
+class ActivationStatusCache {
+
+    private final AsyncCache<String, ActivationStatus> statuses;
+
+    /**
+     * Cache constructor.
+     *
+     * @param config Onboarding configuration.
+     */
+    ActivationStatusCache(final OnboardingConfig config) {
+        statuses = Caffeine.newBuilder()
+                .maximumSize(config.getActivationStatusCacheMaxEntries())
+                .expireAfterWrite(config.getActivationStatusCacheTtl())
+                .buildAsync();
+    }
+
+    /**
+     * Get activation status, load it only when not cached or being loaded by another thread.
+     *
+     * @param activationId Activation ID.
+     * @param loader Loader of activation status.
+     * @return Activation status.
+     * @throws PowerAuthClientException In case of a failure when loading the activation status.
+     */
+    ActivationStatus get(final String activationId, final ProviderCall<ActivationStatus, PowerAuthClientException> loader) throws PowerAuthClientException {
+        final CompletableFuture<ActivationStatus> future = new CompletableFuture<>();
+        final CompletableFuture<ActivationStatus> inFlight = statuses.asMap().putIfAbsent(activationId, future);
+        if (inFlight != null) {
+            logger.debug("Using cached activation status, activation ID: {}", activationId);
+            return join(inFlight);
+        }
+
+        try {
+            final ActivationStatus result = loader.call();
+            future.complete(result);
+            return result;
+        } catch (PowerAuthClientException | RuntimeException e) {
+            // failed future is removed from the cache
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get cached activation statuses of the given activations.
+     *
+     * @param activationIds Activation IDs.
+     * @return Activation statuses keyed by activation ID, activations not cached or still being loaded are missing.
+     */
+    Map<String, ActivationStatus> getAllPresent(final Collection<String> activationIds) {
+        return statuses.synchronous().getAllPresent(activationIds);
+    }
+
+    /**
+     * Cache activation status fetched by a bulk lookup.
+     *
+     * @param activationId Activation ID.
+     * @param activationStatus Activation status.
+     */
+    void put(final String activationId, final ActivationStatus activationStatus) {
+        statuses.put(activationId, CompletableFuture.completedFuture(activationStatus));
+    }
+
+    /**
+     * Invalidate activation status after it has been changed.
+     *
+     * @param activationId Activation ID.
+     */
+    void invalidate(final String activationId) {
+        logger.debug("Invalidating cached activation status, activation ID: {}", activationId);
+        statuses.synchronous().invalidate(activationId);
+    }
+
+    private static ActivationStatus join(final CompletableFuture<ActivationStatus> future) throws PowerAuthClientException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof final PowerAuthClientException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof final RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.wultra.app.onboardingserver.common.database.entity.DocumentResultEnti
 import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.service.AuditService;
+import com.wultra.app.onboardingserver.common.util.ExponentialBackoff;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.provider.OnboardingProvider;
 import com.wultra.app.onboardingserver.provider.model.request.EvaluateClientRequest;
@@ -35,6 +36,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -112,19 +115,41 @@ public class ClientEvaluationService {
         final EvaluateClientRequest request = requestBuilder.build();
 
         final int maxFailedAttempts = config.getClientEvaluationMaxFailedAttempts();
-        for (int i = 0; i < maxFailedAttempts; i++) {
-            final int attempt = i + 1;
-            try {
-                final EvaluateClientResponse response = onboardingProvider.evaluateClient(request);
-                processEvaluationSuccess(identityVerification, ownerId, response);
-                logger.debug("Client evaluation finished for {}, attempt: {}", identityVerification, attempt);
-                return;
-            } catch (Exception e) {
-                logger.warn("Client evaluation failed for {}, attempt: {}, {}, {}", identityVerification, attempt, ownerId, e.getMessage());
-                logger.debug("Client evaluation failed for {} - attempt: {}, {}", identityVerification, attempt, ownerId, e);
+        final int attempt = identityVerification.getClientEvaluationAttempts() + 1;
+        if (attempt > maxFailedAttempts) {
+            processTooManyEvaluationError(identityVerification, ownerId);
+            return;
+        }
+
+        try {
+            final EvaluateClientResponse response = onboardingProvider.evaluateClient(request);
+            identityVerification.setTimestampNextAttempt(null);
+            processEvaluationSuccess(identityVerification, ownerId, response);
+            logger.debug("Client evaluation finished for {}, attempt: {}", identityVerification, attempt);
+        } catch (Exception e) {
+            logger.warn("Client evaluation failed for {}, attempt: {}, {}, {}", identityVerification, attempt, ownerId, e.getMessage());
+            logger.debug("Client evaluation failed for {} - attempt: {}, {}", identityVerification, attempt, ownerId, e);
+            identityVerification.setClientEvaluationAttempts(attempt);
+            if (attempt >= maxFailedAttempts) {
+                processTooManyEvaluationError(identityVerification, ownerId);
+            } else {
+                scheduleNextAttempt(identityVerification, ownerId, attempt);
             }
         }
-        processTooManyEvaluationError(identityVerification, ownerId);
+    }
+
+    /**
+     * Keep the identity verification in progress and postpone the next attempt, so that the state machine sweep
+     * does not pick it up again before the backoff elapses.
+     */
+    private void scheduleNextAttempt(final IdentityVerificationEntity identityVerification, final OwnerId ownerId, final int attempt) {
+        final Duration backoff = ExponentialBackoff.withEqualJitter(
+                attempt, config.getClientEvaluationInitialBackoff(), config.getClientEvaluationMaxBackoff());
+        final Date timestampNextAttempt = Date.from(ownerId.getTimestamp().toInstant().plus(backoff));
+        identityVerification.setTimestampNextAttempt(timestampNextAttempt);
+        identityVerification.setTimestampLastUpdated(ownerId.getTimestamp());
+        identityVerificationService.updateIdentityVerification(identityVerification);
+        logger.info("Client evaluation of {} postponed until {}, attempt: {}", identityVerification, timestampNextAttempt, attempt);
     }
 
     private static Set<DocumentVerificationEntity> selectAcceptedDocuments(final IdentityVerificationEntity identityVerification) {
@@ -19,6 +19,7 @@ package com.wultra.app.onboardingserver.impl.service;
 
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.enrollmentserver.model.Document;
+import io.getlime.security.powerauth.crypto.lib.util.Hash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -78,6 +80,15 @@ public class DataExtractionService {
         return extractedDocuments;
     }
 
+    /**
+     * Compute hash of document data, identical data have the same hash.
+     * @param data Document data.
+     * @return Hex encoded SHA-256 hash of the data.
+     */
+    public static String hash(byte[] data) {
+        return HexFormat.of().formatHex(Hash.sha256(data));
+    }
+
     /**
      * Decompress an archive with documents.
      * @param inputData Compressed input data.
@@ -103,6 +114,7 @@ public class DataExtractionService {
                 final Document document = new Document();
                 document.setFilename(entry.getName());
                 document.setData(baos.toByteArray());
+                document.setDataHash(hash(document.getData()));
                 extractedDocuments.add(document);
             }
             zis.closeEntry();
@@ -21,16 +21,12 @@ import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
-import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntityWrapper;
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
 import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
-import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
-import com.wultra.app.onboardingserver.common.service.ActivationFlagService;
+import com.wultra.app.onboardingserver.common.outbox.OutboxService;
 import com.wultra.app.onboardingserver.common.service.AuditService;
-import com.wultra.app.onboardingserver.errorhandling.OnboardingProviderException;
-import com.wultra.app.onboardingserver.provider.OnboardingProvider;
-import com.wultra.app.onboardingserver.provider.model.request.ProcessEventRequest;
-import com.wultra.app.onboardingserver.provider.model.response.ProcessEventResponse;
+import com.wultra.app.onboardingserver.impl.service.outbox.ActivationFlagsOutboxHandler;
+import com.wultra.app.onboardingserver.impl.service.outbox.FinishedEventOutboxHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -51,8 +47,7 @@ public class IdentityVerificationFinishService {
 
     private final OnboardingServiceImpl onboardingService;
     private final IdentityVerificationService identityVerificationService;
-    private final ActivationFlagService activationFlagService;
-    private final OnboardingProvider onboardingProvider;
+    private final OutboxService outboxService;
 
     private final AuditService auditService;
 
@@ -60,40 +55,34 @@ public class IdentityVerificationFinishService {
      * Service constructor.
      * @param onboardingService Onboarding service.
      * @param identityVerificationService Identity verification service.
-     * @param activationFlagService Activation flags service.
-     * @param onboardingProvider Onboarding provider.
+     * @param outboxService Outbox service.
      * @param auditService audit service.
      */
     @Autowired
     public IdentityVerificationFinishService(
             final OnboardingServiceImpl onboardingService,
             final IdentityVerificationService identityVerificationService,
-            final ActivationFlagService activationFlagService,
-            final OnboardingProvider onboardingProvider,
+            final OutboxService outboxService,
             final AuditService auditService) {
 
         this.onboardingService = onboardingService;
         this.identityVerificationService = identityVerificationService;
-        this.activationFlagService = activationFlagService;
-        this.onboardingProvider = onboardingProvider;
+        this.outboxService = outboxService;
         this.auditService = auditService;
     }
 
     /**
-     * Finish identity verification by removing the VERIFICATION_IN_PROGRESS flag.
+     * Finish identity verification. Removing of the VERIFICATION_IN_PROGRESS flag and publishing of the finished event
+     * are written to the outbox and delivered after the commit.
      *
      * @param ownerId Owner identification.
-     * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
      * @throws OnboardingProcessException Thrown when onboarding process termination fails.
      * @throws IdentityVerificationException Thrown when identity verification is already finished.
      */
     @Transactional
-    public void finishIdentityVerification(OwnerId ownerId) throws RemoteCommunicationException, OnboardingProcessException, IdentityVerificationException {
+    public void finishIdentityVerification(OwnerId ownerId) throws OnboardingProcessException, IdentityVerificationException {
         final Date now = ownerId.getTimestamp();
 
-        // Remove flag ACTIVATION_FLAG_VERIFICATION_IN_PROGRESS
-        activationFlagService.updateActivationFlagsForSucceededIdentityVerification(ownerId);
-
         // Find the latest identity verification record and set the timestamp when it was finished
         final IdentityVerificationEntity identityVerification = identityVerificationService.findBy(ownerId);
         identityVerification.setTimestampLastUpdated(now);
@@ -108,42 +97,20 @@ public class IdentityVerificationFinishService {
         onboardingService.updateProcess(processEntity);
         auditService.audit(processEntity, identityVerification, "Process finished for user: {}", processEntity.getUserId());
 
-        sendFinishedEvent(processEntity, identityVerification, ownerId);
+        // Remove flag ACTIVATION_FLAG_VERIFICATION_IN_PROGRESS and publish the event after the commit, in this order
+        enqueueActivationFlagsUpdate(processEntity, ownerId);
+        enqueueFinishedEvent(processEntity, identityVerification, ownerId);
     }
 
-    private void sendFinishedEvent(final OnboardingProcessEntity process, final IdentityVerificationEntity identityVerification, final OwnerId ownerId) {
-        final ProcessEventRequest request = ProcessEventRequest.builder()
-                .type(ProcessEventRequest.EventType.FINISHED)
-                .userId(identityVerification.getUserId())
-                .processId(process.getId())
-                .identityVerificationId(identityVerification.getId())
-                .eventData(createFinishEventData(process))
-                .build();
-
-        try {
-            logger.info("Publishing finish event, {}", ownerId);
-            final ProcessEventResponse response = onboardingProvider.processEvent(request);
-            logger.debug("Got {} for processId={}", response, request.getProcessId());
-            if (response.isErrorOccurred()) {
-                logger.info("Finish event failed to published: {}, {}", response.getErrorDetail(), ownerId);
-            } else {
-                logger.info("Finish event published, {}", ownerId);
-            }
-        } catch (OnboardingProviderException e) {
-            // unsuccessful event publishing does not stop the process
-            logger.info("Unable to publish finished event to the onboarding adapter: {}", e.getMessage());
-            logger.debug("Unable to publish finished event to the onboarding adapter", e);
-        }
+    private void enqueueActivationFlagsUpdate(final OnboardingProcessEntity process, final OwnerId ownerId) {
+        final ActivationFlagsOutboxHandler.Payload payload = new ActivationFlagsOutboxHandler.Payload(ownerId.getActivationId(), ownerId.getUserId());
+        outboxService.enqueue(process.getId(), ActivationFlagsOutboxHandler.TYPE, payload);
     }
 
-    private static ProcessEventRequest.EventData createFinishEventData(final OnboardingProcessEntity process) {
-        final OnboardingProcessEntityWrapper processWrapper = new OnboardingProcessEntityWrapper(process);
-        return ProcessEventRequest.DefaultFinishedEventData.builder()
-                .locale(processWrapper.getLocale())
-                .clientIPAddress(processWrapper.getIpAddress())
-                .httpUserAgent(processWrapper.getUserAgent())
-                .requestId(UUID.randomUUID().toString())
-                .fdsData(processWrapper.getFdsData())
-                .build();
+    private void enqueueFinishedEvent(final OnboardingProcessEntity process, final IdentityVerificationEntity identityVerification, final OwnerId ownerId) {
+        final FinishedEventOutboxHandler.Payload payload = new FinishedEventOutboxHandler.Payload(
+                process.getId(), identityVerification.getId(), identityVerification.getUserId(), UUID.randomUUID().toString());
+        outboxService.enqueue(process.getId(), FinishedEventOutboxHandler.TYPE, payload);
+        logger.info("Finish event enqueued, {}", ownerId);
     }
 }
@@ -18,12 +18,9 @@
 package com.wultra.app.onboardingserver.impl.service;
 
 import com.wultra.app.enrollmentserver.model.enumeration.*;
-import com.wultra.app.onboardingserver.common.database.DocumentVerificationRepository;
-import com.wultra.app.onboardingserver.common.database.OnboardingOtpRepository;
-import com.wultra.app.onboardingserver.common.database.ScaResultRepository;
-import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
+import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
+import com.wultra.app.onboardingserver.common.database.PrecompleteProjection;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
-import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
 import com.wultra.app.onboardingserver.common.database.entity.ScaResultEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
@@ -33,9 +30,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.*;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.ACCEPTED;
@@ -46,109 +48,167 @@ import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerifica
  * <p>
  * This should never happen for the state machine.
  * It works as a safety stop.
+ * <p>
+ * Documents, OTP statuses and SCA result are loaded by a single query while the activation status
+ * is fetched from PowerAuth concurrently by the shared task executor, or by the calling thread when the executor is saturated.
+ * All conditions are evaluated and every failed one is reported, so the activation status is fetched
+ * even when the evaluation fails on documents or OTP checks.
  *
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
 // TODO (racansky, 2022-10-14) consider make it Guard for Spring State Machine
 @Component
 @Slf4j
-@AllArgsConstructor
 class IdentityVerificationPrecompleteCheck {
 
     private final IdentityVerificationConfig identityVerificationConfig;
 
     private final RequiredDocumentTypesCheck requiredDocumentTypesCheck;
 
-    private final OnboardingOtpRepository onboardingOtpRepository;
+    private final IdentityVerificationRepository identityVerificationRepository;
 
-    private final ScaResultRepository scaResultRepository;
+    private final ActivationService activationService;
 
-    private final DocumentVerificationRepository documentVerificationRepository;
+    private final Executor taskExecutor;
 
-    private final ActivationService activationService;
+    private final Duration activationStatusTimeout;
+
+    /**
+     * Check constructor.
+     *
+     * @param identityVerificationConfig Identity verification configuration.
+     * @param requiredDocumentTypesCheck Required document types check.
+     * @param identityVerificationRepository Identity verification repository.
+     * @param activationService Activation service.
+     * @param taskExecutor Task executor.
+     */
+    IdentityVerificationPrecompleteCheck(
+            final IdentityVerificationConfig identityVerificationConfig,
+            final RequiredDocumentTypesCheck requiredDocumentTypesCheck,
+            final IdentityVerificationRepository identityVerificationRepository,
+            final ActivationService activationService,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final Executor taskExecutor) {
+
+        this.identityVerificationConfig = identityVerificationConfig;
+        this.requiredDocumentTypesCheck = requiredDocumentTypesCheck;
+        this.identityVerificationRepository = identityVerificationRepository;
+        this.activationService = activationService;
+        this.taskExecutor = taskExecutor;
+        this.activationStatusTimeout = identityVerificationConfig.getPrecompleteActivationStatusTimeout();
+    }
 
     /**
      * Evaluate all precomplete conditions.
      *
      * @param idVerification identity verification to evaluate
      * @return evaluation result
+     * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
      */
     Result evaluate(final IdentityVerificationEntity idVerification) throws RemoteCommunicationException {
-        final List<DocumentVerificationEntity> documentVerifications = documentVerificationRepository
-                .findAllDocumentVerifications(idVerification, DocumentStatus.ALL_PROCESSED);
-
         final String processId = idVerification.getProcessId();
         final String identityVerificationId = idVerification.getId();
 
-        if (!documentVerifications.stream()
-                .map(DocumentVerificationEntity::getStatus)
+        final Future<ActivationStatus> activationStatus = fetchActivationStatus(idVerification.getActivationId());
+        final List<PrecompleteProjection> projections = identityVerificationRepository
+                .findPrecompleteProjections(identityVerificationId, DocumentStatus.ALL_PROCESSED);
+
+        final List<Reason> reasons = new ArrayList<>();
+
+        if (!projections.stream()
+                .filter(PrecompleteProjection::hasDocument)
+                .map(PrecompleteProjection::status)
                 .allMatch(it -> it == DocumentStatus.ACCEPTED)) {
             logger.debug("Some documents are not accepted for identity verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Some documents not accepted");
+            reasons.add(Reason.DOCUMENTS_NOT_ACCEPTED);
         }
 
-        if (!requiredDocumentTypesCheck.evaluate(documentVerifications, identityVerificationId)) {
+        if (!requiredDocumentTypesCheck.evaluateAccepted(toAcceptedDocuments(projections), identityVerificationId)) {
             logger.debug("Not all required documents are present for verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Required documents not present");
+            reasons.add(Reason.REQUIRED_DOCUMENTS_NOT_PRESENT);
         }
 
         if (!isPrecompletePhaseAndStateValid(idVerification)) {
             logger.debug("Not valid phase and state for verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Not valid phase and state");
+            reasons.add(Reason.PHASE_AND_STATE_NOT_VALID);
         }
 
-        if (!isVerificationOtpValid(idVerification)) {
+        final PrecompleteProjection first = projections.isEmpty() ? null : projections.get(0);
+
+        if (!isVerificationOtpValid(first)) {
             logger.debug("Not valid user verification OTP for verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Not valid user verification OTP");
+            reasons.add(Reason.USER_VERIFICATION_OTP_NOT_VALID);
         }
 
-        if (!isActivationOtpValid(idVerification)) {
+        if (!isActivationOtpValid(first)) {
             logger.debug("Not valid activation OTP for verification ID: {}, process ID:{}", identityVerificationId, processId);
-            return Result.failed("Not valid activation OTP");
+            reasons.add(Reason.ACTIVATION_OTP_NOT_VALID);
         }
 
-        if (!isActivationValid(idVerification)) {
+        if (join(activationStatus) != ActivationStatus.ACTIVE) {
             logger.debug("Activation is not valid for verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Activation is not valid");
+            reasons.add(Reason.ACTIVATION_NOT_VALID);
         }
 
-        if (!isVerificationPassedSca(idVerification)) {
+        if (!isVerificationPassedSca(first)) {
             logger.debug("Did not pass SCA for verification ID: {}, process ID: {}", identityVerificationId, processId);
-            return Result.failed("Did not pass SCA");
+            reasons.add(Reason.SCA_NOT_PASSED);
         }
 
-        return Result.successful();
+        return reasons.isEmpty() ? Result.successful() : Result.failed(reasons);
     }
 
-    private boolean isVerificationPassedSca(final IdentityVerificationEntity idVerification) {
-        return scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(idVerification)
-                .map(ScaResultEntity::getScaResult)
-                .filter(it -> it == ScaResultEntity.Result.SUCCESS)
-                .isPresent();
+    private Future<ActivationStatus> fetchActivationStatus(final String activationId) {
+        final FutureTask<ActivationStatus> task = new FutureTask<>(() -> activationService.fetchCurrentActivationStatus(activationId));
+        try {
+            taskExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Task executor is saturated, fetching activation status directly, activation ID: {}", activationId);
+            task.run();
+        }
+        return task;
     }
 
-    private boolean isActivationValid(IdentityVerificationEntity idVerification) throws RemoteCommunicationException {
-        final ActivationStatus activationStatus = activationService.fetchActivationStatus(idVerification.getActivationId());
-        return activationStatus == ActivationStatus.ACTIVE;
+    private ActivationStatus join(final Future<ActivationStatus> activationStatus) throws RemoteCommunicationException {
+        try {
+            return activationStatus.get(activationStatusTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            activationStatus.cancel(true);
+            throw new RemoteCommunicationException("Activation status not fetched within " + activationStatusTimeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            activationStatus.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RemoteCommunicationException("Interrupted while fetching activation status", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof final RemoteCommunicationException remoteCommunicationException) {
+                throw remoteCommunicationException;
+            } else if (e.getCause() instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RemoteCommunicationException("Unable to fetch activation status: " + e.getCause().getMessage(), e.getCause());
+        }
     }
 
-    private boolean isVerificationOtpValid(final IdentityVerificationEntity idVerification) {
+    private static List<RequiredDocumentTypesCheck.AcceptedDocument> toAcceptedDocuments(final List<PrecompleteProjection> projections) {
+        return projections.stream()
+                .filter(it -> it.status() == DocumentStatus.ACCEPTED)
+                .map(it -> new RequiredDocumentTypesCheck.AcceptedDocument(it.type(), it.side()))
+                .toList();
+    }
+
+    private static boolean isVerificationPassedSca(final PrecompleteProjection projection) {
+        return projection != null && projection.scaResult() == ScaResultEntity.Result.SUCCESS;
+    }
+
+    private boolean isVerificationOtpValid(final PrecompleteProjection projection) {
         if (!identityVerificationConfig.isVerificationOtpEnabled()) {
             logger.trace("OTP verification is disabled");
             return true;
         }
-        return isOtpValid(idVerification, OtpType.USER_VERIFICATION);
+        return projection != null && projection.userVerificationOtpStatus() == OtpStatus.VERIFIED;
     }
 
-    private boolean isActivationOtpValid(final IdentityVerificationEntity idVerification) {
-        return isOtpValid(idVerification, OtpType.ACTIVATION);
-    }
-
-    private boolean isOtpValid(IdentityVerificationEntity idVerification, OtpType otpType) {
-        return onboardingOtpRepository.findNewestByProcessIdAndType(idVerification.getProcessId(), otpType)
-                .map(OnboardingOtpEntity::getStatus)
-                .filter(it -> it == OtpStatus.VERIFIED)
-                .isPresent();
+    private static boolean isActivationOtpValid(final PrecompleteProjection projection) {
+        return projection != null && projection.activationOtpStatus() == OtpStatus.VERIFIED;
     }
 
     private boolean isPrecompletePhaseAndStateValid(final IdentityVerificationEntity idVerification) {
@@ -159,22 +219,47 @@ class IdentityVerificationPrecompleteCheck {
                 (phase == CLIENT_EVALUATION && status == ACCEPTED && !identityVerificationConfig.isVerificationOtpEnabled() && !identityVerificationConfig.isPresenceCheckEnabled());
     }
 
+    /**
+     * Reason of a failed precomplete evaluation.
+     */
+    @Getter
+    @AllArgsConstructor
+    enum Reason {
+        DOCUMENTS_NOT_ACCEPTED("Some documents not accepted"),
+        REQUIRED_DOCUMENTS_NOT_PRESENT("Required documents not present"),
+        PHASE_AND_STATE_NOT_VALID("Not valid phase and state"),
+        USER_VERIFICATION_OTP_NOT_VALID("Not valid user verification OTP"),
+        ACTIVATION_OTP_NOT_VALID("Not valid activation OTP"),
+        ACTIVATION_NOT_VALID("Activation is not valid"),
+        SCA_NOT_PASSED("Did not pass SCA");
+
+        private final String description;
+    }
+
     @Getter
     @Builder
     public static final class Result {
         private boolean successful;
+
+        /**
+         * Description of the first failed condition.
+         */
         private String errorDetail;
 
+        @Builder.Default
+        private List<Reason> reasons = List.of();
+
         public static Result successful() {
             return Result.builder()
                     .successful(true)
                     .build();
         }
 
-        public static Result failed(final String errorDetail) {
+        public static Result failed(final List<Reason> reasons) {
             return Result.builder()
                     .successful(false)
-                    .errorDetail(errorDetail)
+                    .errorDetail(reasons.get(0).getDescription())
+                    .reasons(List.copyOf(reasons))
                     .build();
         }
     }
@@ -32,7 +32,10 @@ import com.wultra.app.onboardingserver.common.errorhandling.*;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.configuration.OnboardingConfig;
 import com.wultra.app.onboardingserver.errorhandling.DocumentSubmitException;
+import com.wultra.app.onboardingserver.errorhandling.DocumentUploadLimitException;
 import com.wultra.app.onboardingserver.impl.service.document.DocumentProcessingService;
+import com.wultra.app.onboardingserver.impl.service.document.DocumentSubmission;
+import com.wultra.app.onboardingserver.impl.service.document.DocumentSubmitExecutor;
 import com.wultra.app.onboardingserver.impl.service.validation.OnboardingConsentApprovalRequestValidator;
 import com.wultra.app.onboardingserver.impl.service.validation.OnboardingConsentTextRequestValidator;
 import com.wultra.app.onboardingserver.impl.util.PowerAuthUtil;
@@ -78,6 +81,7 @@ public class IdentityVerificationRestService {
 
     private final DocumentProcessingService documentProcessingService;
     private final IdentityVerificationService identityVerificationService;
+    private final DocumentSubmitExecutor documentSubmitExecutor;
     private final IdentityVerificationStatusService identityVerificationStatusService;
     private final IdentityVerificationOtpService identityVerificationOtpService;
     private final PresenceCheckService presenceCheckService;
@@ -98,6 +102,7 @@ public class IdentityVerificationRestService {
      * @param onboardingConfig                  Configuration of onboarding.
      * @param documentProcessingService         Document processing service.
      * @param identityVerificationService       Identity verification service.
+     * @param documentSubmitExecutor            Document submit executor.
      * @param identityVerificationStatusService Identity verification status service.
      * @param identityVerificationOtpService    Identity OTP verification service.
      * @param onboardingService                 Onboarding service.
@@ -110,6 +115,7 @@ public class IdentityVerificationRestService {
             OnboardingConfig onboardingConfig,
             DocumentProcessingService documentProcessingService,
             IdentityVerificationService identityVerificationService,
+            DocumentSubmitExecutor documentSubmitExecutor,
             IdentityVerificationStatusService identityVerificationStatusService,
             IdentityVerificationOtpService identityVerificationOtpService,
             OnboardingServiceImpl onboardingService,
@@ -119,6 +125,7 @@ public class IdentityVerificationRestService {
 
         this.documentProcessingService = documentProcessingService;
         this.identityVerificationService = identityVerificationService;
+        this.documentSubmitExecutor = documentSubmitExecutor;
         this.identityVerificationStatusService = identityVerificationStatusService;
         this.identityVerificationOtpService = identityVerificationOtpService;
         this.onboardingService = onboardingService;
@@ -194,6 +201,7 @@ public class IdentityVerificationRestService {
 
     /**
      * Submit identity-related documents for verification.
+     * In the asynchronous mode, the response is returned before the documents are submitted to the provider.
      * @param request Document submit request.
      * @param encryptionContext Encryption context.
      * @return Document submit response.
@@ -206,7 +214,6 @@ public class IdentityVerificationRestService {
      * @throws IdentityVerificationException Thrown in case identity verification is invalid.
      * @throws OnboardingProcessLimitException Thrown when maximum failed attempts for identity verification have been reached.
      */
-    @Transactional
     public Response submitDocuments(ObjectRequest<DocumentSubmitRequest> request,
                                                                   EncryptionContext encryptionContext,
                                                                   PowerAuthApiAuthentication apiAuthentication)
@@ -221,10 +228,10 @@ public class IdentityVerificationRestService {
         final OwnerId ownerId = extractOwnerId(encryptionContext);
         final String processId = request.getRequestObject().getProcessId();
 
-        logger.debug("Onboarding process will be locked using PESSIMISTIC_WRITE lock, {}", processId);
-        onboardingService.verifyProcessIdAndLock(ownerId, processId, OnboardingStatus.VERIFICATION_IN_PROGRESS);
-
-        identityVerificationService.submitDocuments(request.getRequestObject(), ownerId);
+        // The provider is called outside of database transactions, the process is locked only while preparing and completing the submission
+        logger.debug("Submitting documents, process ID: {}, {}", processId, ownerId);
+        final DocumentSubmission submission = identityVerificationService.prepareDocumentsSubmission(request.getRequestObject(), ownerId);
+        documentSubmitExecutor.submit(submission, ownerId);
 
         return new Response();
     }
@@ -239,11 +246,12 @@ public class IdentityVerificationRestService {
      * @throws PowerAuthEncryptionException Thrown when request decryption fails.
      * @throws DocumentVerificationException Thrown when document is invalid.
      * @throws OnboardingProcessException Thrown when finished onboarding process is not found.
+     * @throws DocumentUploadLimitException Thrown when limit of uploaded documents is reached.
      */
     public ObjectResponse<DocumentUploadResponse> uploadDocument(byte[] requestData,
                                                                  EncryptionContext encryptionContext,
                                                                  PowerAuthApiAuthentication apiAuthentication)
-            throws IdentityVerificationException, PowerAuthAuthenticationException, PowerAuthEncryptionException, DocumentVerificationException, OnboardingProcessException {
+            throws IdentityVerificationException, PowerAuthAuthenticationException, PowerAuthEncryptionException, DocumentVerificationException, OnboardingProcessException, DocumentUploadLimitException {
 
         final String operationDescription = "uploading document for verification";
         checkApiAuthentication(apiAuthentication, operationDescription);
@@ -27,6 +27,7 @@ import com.wultra.app.enrollmentserver.model.integration.Image;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.enrollmentserver.model.integration.VerificationSdkInfo;
 import com.wultra.app.onboardingserver.common.database.DocumentDataRepository;
+import com.wultra.app.onboardingserver.common.database.DocumentStatusProjection;
 import com.wultra.app.onboardingserver.common.database.DocumentVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.entity.*;
@@ -41,13 +42,15 @@ import com.wultra.app.onboardingserver.errorhandling.DocumentSubmitException;
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.errorhandling.IdentityVerificationNotFoundException;
 import com.wultra.app.onboardingserver.impl.service.document.DocumentProcessingService;
+import com.wultra.app.onboardingserver.impl.service.document.DocumentSubmission;
+import com.wultra.app.onboardingserver.impl.service.document.DocumentVerificationProviderCache;
 import com.wultra.app.onboardingserver.impl.service.verification.VerificationProcessingService;
 import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.concurrency.RetryOnConflict;
 import com.wultra.app.onboardingserver.statemachine.guard.document.RequiredDocumentTypesCheck;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -75,6 +78,7 @@ public class IdentityVerificationService {
     private final DocumentProcessingService documentProcessingService;
     private final VerificationProcessingService verificationProcessingService;
     private final DocumentVerificationProvider documentVerificationProvider;
+    private final DocumentVerificationProviderCache documentVerificationProviderCache;
     private final IdentityVerificationLimitService identityVerificationLimitService;
     private final CommonOnboardingService processService;
     private final OnboardingProcessLimitService processLimitService;
@@ -93,6 +97,7 @@ public class IdentityVerificationService {
      * @param documentProcessingService Document processing service.
      * @param verificationProcessingService Verification processing service.
      * @param documentVerificationProvider Document verification provider.
+     * @param documentVerificationProviderCache Cache of document verification provider results.
      * @param identityVerificationLimitService Identity verification limit service.
      * @param processService Common onboarding process service.
      * @param processLimitService Onboarding process limit service.
@@ -107,6 +112,7 @@ public class IdentityVerificationService {
             final DocumentProcessingService documentProcessingService,
             final VerificationProcessingService verificationProcessingService,
             final DocumentVerificationProvider documentVerificationProvider,
+            final DocumentVerificationProviderCache documentVerificationProviderCache,
             final IdentityVerificationLimitService identityVerificationLimitService,
             final CommonOnboardingService processService,
             final OnboardingProcessLimitService processLimitService,
@@ -121,6 +127,7 @@ public class IdentityVerificationService {
         this.documentProcessingService = documentProcessingService;
         this.verificationProcessingService = verificationProcessingService;
         this.documentVerificationProvider = documentVerificationProvider;
+        this.documentVerificationProviderCache = documentVerificationProviderCache;
         this.identityVerificationLimitService = identityVerificationLimitService;
         this.processService = processService;
         this.processLimitService = processLimitService;
@@ -183,19 +190,25 @@ public class IdentityVerificationService {
     }
 
     /**
-     * Submit identity-related documents for verification.
+     * Prepare submission of identity-related documents for verification.
+     * The onboarding process is locked for the duration of the transaction.
      * @param request Document submit request.
      * @param ownerId Owner identification.
+     * @return Prepared submission.
      * @throws DocumentSubmitException Thrown when document submission fails.
      * @throws IdentityVerificationLimitException Thrown when document upload limit is reached.
      * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
      * @throws IdentityVerificationException Thrown when identity verification is invalid.
      * @throws OnboardingProcessLimitException Thrown when maximum failed attempts for identity verification have been reached.
      * @throws OnboardingProcessException Thrown when onboarding process is invalid.
+     * @see DocumentSubmission
      */
-    public void submitDocuments(final DocumentSubmitRequest request, final OwnerId ownerId)
+    @Transactional
+    public DocumentSubmission prepareDocumentsSubmission(final DocumentSubmitRequest request, final OwnerId ownerId)
             throws DocumentSubmitException, IdentityVerificationLimitException, RemoteCommunicationException, IdentityVerificationException, OnboardingProcessLimitException, OnboardingProcessException {
 
+        lockProcessWithVerificationInProgress(request.getProcessId(), ownerId);
+
         final IdentityVerificationEntity idVerification = findByOptional(ownerId).orElseThrow(() ->
                 new DocumentSubmitException("Identity verification has not been initialized, " + ownerId));
 
@@ -213,10 +226,36 @@ public class IdentityVerificationService {
 
         identityVerificationLimitService.checkDocumentUploadLimit(ownerId, idVerification);
 
-        final List<DocumentVerificationEntity> docsVerifications = documentProcessingService.submitDocuments(idVerification, request, ownerId);
-        documentProcessingService.pairTwoSidedDocuments(docsVerifications);
+        return documentProcessingService.prepareSubmission(idVerification, request, ownerId);
+    }
 
-        identityVerificationRepository.save(idVerification);
+    /**
+     * Submit prepared documents to document verification provider. Must be called outside of a database transaction.
+     * @param submission Prepared submission.
+     * @param ownerId Owner identification.
+     * @return Submission with results from the provider.
+     * @see DocumentSubmission
+     */
+    public DocumentSubmission submitDocumentsToProvider(final DocumentSubmission submission, final OwnerId ownerId) {
+        return documentProcessingService.submitToProvider(submission, ownerId);
+    }
+
+    /**
+     * Complete submission of identity-related documents for verification.
+     * The onboarding process is locked for the duration of the transaction. Only the database is updated,
+     * so the transaction is retried on a concurrent modification.
+     * @param submission Submission with results from the provider.
+     * @param ownerId Owner identification.
+     * @throws OnboardingProcessException Thrown when onboarding process is invalid.
+     * @see DocumentSubmission
+     */
+    @Transactional
+    @RetryOnConflict
+    public void completeDocumentsSubmission(final DocumentSubmission submission, final OwnerId ownerId) throws OnboardingProcessException {
+        lockProcessWithVerificationInProgress(submission.identityVerification().getProcessId(), ownerId);
+
+        final List<DocumentVerificationEntity> docsVerifications = documentProcessingService.completeSubmission(submission, ownerId);
+        documentProcessingService.pairTwoSidedDocuments(docsVerifications);
     }
 
     /**
@@ -322,7 +361,7 @@ public class IdentityVerificationService {
             logger.debug("Final validation passed, {}", ownerId);
             moveToPhaseAndStatus(idVerification, IdentityVerificationPhase.COMPLETED, ACCEPTED, ownerId);
         } else {
-            logger.warn("Final validation did not pass, marking identity verification as failed due to '{}', {}", result.getErrorDetail(), ownerId);
+            logger.warn("Final validation did not pass, marking identity verification as failed due to {}, {}", result.getReasons(), ownerId);
             idVerification.setErrorDetail(ErrorDetail.DOCUMENT_VERIFICATION_FAILED);
             idVerification.setTimestampFailed(ownerId.getTimestamp());
             idVerification.setErrorOrigin(ErrorOrigin.FINAL_VALIDATION);
@@ -333,6 +372,20 @@ public class IdentityVerificationService {
         identityVerificationRepository.save(idVerification);
     }
 
+    /**
+     * Lock the onboarding process of the given activation with verification in progress until the end of the transaction.
+     * @param processId Process identifier.
+     * @param ownerId Owner identification.
+     * @throws OnboardingProcessException Thrown when the process is not found or does not belong to the activation.
+     */
+    private void lockProcessWithVerificationInProgress(final String processId, final OwnerId ownerId) throws OnboardingProcessException {
+        final OnboardingProcessEntity process = processService.findProcessWithLock(processId);
+        if (!ownerId.getActivationId().equals(process.getActivationId()) || process.getStatus() != OnboardingStatus.VERIFICATION_IN_PROGRESS) {
+            throw new OnboardingProcessException(
+                    String.format("Invalid process ID received in request: %s, %s", processId, ownerId));
+        }
+    }
+
     /**
      * Move identity verification to {@code DOCUMENT_VERIFICATION} phase and status based on the given document verifications.
      *
@@ -432,51 +485,53 @@ public class IdentityVerificationService {
 
     /**
      * Fetch status of document verification related to identity.
+     * <p>
+     * Documents are read by a single projection query without loading the entities, the transaction is read-only.
      *
      * @param request Document status request.
      * @param ownerId Owner identification.
      * @return Document status response.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public DocumentStatusResponse fetchDocumentStatusResponse(final DocumentStatusRequest request, final OwnerId ownerId) {
         DocumentStatusResponse response = new DocumentStatusResponse();
 
-        Optional<IdentityVerificationEntity> idVerificationOptional =
-                identityVerificationRepository.findFirstByActivationIdOrderByTimestampCreatedDesc(ownerId.getActivationId());
-
-        if (idVerificationOptional.isEmpty()) {
-            logger.error("Checking identity verification status on a not existing entity, {}", ownerId);
-            response.setStatus(FAILED);
-            return response;
-        }
-
-        final IdentityVerificationEntity idVerification = idVerificationOptional.get();
-
-        final List<DocumentVerificationEntity> entities;
+        final List<DocumentStatusProjection> projections;
         if (request.getFilter() != null) {
             final List<String> documentIds = request.getFilter().stream()
                     .map(DocumentStatusRequest.DocumentFilter::getDocumentId)
                     .toList();
-            entities = Streamable.of(documentVerificationRepository.findAllById(documentIds)).toList();
+            projections = documentVerificationRepository.findDocumentStatuses(ownerId.getActivationId(), documentIds);
         } else {
-            entities = idVerification.getDocumentVerifications().stream()
-                    .filter(DocumentVerificationEntity::isUsedForVerification)
-                    .toList();
+            projections = documentVerificationRepository.findDocumentStatuses(ownerId.getActivationId());
+        }
+
+        if (projections.isEmpty()) {
+            logger.error("Checking identity verification status on a not existing entity, {}", ownerId);
+            response.setStatus(FAILED);
+            return response;
         }
 
-        // Ensure that all entities are related to the identity verification
-        if (!entities.isEmpty()) {
-            for (DocumentVerificationEntity entity : entities) {
-                if (!entity.getActivationId().equals(idVerification.getActivationId())) {
-                    logger.error("Not related {} to {}, {}", entity, idVerification, ownerId);
-                    response.setStatus(FAILED);
-                    return response;
-                }
+        // Identity verifications created at the same time are not distinguished, use the first one
+        final String idVerificationId = projections.get(0).identityVerificationId();
+        final List<DocumentStatusProjection> documents = projections.stream()
+                .filter(it -> it.identityVerificationId().equals(idVerificationId))
+                .filter(DocumentStatusProjection::hasDocument)
+                .toList();
+
+        // Ensure that all documents are related to the identity verification
+        for (DocumentStatusProjection document : documents) {
+            if (!document.activationId().equals(ownerId.getActivationId())) {
+                logger.error("Not related document ID: {} to identity verification ID: {}, {}", document.documentId(), idVerificationId, ownerId);
+                response.setStatus(FAILED);
+                return response;
             }
         }
 
-        List<DocumentMetadataResponseDto> docsMetadata = createDocsMetadata(entities);
-        response.setStatus(idVerification.getStatus());
+        final List<DocumentMetadataResponseDto> docsMetadata = documents.stream()
+                .map(IdentityVerificationService::toDocumentMetadata)
+                .toList();
+        response.setStatus(projections.get(0).identityVerificationStatus());
         response.setDocuments(docsMetadata);
 
         return response;
@@ -514,7 +569,7 @@ public class IdentityVerificationService {
     }
 
     /**
-     * Provides photo data
+     * Provides photo data, the photo is downloaded from the provider only when not cached yet.
      * @param photoId Identification of the photo
      * @param ownerId Owner identification.
      * @return Photo image
@@ -522,7 +577,7 @@ public class IdentityVerificationService {
      * @throws DocumentVerificationException In case of business logic error.
      */
     public Image getPhotoById(final String photoId, final OwnerId ownerId) throws DocumentVerificationException, RemoteCommunicationException {
-        final Image result = documentVerificationProvider.getPhoto(photoId);
+        final Image result = documentVerificationProviderCache.getPhoto(photoId);
         final IdentityVerificationEntity identityVerification = findByOptional(ownerId).orElseThrow(() ->
                 new DocumentVerificationException("Unable to find identity verification for " + ownerId));
         auditService.auditDocumentVerificationProvider(identityVerification, "Check document upload for user: {}", ownerId.getUserId());
@@ -559,7 +614,7 @@ public class IdentityVerificationService {
      * @return identity verifications
      */
     public Stream<IdentityVerificationEntity> streamAllIdentityVerificationsToChangeState() {
-        return identityVerificationRepository.streamAllIdentityVerificationsToChangeState(identityVerificationConfig.getDocumentVerificationProvider());
+        return identityVerificationRepository.streamAllIdentityVerificationsToChangeState(identityVerificationConfig.getDocumentVerificationProvider(), new Date());
     }
 
     private void moveToDocumentUpload(final OwnerId ownerId, final IdentityVerificationEntity idVerification, final IdentityVerificationStatus status) {
@@ -576,7 +631,7 @@ public class IdentityVerificationService {
             DocumentResultEntity docResult = docResultOptional.get();
             List<String> rejectionReasons;
             try {
-                rejectionReasons = documentVerificationProvider.parseRejectionReasons(docResult);
+                rejectionReasons = documentVerificationProviderCache.parseRejectionReasons(docResult);
                 final IdentityVerificationEntity identityVerification = docResult.getDocumentVerification().getIdentityVerification();
                 auditService.auditDocumentVerificationProvider(identityVerification, "Check document upload for user: {}", identityVerification.getUserId());
             } catch (DocumentVerificationException e) {
@@ -604,14 +659,34 @@ public class IdentityVerificationService {
     private DocumentMetadataResponseDto toDocumentMetadata(DocumentVerificationEntity entity) {
         DocumentMetadataResponseDto docMetadata = new DocumentMetadataResponseDto();
         docMetadata.setId(entity.getId());
-        // Hide specific error reason if any.
-        if (StringUtils.isNotBlank(entity.getErrorDetail()) || StringUtils.isNotBlank(entity.getRejectReason())) {
-            docMetadata.setErrors(List.of("Error verifying the document."));
-        }
+        setHiddenErrors(docMetadata, entity.getErrorDetail(), entity.getRejectReason());
         docMetadata.setFilename(entity.getFilename());
         docMetadata.setSide(entity.getSide());
         docMetadata.setStatus(entity.getStatus());
         docMetadata.setType(entity.getType());
         return docMetadata;
     }
+
+    /**
+     * Create {@link DocumentMetadataResponseDto} from {@link DocumentStatusProjection}
+     * @param document Document status projection.
+     * @return Document metadata for response
+     */
+    private static DocumentMetadataResponseDto toDocumentMetadata(DocumentStatusProjection document) {
+        DocumentMetadataResponseDto docMetadata = new DocumentMetadataResponseDto();
+        docMetadata.setId(document.documentId());
+        setHiddenErrors(docMetadata, document.errorDetail(), document.rejectReason());
+        docMetadata.setFilename(document.filename());
+        docMetadata.setSide(document.side());
+        docMetadata.setStatus(document.status());
+        docMetadata.setType(document.type());
+        return docMetadata;
+    }
+
+    private static void setHiddenErrors(final DocumentMetadataResponseDto docMetadata, final String errorDetail, final String rejectReason) {
+        // Hide specific error reason if any.
+        if (StringUtils.isNotBlank(errorDetail) || StringUtils.isNotBlank(rejectReason)) {
+            docMetadata.setErrors(List.of("Error verifying the document."));
+        }
+    }
 }
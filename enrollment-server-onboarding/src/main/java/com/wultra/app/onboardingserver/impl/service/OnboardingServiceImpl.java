@@ -32,11 +32,13 @@ import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig.ProcessLockMode;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntityWrapper;
 import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
+import com.wultra.app.onboardingserver.common.limit.LimitCounter;
 import com.wultra.app.onboardingserver.common.service.AuditService;
 import com.wultra.app.onboardingserver.common.service.CommonOnboardingService;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
@@ -55,8 +57,10 @@ import com.wultra.app.onboardingserver.provider.model.response.ApproveConsentRes
 import com.wultra.app.onboardingserver.provider.model.response.LookupUserResponse;
 import com.wultra.core.http.common.request.RequestContext;
 import io.getlime.core.rest.model.base.response.Response;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
@@ -64,9 +68,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.text.SimpleDateFormat;
 import java.time.Duration;
-import java.util.Calendar;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service implementing specific behavior for the onboarding process. Shared behavior is inherited from {@link CommonOnboardingService}.
@@ -79,6 +85,10 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
 
     private static final String IDENTIFICATION_DATA_DATE_FORMAT = "yyyy-MM-dd";
 
+    private static final String PROCESS_COUNT_LIMIT_PREFIX = "onboarding-process:user:";
+
+    private static final Duration PROCESS_COUNT_WINDOW = Duration.ofHours(24);
+
     private final OnboardingConfig onboardingConfig;
     private final IdentityVerificationConfig identityVerificationConfig;
     private final OtpServiceImpl otpService;
@@ -103,6 +113,8 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
 
     private final OnboardingProvider onboardingProvider;
 
+    private final LimitCounter limitCounter;
+
     /**
      * Service constructor.
      * @param onboardingProcessRepository Onboarding process repository.
@@ -110,6 +122,8 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
      * @param identityVerificationConfig Identity verification config.
      * @param otpService OTP service.
      * @param auditService audit service.
+     * @param limitCounter Limit counter.
+     * @param meterRegistry Meter registry.
      */
     @Autowired
     public OnboardingServiceImpl(
@@ -119,14 +133,17 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
             final OtpServiceImpl otpService,
             final ActivationService activationService,
             final OnboardingProvider onboardingProvider,
-            final AuditService auditService) {
+            final AuditService auditService,
+            final LimitCounter limitCounter,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
 
-        super(onboardingProcessRepository, auditService);
+        super(onboardingProcessRepository, auditService, meterRegistry.getIfAvailable());
         this.onboardingConfig = config;
         this.identityVerificationConfig = identityVerificationConfig;
         this.otpService = otpService;
         this.activationService = activationService;
         this.onboardingProvider = onboardingProvider;
+        this.limitCounter = limitCounter;
         this.integrationConfigDto = new ConfigurationDataDto();
         integrationConfigDto.setOtpResendPeriod(onboardingConfig.getOtpResendPeriod().toString());
         integrationConfigDto.setOtpResendPeriodSeconds(onboardingConfig.getOtpResendPeriod().toSeconds());
@@ -151,16 +168,14 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
         final Map<String, Object> fdsData = request.getFdsData();
 
         logger.debug("Onboarding process will be locked using PESSIMISTIC_WRITE lock");
-        final OnboardingProcessEntity process = onboardingProcessRepository.findByIdentificationDataAndStatusWithLock(identificationData, OnboardingStatus.ACTIVATION_IN_PROGRESS)
+        final Optional<OnboardingProcessEntity> existingProcess = onboardingProcessRepository.findByIdentificationDataAndStatusWithLock(identificationData, OnboardingStatus.ACTIVATION_IN_PROGRESS);
+        final OnboardingProcessEntity process = existingProcess
                 .map(it -> resumeExistingProcess(it, identification, fdsData, requestContext))
                 .orElseGet(() -> createNewProcess(identification, identificationData, fdsData, requestContext));
 
         // Check for brute force attacks
-        final Calendar c = Calendar.getInstance();
-        c.add(Calendar.HOUR, -24);
-        final Date timestampCheckStart = c.getTime();
         final String userId = process.getUserId();
-        final int existingProcessCount = onboardingProcessRepository.countByUserIdAndTimestamp(userId, timestampCheckStart);
+        final long existingProcessCount = countProcessesPerDay(userId, existingProcess.isEmpty());
         if (existingProcessCount > onboardingConfig.getMaxProcessCountPerDay()) {
             process.setStatus(OnboardingStatus.FAILED);
             process.setErrorDetail(OnboardingProcessEntity.ERROR_TOO_MANY_PROCESSES_PER_USER);
@@ -269,14 +284,21 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
 
     /**
      * Verify process identifier and lock the process until the end of the transaction.
+     * Depending on the configured lock mode, the process is either locked using PESSIMISTIC_WRITE lock
+     * or its version is verified at the end of the transaction.
      * @param ownerId Owner identification.
      * @param processId Process identifier from request.
      * @param onboardingStatus Expected onboarding process status.
      * @throws OnboardingProcessException Thrown in case process identifier is invalid.
      */
     public void verifyProcessIdAndLock(OwnerId ownerId, String processId, OnboardingStatus onboardingStatus) throws OnboardingProcessException {
-        logger.debug("Onboarding process will be locked using PESSIMISTIC_WRITE lock, process ID: {}", processId);
-        final OnboardingProcessEntity process = onboardingProcessRepository.findByActivationIdAndStatusWithLock(ownerId.getActivationId(), onboardingStatus)
+        final ProcessLockMode lockMode = onboardingConfig.getProcessLockMode();
+        logger.debug("Onboarding process will be locked using {} lock, process ID: {}", lockMode, processId);
+        final Optional<OnboardingProcessEntity> processOptional = lockProcess("find-by-activation", lockMode.name().toLowerCase(Locale.ROOT), () ->
+                lockMode == ProcessLockMode.OPTIMISTIC
+                ? onboardingProcessRepository.findByActivationIdAndStatusWithOptimisticLock(ownerId.getActivationId(), onboardingStatus)
+                : onboardingProcessRepository.findByActivationIdAndStatusWithLock(ownerId.getActivationId(), onboardingStatus));
+        final OnboardingProcessEntity process = processOptional
                 .orElseThrow(() -> new OnboardingProcessException("Onboarding process not found, activation ID: " + ownerId.getActivationId()));
         final String expectedProcessId = process.getId();
 
@@ -292,6 +314,7 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
      * @param processId Process identifier from request.
      * @throws OnboardingProcessException Thrown in case process identifier is invalid.
      */
+    @Transactional
     public void verifyProcessId(OwnerId ownerId, String processId, OnboardingStatus onboardingStatus) throws OnboardingProcessException {
         final OnboardingProcessEntity process = onboardingProcessRepository.findByActivationIdAndStatus(ownerId.getActivationId(), onboardingStatus)
                 .orElseThrow(() -> new OnboardingProcessException("Onboarding process not found, activation ID: " + ownerId.getActivationId()));
@@ -320,6 +343,7 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
      * @return Onboarding process.
      * @throws OnboardingProcessException Thrown when onboarding process is not found.
      */
+    @Transactional(readOnly = true)
     public OnboardingProcessEntity findProcessByActivationId(String activationId) throws OnboardingProcessException {
         return onboardingProcessRepository.findByActivationId(activationId).orElseThrow(() ->
                 new OnboardingProcessException("Onboarding process not found, activation ID: " + activationId));
@@ -437,6 +461,24 @@ public class OnboardingServiceImpl extends CommonOnboardingService {
         }
     }
 
+    /**
+     * Count processes of the given user started within the last 24 hours.
+     *
+     * @param userId User ID, may be null when the user has not been found.
+     * @param processCreated Whether a new process has been created and should be counted.
+     * @return Count of processes.
+     */
+    private long countProcessesPerDay(final String userId, final boolean processCreated) {
+        if (userId == null) {
+            return 0;
+        }
+        final String key = PROCESS_COUNT_LIMIT_PREFIX + userId;
+        final Instant now = Instant.now();
+        return processCreated
+                ? limitCounter.increment(key, PROCESS_COUNT_WINDOW, now)
+                : limitCounter.count(key, PROCESS_COUNT_WINDOW, now);
+    }
+
     private OnboardingProcessEntity createNewProcess(
             final Map<String, Object> identification,
             final String identificationData,
@@ -23,10 +23,8 @@ import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase;
 import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
-import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.OnboardingOtpRepository;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
-import com.wultra.app.onboardingserver.common.database.ScaResultRepository;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
@@ -53,9 +51,7 @@ public class PresenceCheckLimitService {
 
     private final IdentityVerificationConfig identityVerificationConfig;
     private final OnboardingOtpRepository otpRepository;
-    private final IdentityVerificationRepository identityVerificationRepository;
     private final OnboardingProcessRepository onboardingProcessRepository;
-    private final ScaResultRepository scaResultRepository;
     private final ActivationFlagService activationFlagService;
 
     private final IdentityVerificationService identityVerificationService;
@@ -64,18 +60,16 @@ public class PresenceCheckLimitService {
 
     /**
      * Check limit for maximum number of attempts for SCA (presence check and OTP verification).
+     * The count of attempts is read from the given identity verification, see {@link IdentityVerificationEntity#getScaAttempts()}.
      * @param ownerId Owner identification.
      * @param processId Process identifier.
+     * @param identityVerification Current identity verification of the owner.
      * @throws IdentityVerificationException Thrown when identity verification is invalid.
      * @throws PresenceCheckLimitException Thrown when presence check limit is exceeded.
      * @throws RemoteCommunicationException Thrown when communication with PowerAuth server fails.
      */
-    public void checkPresenceCheckMaxAttemptLimit(OwnerId ownerId, String processId) throws IdentityVerificationException, PresenceCheckLimitException, RemoteCommunicationException {
-        final IdentityVerificationEntity identityVerification = identityVerificationRepository.findFirstByActivationIdOrderByTimestampCreatedDesc(ownerId.getActivationId())
-                .orElseThrow(() ->
-                        new IdentityVerificationException("Identity verification was not found, " + ownerId));
-
-        final int count = scaResultRepository.countByIdentityVerification(identityVerification);
+    public void checkPresenceCheckMaxAttemptLimit(OwnerId ownerId, String processId, IdentityVerificationEntity identityVerification) throws IdentityVerificationException, PresenceCheckLimitException, RemoteCommunicationException {
+        final int count = identityVerification.getScaAttempts();
         logger.debug("SCA attempts count so far {}, {}", count, ownerId);
 
         if (count >= identityVerificationConfig.getPresenceCheckMaxFailedAttempts()) {
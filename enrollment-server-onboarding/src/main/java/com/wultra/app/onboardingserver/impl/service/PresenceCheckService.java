@@ -85,6 +85,7 @@ public class PresenceCheckService {
      *
      * @param ownerId Owner identification.
      * @param processId Process identifier.
+     * @param idVerification Current identity verification, already loaded by the caller.
      * @return Session info with data needed to perform the presence check process
      * @throws DocumentVerificationException Thrown when an error during obtaining the user personal image occurred
      * @throws PresenceCheckException Thrown when an error during initializing the presence check occurred
@@ -94,12 +95,15 @@ public class PresenceCheckService {
      * @throws OnboardingProcessLimitException Thrown when maximum failed attempts for identity verification have been reached.
      */
     @Transactional
-    public SessionInfo init(OwnerId ownerId, String processId)
+    public SessionInfo init(OwnerId ownerId, String processId, IdentityVerificationEntity idVerification)
             throws DocumentVerificationException, PresenceCheckException, IdentityVerificationException, PresenceCheckLimitException, RemoteCommunicationException, OnboardingProcessLimitException {
 
-        presenceCheckLimitService.checkPresenceCheckMaxAttemptLimit(ownerId, processId);
+        if (idVerification == null) {
+            throw new IdentityVerificationException("Identity verification was not found, " + ownerId);
+        }
+        presenceCheckLimitService.checkPresenceCheckMaxAttemptLimit(ownerId, processId, idVerification);
 
-        final IdentityVerificationEntity idVerification = fetchIdVerification(ownerId);
+        checkIdVerification(ownerId, idVerification);
 
         initPresentCheckWithImage(ownerId, idVerification);
         return startPresenceCheck(ownerId, idVerification);
@@ -208,23 +212,22 @@ public class PresenceCheckService {
                 return;
             }
 
-            final Optional<Image> photo = fetchTrustedPhoto(ownerId, idVerification);
-            setIdentityDocumentReferences(ownerId, idVerification);
-            presenceCheckProvider.initPresenceCheck(ownerId, photo.orElse(null));
+            if (PresenceCheckProvider.TrustedPhotoSource.IMAGE == presenceCheckProvider.trustedPhotoSource()) {
+                // the provider may prepare the presence check while the photo is being fetched and upscaled
+                presenceCheckProvider.initPresenceCheckPipelined(ownerId, () -> fetchUpscaledTrustedPhoto(ownerId, idVerification));
+            } else {
+                setIdentityDocumentReferences(ownerId, idVerification);
+                presenceCheckProvider.initPresenceCheck(ownerId, null);
+            }
             logger.info("Presence check initialized, {}", ownerId);
             updateSessionInfo(ownerId, idVerification, Map.of(SessionInfo.ATTRIBUTE_IMAGE_UPLOADED, true));
             auditService.auditPresenceCheckProvider(idVerification, "Presence check initialized for user: {}", ownerId.getUserId());
         }
     }
 
-    private Optional<Image> fetchTrustedPhoto(final OwnerId ownerId, final IdentityVerificationEntity idVerification) throws DocumentVerificationException, RemoteCommunicationException, PresenceCheckException {
-        if (PresenceCheckProvider.TrustedPhotoSource.IMAGE == presenceCheckProvider.trustedPhotoSource()) {
-            final Image photo = fetchTrustedPhotoFromDocumentVerifier(ownerId, idVerification);
-            final Image upscaledPhoto = imageProcessor.upscaleImage(ownerId, photo, identityVerificationConfig.getMinimalSelfieWidth());
-            return Optional.of(upscaledPhoto);
-        } else {
-           return Optional.empty();
-        }
+    private Image fetchUpscaledTrustedPhoto(final OwnerId ownerId, final IdentityVerificationEntity idVerification) throws DocumentVerificationException, RemoteCommunicationException, PresenceCheckException {
+        final Image photo = fetchTrustedPhotoFromDocumentVerifier(ownerId, idVerification);
+        return imageProcessor.upscaleImage(ownerId, photo, identityVerificationConfig.getMinimalSelfieWidth());
     }
 
     private void setIdentityDocumentReferences(final OwnerId ownerId, final IdentityVerificationEntity idVerification) throws DocumentVerificationException, PresenceCheckException {
@@ -354,18 +357,17 @@ public class PresenceCheckService {
         scaResultEntity.setProcessId(identityVerification.getProcessId());
         scaResultEntity.setTimestampCreated(new Date());
         scaResultRepository.save(scaResultEntity);
+        // the counter is protected by optimistic locking of the identity verification
+        identityVerification.setScaAttempts(identityVerification.getScaAttempts() + 1);
     }
 
     /**
-     * Fetches a current identity verification for presence check initialization
+     * Checks that the current identity verification is ready to be initialized for the presence check.
      * @param ownerId Owner identification.
-     * @return Verification identity ready to be initialized for the presence check.
+     * @param idVerification Current identity verification.
      * @throws PresenceCheckException When an error during validating the identity verification status occurred.
      */
-    private IdentityVerificationEntity fetchIdVerification(OwnerId ownerId) throws PresenceCheckException {
-        final IdentityVerificationEntity idVerification = identityVerificationService.findByOptional(ownerId).orElseThrow(() ->
-                new PresenceCheckException("No identity verification entity found to initialize the presence check, " + ownerId));
-
+    private void checkIdVerification(OwnerId ownerId, IdentityVerificationEntity idVerification) throws PresenceCheckException {
         final IdentityVerificationPhase phase = idVerification.getPhase();
         final IdentityVerificationStatus status = idVerification.getStatus();
 
@@ -380,20 +382,29 @@ public class PresenceCheckService {
         } else if (status != NOT_INITIALIZED) {
             throw new PresenceCheckException(String.format("The verification status is %s but expected NOT_INITIALIZED, %s", status, ownerId));
         }
-
-        return idVerification;
     }
 
+    /**
+     * Update session attributes. The parsed session info is shared by other readers of the entity,
+     * so a new instance is built and replaces the shared one only after it has been serialized.
+     */
     private SessionInfo updateSessionInfo(final OwnerId ownerId, final IdentityVerificationEntity identityVerification, final Map<String, Object> sessionAttributes) throws PresenceCheckException {
-        final SessionInfo sessionInfo = deserializeSessionInfo(identityVerification, ownerId);
+        final SessionInfo currentSessionInfo = deserializeSessionInfo(identityVerification, ownerId);
+        final SessionInfo sessionInfo = new SessionInfo();
+        sessionInfo.getSessionAttributes().putAll(currentSessionInfo.getSessionAttributes());
         sessionInfo.getSessionAttributes().putAll(sessionAttributes);
-        identityVerification.setSessionInfo(jsonSerializationService.serialize(sessionInfo));
+        final String sessionInfoString = jsonSerializationService.serialize(sessionInfo);
+        if (sessionInfoString == null) {
+            throw new PresenceCheckException("Unable to serialize SessionInfo, identity verification ID: %s, %s".formatted(identityVerification.getId(), ownerId));
+        }
+        identityVerification.setSessionInfo(sessionInfoString);
+        identityVerification.sessionInfoView().set(sessionInfoString, sessionInfo);
         return sessionInfo;
     }
 
     private SessionInfo deserializeSessionInfo(final IdentityVerificationEntity identityVerification, final OwnerId ownerId) throws PresenceCheckException {
         final String sessionInfoString = StringUtils.defaultIfEmpty(identityVerification.getSessionInfo(), "{}");
-        final SessionInfo sessionInfo = jsonSerializationService.deserialize(sessionInfoString, SessionInfo.class);
+        final SessionInfo sessionInfo = readSessionInfo(identityVerification, sessionInfoString);
         if (sessionInfo == null) {
             throw new PresenceCheckException("Unable to parse SessionInfo, identity verification ID: %s, %s".formatted(identityVerification.getId(), ownerId));
         }
@@ -405,9 +416,16 @@ public class PresenceCheckService {
         if (StringUtils.isEmpty(sessionInfoString)) {
             return false;
         }
-        final SessionInfo sessionInfo = jsonSerializationService.deserialize(sessionInfoString, SessionInfo.class);
+        final SessionInfo sessionInfo = readSessionInfo(identityVerification, sessionInfoString);
         return sessionInfo != null
                 && !CollectionUtils.isEmpty(sessionInfo.getSessionAttributes())
                 && Boolean.TRUE.equals(sessionInfo.getSessionAttributes().get(SessionInfo.ATTRIBUTE_IMAGE_UPLOADED));
     }
+
+    /**
+     * Read session info using the parsed view of the entity, the JSON is parsed only when changed.
+     */
+    private SessionInfo readSessionInfo(final IdentityVerificationEntity identityVerification, final String sessionInfoString) {
+        return identityVerification.sessionInfoView().get(sessionInfoString, json -> jsonSerializationService.deserialize(json, SessionInfo.class));
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
+
+import java.util.*;
+
+/**
+ * Pairing of two-sided documents, front side is linked to the back side and vice versa.
+ * <p>
+ * Documents are grouped by type and side in a single pass. When there are more documents of the same type and side,
+ * e.g. multiple pages or resubmitted documents, all documents of one side are linked to the newest document of the other side.
+ * The newest document is the one with the latest creation timestamp, the greatest ID wins when the timestamps are equal.
+ * Documents without a side are not paired.
+ */
+final class DocumentPairing {
+
+    private static final Comparator<DocumentVerificationEntity> NEWEST_LAST = Comparator
+            .comparing(DocumentVerificationEntity::getTimestampCreated, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(DocumentVerificationEntity::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private DocumentPairing() {
+    }
+
+    /**
+     * Pair the given documents.
+     *
+     * @param documents Documents to pair.
+     * @return Pairs, one for each two-sided document type with both sides present, ordered by the document type.
+     */
+    static List<Pair> pair(final Collection<DocumentVerificationEntity> documents) {
+        final Map<DocumentType, EnumMap<CardSide, List<DocumentVerificationEntity>>> documentsByType = new EnumMap<>(DocumentType.class);
+        for (DocumentVerificationEntity document : documents) {
+            if (document.getType() != null && document.getType().isTwoSided() && document.getSide() != null) {
+                documentsByType.computeIfAbsent(document.getType(), type -> new EnumMap<>(CardSide.class))
+                        .computeIfAbsent(document.getSide(), side -> new ArrayList<>())
+                        .add(document);
+            }
+        }
+
+        final List<Pair> pairs = new ArrayList<>();
+        documentsByType.forEach((type, documentsBySide) -> {
+            final List<DocumentVerificationEntity> frontSides = documentsBySide.get(CardSide.FRONT);
+            final List<DocumentVerificationEntity> backSides = documentsBySide.get(CardSide.BACK);
+            if (frontSides != null && backSides != null) {
+                pairs.add(new Pair(type, newest(frontSides), newest(backSides), ids(frontSides), ids(backSides)));
+            }
+        });
+        return pairs;
+    }
+
+    private static String newest(final List<DocumentVerificationEntity> documents) {
+        return documents.stream()
+                .max(NEWEST_LAST)
+                .map(DocumentVerificationEntity::getId)
+                .orElseThrow();
+    }
+
+    private static List<String> ids(final List<DocumentVerificationEntity> documents) {
+        return documents.stream()
+                .map(DocumentVerificationEntity::getId)
+                .toList();
+    }
+
+    /**
+     * Pair of sides of a two-sided document type.
+     *
+     * @param type Document type.
+     * @param frontSideId ID of the newest front side document, linked from all back side documents.
+     * @param backSideId ID of the newest back side document, linked from all front side documents.
+     * @param frontSideIds IDs of all front side documents.
+     * @param backSideIds IDs of all back side documents.
+     */
+    record Pair(DocumentType type, String frontSideId, String backSideId, List<String> frontSideIds, List<String> backSideIds) {
+
+        /**
+         * Get ID of the other side document to link the given document to.
+         *
+         * @param document Document of this pair.
+         * @return ID of the other side document.
+         */
+        String otherSideIdOf(final DocumentVerificationEntity document) {
+            return document.getSide() == CardSide.FRONT ? backSideId : frontSideId;
+        }
+
+        /**
+         * Get IDs of all documents of this pair.
+         *
+         * @return Document IDs.
+         */
+        List<String> documentIds() {
+            final List<String> ids = new ArrayList<>(frontSideIds);
+            ids.addAll(backSideIds);
+            return ids;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificati
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import com.wultra.app.onboardingserver.observation.SweepResult;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,12 +53,16 @@ public class DocumentProcessingBatchService {
 
     /**
      * Checks in progress document submits on current provider status and data result
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void checkInProgressDocumentSubmits() {
+    public SweepResult checkInProgressDocumentSubmits() {
+        AtomicInteger countFound = new AtomicInteger(0);
         AtomicInteger countFinished = new AtomicInteger(0);
         try (Stream<DocumentResultEntity> stream = documentResultRepository.streamAllInProgressDocumentSubmits(identityVerificationConfig.getDocumentVerificationProvider())) {
             stream.forEach(docResult -> {
+                countFound.incrementAndGet();
                 DocumentVerificationEntity docVerification = docResult.getDocumentVerification();
                 final OwnerId ownerId = new OwnerId();
                 ownerId.setActivationId(docVerification.getActivationId());
@@ -78,6 +83,7 @@ public class DocumentProcessingBatchService {
         if (countFinished.get() > 0) {
             logger.debug("Finished {} documents which were in progress", countFinished.get());
         }
+        return new SweepResult(countFound.get(), countFinished.get());
     }
 
 }
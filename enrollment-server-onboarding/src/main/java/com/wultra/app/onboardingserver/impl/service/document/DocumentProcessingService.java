@@ -32,10 +32,14 @@ import com.wultra.app.onboardingserver.common.service.AuditService;
 import com.wultra.app.onboardingserver.common.service.CommonOnboardingService;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.errorhandling.DocumentSubmitException;
+import com.wultra.app.onboardingserver.errorhandling.DocumentUploadLimitException;
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.impl.service.DataExtractionService;
 import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
+import jakarta.persistence.EntityManager;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +50,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Service implementing document processing features.
@@ -57,6 +62,16 @@ public class DocumentProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingService.class);
 
+    /**
+     * Statuses of documents with a finished upload, which may be reused by a submit of identical pages.
+     */
+    private static final List<DocumentStatus> REUSABLE_STATUSES = List.of(DocumentStatus.VERIFICATION_PENDING, DocumentStatus.ACCEPTED);
+
+    /**
+     * Size of the JDBC batch of the links written by the pairing of two-sided documents.
+     */
+    private static final int PAIRING_BATCH_SIZE = 20;
+
     private final IdentityVerificationConfig identityVerificationConfig;
 
     private final DocumentDataRepository documentDataRepository;
@@ -73,6 +88,12 @@ public class DocumentProcessingService {
 
     private final CommonOnboardingService commonOnboardingService;
 
+    private final OnboardingMetrics onboardingMetrics;
+
+    private final DocumentUploadStore documentUploadStore;
+
+    private final EntityManager entityManager;
+
     /**
      * Service constructor.
      * @param identityVerificationConfig Identity verification configuration.
@@ -83,6 +104,9 @@ public class DocumentProcessingService {
      * @param documentVerificationProvider Document verification provider.
      * @param auditService Audit service.
      * @param commonOnboardingService Onboarding process service (common).
+     * @param onboardingMetrics Onboarding metrics.
+     * @param documentUploadStore Store of uploaded documents.
+     * @param entityManager Entity manager.
      */
     @Autowired
     public DocumentProcessingService(
@@ -93,7 +117,10 @@ public class DocumentProcessingService {
             final DataExtractionService dataExtractionService,
             final DocumentVerificationProvider documentVerificationProvider,
             final AuditService auditService,
-            final CommonOnboardingService commonOnboardingService) {
+            final CommonOnboardingService commonOnboardingService,
+            final OnboardingMetrics onboardingMetrics,
+            final DocumentUploadStore documentUploadStore,
+            final EntityManager entityManager) {
 
         this.identityVerificationConfig = identityVerificationConfig;
         this.documentDataRepository = documentDataRepository;
@@ -103,17 +130,25 @@ public class DocumentProcessingService {
         this.documentVerificationProvider = documentVerificationProvider;
         this.auditService = auditService;
         this.commonOnboardingService = commonOnboardingService;
+        this.onboardingMetrics = onboardingMetrics;
+        this.documentUploadStore = documentUploadStore;
+        this.entityManager = entityManager;
     }
 
     /**
-     * Submit identity-related documents for verification.
+     * Prepare submission of identity-related documents for verification. Document verifications are persisted
+     * in {@link DocumentStatus#UPLOAD_IN_PROGRESS} status and the documents are loaded for the provider.
+     * <p>
+     * This is the first phase of the submission, see {@link DocumentSubmission}.
+     *
      * @param idVerification Identity verification entity.
      * @param request Document submit request.
      * @param ownerId Owner identification.
-     * @return Document verification entities.
+     * @return Prepared submission.
+     * @throws DocumentSubmitException Thrown when the request is invalid.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public List<DocumentVerificationEntity> submitDocuments(
+    @Transactional
+    public DocumentSubmission prepareSubmission(
             IdentityVerificationEntity idVerification,
             DocumentSubmitRequest request,
             OwnerId ownerId) throws DocumentSubmitException {
@@ -123,35 +158,82 @@ public class DocumentProcessingService {
         final var documentsByType = request.getDocuments().stream()
                 .collect(groupingBy(DocumentSubmitRequest.DocumentMetadata::getType));
 
-        final List<DocumentVerificationEntity> docVerifications = new ArrayList<>();
+        final List<DocumentSubmission.Group> groups = new ArrayList<>();
         for (var docMetadataList : documentsByType.values()) {
-            docVerifications.addAll(submitDocument(docMetadataList, documents, idVerification, ownerId));
+            groups.add(prepareDocument(docMetadataList, documents, idVerification, ownerId));
         }
-        return docVerifications;
+        return new DocumentSubmission(idVerification, groups);
+    }
+
+    /**
+     * Submit prepared documents to document verification provider. Must not be called within a database transaction,
+     * the database is not accessed.
+     * <p>
+     * This is the second phase of the submission, see {@link DocumentSubmission}.
+     *
+     * @param submission Prepared submission.
+     * @param ownerId Owner identification.
+     * @return Submission with results from the provider.
+     */
+    public DocumentSubmission submitToProvider(final DocumentSubmission submission, final OwnerId ownerId) {
+        final List<DocumentSubmission.Group> groups = submission.groups().stream()
+                .map(group -> group.isSubmittable()
+                        ? group.withResults(submitDocumentToProvider(group, submission.identityVerification(), ownerId))
+                        : group)
+                .toList();
+        return new DocumentSubmission(submission.identityVerification(), groups);
     }
 
     /**
-     * Submit pages of a document to document verify provider.
+     * Complete submission of documents. Results from the provider are persisted and the uploaded document data
+     * of successfully submitted documents are deleted.
+     * <p>
+     * This is the last phase of the submission, see {@link DocumentSubmission}.
+     *
+     * @param submission Submission with results from the provider.
+     * @param ownerId Owner identification.
+     * @return Document verification entities.
+     */
+    @Transactional
+    public List<DocumentVerificationEntity> completeSubmission(final DocumentSubmission submission, final OwnerId ownerId) {
+        final Map<String, DocumentVerificationEntity> docVerifications = new HashMap<>();
+        documentVerificationRepository.findAllById(submission.documentVerificationIds())
+                .forEach(docVerification -> docVerifications.put(docVerification.getId(), docVerification));
+
+        for (DocumentSubmission.Group group : submission.groups()) {
+            if (group.results() != null) {
+                completeDocument(group, docVerifications, ownerId);
+            }
+        }
+        return docVerifications.values().stream().toList();
+    }
+
+    /**
+     * Prepare pages of a document for document verify provider.
+     * When all pages are identical to pages submitted already, the uploads of the pages are reused, see {@link #reuseSubmittedDocuments}.
      * @param pagesMetadata Pages metadata from request.
      * @param pagesData Pages data.
      * @param idVerification Identity verification entity.
      * @param ownerId Owner identification.
-     * @return
+     * @return Prepared pages.
      */
-    private List<DocumentVerificationEntity> submitDocument(final List<DocumentSubmitRequest.DocumentMetadata> pagesMetadata,
-                                                            final List<Document> pagesData,
-                                                            final IdentityVerificationEntity idVerification,
-                                                            final OwnerId ownerId) {
+    private DocumentSubmission.Group prepareDocument(final List<DocumentSubmitRequest.DocumentMetadata> pagesMetadata,
+                                                     final List<Document> pagesData,
+                                                     final IdentityVerificationEntity idVerification,
+                                                     final OwnerId ownerId) {
 
-        // Maps are used to associate DocumentsSubmitResult - DocumentVerificationEntities - DocumentMetadata
-        final Map<String, DocumentVerificationEntity> docVerifications = new HashMap<>();
-        final Map<String, DocumentSubmitRequest.DocumentMetadata> docMetadataMap = new HashMap<>();
+        final List<String> docVerificationIds = new ArrayList<>();
+        final List<DocumentVerificationEntity> docVerifications = new ArrayList<>();
+        final Map<String, String> dataUploadIds = new HashMap<>();
 
         final List<SubmittedDocument> submittedDocuments = new ArrayList<>();
         for (var metadata : pagesMetadata) {
             final DocumentVerificationEntity docVerification = createDocumentVerification(ownerId, idVerification, metadata);
-            docVerifications.put(docVerification.getId(), docVerification);
-            docMetadataMap.put(docVerification.getId(), metadata);
+            docVerificationIds.add(docVerification.getId());
+            docVerifications.add(docVerification);
+            if (StringUtils.isNotBlank(metadata.getUploadId())) {
+                dataUploadIds.put(docVerification.getId(), metadata.getUploadId());
+            }
             handleResubmit(ownerId, metadata.getOriginalDocumentId(), docVerification);
 
             try {
@@ -163,24 +245,125 @@ public class DocumentProcessingService {
                 docVerification.setErrorDetail(ErrorDetail.DOCUMENT_VERIFICATION_FAILED);
                 docVerification.setErrorOrigin(ErrorOrigin.DOCUMENT_VERIFICATION);
                 auditService.audit(docVerification, "Document verification failed for user: {}", ownerId.getUserId());
-                return docVerifications.values().stream().toList();
+                return new DocumentSubmission.Group(docVerificationIds, dataUploadIds, Collections.emptyList(), null);
+            }
+        }
+
+        final DocumentsSubmitResult reusedResults = reuseSubmittedDocuments(docVerifications, idVerification, ownerId);
+        if (reusedResults != null) {
+            return new DocumentSubmission.Group(docVerificationIds, dataUploadIds, Collections.emptyList(), reusedResults);
+        }
+        return new DocumentSubmission.Group(docVerificationIds, dataUploadIds, submittedDocuments, null);
+    }
+
+    /**
+     * Reuse uploads of pages identical to pages submitted already within the identity verification, so that the pages
+     * are not submitted to the provider again. Pages are identical when they have the same type, side and data hash.
+     * The uploads are reused only when all pages of the document match a page with a finished upload,
+     * the matched document verifications are disposed and replaced by the new ones.
+     * @param docVerifications Document verifications of pages of a document.
+     * @param idVerification Identity verification entity.
+     * @param ownerId Owner identification.
+     * @return Results of the reused uploads or null when the document has to be submitted to the provider.
+     */
+    private DocumentsSubmitResult reuseSubmittedDocuments(final List<DocumentVerificationEntity> docVerifications,
+                                                          final IdentityVerificationEntity idVerification,
+                                                          final OwnerId ownerId) {
+
+        final Set<String> dataHashes = docVerifications.stream()
+                .map(DocumentVerificationEntity::getDataHash)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        if (dataHashes.isEmpty()) {
+            return null;
+        }
+
+        final List<DocumentVerificationEntity> candidates = new ArrayList<>(
+                documentVerificationRepository.findUnverifiedByDataHashes(idVerification, dataHashes, REUSABLE_STATUSES));
+        final List<DocumentVerificationEntity> originalDocs = new ArrayList<>();
+        final DocumentsSubmitResult results = new DocumentsSubmitResult();
+        for (DocumentVerificationEntity docVerification : docVerifications) {
+            final Optional<DocumentVerificationEntity> originalDoc = candidates.stream()
+                    .filter(candidate -> isIdenticalPage(candidate, docVerification))
+                    .findFirst();
+            if (originalDoc.isEmpty()) {
+                return null;
             }
+            final String extractedData = findExtractedData(originalDoc.get());
+            if (extractedData == null && docVerification.getType() != DocumentType.SELFIE_PHOTO) {
+                logger.debug("Upload of identical {} has no extracted data, {}", originalDoc.get(), ownerId);
+                return null;
+            }
+            candidates.removeIf(candidate -> candidate == originalDoc.get());
+            originalDocs.add(originalDoc.get());
+
+            final DocumentSubmitResult result = new DocumentSubmitResult();
+            result.setDocumentId(docVerification.getId());
+            result.setUploadId(originalDoc.get().getUploadId());
+            result.setExtractedData(extractedData);
+            results.getResults().add(result);
+            if (originalDoc.get().getPhotoId() != null) {
+                results.setExtractedPhotoId(originalDoc.get().getPhotoId());
+            }
+        }
+
+        for (DocumentVerificationEntity originalDoc : originalDocs) {
+            originalDoc.setStatus(DocumentStatus.DISPOSED);
+            originalDoc.setUsedForVerification(false);
+            originalDoc.setTimestampDisposed(ownerId.getTimestamp());
+            originalDoc.setTimestampLastUpdated(ownerId.getTimestamp());
+            logger.info("Reused upload ID: {} of identical {}, {}", originalDoc.getUploadId(), originalDoc, ownerId);
+            auditService.audit(originalDoc, "Document replaced with identical one for user: {}", ownerId.getUserId());
         }
+        onboardingMetrics.recordDocumentDeduplicated("submit", originalDocs.size());
+        return results;
+    }
+
+    private static boolean isIdenticalPage(final DocumentVerificationEntity candidate, final DocumentVerificationEntity docVerification) {
+        return candidate.getType() == docVerification.getType()
+                && candidate.getSide() == docVerification.getSide()
+                && Objects.equals(candidate.getDataHash(), docVerification.getDataHash())
+                && StringUtils.isNotBlank(candidate.getUploadId());
+    }
 
-        final List<DocumentVerificationEntity> docVerificationsList = docVerifications.values().stream().toList();
-        final DocumentsSubmitResult results = submitDocumentToProvider(submittedDocuments, docVerificationsList, idVerification, ownerId);
-        processSubmitResults(results, docVerifications, ownerId);
+    private String findExtractedData(final DocumentVerificationEntity docVerification) {
+        return documentResultRepository.findLatestResults(docVerification.getId(), DocumentProcessingPhase.UPLOAD).stream()
+                .map(DocumentResultEntity::getExtractedData)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
 
-        docVerificationsList.stream()
+    /**
+     * Persist results of pages of a document submitted to document verify provider.
+     * @param group Submitted pages with results.
+     * @param docVerifications Document verification entities by ID.
+     * @param ownerId Owner identification.
+     */
+    private void completeDocument(final DocumentSubmission.Group group,
+                                  final Map<String, DocumentVerificationEntity> docVerifications,
+                                  final OwnerId ownerId) {
+
+        final Map<String, DocumentVerificationEntity> groupDocVerifications = new HashMap<>();
+        for (String docVerificationId : group.documentVerificationIds()) {
+            final DocumentVerificationEntity docVerification = docVerifications.get(docVerificationId);
+            if (docVerification == null || docVerification.getStatus() != DocumentStatus.UPLOAD_IN_PROGRESS) {
+                logger.warn("Document verification ID: {} is no longer waiting for submit result, {}", docVerificationId, ownerId);
+                return;
+            }
+            groupDocVerifications.put(docVerificationId, docVerification);
+        }
+
+        processSubmitResults(group.results(), groupDocVerifications, ownerId);
+
+        groupDocVerifications.values().stream()
                 .filter(doc -> StringUtils.isNotBlank(doc.getUploadId()))
-                .map(doc -> docMetadataMap.get(doc.getId()).getUploadId())
+                .map(doc -> group.dataUploadIds().get(doc.getId()))
                 .filter(StringUtils::isNotBlank)
                 .forEach(fileUploadId -> {
                     documentDataRepository.deleteById(fileUploadId);
                     logger.info("Deleted stored document data with id={}, {}", fileUploadId, ownerId);
                 });
-
-        return docVerificationsList;
     }
 
     /**
@@ -304,22 +487,21 @@ public class DocumentProcessingService {
 
     /**
      * Pass all pages of a document to document verification provider at a single call.
-     * @param submittedDocs Document pages to submit.
-     * @param docVerifications Entities associated with the document pages to submit.
+     * @param group Document pages to submit.
      * @param identityVerification Identity verification entity.
      * @param ownerId Owner identification.
      * @return document submit result
      */
-    private DocumentsSubmitResult submitDocumentToProvider(final List<SubmittedDocument> submittedDocs,
-                                                           final List<DocumentVerificationEntity> docVerifications,
+    private DocumentsSubmitResult submitDocumentToProvider(final DocumentSubmission.Group group,
                                                            final IdentityVerificationEntity identityVerification,
                                                            final OwnerId ownerId) {
 
-        final List<String> docVerificationIds = docVerifications.stream().map(DocumentVerificationEntity::getId).toList();
+        final List<SubmittedDocument> submittedDocs = group.submittedDocuments();
+        final List<String> docVerificationIds = group.documentVerificationIds();
 
         try {
             final DocumentsSubmitResult results = documentVerificationProvider.submitDocuments(ownerId, submittedDocs);
-            logger.debug("Documents {} submitted to provider, {}", docVerifications, ownerId);
+            logger.debug("Documents {} submitted to provider, {}", docVerificationIds, ownerId);
             auditService.auditDocumentVerificationProvider(identityVerification, "Submit documents for user: {}, document IDs: {}", ownerId.getUserId(), docVerificationIds);
             return results;
         } catch (DocumentVerificationException | RemoteCommunicationException e) {
@@ -368,58 +550,44 @@ public class DocumentProcessingService {
      * @param ownerId Owner identification.
      * @return Persisted document metadata of the uploaded document.
      * @throws DocumentVerificationException Thrown when document is invalid.
+     * @throws DocumentUploadLimitException Thrown when the limit of uploaded documents is reached.
+     * @see DocumentUploadStore
      */
-    @Transactional
-    public DocumentMetadata uploadDocument(IdentityVerificationEntity idVerification, byte[] requestData, OwnerId ownerId) throws DocumentVerificationException {
-        // TODO consider limiting the amount (count, space) of currently uploaded documents per ownerId
+    public DocumentMetadata uploadDocument(IdentityVerificationEntity idVerification, byte[] requestData, OwnerId ownerId) throws DocumentVerificationException, DocumentUploadLimitException {
         Document document = dataExtractionService.extractDocument(requestData);
-        return persistDocumentData(idVerification, ownerId, document);
+        onboardingMetrics.recordDocumentSize("upload", null, document.getData());
+        return documentUploadStore.store(idVerification, ownerId, document);
     }
 
     /**
      * Pairs documents with two sides, front side will be linked to the back side and vice versa.
+     * The links are written by dirty checking of the managed documents, the updates are sent in a JDBC batch.
+     * Batching is enabled only for the flush of the links, pending changes of other entities are flushed before.
      * @param documents Documents to be checked on two sides linkin
+     * @see DocumentPairing
      */
     @Transactional
     public void pairTwoSidedDocuments(List<DocumentVerificationEntity> documents) {
-        for (DocumentVerificationEntity document : documents) {
-            if (!document.getType().isTwoSided()) {
-                continue;
-            }
-            documents.stream()
-                    .filter(item -> item.getType() == document.getType())
-                    .filter(item -> item.getSide() != document.getSide())
-                    .forEach(item -> {
-                        logger.debug("Found other side {} for {}", item, document);
-                        item.setOtherSideId(document.getId());
-                        documentVerificationRepository.setOtherDocumentSide(item.getId(), document.getId());
-                    });
+        final List<DocumentPairing.Pair> pairs = DocumentPairing.pair(documents);
+        if (pairs.isEmpty()) {
+            return;
         }
-    }
 
-    /**
-     * Persist a document into database.
-     * @param idVerification Identity verification entity.
-     * @param ownerId Owner identification
-     * @param document Document to be persisted.
-     * @return Persisted document metadata.
-     */
-    private DocumentMetadata persistDocumentData(IdentityVerificationEntity idVerification, OwnerId ownerId, Document document) {
-        DocumentDataEntity entity = new DocumentDataEntity();
-        entity.setActivationId(ownerId.getActivationId());
-        entity.setIdentityVerification(idVerification);
-        entity.setFilename(document.getFilename());
-        entity.setData(document.getData());
-        entity.setTimestampCreated(ownerId.getTimestamp());
-        entity = documentDataRepository.save(entity);
-
-        document.setId(entity.getId());
-
-        // Return document metadata only
-        DocumentMetadata persistedDocument = new DocumentMetadata();
-        persistedDocument.setId(entity.getId());
-        persistedDocument.setFilename(entity.getFilename());
-        return persistedDocument;
+        final Session session = entityManager.unwrap(Session.class);
+        session.flush();
+        final Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(PAIRING_BATCH_SIZE);
+        try {
+            for (DocumentPairing.Pair pair : pairs) {
+                logger.debug("Pairing {} front side ID: {} with back side ID: {}", pair.type(), pair.frontSideId(), pair.backSideId());
+                documents.stream()
+                        .filter(document -> document.getType() == pair.type() && document.getSide() != null)
+                        .forEach(document -> document.setOtherSideId(pair.otherSideIdOf(document)));
+            }
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
     }
 
     private DocumentResultEntity createDocumentResult(
@@ -474,6 +642,7 @@ public class DocumentProcessingService {
                     .orElseThrow(() ->
                             new DocumentSubmitException(String.format("Missing %s in data, %s", docMetadata, ownerId)));
             photo.setData(document.getData());
+            docVerification.setDataHash(document.getDataHash() != null ? document.getDataHash() : DataExtractionService.hash(document.getData()));
         } else {
             final DocumentDataEntity documentData = documentDataRepository.findById(docMetadata.getUploadId())
                     .orElseThrow(() ->
@@ -483,7 +652,9 @@ public class DocumentProcessingService {
                         String.format("The referenced document data uploadId=%s are from different activation, %s", docMetadata, ownerId));
             }
             photo.setData(documentData.getData());
+            docVerification.setDataHash(documentData.getDataHash() != null ? documentData.getDataHash() : DataExtractionService.hash(documentData.getData()));
         }
+        onboardingMetrics.recordDocumentSize("submit", docMetadata.getType(), photo.getData());
         return submittedDoc;
     }
 
@@ -0,0 +1,82 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.integration.DocumentsSubmitResult;
+import com.wultra.app.enrollmentserver.model.integration.SubmittedDocument;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Submission of documents split into phases, so that no database transaction is open during the call
+ * of the document verification provider.
+ * <ol>
+ *     <li>{@link DocumentProcessingService#prepareSubmission} persists the document verifications in a transaction.</li>
+ *     <li>{@link DocumentProcessingService#submitToProvider} calls the provider without a transaction.</li>
+ *     <li>{@link DocumentProcessingService#completeSubmission} persists the provider results in a transaction.</li>
+ * </ol>
+ *
+ * @param identityVerification Identity verification entity, detached after the first phase.
+ * @param groups Documents grouped by type.
+ */
+public record DocumentSubmission(IdentityVerificationEntity identityVerification, List<Group> groups) {
+
+    /**
+     * Get IDs of all document verifications created by the submission.
+     *
+     * @return Document verification IDs.
+     */
+    public List<String> documentVerificationIds() {
+        return groups.stream()
+                .flatMap(group -> group.documentVerificationIds().stream())
+                .toList();
+    }
+
+    /**
+     * Pages of a single document submitted to the provider at a single call.
+     *
+     * @param documentVerificationIds IDs of the document verifications of the pages.
+     * @param dataUploadIds Uploaded document data IDs by document verification ID, deleted after a successful submit.
+     * @param submittedDocuments Pages to submit, empty when the submission failed already during the preparation
+     *                           or when uploads of identical pages are reused.
+     * @param results Results from the provider, {@code null} until submitted, known already after the preparation
+     *                when uploads of identical pages are reused.
+     */
+    public record Group(
+            List<String> documentVerificationIds,
+            Map<String, String> dataUploadIds,
+            List<SubmittedDocument> submittedDocuments,
+            @Nullable DocumentsSubmitResult results) {
+
+        /**
+         * Whether the pages should be submitted to the provider.
+         *
+         * @return True if the pages should be submitted.
+         */
+        boolean isSubmittable() {
+            return !submittedDocuments.isEmpty();
+        }
+
+        Group withResults(final DocumentsSubmitResult results) {
+            return new Group(documentVerificationIds, dataUploadIds, submittedDocuments, results);
+        }
+    }
+}
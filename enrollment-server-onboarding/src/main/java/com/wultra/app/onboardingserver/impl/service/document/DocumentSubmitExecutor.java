@@ -0,0 +1,150 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import com.wultra.app.onboardingserver.impl.service.IdentityVerificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor of document submissions to the document verification provider.
+ * <p>
+ * In the asynchronous mode, the submission prepared by {@link IdentityVerificationService#prepareDocumentsSubmission}
+ * is submitted to the provider and completed by a bounded pool of worker threads, so the submit request is answered
+ * while the documents are still in the {@code UPLOAD_IN_PROGRESS} status. The result is reflected by the document status.
+ * When the queue of the pool is full, the submission is processed synchronously by the calling thread.
+ * A submission lost due to a restart of the node is failed by the cleanup of interrupted document submits.
+ * A submission waiting in the queue longer than the document submit timeout is skipped, because the documents
+ * may have been failed by the cleanup already.
+ * <p>
+ * The pool is built by the {@link ThreadPoolTaskExecutorBuilder} auto-configured by Spring Boot, so logging context
+ * and the current observation are propagated to the submissions the same way as to the application task executor.
+ */
+@ConditionalOnProperty(
+        value = "enrollment-server-onboarding.identity-verification.enabled",
+        havingValue = "true"
+)
+@Component
+@Slf4j
+public class DocumentSubmitExecutor implements AutoCloseable {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final IdentityVerificationService identityVerificationService;
+
+    private final Duration submitTimeout;
+
+    /**
+     * Executor of asynchronous submissions, {@code null} in the synchronous mode.
+     */
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Executor constructor.
+     *
+     * @param identityVerificationService Identity verification service.
+     * @param identityVerificationConfig Identity verification configuration.
+     * @param taskExecutorBuilder Builder of the pool.
+     */
+    public DocumentSubmitExecutor(
+            final IdentityVerificationService identityVerificationService,
+            final IdentityVerificationConfig identityVerificationConfig,
+            final ThreadPoolTaskExecutorBuilder taskExecutorBuilder) {
+
+        this.identityVerificationService = identityVerificationService;
+        this.submitTimeout = identityVerificationConfig.getDocumentSubmitTimeout();
+        this.executor = identityVerificationConfig.isDocumentSubmitAsyncEnabled()
+                ? createExecutor(taskExecutorBuilder, identityVerificationConfig.getDocumentSubmitPoolSize(), identityVerificationConfig.getDocumentSubmitQueueCapacity())
+                : null;
+    }
+
+    /**
+     * Submit the prepared documents to the provider and complete the submission.
+     * In the asynchronous mode, the method returns before the documents are submitted.
+     *
+     * @param submission Prepared submission.
+     * @param ownerId Owner identification.
+     * @throws OnboardingProcessException Thrown when onboarding process is invalid, only when processed synchronously.
+     */
+    public void submit(final DocumentSubmission submission, final OwnerId ownerId) throws OnboardingProcessException {
+        if (executor == null) {
+            submitAndComplete(submission, ownerId);
+            return;
+        }
+
+        logger.debug("Scheduling submission of documents, process ID: {}, {}", submission.identityVerification().getProcessId(), ownerId);
+        final long scheduledNanos = System.nanoTime();
+        try {
+            executor.execute(() -> submitScheduled(submission, ownerId, scheduledNanos));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Queue of document submissions is full, submitting synchronously, process ID: {}, {}", submission.identityVerification().getProcessId(), ownerId);
+            submitAndComplete(submission, ownerId);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private void submitScheduled(final DocumentSubmission submission, final OwnerId ownerId, final long scheduledNanos) {
+        final Duration waiting = Duration.ofNanos(System.nanoTime() - scheduledNanos);
+        if (waiting.compareTo(submitTimeout) >= 0) {
+            logger.warn("Submission of documents waited {} ms in the queue, skipping it, process ID: {}, {}",
+                    waiting.toMillis(), submission.identityVerification().getProcessId(), ownerId);
+            return;
+        }
+        try {
+            submitAndComplete(submission, ownerId);
+        } catch (OnboardingProcessException | RuntimeException e) {
+            logger.warn("Asynchronous submission of documents failed, process ID: {}, {}", submission.identityVerification().getProcessId(), ownerId, e);
+        }
+    }
+
+    private void submitAndComplete(final DocumentSubmission submission, final OwnerId ownerId) throws OnboardingProcessException {
+        final DocumentSubmission submitted = identityVerificationService.submitDocumentsToProvider(submission, ownerId);
+        identityVerificationService.completeDocumentsSubmission(submitted, ownerId);
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(final ThreadPoolTaskExecutorBuilder taskExecutorBuilder, final int poolSize, final int queueCapacity) {
+        final ThreadPoolTaskExecutor threadPoolExecutor = taskExecutorBuilder
+                .threadNamePrefix("document-submit-")
+                .corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .queueCapacity(queueCapacity)
+                // threads are created on demand and released when idle
+                .allowCoreThreadTimeOut(true)
+                .keepAlive(Duration.ofSeconds(60))
+                .awaitTermination(true)
+                .awaitTerminationPeriod(SHUTDOWN_TIMEOUT)
+                .build();
+        threadPoolExecutor.initialize();
+        return threadPoolExecutor;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.Document;
+import com.wultra.app.enrollmentserver.model.DocumentMetadata;
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.database.DocumentDataRepository;
+import com.wultra.app.onboardingserver.common.database.DocumentDataUsage;
+import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentDataEntity;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import com.wultra.app.onboardingserver.impl.util.DateUtil;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import com.wultra.app.onboardingserver.errorhandling.DocumentUploadLimitException;
+import com.wultra.app.onboardingserver.impl.service.DataExtractionService;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
+import com.wultra.app.onboardingserver.observation.SweepResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Store of uploaded documents waiting for a submit.
+ * <p>
+ * Uploads are limited per activation by count and total size. The limits are enforced atomically,
+ * the identity verification is locked while the current usage is checked and the upload is inserted.
+ * Uploads expire after the configured time to live regardless of the state of the onboarding process,
+ * expired uploads are not counted to the limits.
+ * <p>
+ * Identical data uploaded repeatedly by the same activation, e.g. when a client retries the upload, are stored only once.
+ * The repeated upload returns the already stored document and does not count to the limits.
+ */
+@Service
+@Slf4j
+public class DocumentUploadStore {
+
+    private final DocumentDataRepository documentDataRepository;
+
+    private final IdentityVerificationRepository identityVerificationRepository;
+
+    private final IdentityVerificationConfig identityVerificationConfig;
+
+    private final OnboardingMetrics onboardingMetrics;
+
+    /**
+     * Store constructor.
+     *
+     * @param documentDataRepository Document data repository.
+     * @param identityVerificationRepository Identity verification repository.
+     * @param identityVerificationConfig Identity verification configuration.
+     * @param onboardingMetrics Onboarding metrics.
+     */
+    public DocumentUploadStore(
+            final DocumentDataRepository documentDataRepository,
+            final IdentityVerificationRepository identityVerificationRepository,
+            final IdentityVerificationConfig identityVerificationConfig,
+            final OnboardingMetrics onboardingMetrics) {
+
+        this.documentDataRepository = documentDataRepository;
+        this.identityVerificationRepository = identityVerificationRepository;
+        this.identityVerificationConfig = identityVerificationConfig;
+        this.onboardingMetrics = onboardingMetrics;
+    }
+
+    /**
+     * Store an uploaded document unless the limits of the activation are exceeded.
+     * When the activation has already uploaded identical data, the stored document is returned instead.
+     *
+     * @param idVerification Identity verification entity.
+     * @param ownerId Owner identification.
+     * @param document Document to be stored.
+     * @return Stored document metadata.
+     * @throws DocumentUploadLimitException Thrown when count or total size of uploaded documents would exceed the limit.
+     */
+    @Transactional
+    public DocumentMetadata store(final IdentityVerificationEntity idVerification, final OwnerId ownerId, final Document document) throws DocumentUploadLimitException {
+        final IdentityVerificationEntity lockedIdVerification = identityVerificationRepository.findByIdWithLock(idVerification.getId())
+                .orElseThrow(() -> new IllegalStateException("Identity verification not found, ID: " + idVerification.getId()));
+
+        final String dataHash = document.getDataHash() != null ? document.getDataHash() : DataExtractionService.hash(document.getData());
+        final Date expirationDate = getExpirationDate();
+        final List<String> storedIds = documentDataRepository.findIdsByDataHash(ownerId.getActivationId(), dataHash, expirationDate);
+        if (!storedIds.isEmpty()) {
+            logger.info("Document data with identical hash already uploaded, ID: {}, {}", storedIds.get(0), ownerId);
+            onboardingMetrics.recordDocumentDeduplicated("upload", 1);
+            document.setId(storedIds.get(0));
+            return createMetadata(storedIds.get(0), document.getFilename());
+        }
+
+        final long size = document.getData().length;
+        final DocumentDataUsage usage = documentDataRepository.findUsage(ownerId.getActivationId(), expirationDate);
+        logger.debug("Uploaded documents count: {}, size: {} B, {}", usage.count(), usage.size(), ownerId);
+
+        if (usage.count() >= identityVerificationConfig.getDocumentUploadMaxCount()) {
+            onboardingMetrics.recordUploadRejected("count");
+            throw new DocumentUploadLimitException(String.format("Maximal count of uploaded documents %s reached, %s",
+                    identityVerificationConfig.getDocumentUploadMaxCount(), ownerId));
+        }
+        if (usage.size() + size > identityVerificationConfig.getDocumentUploadMaxSize().toBytes()) {
+            onboardingMetrics.recordUploadRejected("size");
+            throw new DocumentUploadLimitException(String.format("Maximal size of uploaded documents %s would be exceeded by %s B, %s",
+                    identityVerificationConfig.getDocumentUploadMaxSize(), size, ownerId));
+        }
+
+        DocumentDataEntity entity = new DocumentDataEntity();
+        entity.setActivationId(ownerId.getActivationId());
+        entity.setIdentityVerification(lockedIdVerification);
+        entity.setFilename(document.getFilename());
+        entity.setData(document.getData());
+        entity.setDataSize(size);
+        entity.setDataHash(dataHash);
+        entity.setTimestampCreated(ownerId.getTimestamp());
+        entity = documentDataRepository.save(entity);
+        onboardingMetrics.recordUploadUsage(usage.size() + size);
+
+        document.setId(entity.getId());
+
+        return createMetadata(entity.getId(), entity.getFilename());
+    }
+
+    /**
+     * Delete uploaded documents older than the time to live.
+     *
+     * @return Sweep result.
+     */
+    @Transactional
+    public SweepResult expire() {
+        final int deleted = documentDataRepository.cleanupDocumentData(getExpirationDate());
+        final DocumentDataUsage usage = documentDataRepository.findTotalUsage();
+        onboardingMetrics.recordStagedUploads(usage.count(), usage.size());
+        return SweepResult.of(deleted);
+    }
+
+    private static DocumentMetadata createMetadata(final String id, final String filename) {
+        // Return document metadata only
+        final DocumentMetadata storedDocument = new DocumentMetadata();
+        storedDocument.setId(id);
+        storedDocument.setFilename(filename);
+        return storedDocument;
+    }
+
+    private Date getExpirationDate() {
+        return DateUtil.convertExpirationToCreatedDate(identityVerificationConfig.getDocumentUploadTtl());
+    }
+}
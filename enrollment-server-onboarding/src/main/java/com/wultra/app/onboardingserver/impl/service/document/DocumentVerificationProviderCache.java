@@ -0,0 +1,153 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wultra.app.enrollmentserver.model.integration.Image;
+import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
+import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentResultEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Local cache of results obtained from {@link DocumentVerificationProvider}.
+ * <p>
+ * Document photos are cached by photo ID. The cache is bounded by the total size of the photos in bytes
+ * and entries expire after the identity verification data retention time. Concurrent lookups of the same photo
+ * share a single download.
+ * Parsed rejection reasons are memoized by {@link DocumentResultEntity} ID. A memoized value is used only
+ * when the source columns of the document result are equal to the ones parsed.
+ * <p>
+ * Cached images are shared, callers must not modify them.
+ */
+@Component
+@Slf4j
+public class DocumentVerificationProviderCache {
+
+    private final DocumentVerificationProvider documentVerificationProvider;
+
+    private final Cache<String, Image> photos;
+
+    private final Cache<Long, RejectionReasons> rejectionReasons;
+
+    /**
+     * Cache constructor.
+     *
+     * @param documentVerificationProvider Document verification provider.
+     * @param identityVerificationConfig Identity verification configuration.
+     */
+    public DocumentVerificationProviderCache(
+            final DocumentVerificationProvider documentVerificationProvider,
+            final IdentityVerificationConfig identityVerificationConfig) {
+
+        this.documentVerificationProvider = documentVerificationProvider;
+
+        photos = Caffeine.newBuilder()
+                .maximumWeight(identityVerificationConfig.getPhotoCacheMaxSize().toBytes())
+                .weigher((String photoId, Image photo) -> weigh(photo))
+                .expireAfterWrite(identityVerificationConfig.getDataRetentionTime())
+                .build();
+
+        rejectionReasons = Caffeine.newBuilder()
+                .maximumSize(identityVerificationConfig.getRejectionReasonsCacheMaxEntries())
+                .expireAfterWrite(identityVerificationConfig.getDataRetentionTime())
+                .build();
+    }
+
+    /**
+     * Get photo with the given ID. The photo is downloaded from the provider only if not cached yet.
+     *
+     * @param photoId Photo identifier.
+     * @return Photo image.
+     * @throws RemoteCommunicationException In case of remote communication error.
+     * @throws DocumentVerificationException In case of business logic error.
+     */
+    public Image getPhoto(final String photoId) throws DocumentVerificationException, RemoteCommunicationException {
+        try {
+            return photos.get(photoId, this::downloadPhoto);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof final DocumentVerificationException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof final RemoteCommunicationException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Parse rejection reasons of the given document result. Parsed values are reused until the document result changes.
+     *
+     * @param docResult Document result entity.
+     * @return Rejection reasons.
+     * @throws DocumentVerificationException Thrown when the rejection reasons could not be parsed.
+     */
+    public List<String> parseRejectionReasons(final DocumentResultEntity docResult) throws DocumentVerificationException {
+        final Long id = docResult.getId();
+        if (id == null) {
+            return documentVerificationProvider.parseRejectionReasons(docResult);
+        }
+
+        final RejectionReasons cached = rejectionReasons.getIfPresent(id);
+        if (cached != null && cached.isParsedFrom(docResult)) {
+            logger.debug("Using cached rejection reasons of document result ID: {}", id);
+            return cached.reasons();
+        }
+
+        final List<String> reasons = List.copyOf(documentVerificationProvider.parseRejectionReasons(docResult));
+        rejectionReasons.put(id, new RejectionReasons(docResult.getVerificationResult(), docResult.getRejectReason(), reasons));
+        return reasons;
+    }
+
+    /**
+     * Download the photo, used as a cache loader. Checked exceptions are wrapped by {@link CompletionException}.
+     */
+    private Image downloadPhoto(final String photoId) {
+        try {
+            final Image photo = documentVerificationProvider.getPhoto(photoId);
+            if (photo != null && photo.getData() != null) {
+                logger.debug("Caching photo ID: {}, size: {} B", photoId, photo.getData().length);
+            }
+            return photo;
+        } catch (DocumentVerificationException | RemoteCommunicationException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static int weigh(final Image photo) {
+        final int dataLength = photo.getData() == null ? 0 : photo.getData().length;
+        final int filenameLength = photo.getFilename() == null ? 0 : photo.getFilename().length();
+        return dataLength + filenameLength;
+    }
+
+    private record RejectionReasons(String verificationResult, String rejectReason, List<String> reasons) {
+
+        boolean isParsedFrom(final DocumentResultEntity docResult) {
+            return Objects.equals(verificationResult, docResult.getVerificationResult())
+                    && Objects.equals(rejectReason, docResult.getRejectReason());
+        }
+    }
+}
@@ -18,14 +18,14 @@
 package com.wultra.app.onboardingserver.impl.service.internal;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wultra.app.onboardingserver.common.json.JsonCodec;
 import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 /**
- * Service class used for JSON serialization.
+ * Service class used for JSON serialization, backed by the shared {@link JsonCodec}.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
@@ -34,8 +34,6 @@ public class JsonSerializationService {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonSerializationService.class);
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
     /**
      * Deserialize an object from JSON.
      * @param json Serialized JSON representation of the object..
@@ -44,7 +42,7 @@ public class JsonSerializationService {
     @Nullable
     public <T> T deserialize(String json, Class<T> cls) {
         try {
-            return objectMapper.readValue(json, cls);
+            return JsonCodec.read(json, cls);
         } catch (JsonProcessingException e) {
             logger.error("JSON serialization failed due to an error", e);
             return null;
@@ -58,7 +56,7 @@ public class JsonSerializationService {
      */
     public String serialize(Object object) {
         try {
-            return objectMapper.writeValueAsString(object);
+            return JsonCodec.write(object);
         } catch (JsonProcessingException e) {
             logger.error("JSON serialization failed due to an error", e);
             return null;
@@ -0,0 +1,78 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.outbox;
+
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
+import com.wultra.app.onboardingserver.common.errorhandling.OutboxDeliveryException;
+import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
+import com.wultra.app.onboardingserver.common.outbox.OutboxHandler;
+import com.wultra.app.onboardingserver.common.service.ActivationFlagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbox handler removing the {@code VERIFICATION_IN_PROGRESS} activation flag after a successful identity verification.
+ */
+@Component
+@Slf4j
+public class ActivationFlagsOutboxHandler implements OutboxHandler<ActivationFlagsOutboxHandler.Payload> {
+
+    /**
+     * Type of the outbox messages.
+     */
+    public static final String TYPE = "activation-flags.identity-verification-succeeded";
+
+    private final ActivationFlagService activationFlagService;
+
+    public ActivationFlagsOutboxHandler(final ActivationFlagService activationFlagService) {
+        this.activationFlagService = activationFlagService;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Class<Payload> getPayloadType() {
+        return Payload.class;
+    }
+
+    @Override
+    public void deliver(final Payload payload) throws OutboxDeliveryException {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId(payload.activationId());
+        ownerId.setUserId(payload.userId());
+        try {
+            activationFlagService.updateActivationFlagsForSucceededIdentityVerification(ownerId);
+            logger.info("Activation flags updated for succeeded identity verification, {}", ownerId);
+        } catch (RemoteCommunicationException | IdentityVerificationException e) {
+            throw new OutboxDeliveryException("Unable to update activation flags: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Message payload.
+     *
+     * @param activationId Activation ID.
+     * @param userId User ID.
+     */
+    public record Payload(String activationId, String userId) {
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.outbox;
+
+import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntityWrapper;
+import com.wultra.app.onboardingserver.common.errorhandling.OutboxDeliveryException;
+import com.wultra.app.onboardingserver.common.outbox.OutboxHandler;
+import com.wultra.app.onboardingserver.errorhandling.OnboardingProviderException;
+import com.wultra.app.onboardingserver.provider.OnboardingProvider;
+import com.wultra.app.onboardingserver.provider.model.request.ProcessEventRequest;
+import com.wultra.app.onboardingserver.provider.model.response.ProcessEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbox handler publishing the finished event of an onboarding process to the onboarding adapter.
+ */
+@Component
+@Slf4j
+public class FinishedEventOutboxHandler implements OutboxHandler<FinishedEventOutboxHandler.Payload> {
+
+    /**
+     * Type of the outbox messages.
+     */
+    public static final String TYPE = "process-event.finished";
+
+    private final OnboardingProcessRepository onboardingProcessRepository;
+
+    private final OnboardingProvider onboardingProvider;
+
+    public FinishedEventOutboxHandler(final OnboardingProcessRepository onboardingProcessRepository, final OnboardingProvider onboardingProvider) {
+        this.onboardingProcessRepository = onboardingProcessRepository;
+        this.onboardingProvider = onboardingProvider;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Class<Payload> getPayloadType() {
+        return Payload.class;
+    }
+
+    @Override
+    public void deliver(final Payload payload) throws OutboxDeliveryException {
+        final OnboardingProcessEntity process = onboardingProcessRepository.findById(payload.processId()).orElseThrow(() ->
+                new OutboxDeliveryException("Onboarding process not found, process ID: " + payload.processId()));
+
+        final ProcessEventRequest request = ProcessEventRequest.builder()
+                .type(ProcessEventRequest.EventType.FINISHED)
+                .userId(payload.userId())
+                .processId(payload.processId())
+                .identityVerificationId(payload.identityVerificationId())
+                .eventData(createFinishEventData(process, payload.requestId()))
+                .build();
+
+        logger.info("Publishing finish event, process ID: {}", payload.processId());
+        final ProcessEventResponse response;
+        try {
+            response = onboardingProvider.processEvent(request);
+        } catch (OnboardingProviderException e) {
+            throw new OutboxDeliveryException("Unable to publish finished event to the onboarding adapter: " + e.getMessage(), e);
+        }
+        logger.debug("Got {} for processId={}", response, request.getProcessId());
+        if (response.isErrorOccurred()) {
+            throw new OutboxDeliveryException("Finish event failed to publish: " + response.getErrorDetail());
+        }
+        logger.info("Finish event published, process ID: {}", payload.processId());
+    }
+
+    private static ProcessEventRequest.EventData createFinishEventData(final OnboardingProcessEntity process, final String requestId) {
+        final OnboardingProcessEntityWrapper processWrapper = new OnboardingProcessEntityWrapper(process);
+        return ProcessEventRequest.DefaultFinishedEventData.builder()
+                .locale(processWrapper.getLocale())
+                .clientIPAddress(processWrapper.getIpAddress())
+                .httpUserAgent(processWrapper.getUserAgent())
+                .requestId(requestId)
+                .fdsData(processWrapper.getFdsData())
+                .build();
+    }
+
+    /**
+     * Message payload.
+     *
+     * @param processId Onboarding process ID.
+     * @param identityVerificationId Identity verification ID.
+     * @param userId User ID.
+     * @param requestId Request ID, the same for all delivery attempts.
+     */
+    public record Payload(String processId, String identityVerificationId, String userId, String requestId) {
+    }
+}
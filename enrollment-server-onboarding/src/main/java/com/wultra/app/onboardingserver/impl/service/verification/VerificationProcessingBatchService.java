@@ -33,6 +33,7 @@ import com.wultra.app.onboardingserver.common.service.CommonOnboardingService;
 import com.wultra.app.onboardingserver.api.errorhandling.DocumentVerificationException;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.impl.service.IdentityVerificationService;
+import com.wultra.app.onboardingserver.observation.SweepResult;
 import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
@@ -74,12 +75,16 @@ public class VerificationProcessingBatchService {
 
     /**
      * Checks document submit verifications
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void checkDocumentSubmitVerifications() {
+    public SweepResult checkDocumentSubmitVerifications() {
+        AtomicInteger countFound = new AtomicInteger(0);
         AtomicInteger countFinished = new AtomicInteger(0);
         try (Stream<DocumentResultEntity> stream = documentResultRepository.streamAllInProgressDocumentSubmitVerifications(identityVerificationConfig.getDocumentVerificationProvider())) {
             stream.forEach(docResult -> {
+                countFound.incrementAndGet();
                 DocumentVerificationEntity docVerification = docResult.getDocumentVerification();
 
                 final OwnerId ownerId = new OwnerId();
@@ -115,16 +120,21 @@ public class VerificationProcessingBatchService {
         if (countFinished.get() > 0) {
             logger.debug("Finished {} documents verifications during submit", countFinished.get());
         }
+        return new SweepResult(countFound.get(), countFinished.get());
     }
 
     /**
      * Checks pending documents verifications
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void checkDocumentsVerifications() {
+    public SweepResult checkDocumentsVerifications() {
+        AtomicInteger countFound = new AtomicInteger(0);
         AtomicInteger countFinished = new AtomicInteger(0);
         try (Stream<IdentityVerificationEntity> stream = identityVerificationRepository.streamAllInProgressDocumentsVerifications()) {
             stream.forEach(idVerification -> {
+                countFound.incrementAndGet();
                 final OwnerId ownerId = new OwnerId();
                 ownerId.setActivationId(idVerification.getActivationId());
                 ownerId.setUserId(idVerification.getUserId());
@@ -142,6 +152,7 @@ public class VerificationProcessingBatchService {
         if (countFinished.get() > 0) {
             logger.debug("Finished {} documents verifications", countFinished.get());
         }
+        return new SweepResult(countFound.get(), countFinished.get());
     }
 
 }
@@ -0,0 +1,232 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.observation;
+
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Domain metrics of the onboarding server.
+ * <ul>
+ *     <li>{@value #METRIC_TASK_DURATION} timer of scheduled sweeps tagged by task and outcome,</li>
+ *     <li>{@value #METRIC_TASK_ITEMS} counter of items processed by scheduled sweeps tagged by task,</li>
+ *     <li>{@value #METRIC_TASK_BACKLOG} gauge of items waiting for the last run of a sweep tagged by task,</li>
+ *     <li>{@value #METRIC_STATE_TRANSITIONS} counter of state machine transitions tagged by source and target state,</li>
+ *     <li>{@value #METRIC_DOCUMENT_SIZE} distribution of document sizes in bytes tagged by operation and document type,</li>
+ *     <li>{@value #METRIC_UPLOAD_USAGE} distribution of total size of uploaded documents of an activation in bytes,</li>
+ *     <li>{@value #METRIC_UPLOAD_REJECTED} counter of uploads rejected by a limit tagged by the limit,</li>
+ *     <li>{@value #METRIC_UPLOAD_STAGED_COUNT} and {@value #METRIC_UPLOAD_STAGED_SIZE} gauges of all uploaded documents waiting for a submit,</li>
+ *     <li>{@value #METRIC_DOCUMENT_DEDUPLICATED} counter of documents with identical data reused instead of stored or submitted again tagged by operation.</li>
+ * </ul>
+ * Metrics are not recorded when there is no {@link MeterRegistry}.
+ */
+@Component
+public class OnboardingMetrics {
+
+    static final String METRIC_TASK_DURATION = "onboarding.task.duration";
+
+    static final String METRIC_TASK_ITEMS = "onboarding.task.items";
+
+    static final String METRIC_TASK_BACKLOG = "onboarding.task.backlog";
+
+    static final String METRIC_STATE_TRANSITIONS = "onboarding.state.transitions";
+
+    static final String METRIC_DOCUMENT_SIZE = "onboarding.document.size";
+
+    static final String METRIC_UPLOAD_USAGE = "onboarding.upload.usage";
+
+    static final String METRIC_UPLOAD_REJECTED = "onboarding.upload.rejected";
+
+    static final String METRIC_UPLOAD_STAGED_COUNT = "onboarding.upload.staged.count";
+
+    static final String METRIC_UPLOAD_STAGED_SIZE = "onboarding.upload.staged.size";
+
+    static final String METRIC_DOCUMENT_DEDUPLICATED = "onboarding.document.deduplicated";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> backlogs = new ConcurrentHashMap<>();
+
+    private final AtomicLong stagedUploadCount = new AtomicLong();
+
+    private final AtomicLong stagedUploadSize = new AtomicLong();
+
+    /**
+     * Metrics constructor.
+     *
+     * @param meterRegistry Meter registry.
+     */
+    @Autowired
+    public OnboardingMetrics(final ObjectProvider<MeterRegistry> meterRegistry) {
+        // composite registry without any child registry does not record anything
+        this(meterRegistry.getIfAvailable(CompositeMeterRegistry::new));
+    }
+
+    OnboardingMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(METRIC_UPLOAD_STAGED_COUNT, stagedUploadCount, AtomicLong::get)
+                .description("Number of uploaded documents waiting for a submit")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_UPLOAD_STAGED_SIZE, stagedUploadSize, AtomicLong::get)
+                .description("Total size of uploaded documents waiting for a submit")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the given sweep and record its duration, processed items and backlog.
+     *
+     * @param task Task name.
+     * @param sweep Sweep to run.
+     */
+    public void recordSweep(final String task, final Supplier<SweepResult> sweep) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            final SweepResult result = sweep.get();
+            backlog(task).set(result.found());
+            meterRegistry.counter(METRIC_TASK_ITEMS, "task", task).increment(result.processed());
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder(METRIC_TASK_DURATION)
+                    .description("Duration of scheduled sweeps")
+                    .tag("task", task)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record a transition of the onboarding state machine.
+     *
+     * @param source Source state, null for the initial transition.
+     * @param target Target state.
+     */
+    public void recordStateTransition(@Nullable final OnboardingState source, final OnboardingState target) {
+        Counter.builder(METRIC_STATE_TRANSITIONS)
+                .description("Number of onboarding state machine transitions")
+                .tag("source", source == null ? UNKNOWN : source.name())
+                .tag("target", target.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record size of a document.
+     *
+     * @param operation Operation with the document, e.g. upload or submit.
+     * @param type Document type, null when not known.
+     * @param data Document data.
+     */
+    public void recordDocumentSize(final String operation, @Nullable final DocumentType type, @Nullable final byte[] data) {
+        if (data == null) {
+            return;
+        }
+        DistributionSummary.builder(METRIC_DOCUMENT_SIZE)
+                .description("Size of documents")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("operation", operation)
+                .tag("type", type == null ? UNKNOWN : type.name())
+                .publishPercentileHistogram()
+                .minimumExpectedValue((double) DataSize.ofKilobytes(1).toBytes())
+                .maximumExpectedValue((double) DataSize.ofMegabytes(32).toBytes())
+                .register(meterRegistry)
+                .record(data.length);
+    }
+
+    /**
+     * Record total size of uploaded documents of an activation including a new upload.
+     *
+     * @param size Total size in bytes.
+     */
+    public void recordUploadUsage(final long size) {
+        DistributionSummary.builder(METRIC_UPLOAD_USAGE)
+                .description("Total size of uploaded documents of an activation")
+                .baseUnit(BaseUnits.BYTES)
+                .publishPercentileHistogram()
+                .minimumExpectedValue((double) DataSize.ofKilobytes(1).toBytes())
+                .maximumExpectedValue((double) DataSize.ofMegabytes(256).toBytes())
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * Record an upload rejected by a limit.
+     *
+     * @param limit Limit name, e.g. count or size.
+     */
+    public void recordUploadRejected(final String limit) {
+        Counter.builder(METRIC_UPLOAD_REJECTED)
+                .description("Number of uploads rejected by a limit")
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record count and total size of all uploaded documents waiting for a submit.
+     *
+     * @param count Count of documents.
+     * @param size Total size in bytes.
+     */
+    public void recordStagedUploads(final long count, final long size) {
+        stagedUploadCount.set(count);
+        stagedUploadSize.set(size);
+    }
+
+    /**
+     * Record documents with identical data reused instead of stored or submitted again.
+     *
+     * @param operation Operation, e.g. upload or submit.
+     * @param count Count of reused documents.
+     */
+    public void recordDocumentDeduplicated(final String operation, final int count) {
+        Counter.builder(METRIC_DOCUMENT_DEDUPLICATED)
+                .description("Number of documents with identical data reused instead of stored or submitted again")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    private AtomicInteger backlog(final String task) {
+        return backlogs.computeIfAbsent(task, key -> {
+            final AtomicInteger backlog = new AtomicInteger();
+            Gauge.builder(METRIC_TASK_BACKLOG, backlog, AtomicInteger::get)
+                    .description("Number of items waiting for the last run of the scheduled sweep")
+                    .tag("task", key)
+                    .register(meterRegistry);
+            return backlog;
+        });
+    }
+}
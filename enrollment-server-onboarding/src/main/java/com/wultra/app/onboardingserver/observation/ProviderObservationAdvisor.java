@@ -0,0 +1,98 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.observation;
+
+import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.api.provider.PresenceCheckProvider;
+import com.wultra.app.onboardingserver.provider.OnboardingProvider;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.Nullable;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Advisor observing methods of {@link DocumentVerificationProvider}, {@link PresenceCheckProvider}
+ * and {@link OnboardingProvider} implementations.
+ * <p>
+ * Each invocation is wrapped by the observation {@value #OBSERVATION_NAME} tagged by provider, implementation
+ * and method. The observation is recorded as a timer and, when tracing is enabled, as a span, so that remote calls
+ * made by the provider are children of the span.
+ */
+class ProviderObservationAdvisor extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor {
+
+    static final String OBSERVATION_NAME = "onboarding.provider.invocations";
+
+    private static final Map<Class<?>, String> PROVIDERS = Map.of(
+            DocumentVerificationProvider.class, "document-verification",
+            PresenceCheckProvider.class, "presence-check",
+            OnboardingProvider.class, "onboarding");
+
+    private final SingletonSupplier<ObservationRegistry> observationRegistry;
+
+    /**
+     * Advisor constructor.
+     *
+     * @param observationRegistry Observation registry, resolved on the first invocation.
+     */
+    ProviderObservationAdvisor(final ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = SingletonSupplier.of(() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        setAdvice(this);
+        setClassFilter(clazz -> PROVIDERS.keySet().stream().anyMatch(provider -> provider.isAssignableFrom(clazz)));
+    }
+
+    @Override
+    public boolean matches(final Method method, final Class<?> targetClass) {
+        return providerName(method, targetClass) != null;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final Method method = invocation.getMethod();
+        final Class<?> targetClass = invocation.getThis() == null
+                ? method.getDeclaringClass()
+                : ClassUtils.getUserClass(AopUtils.getTargetClass(invocation.getThis()));
+        final String provider = providerName(method, targetClass);
+
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry.obtain())
+                .contextualName(provider + " " + method.getName())
+                .lowCardinalityKeyValue("provider", String.valueOf(provider))
+                .lowCardinalityKeyValue("implementation", targetClass.getSimpleName())
+                .lowCardinalityKeyValue("method", method.getName())
+                .observeChecked(invocation::proceed);
+    }
+
+    @Nullable
+    private static String providerName(final Method method, final Class<?> targetClass) {
+        for (final Map.Entry<Class<?>, String> entry : PROVIDERS.entrySet()) {
+            final Class<?> provider = entry.getKey();
+            if (provider.isAssignableFrom(targetClass) && ClassUtils.hasMethod(provider, method.getName(), method.getParameterTypes())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
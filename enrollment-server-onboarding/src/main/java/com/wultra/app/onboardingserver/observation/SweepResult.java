@@ -0,0 +1,42 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.observation;
+
+/**
+ * Result of a single run of a scheduled sweep.
+ *
+ * @param found Number of items waiting for the sweep when it started.
+ * @param processed Number of items processed by the sweep.
+ */
+public record SweepResult(int found, int processed) {
+
+    /**
+     * Result of a sweep which found nothing to do.
+     */
+    public static final SweepResult EMPTY = new SweepResult(0, 0);
+
+    /**
+     * Create a result of a sweep which processed all the items found.
+     *
+     * @param count Number of items.
+     * @return Sweep result.
+     */
+    public static SweepResult of(final int count) {
+        return new SweepResult(count, count);
+    }
+}
@@ -17,18 +17,22 @@
  */
 package com.wultra.app.onboardingserver.provider;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
 import com.wultra.app.onboardingserver.provider.rest.RestOnboardingProvider;
 import com.wultra.app.onboardingserver.provider.rest.RestOnboardingProviderConfigProperties;
 import com.wultra.core.rest.client.base.DefaultRestClient;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import com.wultra.core.rest.client.base.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,6 +40,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.util.MimeTypeUtils;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration for {@link OnboardingProvider} registering {@link EmptyOnboardingProvider} or {@link RestOnboardingProvider}.
@@ -87,10 +92,13 @@ class OnboardingProviderConfiguration {
     @Bean
     OnboardingProvider restOnboardingProvider(
             @Qualifier(ONBOARDING_ADAPTER_REST_CLIENT) RestClient restClient,
-            final RestOnboardingProviderConfigProperties configuration) {
+            final RestOnboardingProviderConfigProperties configuration,
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final ObjectProvider<Executor> taskExecutor) {
 
         logger.info("Initializing RestOnboardingProvider");
-        return new RestOnboardingProvider(restClient, configuration);
+        final ProviderCallGuard callGuard = new ProviderCallGuard("onboarding-adapter", configuration.getCallGuard(), meterRegistry.getIfAvailable(), taskExecutor.getIfAvailable());
+        return new RestOnboardingProvider(restClient, configuration, callGuard);
     }
 
     @ConditionalOnMissingBean(OnboardingProvider.class)
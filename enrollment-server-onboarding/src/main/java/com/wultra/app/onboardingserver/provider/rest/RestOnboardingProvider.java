@@ -17,6 +17,9 @@
  */
 package com.wultra.app.onboardingserver.provider.rest;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuard;
+import com.wultra.app.onboardingserver.common.client.ProviderCallRejectedException;
+import com.wultra.app.onboardingserver.common.client.ProviderCallType;
 import com.wultra.app.onboardingserver.errorhandling.OnboardingProviderException;
 import com.wultra.app.onboardingserver.provider.OnboardingProvider;
 import com.wultra.app.onboardingserver.provider.model.request.*;
@@ -49,8 +52,11 @@ public class RestOnboardingProvider implements OnboardingProvider {
 
     private final RestClient restClient;
 
-    public RestOnboardingProvider(final RestClient restClient, final RestOnboardingProviderConfigProperties configuration) {
+    private final ProviderCallGuard callGuard;
+
+    public RestOnboardingProvider(final RestClient restClient, final RestOnboardingProviderConfigProperties configuration, final ProviderCallGuard callGuard) {
         this.restClient = restClient;
+        this.callGuard = callGuard;
         this.correlationHeaderName = configuration.getCorrelationHeader().getName();
         this.requestIdHeaderName = configuration.getRequestIdHeader().getName();
     }
@@ -64,8 +70,10 @@ public class RestOnboardingProvider implements OnboardingProvider {
         final UserLookupResponseDto response;
 
         try {
-            response = restClient.post("/user/lookup", requestDto, null, createHeaders(), responseType).getBody();
-        } catch (RestClientException e) {
+            final MultiValueMap<String, String> headers = createHeaders();
+            response = callGuard.call("lookupUser", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.post("/user/lookup", requestDto, null, headers, responseType)).getBody();
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to lookup user for " + request, e);
         }
 
@@ -87,8 +95,10 @@ public class RestOnboardingProvider implements OnboardingProvider {
         final OtpSendResponseDto response;
 
         try {
-            response = restClient.post("/otp/send", requestDto, null, createHeaders(), responseType).getBody();
-        } catch (RestClientException e) {
+            final MultiValueMap<String, String> headers = createHeaders();
+            response = callGuard.call("sendOtpCode", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post("/otp/send", requestDto, null, headers, responseType)).getBody();
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to send otp for " + request, e);
         }
 
@@ -110,8 +120,10 @@ public class RestOnboardingProvider implements OnboardingProvider {
         final ConsentTextResponseDto response;
 
         try {
-            response = restClient.post("/consent/text", requestDto, null, createHeaders(), responseType).getBody();
-        } catch (RestClientException e) {
+            final MultiValueMap<String, String> headers = createHeaders();
+            response = callGuard.call("fetchConsent", ProviderCallType.IDEMPOTENT, () ->
+                    restClient.post("/consent/text", requestDto, null, headers, responseType)).getBody();
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to fetch consent for " + request, e);
         }
 
@@ -128,10 +140,12 @@ public class RestOnboardingProvider implements OnboardingProvider {
         final ConsentStorageRequestDto requestDto = convert(request);
 
         try {
-            restClient.post("/consent/storage", requestDto, null, createHeaders(), ParameterizedTypeReference.forType(Object.class));
+            final MultiValueMap<String, String> headers = createHeaders();
+            callGuard.call("approveConsent", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post("/consent/storage", requestDto, null, headers, ParameterizedTypeReference.forType(Object.class)));
             logger.debug("Approved consent for {}", request);
             return new ApproveConsentResponse();
-        } catch (RestClientException e) {
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to approve consent for " + request, e);
         }
     }
@@ -144,14 +158,16 @@ public class RestOnboardingProvider implements OnboardingProvider {
 
         try {
             final ParameterizedTypeReference<ClientEvaluateResponseDto> type = ParameterizedTypeReference.forType(ClientEvaluateResponseDto.class);
-            ResponseEntity<ClientEvaluateResponseDto> response = restClient.post("/client/evaluate", requestDto, null, createHeaders(), type);
+            final MultiValueMap<String, String> headers = createHeaders();
+            final ResponseEntity<ClientEvaluateResponseDto> response = callGuard.call("evaluateClient", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post("/client/evaluate", requestDto, null, headers, type));
             logger.debug("Got evaluating client response: {}", response);
             final boolean accepted = response.getBody() != null && response.getBody().getResult() == ClientEvaluateResponseDto.ResultEnum.OK;
             return EvaluateClientResponse.builder()
                     .accepted(accepted)
                     .build();
 
-        } catch (RestClientException e) {
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to evaluate client for " + request, e);
         }
     }
@@ -163,10 +179,12 @@ public class RestOnboardingProvider implements OnboardingProvider {
 
         try {
             final ParameterizedTypeReference<ProcessEventResponseDto> type = ParameterizedTypeReference.forType(ProcessEventResponseDto.class);
-            final ResponseEntity<ProcessEventResponseDto> response = restClient.post("/process/event", requestDto, null, createHeaders(), type);
+            final MultiValueMap<String, String> headers = createHeaders();
+            final ResponseEntity<ProcessEventResponseDto> response = callGuard.call("processEvent", ProviderCallType.NON_IDEMPOTENT, () ->
+                    restClient.post("/process/event", requestDto, null, headers, type));
             logger.debug("Got processing event response: {}", response);
             return ProcessEventResponse.builder().build();
-        } catch (RestClientException e) {
+        } catch (RestClientException | ProviderCallRejectedException e) {
             throw new OnboardingProviderException("Unable to process event for " + request, e);
         }
     }
@@ -17,6 +17,7 @@
  */
 package com.wultra.app.onboardingserver.provider.rest;
 
+import com.wultra.app.onboardingserver.common.client.ProviderCallGuardConfiguration;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -59,6 +60,8 @@ public class RestOnboardingProviderConfigProperties {
 
     private Map<String, String> headers = Collections.emptyMap();
 
+    private ProviderCallGuardConfiguration callGuard = new ProviderCallGuardConfiguration();
+
     @AllArgsConstructor
     @Getter
     @Setter
@@ -18,9 +18,11 @@ package com.wultra.app.onboardingserver.statemachine.guard;
 
 import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.configuration.CommonOnboardingConfig.ProcessLockMode;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
+import com.wultra.app.onboardingserver.configuration.OnboardingConfig;
 import com.wultra.app.onboardingserver.statemachine.consts.EventHeaderName;
 import com.wultra.app.onboardingserver.statemachine.enums.OnboardingEvent;
 import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
@@ -44,8 +46,11 @@ public class ProcessIdentifierGuard implements Guard<OnboardingState, Onboarding
 
     private final OnboardingProcessRepository onboardingProcessRepository;
 
-    public ProcessIdentifierGuard(OnboardingProcessRepository onboardingProcessRepository) {
+    private final OnboardingConfig onboardingConfig;
+
+    public ProcessIdentifierGuard(OnboardingProcessRepository onboardingProcessRepository, OnboardingConfig onboardingConfig) {
         this.onboardingProcessRepository = onboardingProcessRepository;
+        this.onboardingConfig = onboardingConfig;
     }
 
     /**
@@ -56,8 +61,11 @@ public class ProcessIdentifierGuard implements Guard<OnboardingState, Onboarding
         final OwnerId ownerId = (OwnerId) context.getMessageHeader(EventHeaderName.OWNER_ID);
         final String processId = (String) context.getMessageHeader(EventHeaderName.PROCESS_ID);
 
-        logger.debug("Onboarding process will be locked using PESSIMISTIC_WRITE lock, {}", processId);
-        final Optional<OnboardingProcessEntity> processOptional = onboardingProcessRepository.findByActivationIdAndStatusWithLock(ownerId.getActivationId(), OnboardingStatus.VERIFICATION_IN_PROGRESS);
+        final ProcessLockMode lockMode = onboardingConfig.getProcessLockMode();
+        logger.debug("Onboarding process will be locked using {} lock, {}", lockMode, processId);
+        final Optional<OnboardingProcessEntity> processOptional = lockMode == ProcessLockMode.OPTIMISTIC
+                ? onboardingProcessRepository.findByActivationIdAndStatusWithOptimisticLock(ownerId.getActivationId(), OnboardingStatus.VERIFICATION_IN_PROGRESS)
+                : onboardingProcessRepository.findByActivationIdAndStatusWithLock(ownerId.getActivationId(), OnboardingStatus.VERIFICATION_IN_PROGRESS);
         if (processOptional.isEmpty()) {
             fail(context, processId, ownerId);
             return false;
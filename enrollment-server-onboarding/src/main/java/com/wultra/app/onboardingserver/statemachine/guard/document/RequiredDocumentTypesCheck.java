@@ -16,6 +16,7 @@
  */
 package com.wultra.app.onboardingserver.statemachine.guard.document;
 
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
 import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
@@ -59,17 +60,28 @@ public class RequiredDocumentTypesCheck {
      * @return true when all required document types present and accepted
      */
     public boolean evaluate(final Collection<DocumentVerificationEntity> documentVerifications, final String identityVerificationId) {
-        final Collection<DocumentVerificationEntity> acceptedDocumentVerifications = documentVerifications.stream()
+        final Collection<AcceptedDocument> acceptedDocuments = documentVerifications.stream()
                 .filter(it -> it.getStatus() == DocumentStatus.ACCEPTED)
+                .map(it -> new AcceptedDocument(it.getType(), it.getSide()))
                 .toList();
+        return evaluateAccepted(acceptedDocuments, identityVerificationId);
+    }
 
-        if (!areDistinctDocumentsPresent(acceptedDocumentVerifications)) {
+    /**
+     * Evaluate all required document types to be present among the given accepted documents.
+     *
+     * @param acceptedDocuments accepted documents to evaluate
+     * @param identityVerificationId identity verification ID to log
+     * @return true when all required document types present
+     */
+    public boolean evaluateAccepted(final Collection<AcceptedDocument> acceptedDocuments, final String identityVerificationId) {
+        if (!areDistinctDocumentsPresent(acceptedDocuments)) {
             logger.debug("There is not enough accepted document yet for identity verification ID: {}", identityVerificationId);
             return false;
-        } else if (!containsPrimaryDocument(acceptedDocumentVerifications)) {
+        } else if (!containsPrimaryDocument(acceptedDocuments)) {
             logger.debug("There is no accepted primary document yet for identity verification ID: {}", identityVerificationId);
             return false;
-        } else if (!containsSecondDocument(acceptedDocumentVerifications)) {
+        } else if (!containsSecondDocument(acceptedDocuments)) {
             logger.debug("There is no accepted secondary document yet for identity verification ID: {}", identityVerificationId);
             return false;
         } else {
@@ -78,46 +90,55 @@ public class RequiredDocumentTypesCheck {
         }
     }
 
-    private boolean areDistinctDocumentsPresent(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return requiredDocumentConfiguration.getCount() == documentVerifications.stream()
-                .map(DocumentVerificationEntity::getType)
+    private boolean areDistinctDocumentsPresent(final Collection<AcceptedDocument> documents) {
+        return requiredDocumentConfiguration.getCount() == documents.stream()
+                .map(AcceptedDocument::type)
                 .filter(PHYSICAL_DOCUMENTS::contains)
                 .distinct()
                 .count();
     }
 
-    private boolean containsPrimaryDocument(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return (isConfiguredAsPrimary(ID_CARD) && containsBothSidesOfId(documentVerifications)) ||
-                (isConfiguredAsPrimary(PASSPORT) && containsPassport(documentVerifications));
+    private boolean containsPrimaryDocument(final Collection<AcceptedDocument> documents) {
+        return (isConfiguredAsPrimary(ID_CARD) && containsBothSidesOfId(documents)) ||
+                (isConfiguredAsPrimary(PASSPORT) && containsPassport(documents));
     }
 
     private boolean isConfiguredAsPrimary(final DocumentType type) {
         return requiredDocumentConfiguration.getPrimaryDocuments().contains(type);
     }
 
-    private static boolean containsBothSidesOfId(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return 2 == documentVerifications.stream()
-                .filter(it -> it.getType() == ID_CARD)
-                .map(DocumentVerificationEntity::getSide)
+    private static boolean containsBothSidesOfId(final Collection<AcceptedDocument> documents) {
+        return 2 == documents.stream()
+                .filter(it -> it.type() == ID_CARD)
+                .map(AcceptedDocument::side)
                 .distinct()
                 .count();
     }
 
-    private static boolean containsPassport(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return documentVerifications.stream()
-                .map(DocumentVerificationEntity::getType)
+    private static boolean containsPassport(final Collection<AcceptedDocument> documents) {
+        return documents.stream()
+                .map(AcceptedDocument::type)
                 .anyMatch(it -> it == PASSPORT);
     }
 
-    private static boolean containsSecondDocument(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return containsDrivingLicence(documentVerifications)
-                || containsPassport(documentVerifications)
-                || containsBothSidesOfId(documentVerifications);
+    private static boolean containsSecondDocument(final Collection<AcceptedDocument> documents) {
+        return containsDrivingLicence(documents)
+                || containsPassport(documents)
+                || containsBothSidesOfId(documents);
     }
 
-    private static boolean containsDrivingLicence(final Collection<DocumentVerificationEntity> documentVerifications) {
-        return documentVerifications.stream()
-                .map(DocumentVerificationEntity::getType)
+    private static boolean containsDrivingLicence(final Collection<AcceptedDocument> documents) {
+        return documents.stream()
+                .map(AcceptedDocument::type)
                 .anyMatch(it -> it == DRIVING_LICENSE);
     }
+
+    /**
+     * Type and side of an accepted document.
+     *
+     * @param type Document type.
+     * @param side Card side.
+     */
+    public record AcceptedDocument(DocumentType type, CardSide side) {
+    }
 }
@@ -22,6 +22,7 @@ import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificati
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
 import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
 import com.wultra.app.onboardingserver.errorhandling.*;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.statemachine.EnrollmentStateProvider;
 import com.wultra.app.onboardingserver.statemachine.consts.ExtendedStateVariable;
 import com.wultra.app.onboardingserver.statemachine.enums.OnboardingEvent;
@@ -51,9 +52,12 @@ public class CustomStateMachineInterceptor extends StateMachineInterceptorAdapte
 
     private final EnrollmentStateProvider enrollmentStateProvider;
 
+    private final OnboardingMetrics onboardingMetrics;
+
     @Autowired
-    public CustomStateMachineInterceptor(EnrollmentStateProvider enrollmentStateProvider) {
+    public CustomStateMachineInterceptor(EnrollmentStateProvider enrollmentStateProvider, OnboardingMetrics onboardingMetrics) {
         this.enrollmentStateProvider = enrollmentStateProvider;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     @Override
@@ -114,6 +118,9 @@ public class CustomStateMachineInterceptor extends StateMachineInterceptorAdapte
             return context;
         }
 
+        final OnboardingState sourceState = context.getSource() == null ? null : context.getSource().getId();
+        onboardingMetrics.recordStateTransition(sourceState, targetState);
+
         if (OnboardingState.UNEXPECTED_STATE == targetState) {
             logger.debug("Transition to unexpected state for {}", identityVerification);
             return context;
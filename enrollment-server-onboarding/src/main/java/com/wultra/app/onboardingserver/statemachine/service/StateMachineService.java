@@ -20,6 +20,7 @@ import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.IdentityVerificationException;
 import com.wultra.app.onboardingserver.impl.service.IdentityVerificationService;
+import com.wultra.app.onboardingserver.observation.SweepResult;
 import com.wultra.app.onboardingserver.statemachine.EnrollmentStateProvider;
 import com.wultra.app.onboardingserver.statemachine.consts.EventHeaderName;
 import com.wultra.app.onboardingserver.statemachine.consts.ExtendedStateVariable;
@@ -119,12 +120,16 @@ public class StateMachineService {
 
     /**
      * Change machine states in batch.
+     *
+     * @return Sweep result.
      */
     @Transactional(readOnly = true)
-    public void changeMachineStatesInBatch() {
+    public SweepResult changeMachineStatesInBatch() {
+        final AtomicInteger countFound = new AtomicInteger(0);
         final AtomicInteger countFinished = new AtomicInteger(0);
         try (Stream<IdentityVerificationEntity> stream = identityVerificationService.streamAllIdentityVerificationsToChangeState().parallel()) {
             stream.forEach(identityVerification -> {
+                countFound.incrementAndGet();
                 final String processId = identityVerification.getProcessId();
                 final OwnerId ownerId = new OwnerId();
                 ownerId.setActivationId(identityVerification.getActivationId());
@@ -145,6 +150,7 @@ public class StateMachineService {
         if (countFinished.get() > 0) {
             logger.debug("Changed state of {} identity verifications", countFinished.get());
         }
+        return new SweepResult(countFound.get(), countFinished.get());
     }
 
     private StateMachineEventResult<OnboardingState, OnboardingEvent> sendEventMessage(
@@ -18,6 +18,7 @@
 package com.wultra.app.onboardingserver.task;
 
 import com.wultra.app.onboardingserver.impl.service.document.DocumentProcessingBatchService;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -36,8 +37,11 @@ public class DocumentSubmitSyncTask {
 
     private final DocumentProcessingBatchService documentProcessingBatchService;
 
-    public DocumentSubmitSyncTask(DocumentProcessingBatchService documentProcessingBatchService) {
+    private final OnboardingMetrics onboardingMetrics;
+
+    public DocumentSubmitSyncTask(DocumentProcessingBatchService documentProcessingBatchService, OnboardingMetrics onboardingMetrics) {
         this.documentProcessingBatchService = documentProcessingBatchService;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
@@ -48,7 +52,7 @@ public class DocumentSubmitSyncTask {
     public void checkInProgressDocumentSubmits() {
         LockAssert.assertLocked();
         logger.debug("Task checkInProgressDocumentSubmits started");
-        documentProcessingBatchService.checkInProgressDocumentSubmits();
+        onboardingMetrics.recordSweep("check-in-progress-document-submits", documentProcessingBatchService::checkInProgressDocumentSubmits);
         logger.debug("Task checkInProgressDocumentSubmits finished");
     }
 
@@ -18,6 +18,7 @@
 package com.wultra.app.onboardingserver.task;
 
 import com.wultra.app.onboardingserver.impl.service.verification.VerificationProcessingBatchService;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -36,8 +37,11 @@ public class DocumentSubmitVerificationSyncTask {
 
     private final VerificationProcessingBatchService verificationProcessingBatchService;
 
-    public DocumentSubmitVerificationSyncTask(VerificationProcessingBatchService verificationProcessingBatchService) {
+    private final OnboardingMetrics onboardingMetrics;
+
+    public DocumentSubmitVerificationSyncTask(VerificationProcessingBatchService verificationProcessingBatchService, OnboardingMetrics onboardingMetrics) {
         this.verificationProcessingBatchService = verificationProcessingBatchService;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
@@ -48,7 +52,7 @@ public class DocumentSubmitVerificationSyncTask {
     public void checkDocumentSubmitVerifications() {
         LockAssert.assertLocked();
         logger.debug("Task checkDocumentSubmitVerifications started");
-        verificationProcessingBatchService.checkDocumentSubmitVerifications();
+        onboardingMetrics.recordSweep("check-document-submit-verifications", verificationProcessingBatchService::checkDocumentSubmitVerifications);
         logger.debug("Task checkDocumentSubmitVerifications finished");
     }
 
@@ -18,6 +18,7 @@
 package com.wultra.app.onboardingserver.task;
 
 import com.wultra.app.onboardingserver.impl.service.verification.VerificationProcessingBatchService;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -36,8 +37,11 @@ public class DocumentsVerificationSyncTask {
 
     private final VerificationProcessingBatchService verificationProcessingBatchService;
 
-    public DocumentsVerificationSyncTask(VerificationProcessingBatchService verificationProcessingBatchService) {
+    private final OnboardingMetrics onboardingMetrics;
+
+    public DocumentsVerificationSyncTask(VerificationProcessingBatchService verificationProcessingBatchService, OnboardingMetrics onboardingMetrics) {
         this.verificationProcessingBatchService = verificationProcessingBatchService;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
@@ -48,7 +52,7 @@ public class DocumentsVerificationSyncTask {
     public void checkDocumentVerifications() {
         LockAssert.assertLocked();
         logger.debug("Task checkDocumentVerifications started");
-        verificationProcessingBatchService.checkDocumentsVerifications();
+        onboardingMetrics.recordSweep("check-documents-verifications", verificationProcessingBatchService::checkDocumentsVerifications);
         logger.debug("Task checkDocumentVerifications finished");
     }
 
@@ -0,0 +1,59 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.task;
+
+import com.wultra.app.onboardingserver.common.outbox.OutboxRelay;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
+import com.wultra.app.onboardingserver.observation.SweepResult;
+import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockAssert;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task to deliver messages from the transactional outbox.
+ */
+@Component
+@Slf4j
+public class OutboxRelayTask {
+
+    private final OutboxRelay outboxRelay;
+
+    private final OnboardingMetrics onboardingMetrics;
+
+    public OutboxRelayTask(final OutboxRelay outboxRelay, final OnboardingMetrics onboardingMetrics) {
+        this.outboxRelay = outboxRelay;
+        this.onboardingMetrics = onboardingMetrics;
+    }
+
+    /**
+     * Scheduled task to deliver outbox messages.
+     */
+    @Scheduled(cron = "${enrollment-server-onboarding.outbox.relay.cron:0/5 * * * * *}", zone = "UTC")
+    @SchedulerLock(name = SchedulerLockNames.OUTBOX_RELAY_LOCK, lockAtMostFor = "5m")
+    public void relay() {
+        LockAssert.assertLocked();
+        logger.debug("Relaying outbox messages");
+        onboardingMetrics.recordSweep("relay-outbox", () -> {
+            final OutboxRelay.Result result = outboxRelay.relay();
+            return new SweepResult(result.found(), result.delivered());
+        });
+    }
+}
@@ -18,6 +18,7 @@
 package com.wultra.app.onboardingserver.task;
 
 import com.wultra.app.onboardingserver.statemachine.service.StateMachineService;
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -40,8 +41,11 @@ public class StateMachineTask {
 
     private final StateMachineService stateMachineService;
 
-    public StateMachineTask(final StateMachineService stateMachineService) {
+    private final OnboardingMetrics onboardingMetrics;
+
+    public StateMachineTask(final StateMachineService stateMachineService, final OnboardingMetrics onboardingMetrics) {
         this.stateMachineService = stateMachineService;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
@@ -52,6 +56,6 @@ public class StateMachineTask {
     public void changeMachineState() {
         LockAssert.assertLocked();
         logger.debug("Changing machine states in batch");
-        stateMachineService.changeMachineStatesInBatch();
+        onboardingMetrics.recordSweep("change-machine-states-in-batch", stateMachineService::changeMachineStatesInBatch);
     }
 }
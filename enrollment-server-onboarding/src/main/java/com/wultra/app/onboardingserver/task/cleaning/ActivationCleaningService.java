@@ -17,17 +17,22 @@
  */
 package com.wultra.app.onboardingserver.task.cleaning;
 
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
 import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.app.onboardingserver.common.service.AuditService;
 import com.wultra.app.onboardingserver.impl.service.ActivationService;
+import com.wultra.app.onboardingserver.observation.SweepResult;
 import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.*;
+import java.util.stream.Stream;
+
 /**
  * Service to cleaning activations.
  *
@@ -37,6 +42,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 class ActivationCleaningService {
 
+    private static final int BATCH_SIZE = 100;
+
     private final OnboardingProcessRepository onboardingProcessRepository;
 
     private final ActivationService activationService;
@@ -56,29 +63,67 @@ class ActivationCleaningService {
 
     /**
      * Cleanup activations of failed onboarding processes.
+     * Activation statuses of the processes are fetched in bulk by batches of {@value #BATCH_SIZE} processes.
+     * When the bulk fetch fails, the statuses of the batch are fetched one by one.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void cleanupActivations() {
-        onboardingProcessRepository.findAllToRemoveActivationWithLock()
-                .forEach(this::cleanupActivation);
+    public SweepResult cleanupActivations() {
+        int count = 0;
+        int processed = 0;
+        try (Stream<OnboardingProcessEntity> stream = onboardingProcessRepository.findAllToRemoveActivationWithLock()) {
+            final Iterator<OnboardingProcessEntity> iterator = stream.iterator();
+            final List<OnboardingProcessEntity> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    count += batch.size();
+                    processed += cleanupActivations(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return new SweepResult(count, processed);
     }
 
-    private void cleanupActivation(final OnboardingProcessEntity process) {
+    private int cleanupActivations(final List<OnboardingProcessEntity> processes) {
+        final Map<String, ActivationStatus> activationStatuses = fetchActivationStatuses(processes);
+        int processed = 0;
+        for (OnboardingProcessEntity process : processes) {
+            if (cleanupActivation(process, activationStatuses.get(process.getActivationId()))) {
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    private Map<String, ActivationStatus> fetchActivationStatuses(final List<OnboardingProcessEntity> processes) {
+        try {
+            return activationService.fetchActivationStatuses(processes.stream().map(ActivationCleaningService::toOwnerId).toList());
+        } catch (RemoteCommunicationException e) {
+            logger.warn("Unable to fetch activation statuses of {} processes, fetching them one by one", processes.size(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private boolean cleanupActivation(final OnboardingProcessEntity process, final ActivationStatus activationStatus) {
         final String activationId = process.getActivationId();
         logger.info("Removing activation ID: {} of process ID: {}", activationId, process.getId());
 
         try {
-            removeActivation(activationId);
+            removeActivation(activationId, activationStatus != null ? activationStatus : activationService.fetchActivationStatus(activationId));
             process.setActivationRemoved(true);
             onboardingProcessRepository.save(process);
             auditService.auditActivation(process, "Remove activation of failed process for user: {}", process.getUserId());
+            return true;
         } catch (RemoteCommunicationException e) {
             logger.error("Unable to remove activation ID: {}", activationId, e);
+            return false;
         }
     }
 
-    private void removeActivation(String activationId) throws RemoteCommunicationException {
-        final ActivationStatus activationStatus = activationService.fetchActivationStatus(activationId);
+    private void removeActivation(final String activationId, final ActivationStatus activationStatus) throws RemoteCommunicationException {
         if (activationStatus == ActivationStatus.REMOVED) {
             logger.debug("Activation ID: {} has been already removed", activationId);
             return;
@@ -87,4 +132,11 @@ class ActivationCleaningService {
         activationService.removeActivation(activationId);
     }
 
+    private static OwnerId toOwnerId(final OnboardingProcessEntity process) {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId(process.getActivationId());
+        ownerId.setUserId(process.getUserId());
+        return ownerId;
+    }
+
 }
@@ -21,17 +21,22 @@ import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
 import com.wultra.app.onboardingserver.common.database.*;
+import com.wultra.app.onboardingserver.common.database.entity.ErrorDetail;
 import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
+import com.wultra.app.onboardingserver.common.limit.LimitCounter;
 import com.wultra.app.onboardingserver.common.service.AuditService;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.configuration.OnboardingConfig;
+import com.wultra.app.onboardingserver.impl.service.document.DocumentUploadStore;
 import com.wultra.app.onboardingserver.impl.util.DateUtil;
+import com.wultra.app.onboardingserver.observation.SweepResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -64,12 +69,14 @@ class CleaningService {
 
     private final DocumentVerificationRepository documentVerificationRepository;
 
-    private final DocumentDataRepository documentDataRepository;
+    private final DocumentUploadStore documentUploadStore;
 
     private final OnboardingOtpRepository onboardingOtpRepository;
 
     private final AuditService auditService;
 
+    private final LimitCounter limitCounter;
+
     @Autowired
     public CleaningService(
             final OnboardingConfig onboardingConfig,
@@ -77,47 +84,57 @@ class CleaningService {
             final OnboardingProcessRepository onboardingProcessRepository,
             final IdentityVerificationRepository identityVerificationRepository,
             final DocumentVerificationRepository documentVerificationRepository,
-            final DocumentDataRepository documentDataRepository,
+            final DocumentUploadStore documentUploadStore,
             final OnboardingOtpRepository onboardingOtpRepository,
-            final AuditService auditService) {
+            final AuditService auditService,
+            final LimitCounter limitCounter) {
 
         this.onboardingConfig = onboardingConfig;
         this.identityVerificationConfig = identityVerificationConfig;
         this.onboardingProcessRepository = onboardingProcessRepository;
         this.identityVerificationRepository = identityVerificationRepository;
         this.documentVerificationRepository = documentVerificationRepository;
-        this.documentDataRepository = documentDataRepository;
+        this.documentUploadStore = documentUploadStore;
         this.onboardingOtpRepository = onboardingOtpRepository;
         this.auditService = auditService;
+        this.limitCounter = limitCounter;
     }
 
     /**
      * Terminate processes with expired activation.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredProcessActivations() {
+    public SweepResult terminateExpiredProcessActivations() {
         final Duration activationExpiration = onboardingConfig.getActivationExpirationTime();
         final Date createdDateExpiredActivations = DateUtil.convertExpirationToCreatedDate(activationExpiration);
         final List<String> ids = onboardingProcessRepository.findByTimestampAndStatusWithLock(createdDateExpiredActivations, OnboardingStatus.ACTIVATION_IN_PROGRESS);
         terminateProcessesAndRelatedEntities(ids, OnboardingProcessEntity.ERROR_PROCESS_EXPIRED_ACTIVATION);
+        return SweepResult.of(ids.size());
     }
 
     /**
      * Terminate expired processes with expired verification.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredProcessVerifications() {
+    public SweepResult terminateExpiredProcessVerifications() {
         final Duration verificationExpiration = identityVerificationConfig.getVerificationExpirationTime();
         final Date createdDateExpiredVerifications = DateUtil.convertExpirationToCreatedDate(verificationExpiration);
         final List<String> ids = onboardingProcessRepository.findByTimestampAndStatusWithLock(createdDateExpiredVerifications, OnboardingStatus.VERIFICATION_IN_PROGRESS);
         terminateProcessesAndRelatedEntities(ids, OnboardingProcessEntity.ERROR_PROCESS_EXPIRED_IDENTITY_VERIFICATION);
+        return SweepResult.of(ids.size());
     }
 
     /**
      * Terminate expired OTP codes.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredOtpCodes() {
+    public SweepResult terminateExpiredOtpCodes() {
         final Duration otpExpiration = onboardingConfig.getOtpExpirationTime();
         final Date createdDateExpiredOtp = DateUtil.convertExpirationToCreatedDate(otpExpiration);
         final List<String> otpIds = onboardingOtpRepository.findExpiredIds(createdDateExpiredOtp);
@@ -125,45 +142,61 @@ class CleaningService {
         for (List<String> otpIdChunk : ListUtils.partition(otpIds, BATCH_SIZE)) {
             terminateAndAuditOtps(otpIdChunk, now);
         }
+        return SweepResult.of(otpIds.size());
     }
 
     /**
      * Terminate expired processes.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredProcesses() {
+    public SweepResult terminateExpiredProcesses() {
         final Date now = new Date();
         final Duration processExpiration = onboardingConfig.getProcessExpirationTime();
         final Date createdDateExpiredProcesses = DateUtil.convertExpirationToCreatedDate(processExpiration);
         final List<String> ids = onboardingProcessRepository.findActiveByTimestampWithLock(createdDateExpiredProcesses);
         if (ids.isEmpty()) {
             logger.debug("No expired process to terminate");
-            return;
+            return SweepResult.EMPTY;
         }
         logger.info("Terminating {} expired processes", ids.size());
         for (List<String> idsChunk : ListUtils.partition(ids, BATCH_SIZE)) {
             terminateAndAuditProcesses(idsChunk, now, OnboardingProcessEntity.ERROR_PROCESS_EXPIRED_ONBOARDING, ErrorOrigin.PROCESS_LIMIT_CHECK);
         }
+        return SweepResult.of(ids.size());
     }
 
     /**
-     * Cleanup of large documents older than retention time.
+     * Cleanup of large documents older than upload time to live.
+     *
+     * @return Sweep result.
      */
-    @Transactional
-    public void cleanupLargeDocuments() {
-        documentDataRepository.cleanupDocumentData(getDataRetentionTime());
+    public SweepResult cleanupLargeDocuments() {
+        return documentUploadStore.expire();
+    }
+
+    /**
+     * Cleanup limit counters without any event within their window.
+     *
+     * @return Sweep result.
+     */
+    public SweepResult cleanupExpiredLimitCounters() {
+        return SweepResult.of(limitCounter.cleanup(Instant.now()));
     }
 
     /**
      * Terminate expired document verifications.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredDocumentVerifications() {
+    public SweepResult terminateExpiredDocumentVerifications() {
         final List<String> ids = documentVerificationRepository
                 .findExpiredVerifications(getVerificationExpirationTime(), DocumentStatus.ALL_NOT_FINISHED);
         if (ids.isEmpty()) {
             logger.debug("No expired document verification to terminate");
-            return;
+            return SweepResult.EMPTY;
         }
 
         final Date now = new Date();
@@ -171,17 +204,45 @@ class CleaningService {
             logger.info("Terminating {} expired document verifications", idsChunk.size());
             terminateAndAuditDocuments(idsChunk, now, ERROR_MESSAGE_DOCUMENT_VERIFICATION_EXPIRED, ErrorOrigin.PROCESS_LIMIT_CHECK);
         }
+        return SweepResult.of(ids.size());
+    }
+
+    /**
+     * Fail document verifications whose submission to the provider was interrupted, e.g. by a restart of the node.
+     *
+     * @return Sweep result.
+     */
+    @Transactional
+    public SweepResult failInterruptedDocumentSubmits() {
+        final Date createdBefore = DateUtil.convertExpirationToCreatedDate(identityVerificationConfig.getDocumentSubmitTimeout());
+        final List<String> ids = documentVerificationRepository.findInterruptedSubmits(createdBefore);
+        if (ids.isEmpty()) {
+            logger.debug("No interrupted document submit to fail");
+            return SweepResult.EMPTY;
+        }
+
+        final Date now = new Date();
+        for (List<String> idsChunk : ListUtils.partition(ids, BATCH_SIZE)) {
+            logger.info("Failing {} interrupted document submits", idsChunk.size());
+            documentVerificationRepository.terminate(idsChunk, now, ErrorDetail.DOCUMENT_VERIFICATION_FAILED, ErrorOrigin.DOCUMENT_VERIFICATION);
+            idsChunk.forEach(documentId ->
+                    documentVerificationRepository.findById(documentId).ifPresent(document ->
+                            auditService.audit(document, "Interrupted document submit for user: {}", document.getIdentityVerification().getUserId())));
+        }
+        return SweepResult.of(ids.size());
     }
 
     /**
      * Terminate expired identity verifications.
+     *
+     * @return Sweep result.
      */
     @Transactional
-    public void terminateExpiredIdentityVerifications() {
+    public SweepResult terminateExpiredIdentityVerifications() {
         final List<String> ids = identityVerificationRepository.findNotCompletedIdentityVerifications(getVerificationExpirationTime());
         if (ids.isEmpty()) {
             logger.debug("No expired identity verification to terminate");
-            return;
+            return SweepResult.EMPTY;
         }
         final Date now = new Date();
         final ErrorOrigin errorOrigin = ErrorOrigin.PROCESS_LIMIT_CHECK;
@@ -190,10 +251,7 @@ class CleaningService {
             logger.info("Terminating {} expired identity verifications", idsChunk.size());
             terminateAndAuditIdentityVerifications(idsChunk, now, OnboardingProcessEntity.ERROR_PROCESS_EXPIRED_ONBOARDING, errorOrigin);
         }
-    }
-
-    private Date getDataRetentionTime() {
-        return DateUtil.convertExpirationToCreatedDate(identityVerificationConfig.getDataRetentionTime());
+        return SweepResult.of(ids.size());
     }
 
     private Date getVerificationExpirationTime() {
@@ -17,6 +17,7 @@
  */
 package com.wultra.app.onboardingserver.task.cleaning;
 
+import com.wultra.app.onboardingserver.observation.OnboardingMetrics;
 import com.wultra.app.onboardingserver.task.consts.SchedulerLockNames;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -38,10 +39,13 @@ public class CleaningTask {
 
     private final ActivationCleaningService activationCleaningService;
 
+    private final OnboardingMetrics onboardingMetrics;
+
     @Autowired
-    public CleaningTask(final CleaningService cleaningService, final ActivationCleaningService activationCleaningService) {
+    public CleaningTask(final CleaningService cleaningService, final ActivationCleaningService activationCleaningService, final OnboardingMetrics onboardingMetrics) {
         this.cleaningService = cleaningService;
         this.activationCleaningService = activationCleaningService;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
@@ -52,7 +56,7 @@ public class CleaningTask {
     public void terminateExpiredProcessActivations() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredProcessActivations");
-        cleaningService.terminateExpiredProcessActivations();
+        onboardingMetrics.recordSweep("terminate-expired-process-activations", cleaningService::terminateExpiredProcessActivations);
     }
 
     /**
@@ -63,7 +67,7 @@ public class CleaningTask {
     public void terminateProcessesWithVerificationsInProgress() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredProcessVerifications");
-        cleaningService.terminateExpiredProcessVerifications();
+        onboardingMetrics.recordSweep("terminate-expired-process-verifications", cleaningService::terminateExpiredProcessVerifications);
     }
 
     /**
@@ -74,7 +78,7 @@ public class CleaningTask {
     public void terminateExpiredOtpCodes() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredOtpCodes");
-        cleaningService.terminateExpiredOtpCodes();
+        onboardingMetrics.recordSweep("terminate-expired-otp-codes", cleaningService::terminateExpiredOtpCodes);
     }
 
     /**
@@ -85,7 +89,7 @@ public class CleaningTask {
     public void terminateExpiredProcesses() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredProcesses");
-        cleaningService.terminateExpiredProcesses();
+        onboardingMetrics.recordSweep("terminate-expired-processes", cleaningService::terminateExpiredProcesses);
     }
 
     /**
@@ -96,7 +100,7 @@ public class CleaningTask {
     public void cleanupLargeDocuments() {
         LockAssert.assertLocked();
         logger.debug("cleanupLargeDocuments");
-        cleaningService.cleanupLargeDocuments();
+        onboardingMetrics.recordSweep("cleanup-large-documents", cleaningService::cleanupLargeDocuments);
     }
 
     @Scheduled(fixedDelayString = "PT10M", initialDelayString = "PT20S")
@@ -104,7 +108,18 @@ public class CleaningTask {
     public void terminateExpiredDocumentVerifications() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredDocumentVerifications");
-        cleaningService.terminateExpiredDocumentVerifications();
+        onboardingMetrics.recordSweep("terminate-expired-document-verifications", cleaningService::terminateExpiredDocumentVerifications);
+    }
+
+    /**
+     * Fail document verifications with interrupted submission.
+     */
+    @Scheduled(fixedDelayString = "PT60S", initialDelayString = "PT40S")
+    @SchedulerLock(name = SchedulerLockNames.INTERRUPTED_DOCUMENT_SUBMIT_LOCK, lockAtMostFor = "5m")
+    public void failInterruptedDocumentSubmits() {
+        LockAssert.assertLocked();
+        logger.debug("failInterruptedDocumentSubmits");
+        onboardingMetrics.recordSweep("fail-interrupted-document-submits", cleaningService::failInterruptedDocumentSubmits);
     }
 
     @Scheduled(fixedDelayString = "PT10M", initialDelayString = "PT25S")
@@ -112,7 +127,18 @@ public class CleaningTask {
     public void terminateExpiredIdentityVerifications() {
         LockAssert.assertLocked();
         logger.debug("terminateExpiredIdentityVerifications");
-        cleaningService.terminateExpiredIdentityVerifications();
+        onboardingMetrics.recordSweep("terminate-expired-identity-verifications", cleaningService::terminateExpiredIdentityVerifications);
+    }
+
+    /**
+     * Cleanup expired limit counters.
+     */
+    @Scheduled(fixedDelayString = "PT10M", initialDelayString = "PT35S")
+    @SchedulerLock(name = SchedulerLockNames.LIMIT_COUNTER_LOCK, lockAtMostFor = "5m")
+    public void cleanupExpiredLimitCounters() {
+        LockAssert.assertLocked();
+        logger.debug("cleanupExpiredLimitCounters");
+        onboardingMetrics.recordSweep("cleanup-expired-limit-counters", cleaningService::cleanupExpiredLimitCounters);
     }
 
     /**
@@ -123,6 +149,6 @@ public class CleaningTask {
     public void cleanupActivations() {
         LockAssert.assertLocked();
         logger.debug("cleanupActivations");
-        activationCleaningService.cleanupActivations();
+        onboardingMetrics.recordSweep("cleanup-activations", activationCleaningService::cleanupActivations);
     }
 }
@@ -46,4 +46,10 @@ public final class SchedulerLockNames {
 
     public static final String CLEANUP_ACTIVATIONS_LOCK = "cleanupActivationsLock";
 
+    public static final String LIMIT_COUNTER_LOCK = "limitCounterLock";
+
+    public static final String INTERRUPTED_DOCUMENT_SUBMIT_LOCK = "interruptedDocumentSubmitLock";
+
+    public static final String OUTBOX_RELAY_LOCK = "outboxRelayLock";
+
 }
@@ -0,0 +1,110 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for {@link ConflictRetryInterceptor}.
+ */
+class ConflictRetryInterceptorTest {
+
+    @Test
+    void testRetry_succeedsAfterConflict() {
+        final Service target = new Service(2);
+        final Service proxy = proxy(target, 3);
+
+        assertEquals("ok", proxy.update());
+        assertEquals(3, target.invocations.get());
+    }
+
+    @Test
+    void testRetry_givesUpAfterMaxAttempts() {
+        final Service target = new Service(5);
+        final Service proxy = proxy(target, 3);
+
+        assertThrows(OptimisticLockingFailureException.class, proxy::update);
+        assertEquals(3, target.invocations.get());
+    }
+
+    @Test
+    void testRetry_notAnnotated() {
+        final Service target = new Service(1);
+        final Service proxy = proxy(target, 3);
+
+        assertThrows(OptimisticLockingFailureException.class, proxy::read);
+        assertEquals(1, target.invocations.get());
+    }
+
+    @Test
+    void testRetry_skippedInActiveTransaction() {
+        final Service target = new Service(1);
+        final Service proxy = proxy(target, 3);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, proxy::update);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, target.invocations.get());
+    }
+
+    private static Service proxy(final Service target, final int maxAttempts) {
+        final ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+                new ConflictRetryInterceptor(maxAttempts, Duration.ofMillis(1))));
+        return (Service) proxyFactory.getProxy();
+    }
+
+    static class Service {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private final int conflicts;
+
+        Service(final int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        @RetryOnConflict
+        public String update() {
+            return read();
+        }
+
+        public String read() {
+            if (invocations.incrementAndGet() <= conflicts) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionExecution;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link ReadReplicaRoutingDataSource}.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private final DataSource replicaDataSource = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+
+    private final ReadAfterWriteGuard readAfterWriteGuard = new ReadAfterWriteGuard(Duration.ofMinutes(1));
+
+    @Test
+    void testRouting_replica() {
+        final ReadReplicaRoutingDataSource tested = createTested(new ReplicaLagMonitor(replicaDataSource, new ReadReplicaConfigProperties()));
+
+        assertEquals(ReadReplicaRoutingDataSource.Route.REPLICA, tested.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRouting_afterWrite() {
+        final ReadReplicaRoutingDataSource tested = createTested(new ReplicaLagMonitor(replicaDataSource, new ReadReplicaConfigProperties()));
+
+        readAfterWriteGuard.afterCommit(transaction(true), null);
+        assertEquals(ReadReplicaRoutingDataSource.Route.REPLICA, tested.determineCurrentLookupKey());
+
+        readAfterWriteGuard.afterCommit(transaction(false), null);
+        assertEquals(ReadReplicaRoutingDataSource.Route.PRIMARY, tested.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRouting_lag() {
+        final ReadReplicaConfigProperties properties = new ReadReplicaConfigProperties();
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagQuery("SELECT 10");
+        final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicaDataSource, properties);
+        final ReadReplicaRoutingDataSource tested = createTested(lagMonitor);
+
+        // not checked yet
+        assertEquals(ReadReplicaRoutingDataSource.Route.PRIMARY, tested.determineCurrentLookupKey());
+
+        lagMonitor.checkLag();
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(ReadReplicaRoutingDataSource.Route.PRIMARY, tested.determineCurrentLookupKey());
+
+        properties.setLagQuery("SELECT 0.5");
+        final ReplicaLagMonitor lagMonitor2 = new ReplicaLagMonitor(replicaDataSource, properties);
+        lagMonitor2.checkLag();
+        assertTrue(lagMonitor2.isReplicaUsable());
+        assertEquals(ReadReplicaRoutingDataSource.Route.REPLICA, createTested(lagMonitor2).determineCurrentLookupKey());
+    }
+
+    @Test
+    void testLagCheckFailure() {
+        final ReadReplicaConfigProperties properties = new ReadReplicaConfigProperties();
+        properties.setLagQuery("SELECT lag FROM not_existing_table");
+        final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicaDataSource, properties);
+
+        lagMonitor.checkLag();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    private ReadReplicaRoutingDataSource createTested(final ReplicaLagMonitor lagMonitor) {
+        return new ReadReplicaRoutingDataSource(mock(DataSource.class), replicaDataSource, lagMonitor, readAfterWriteGuard);
+    }
+
+    private static TransactionExecution transaction(final boolean readOnly) {
+        final TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.isNewTransaction()).thenReturn(true);
+        when(transaction.isReadOnly()).thenReturn(readOnly);
+        return transaction;
+    }
+}
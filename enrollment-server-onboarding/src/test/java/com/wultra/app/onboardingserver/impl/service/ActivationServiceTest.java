@@ -0,0 +1,142 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service;
+
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.configuration.OnboardingConfig;
+import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.entity.Activation;
+import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
+import com.wultra.security.powerauth.client.model.request.GetActivationStatusRequest;
+import com.wultra.security.powerauth.client.model.response.GetActivationStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link ActivationService}.
+ */
+class ActivationServiceTest {
+
+    private final PowerAuthClient powerAuthClient = mock(PowerAuthClient.class);
+
+    private ActivationService tested;
+
+    @BeforeEach
+    void setUp() {
+        final OnboardingConfig config = new OnboardingConfig();
+        config.setActivationStatusCacheTtl(Duration.ofMinutes(1));
+        config.setActivationStatusCacheMaxEntries(100);
+        tested = new ActivationService(powerAuthClient, new ActivationStatusCache(config));
+    }
+
+    @Test
+    void testFetchActivationStatus_cached() throws Exception {
+        when(powerAuthClient.getActivationStatus(any(GetActivationStatusRequest.class)))
+                .thenReturn(createStatusResponse(ActivationStatus.ACTIVE));
+
+        assertEquals(ActivationStatus.ACTIVE, tested.fetchActivationStatus("a1"));
+        assertEquals(ActivationStatus.ACTIVE, tested.fetchActivationStatus("a1"));
+
+        verify(powerAuthClient, times(1)).getActivationStatus(any(GetActivationStatusRequest.class));
+    }
+
+    @Test
+    void testFetchActivationStatus_invalidatedByRemove() throws Exception {
+        when(powerAuthClient.getActivationStatus(any(GetActivationStatusRequest.class)))
+                .thenReturn(createStatusResponse(ActivationStatus.ACTIVE))
+                .thenReturn(createStatusResponse(ActivationStatus.REMOVED));
+
+        assertEquals(ActivationStatus.ACTIVE, tested.fetchActivationStatus("a1"));
+        tested.removeActivation("a1");
+        assertEquals(ActivationStatus.REMOVED, tested.fetchActivationStatus("a1"));
+    }
+
+    @Test
+    void testFetchCurrentActivationStatus_bypassesCache() throws Exception {
+        when(powerAuthClient.getActivationStatus(any(GetActivationStatusRequest.class)))
+                .thenReturn(createStatusResponse(ActivationStatus.ACTIVE))
+                .thenReturn(createStatusResponse(ActivationStatus.BLOCKED));
+
+        assertEquals(ActivationStatus.ACTIVE, tested.fetchActivationStatus("a1"));
+        assertEquals(ActivationStatus.BLOCKED, tested.fetchCurrentActivationStatus("a1"));
+        assertEquals(ActivationStatus.BLOCKED, tested.fetchActivationStatus("a1"));
+
+        verify(powerAuthClient, times(2)).getActivationStatus(any(GetActivationStatusRequest.class));
+    }
+
+    @Test
+    void testFetchActivationStatuses() throws Exception {
+        when(powerAuthClient.getActivationStatus(any(GetActivationStatusRequest.class)))
+                .thenReturn(createStatusResponse(ActivationStatus.BLOCKED));
+        tested.fetchActivationStatus("a1");
+
+        when(powerAuthClient.lookupActivations(List.of("u2", "u3"), null, null, null, null, null))
+                .thenReturn(List.of(
+                        createActivation("a2", ActivationStatus.ACTIVE),
+                        createActivation("a-other", ActivationStatus.ACTIVE)));
+        when(powerAuthClient.getActivationStatus(argThat((GetActivationStatusRequest it) -> "a3".equals(it.getActivationId()))))
+                .thenReturn(createStatusResponse(ActivationStatus.REMOVED));
+
+        final Map<String, ActivationStatus> result = tested.fetchActivationStatuses(List.of(
+                createOwnerId("a1", "u1"),
+                createOwnerId("a2", "u2"),
+                createOwnerId("a3", "u3")));
+
+        assertEquals(Map.of(
+                "a1", ActivationStatus.BLOCKED,
+                "a2", ActivationStatus.ACTIVE,
+                "a3", ActivationStatus.REMOVED), result);
+
+        // the second sweep is served from the cache
+        assertEquals(result, tested.fetchActivationStatuses(List.of(
+                createOwnerId("a1", "u1"),
+                createOwnerId("a2", "u2"),
+                createOwnerId("a3", "u3"))));
+        verify(powerAuthClient, times(1)).lookupActivations(any(), any(), any(), any(), any(), any());
+        verify(powerAuthClient, times(2)).getActivationStatus(any(GetActivationStatusRequest.class));
+    }
+
+    private static GetActivationStatusResponse createStatusResponse(final ActivationStatus activationStatus) {
+        final GetActivationStatusResponse response = new GetActivationStatusResponse();
+        response.setActivationStatus(activationStatus);
+        return response;
+    }
+
+    private static Activation createActivation(final String activationId, final ActivationStatus activationStatus) {
+        final Activation activation = new Activation();
+        activation.setActivationId(activationId);
+        activation.setActivationStatus(activationStatus);
+        return activation;
+    }
+
+    private static OwnerId createOwnerId(final String activationId, final String userId) {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId(activationId);
+        ownerId.setUserId(userId);
+        return ownerId;
+    }
+}
@@ -36,6 +36,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -43,9 +44,11 @@ import java.util.UUID;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.CLIENT_EVALUATION;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.ACCEPTED;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.FAILED;
+import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.IN_PROGRESS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * Test for {@link ClientEvaluationService}.
@@ -163,6 +166,70 @@ class ClientEvaluationServiceTest {
         assertEquals(ErrorOrigin.PROCESS_LIMIT_CHECK, identityVerification.getErrorOrigin());
     }
 
+    @Test
+    void testProcessClientEvaluation_retryScheduled() throws Exception {
+        when(identityVerificationConfig.getClientEvaluationMaxFailedAttempts())
+                .thenReturn(3);
+        when(identityVerificationConfig.getClientEvaluationInitialBackoff())
+                .thenReturn(Duration.ofSeconds(10));
+        when(identityVerificationConfig.getClientEvaluationMaxBackoff())
+                .thenReturn(Duration.ofMinutes(5));
+
+        final EvaluateClientRequest evaluateClientRequest = EvaluateClientRequest.builder()
+                .processId("p1")
+                .userId("u1")
+                .identityVerificationId("i1")
+                .verificationId("v1")
+                .build();
+        when(onboardingProvider.evaluateClient(evaluateClientRequest))
+                .thenThrow(new OnboardingProviderException());
+
+        final IdentityVerificationEntity identityVerification = new IdentityVerificationEntity();
+        identityVerification.setId("i1");
+        identityVerification.setProcessId("p1");
+        identityVerification.setUserId("u1");
+        identityVerification.setPhase(CLIENT_EVALUATION);
+        identityVerification.setStatus(IN_PROGRESS);
+        identityVerification.setClientEvaluationAttempts(1);
+        identityVerification.setDocumentVerifications(Set.of(
+                createDocumentVerification("d1", DocumentStatus.ACCEPTED, "v1")));
+
+        final OwnerId ownerId = new OwnerId();
+
+        tested.processClientEvaluation(identityVerification, ownerId);
+
+        verify(identityVerificationService).updateIdentityVerification(identityVerification);
+        verify(identityVerificationService, never()).moveToPhaseAndStatus(any(), any(), any(), any());
+
+        assertEquals(2, identityVerification.getClientEvaluationAttempts());
+        assertEquals(IN_PROGRESS, identityVerification.getStatus());
+        final long delay = identityVerification.getTimestampNextAttempt().getTime() - ownerId.getTimestamp().getTime();
+        assertTrue(delay >= 10_000 && delay <= 20_000, "Unexpected backoff: " + delay);
+    }
+
+    @Test
+    void testProcessClientEvaluation_attemptsExhausted() {
+        when(identityVerificationConfig.getClientEvaluationMaxFailedAttempts())
+                .thenReturn(3);
+
+        final IdentityVerificationEntity identityVerification = new IdentityVerificationEntity();
+        identityVerification.setId("i1");
+        identityVerification.setProcessId("p1");
+        identityVerification.setUserId("u1");
+        identityVerification.setPhase(CLIENT_EVALUATION);
+        identityVerification.setClientEvaluationAttempts(3);
+        identityVerification.setDocumentVerifications(Set.of(
+                createDocumentVerification("d1", DocumentStatus.ACCEPTED, "v1")));
+
+        final OwnerId ownerId = new OwnerId();
+
+        tested.processClientEvaluation(identityVerification, ownerId);
+
+        verifyNoInteractions(onboardingProvider);
+        verify(identityVerificationService).moveToPhaseAndStatus(identityVerification, CLIENT_EVALUATION, FAILED, ownerId);
+        assertEquals("maxFailedAttemptsClientEvaluation", identityVerification.getErrorDetail());
+    }
+
     private static DocumentVerificationEntity createDocumentVerification(final String id, final DocumentStatus status, final String verificationId) {
         final DocumentVerificationEntity documentVerification = new DocumentVerificationEntity();
         documentVerification.setId(id);
@@ -18,29 +18,30 @@
 package com.wultra.app.onboardingserver.impl.service;
 
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase;
+import com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus;
 import com.wultra.app.enrollmentserver.model.enumeration.OtpStatus;
-import com.wultra.app.enrollmentserver.model.enumeration.OtpType;
-import com.wultra.app.onboardingserver.common.database.DocumentVerificationRepository;
-import com.wultra.app.onboardingserver.common.database.OnboardingOtpRepository;
-import com.wultra.app.onboardingserver.common.database.ScaResultRepository;
-import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
+import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
+import com.wultra.app.onboardingserver.common.database.PrecompleteProjection;
 import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
-import com.wultra.app.onboardingserver.common.database.entity.OnboardingOtpEntity;
 import com.wultra.app.onboardingserver.common.database.entity.ScaResultEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
 import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
 import com.wultra.app.onboardingserver.statemachine.guard.document.RequiredDocumentTypesCheck;
 import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
 
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.*;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.*;
+import static com.wultra.app.onboardingserver.impl.service.IdentityVerificationPrecompleteCheck.Reason;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
@@ -60,111 +61,88 @@ class IdentityVerificationPrecompleteCheckTest {
     private IdentityVerificationConfig identityVerificationConfig;
 
     @Mock
-    private OnboardingOtpRepository onboardingOtpRepository;
-
-    @Mock
-    private DocumentVerificationRepository documentVerificationRepository;
+    private IdentityVerificationRepository identityVerificationRepository;
 
     @Mock
     private ActivationService activationService;
 
-    @Mock
-    private ScaResultRepository scaResultRepository;
-
-    @InjectMocks
     private IdentityVerificationPrecompleteCheck tested;
 
+    @BeforeEach
+    void setUp() {
+        when(identityVerificationConfig.getPrecompleteActivationStatusTimeout())
+                .thenReturn(Duration.ofSeconds(5));
+        tested = new IdentityVerificationPrecompleteCheck(identityVerificationConfig, requiredDocumentTypesCheck,
+                identityVerificationRepository, activationService, Runnable::run);
+    }
+
     @Test
     void testProcessDocumentVerificationResult_valid() throws Exception {
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setActivationId("activation-1");
-        idVerification.setPhase(OTP_VERIFICATION);
-        idVerification.setStatus(VERIFICATION_PENDING);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
 
-        final ScaResultEntity scaResult = new ScaResultEntity();
-        scaResult.setScaResult(ScaResultEntity.Result.SUCCESS);
-
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
         when(identityVerificationConfig.isVerificationOtpEnabled())
                 .thenReturn(true);
-
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.USER_VERIFICATION))
-                .thenReturn(Optional.of(createOtp()));
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createOtp()));
-        when(activationService.fetchActivationStatus("activation-1"))
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
                 .thenReturn(ActivationStatus.ACTIVE);
-        when(scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(idVerification))
-                .thenReturn(Optional.of(scaResult));
 
         final var result = tested.evaluate(idVerification);
 
         assertTrue(result.isSuccessful());
+        assertEquals(List.of(), result.getReasons());
     }
 
     @Test
     void testProcessDocumentVerificationResult_invalidVerificationOtp() throws Exception {
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
+
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
         when(identityVerificationConfig.isVerificationOtpEnabled())
                 .thenReturn(true);
-
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.USER_VERIFICATION))
-                .thenReturn(Optional.of(createFailedOtp()));
-
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setPhase(OTP_VERIFICATION);
-        idVerification.setStatus(VERIFICATION_PENDING);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, OtpStatus.FAILED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.ACTIVE);
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
         assertEquals("Not valid user verification OTP", result.getErrorDetail());
+        assertEquals(List.of(Reason.USER_VERIFICATION_OTP_NOT_VALID), result.getReasons());
     }
 
     @Test
     void testProcessDocumentVerificationResult_invalidActivationOtp() throws Exception {
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
-                .thenReturn(true);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
 
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createFailedOtp()));
-
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setActivationId("activation-1");
-        idVerification.setPhase(OTP_VERIFICATION);
-        idVerification.setStatus(VERIFICATION_PENDING);
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.FAILED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.ACTIVE);
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
         assertEquals("Not valid activation OTP", result.getErrorDetail());
+        assertEquals(List.of(Reason.ACTIVATION_OTP_NOT_VALID), result.getReasons());
     }
 
     @Test
     void testProcessDocumentVerificationResult_validStateWithoutOtp() throws Exception {
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setPhase(PRESENCE_CHECK);
-        idVerification.setStatus(ACCEPTED);
-        idVerification.setActivationId("activation-1");
-
-        final ScaResultEntity scaResult = new ScaResultEntity();
-        scaResult.setScaResult(ScaResultEntity.Result.SUCCESS);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(PRESENCE_CHECK, ACCEPTED);
 
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
-        when(activationService.fetchActivationStatus("activation-1"))
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
                 .thenReturn(ActivationStatus.ACTIVE);
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createOtp()));
-
-        when(scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(idVerification))
-                .thenReturn(Optional.of(scaResult));
 
         final var result = tested.evaluate(idVerification);
 
@@ -173,23 +151,14 @@ class IdentityVerificationPrecompleteCheckTest {
 
     @Test
     void testProcessDocumentVerificationResult_validStateWithoutOtpAndPresenceCheck() throws Exception {
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setActivationId("activation-1");
-        idVerification.setPhase(CLIENT_EVALUATION);
-        idVerification.setStatus(ACCEPTED);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(CLIENT_EVALUATION, ACCEPTED);
 
-        final ScaResultEntity scaResult = new ScaResultEntity();
-        scaResult.setScaResult(ScaResultEntity.Result.SUCCESS);
-
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
-        when(activationService.fetchActivationStatus("activation-1"))
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
                 .thenReturn(ActivationStatus.ACTIVE);
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createOtp()));
-        when(scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(idVerification))
-                .thenReturn(Optional.of(scaResult));
 
         final var result = tested.evaluate(idVerification);
 
@@ -198,68 +167,89 @@ class IdentityVerificationPrecompleteCheckTest {
 
     @Test
     void testProcessDocumentVerificationResult_invalidActivation() throws Exception {
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        final IdentityVerificationEntity idVerification = createIdentityVerification(CLIENT_EVALUATION, ACCEPTED);
+
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
-        when(activationService.fetchActivationStatus("activation-1"))
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
                 .thenReturn(ActivationStatus.REMOVED);
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createOtp()));
-
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setActivationId("activation-1");
-        idVerification.setPhase(CLIENT_EVALUATION);
-        idVerification.setStatus(ACCEPTED);
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
         assertEquals("Activation is not valid", result.getErrorDetail());
+        assertEquals(List.of(Reason.ACTIVATION_NOT_VALID), result.getReasons());
     }
 
     @Test
-    void testProcessDocumentVerificationResult_failedDocument() throws Exception {
-        final DocumentVerificationEntity documentVerification = new DocumentVerificationEntity();
-        documentVerification.setStatus(DocumentStatus.FAILED);
+    void testProcessDocumentVerificationResult_activationStatusFailed() throws Exception {
+        final IdentityVerificationEntity idVerification = createIdentityVerification(CLIENT_EVALUATION, ACCEPTED);
 
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenThrow(new RemoteCommunicationException("unavailable"));
+
+        final RemoteCommunicationException exception = assertThrows(RemoteCommunicationException.class, () -> tested.evaluate(idVerification));
+        assertEquals("unavailable", exception.getMessage());
+    }
 
-        when(documentVerificationRepository.findAllDocumentVerifications(idVerification, DocumentStatus.ALL_PROCESSED))
-                .thenReturn(List.of(documentVerification));
+    @Test
+    void testProcessDocumentVerificationResult_failedDocument() throws Exception {
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
+
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(true);
+        when(identityVerificationConfig.isVerificationOtpEnabled())
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(
+                        createProjection(DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS),
+                        createProjection(DocumentStatus.FAILED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.ACTIVE);
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
         assertEquals("Some documents not accepted", result.getErrorDetail());
+        assertEquals(List.of(Reason.DOCUMENTS_NOT_ACCEPTED), result.getReasons());
     }
 
     @Test
     void testProcessDocumentVerificationResult_missingRequiredDocuments() throws Exception {
-        final DocumentVerificationEntity documentVerification = new DocumentVerificationEntity();
-        documentVerification.setStatus(DocumentStatus.ACCEPTED);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
 
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-
-        when(documentVerificationRepository.findAllDocumentVerifications(idVerification, DocumentStatus.ALL_PROCESSED))
-                .thenReturn(List.of(documentVerification));
-
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(false);
+        when(identityVerificationConfig.isVerificationOtpEnabled())
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(new PrecompleteProjection(null, null, null, null, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.ACTIVE);
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
         assertEquals("Required documents not present", result.getErrorDetail());
+        assertEquals(List.of(Reason.REQUIRED_DOCUMENTS_NOT_PRESENT), result.getReasons());
     }
 
     @Test
     void testProcessDocumentVerificationResult_invalidStatus() throws Exception {
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
-                .thenReturn(true);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(CLIENT_EVALUATION, IN_PROGRESS);
 
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setPhase(CLIENT_EVALUATION);
-        idVerification.setStatus(IN_PROGRESS);
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, null, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.ACTIVE);
 
         final var result = tested.evaluate(idVerification);
 
@@ -269,43 +259,75 @@ class IdentityVerificationPrecompleteCheckTest {
 
     @Test
     void testProcessDocumentVerificationResult_invalidSca() throws Exception {
-        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
-        idVerification.setProcessId("process-1");
-        idVerification.setActivationId("activation-1");
-        idVerification.setPhase(OTP_VERIFICATION);
-        idVerification.setStatus(VERIFICATION_PENDING);
-
-        final ScaResultEntity scaResult = new ScaResultEntity();
-        scaResult.setScaResult(ScaResultEntity.Result.FAILED);
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
 
-        when(requiredDocumentTypesCheck.evaluate(any(), any()))
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
                 .thenReturn(true);
         when(identityVerificationConfig.isVerificationOtpEnabled())
                 .thenReturn(true);
-
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.USER_VERIFICATION))
-                .thenReturn(Optional.of(createOtp()));
-        when(onboardingOtpRepository.findNewestByProcessIdAndType("process-1", OtpType.ACTIVATION))
-                .thenReturn(Optional.of(createOtp()));
-        when(activationService.fetchActivationStatus("activation-1"))
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.FAILED)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
                 .thenReturn(ActivationStatus.ACTIVE);
-        when(scaResultRepository.findTopByIdentityVerificationOrderByTimestampCreatedDesc(idVerification))
-                .thenReturn(Optional.of(scaResult));
 
         final var result = tested.evaluate(idVerification);
 
         assertFalse(result.isSuccessful());
+        assertEquals(List.of(Reason.SCA_NOT_PASSED), result.getReasons());
+    }
+
+    @Test
+    void testProcessDocumentVerificationResult_allReasons() throws Exception {
+        final IdentityVerificationEntity idVerification = createIdentityVerification(CLIENT_EVALUATION, IN_PROGRESS);
+
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(false);
+        when(identityVerificationConfig.isVerificationOtpEnabled())
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.REJECTED, null, null, null)));
+        when(activationService.fetchCurrentActivationStatus("activation-1"))
+                .thenReturn(ActivationStatus.BLOCKED);
+
+        final var result = tested.evaluate(idVerification);
+
+        assertFalse(result.isSuccessful());
+        assertEquals("Some documents not accepted", result.getErrorDetail());
+        assertEquals(List.of(Reason.values()), result.getReasons());
+    }
+
+    @Test
+    void testProcessDocumentVerificationResult_activationStatusTimeout() {
+        final IdentityVerificationEntity idVerification = createIdentityVerification(OTP_VERIFICATION, VERIFICATION_PENDING);
+
+        when(identityVerificationConfig.getPrecompleteActivationStatusTimeout())
+                .thenReturn(Duration.ofMillis(10));
+        when(requiredDocumentTypesCheck.evaluateAccepted(any(), any()))
+                .thenReturn(true);
+        when(identityVerificationConfig.isVerificationOtpEnabled())
+                .thenReturn(true);
+        when(identityVerificationRepository.findPrecompleteProjections("verification-1", DocumentStatus.ALL_PROCESSED))
+                .thenReturn(List.of(createProjection(DocumentStatus.ACCEPTED, OtpStatus.VERIFIED, OtpStatus.VERIFIED, ScaResultEntity.Result.SUCCESS)));
+
+        // the executor never runs the task
+        tested = new IdentityVerificationPrecompleteCheck(identityVerificationConfig, requiredDocumentTypesCheck,
+                identityVerificationRepository, activationService, runnable -> { });
+
+        assertThrows(RemoteCommunicationException.class, () -> tested.evaluate(idVerification));
     }
 
-    private static OnboardingOtpEntity createOtp() {
-        final OnboardingOtpEntity otp = new OnboardingOtpEntity();
-        otp.setStatus(OtpStatus.VERIFIED);
-        return otp;
+    private static IdentityVerificationEntity createIdentityVerification(final IdentityVerificationPhase phase, final IdentityVerificationStatus status) {
+        final IdentityVerificationEntity idVerification = new IdentityVerificationEntity();
+        idVerification.setId("verification-1");
+        idVerification.setProcessId("process-1");
+        idVerification.setActivationId("activation-1");
+        idVerification.setPhase(phase);
+        idVerification.setStatus(status);
+        return idVerification;
     }
 
-    private static OnboardingOtpEntity createFailedOtp() {
-        final OnboardingOtpEntity otp = new OnboardingOtpEntity();
-        otp.setStatus(OtpStatus.FAILED);
-        return otp;
+    private static PrecompleteProjection createProjection(final DocumentStatus status, final OtpStatus userVerificationOtpStatus,
+                                                          final OtpStatus activationOtpStatus, final ScaResultEntity.Result scaResult) {
+        return new PrecompleteProjection("document-1", DocumentType.ID_CARD, null, status, userVerificationOtpStatus, activationOtpStatus, scaResult);
     }
 }
@@ -17,10 +17,16 @@
  */
 package com.wultra.app.onboardingserver.impl.service;
 
+import com.wultra.app.enrollmentserver.api.model.onboarding.request.DocumentStatusRequest;
+import com.wultra.app.enrollmentserver.api.model.onboarding.response.DocumentStatusResponse;
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
 import com.wultra.app.enrollmentserver.model.enumeration.DocumentStatus;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
 import com.wultra.app.enrollmentserver.model.enumeration.ErrorOrigin;
 import com.wultra.app.enrollmentserver.model.integration.OwnerId;
 import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.common.database.DocumentStatusProjection;
+import com.wultra.app.onboardingserver.common.database.DocumentVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.IdentityVerificationRepository;
 import com.wultra.app.onboardingserver.common.database.entity.DocumentResultEntity;
 import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
@@ -41,6 +47,7 @@ import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerifica
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.OTP_VERIFICATION;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.ACCEPTED;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.FAILED;
+import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.IN_PROGRESS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,6 +64,9 @@ class IdentityVerificationServiceTest {
     @Mock
     private IdentityVerificationRepository identityVerificationRepository;
 
+    @Mock
+    private DocumentVerificationRepository documentVerificationRepository;
+
     @Mock
     private AuditService auditService;
 
@@ -95,7 +105,7 @@ class IdentityVerificationServiceTest {
         idVerification.setStatus(ACCEPTED);
 
         when(identityVerificationPrecompleteCheck.evaluate(idVerification))
-                .thenReturn(IdentityVerificationPrecompleteCheck.Result.failed("Not valid OTP"));
+                .thenReturn(IdentityVerificationPrecompleteCheck.Result.failed(List.of(IdentityVerificationPrecompleteCheck.Reason.ACTIVATION_OTP_NOT_VALID)));
 
         tested.processDocumentVerificationResult(new OwnerId(), idVerification);
 
@@ -148,6 +158,38 @@ class IdentityVerificationServiceTest {
         assertTrue(CollectionUtils.isEmpty(errors));
     }
 
+    @Test
+    void testFetchDocumentStatusResponse() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+        when(documentVerificationRepository.findDocumentStatuses("a1")).thenReturn(List.of(
+                new DocumentStatusProjection("v1", IN_PROGRESS, "d1", "a1", DocumentType.ID_CARD, CardSide.FRONT, DocumentStatus.REJECTED, "f1", null, "blurred")));
+
+        final DocumentStatusResponse response = tested.fetchDocumentStatusResponse(new DocumentStatusRequest(), ownerId);
+
+        assertEquals(IN_PROGRESS, response.getStatus());
+        assertEquals(1, response.getDocuments().size());
+        assertEquals("d1", response.getDocuments().get(0).getId());
+        assertEquals(CardSide.FRONT, response.getDocuments().get(0).getSide());
+        assertHidden(response.getDocuments().get(0).getErrors());
+    }
+
+    @Test
+    void testFetchDocumentStatusResponse_notRelatedDocument() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+        final DocumentStatusRequest.DocumentFilter filter = new DocumentStatusRequest.DocumentFilter();
+        filter.setDocumentId("d2");
+        final DocumentStatusRequest request = new DocumentStatusRequest();
+        request.setFilter(List.of(filter));
+        when(documentVerificationRepository.findDocumentStatuses("a1", List.of("d2"))).thenReturn(List.of(
+                new DocumentStatusProjection("v1", IN_PROGRESS, "d2", "a2", DocumentType.ID_CARD, CardSide.FRONT, DocumentStatus.ACCEPTED, "f2", null, null)));
+
+        final DocumentStatusResponse response = tested.fetchDocumentStatusResponse(request, ownerId);
+
+        assertEquals(FAILED, response.getStatus());
+    }
+
     private static void assertHidden(final List<String> errors) {
         assertEquals(1, errors.size());
         assertEquals("Error verifying the document.", errors.get(0));
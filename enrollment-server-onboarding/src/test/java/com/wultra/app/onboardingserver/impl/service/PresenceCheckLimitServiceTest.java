@@ -0,0 +1,112 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service;
+
+import com.wultra.app.enrollmentserver.model.enumeration.OnboardingStatus;
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.database.OnboardingProcessRepository;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import com.wultra.app.onboardingserver.common.database.entity.OnboardingProcessEntity;
+import com.wultra.app.onboardingserver.common.service.ActivationFlagService;
+import com.wultra.app.onboardingserver.common.service.AuditService;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import com.wultra.app.onboardingserver.errorhandling.PresenceCheckLimitException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.PRESENCE_CHECK;
+import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.FAILED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link PresenceCheckLimitService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PresenceCheckLimitServiceTest {
+
+    @Mock
+    private IdentityVerificationConfig identityVerificationConfig;
+
+    @Mock
+    private OnboardingProcessRepository onboardingProcessRepository;
+
+    @Mock
+    private ActivationFlagService activationFlagService;
+
+    @Mock
+    private IdentityVerificationService identityVerificationService;
+
+    @Mock
+    private AuditService auditService;
+
+    @InjectMocks
+    private PresenceCheckLimitService tested;
+
+    @Test
+    void testCheckPresenceCheckMaxAttemptLimit_belowLimit() throws Exception {
+        when(identityVerificationConfig.getPresenceCheckMaxFailedAttempts()).thenReturn(3);
+
+        final IdentityVerificationEntity identityVerification = createIdentityVerification(2);
+
+        tested.checkPresenceCheckMaxAttemptLimit(createOwnerId(), "p1", identityVerification);
+
+        verifyNoInteractions(onboardingProcessRepository, identityVerificationService, activationFlagService);
+    }
+
+    @Test
+    void testCheckPresenceCheckMaxAttemptLimit_limitReached() throws Exception {
+        when(identityVerificationConfig.getPresenceCheckMaxFailedAttempts()).thenReturn(3);
+        final OnboardingProcessEntity process = new OnboardingProcessEntity();
+        process.setId("p1");
+        process.setStatus(OnboardingStatus.VERIFICATION_IN_PROGRESS);
+        when(onboardingProcessRepository.findById("p1")).thenReturn(Optional.of(process));
+
+        final IdentityVerificationEntity identityVerification = createIdentityVerification(3);
+        final OwnerId ownerId = createOwnerId();
+
+        assertThrows(PresenceCheckLimitException.class,
+                () -> tested.checkPresenceCheckMaxAttemptLimit(ownerId, "p1", identityVerification));
+
+        assertEquals(OnboardingStatus.FAILED, process.getStatus());
+        assertEquals(IdentityVerificationEntity.ERROR_MAX_FAILED_ATTEMPTS_PRESENCE_CHECK, identityVerification.getErrorDetail());
+        verify(identityVerificationService).moveToPhaseAndStatus(identityVerification, PRESENCE_CHECK, FAILED, ownerId);
+        verify(activationFlagService).updateActivationFlagsForFailedIdentityVerification(ownerId);
+    }
+
+    private static IdentityVerificationEntity createIdentityVerification(final int scaAttempts) {
+        final IdentityVerificationEntity identityVerification = new IdentityVerificationEntity();
+        identityVerification.setProcessId("p1");
+        identityVerification.setPhase(PRESENCE_CHECK);
+        identityVerification.setScaAttempts(scaAttempts);
+        return identityVerification;
+    }
+
+    private static OwnerId createOwnerId() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+        ownerId.setUserId("u1");
+        return ownerId;
+    }
+}
@@ -33,10 +33,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationPhase.PRESENCE_CHECK;
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -139,14 +140,47 @@ class PresenceCheckServiceTest {
         identityVerification.setStatus(NOT_INITIALIZED);
 
         when(documentVerificationRepository.findAllWithPhoto(identityVerification)).thenReturn(List.of(page1, page2, page3));
-        when(identityVerificationService.findByOptional(ownerId)).thenReturn(Optional.of(identityVerification));
         when(presenceCheckProvider.startPresenceCheck(ownerId)).thenReturn(new SessionInfo());
 
-        tested.init(ownerId, "p1");
+        tested.init(ownerId, "p1", identityVerification);
 
         assertTrue(identityVerification.getSessionInfo().contains("\"primaryDocumentReference\":\"id_card_portrait\""));
         assertTrue(identityVerification.getSessionInfo().contains("\"otherDocumentsReferences\":[\"driving_licence_portrait\"]"));
         verify(presenceCheckProvider).initPresenceCheck(ownerId, null);
     }
 
+    @Test
+    void init_doesNotMutateSharedSessionInfo() throws Exception {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+
+        final IdentityVerificationEntity identityVerification = new IdentityVerificationEntity();
+        identityVerification.setPhase(PRESENCE_CHECK);
+        identityVerification.setStatus(NOT_INITIALIZED);
+        final String sessionInfoJson = "{\"sessionAttributes\":{\"a\":\"b\"}}";
+        identityVerification.setSessionInfo(sessionInfoJson);
+        final SessionInfo sharedSessionInfo = new SessionInfo();
+        sharedSessionInfo.getSessionAttributes().put("a", "b");
+        identityVerification.sessionInfoView().set(sessionInfoJson, sharedSessionInfo);
+
+        final DocumentVerificationEntity page = new DocumentVerificationEntity();
+        page.setId("1");
+        page.setType(DocumentType.ID_CARD);
+        page.setSide(CardSide.FRONT);
+        page.setPhotoId("id_card_portrait");
+
+        when(presenceCheckProvider.trustedPhotoSource()).thenReturn(PresenceCheckProvider.TrustedPhotoSource.REFERENCE);
+        when(documentVerificationRepository.findAllWithPhoto(identityVerification)).thenReturn(List.of(page));
+        final SessionInfo startedSessionInfo = new SessionInfo();
+        startedSessionInfo.getSessionAttributes().put("token", "t1");
+        when(presenceCheckProvider.startPresenceCheck(ownerId)).thenReturn(startedSessionInfo);
+
+        final SessionInfo result = tested.init(ownerId, "p1", identityVerification);
+
+        assertEquals(Map.of("a", "b"), sharedSessionInfo.getSessionAttributes());
+        assertEquals("b", result.getSessionAttributes().get("a"));
+        assertEquals("t1", result.getSessionAttributes().get("token"));
+        assertTrue(identityVerification.getSessionInfo().contains("\"token\":\"t1\""));
+    }
+
 }
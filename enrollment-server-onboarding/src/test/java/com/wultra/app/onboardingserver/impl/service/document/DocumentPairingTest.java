@@ -0,0 +1,98 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.enumeration.CardSide;
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentVerificationEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for {@link DocumentPairing}.
+ */
+class DocumentPairingTest {
+
+    @Test
+    void testPair() {
+        final List<DocumentPairing.Pair> pairs = DocumentPairing.pair(List.of(
+                createDocument("1", DocumentType.ID_CARD, CardSide.FRONT, 1),
+                createDocument("2", DocumentType.ID_CARD, CardSide.BACK, 1),
+                createDocument("3", DocumentType.PASSPORT, null, 1)));
+
+        assertThat(pairs).containsExactly(
+                new DocumentPairing.Pair(DocumentType.ID_CARD, "1", "2", List.of("1"), List.of("2")));
+    }
+
+    @Test
+    void testPair_resubmissionChain() {
+        final DocumentVerificationEntity front1 = createDocument("f1", DocumentType.ID_CARD, CardSide.FRONT, 1);
+        final DocumentVerificationEntity back1 = createDocument("b1", DocumentType.ID_CARD, CardSide.BACK, 1);
+        final DocumentVerificationEntity front2 = createDocument("f2", DocumentType.ID_CARD, CardSide.FRONT, 2);
+        final DocumentVerificationEntity front3 = createDocument("f3", DocumentType.ID_CARD, CardSide.FRONT, 3);
+        final DocumentVerificationEntity back3 = createDocument("b3", DocumentType.ID_CARD, CardSide.BACK, 3);
+
+        final List<DocumentPairing.Pair> pairs = DocumentPairing.pair(List.of(front3, back1, front1, back3, front2));
+
+        assertThat(pairs).singleElement().satisfies(pair -> {
+            assertEquals("f3", pair.frontSideId());
+            assertEquals("b3", pair.backSideId());
+            assertThat(pair.documentIds()).containsExactlyInAnyOrder("f1", "f2", "f3", "b1", "b3");
+            assertEquals("b3", pair.otherSideIdOf(front1));
+            assertEquals("f3", pair.otherSideIdOf(back1));
+        });
+    }
+
+    @Test
+    void testPair_independentOfOrder() {
+        final DocumentVerificationEntity front1 = createDocument("f1", DocumentType.ID_CARD, CardSide.FRONT, 1);
+        final DocumentVerificationEntity front2 = createDocument("f2", DocumentType.ID_CARD, CardSide.FRONT, 1);
+        final DocumentVerificationEntity back = createDocument("b1", DocumentType.ID_CARD, CardSide.BACK, 1);
+
+        final List<DocumentPairing.Pair> pairs1 = DocumentPairing.pair(List.of(front1, front2, back));
+        final List<DocumentPairing.Pair> pairs2 = DocumentPairing.pair(List.of(back, front2, front1));
+
+        assertThat(pairs1).extracting(DocumentPairing.Pair::frontSideId).containsExactly("f2");
+        assertThat(pairs2).extracting(DocumentPairing.Pair::frontSideId).containsExactly("f2");
+    }
+
+    @Test
+    void testPair_missingSide() {
+        final List<DocumentPairing.Pair> pairs = DocumentPairing.pair(List.of(
+                createDocument("1", DocumentType.ID_CARD, CardSide.FRONT, 1),
+                createDocument("2", DocumentType.ID_CARD, CardSide.FRONT, 2),
+                createDocument("3", DocumentType.ID_CARD, null, 2),
+                createDocument("4", DocumentType.DRIVING_LICENSE, CardSide.BACK, 2)));
+
+        assertThat(pairs).isEmpty();
+    }
+
+    private static DocumentVerificationEntity createDocument(final String id, final DocumentType type, final CardSide side, final long timestamp) {
+        final DocumentVerificationEntity document = new DocumentVerificationEntity();
+        document.setId(id);
+        document.setType(type);
+        document.setSide(side);
+        document.setTimestampCreated(new Date(timestamp));
+        return document;
+    }
+}
@@ -37,6 +37,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -71,14 +72,30 @@ class DocumentProcessingServiceTest {
     @Autowired
     DocumentResultRepository documentResultRepository;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     @Test
     @Sql
     void testPairTwoSidedDocuments() {
-        tested.pairTwoSidedDocuments(documentVerificationRepository.findAll());
+        transactionTemplate.executeWithoutResult(status ->
+                tested.pairTwoSidedDocuments(documentVerificationRepository.findAll()));
         assertEquals("2", documentVerificationRepository.findById("1").map(DocumentVerificationEntity::getOtherSideId).get());
         assertEquals("1", documentVerificationRepository.findById("2").map(DocumentVerificationEntity::getOtherSideId).get());
     }
 
+    @Test
+    @Sql
+    void testPairTwoSidedDocuments_resubmitted() {
+        transactionTemplate.executeWithoutResult(status ->
+                tested.pairTwoSidedDocuments(documentVerificationRepository.findAll()));
+        assertEquals("4", documentVerificationRepository.findById("1").map(DocumentVerificationEntity::getOtherSideId).get());
+        assertEquals("4", documentVerificationRepository.findById("3").map(DocumentVerificationEntity::getOtherSideId).get());
+        assertEquals("3", documentVerificationRepository.findById("2").map(DocumentVerificationEntity::getOtherSideId).get());
+        assertEquals("3", documentVerificationRepository.findById("4").map(DocumentVerificationEntity::getOtherSideId).get());
+        assertTrue(documentVerificationRepository.findById("5").map(DocumentVerificationEntity::getOtherSideId).isEmpty());
+    }
+
     @Test
     void testSubmitDocuments() throws Exception {
         final IdentityVerificationEntity identityVerification = identityVerificationRepository.findById("v1").get();
@@ -95,7 +112,7 @@ class DocumentProcessingServiceTest {
         request.setDocuments(metadata);
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
-        tested.submitDocuments(identityVerification, request, ownerId);
+        submitDocuments(identityVerification, request, ownerId);
 
         final List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
         assertEquals(2, documents.size());
@@ -136,7 +153,7 @@ class DocumentProcessingServiceTest {
         request.setDocuments(metadata);
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
-        tested.submitDocuments(identityVerification, request, ownerId);
+        submitDocuments(identityVerification, request, ownerId);
 
         final List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
         assertEquals(2, documents.size());
@@ -174,7 +191,7 @@ class DocumentProcessingServiceTest {
         request.setDocuments(metadata);
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
-        tested.submitDocuments(identityVerification, request, ownerId);
+        submitDocuments(identityVerification, request, ownerId);
 
         List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
         assertEquals(1, documents.size());
@@ -183,6 +200,76 @@ class DocumentProcessingServiceTest {
                 .containsExactlyInAnyOrder(DocumentStatus.FAILED);
     }
 
+    @Test
+    void testSubmitDocuments_identicalPages() throws Exception {
+        final IdentityVerificationEntity identityVerification = identityVerificationRepository.findById("v1").get();
+        assertNotNull(identityVerification);
+
+        final OwnerId ownerId = createOwnerId();
+
+        final DocumentSubmitRequest request = new DocumentSubmitRequest();
+        request.setProcessId("p1");
+        request.setResubmit(false);
+        request.setData("files".getBytes());
+        request.setDocuments(createIdCardMetadata());
+        when(dataExtractionService.extractDocuments(request.getData())).thenReturn(createIdCardData());
+
+        submitDocuments(identityVerification, request, ownerId);
+        final List<DocumentVerificationEntity> originalDocuments = documentVerificationRepository.findAll();
+
+        submitDocuments(identityVerification, request, ownerId);
+
+        final List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
+        assertEquals(4, documents.size());
+        final List<DocumentVerificationEntity> disposedDocuments = documents.stream()
+                .filter(document -> document.getStatus() == DocumentStatus.DISPOSED)
+                .toList();
+        final List<DocumentVerificationEntity> pendingDocuments = documents.stream()
+                .filter(document -> document.getStatus() == DocumentStatus.VERIFICATION_PENDING)
+                .toList();
+        assertThat(disposedDocuments)
+                .extracting(DocumentVerificationEntity::getId)
+                .containsExactlyInAnyOrder(originalDocuments.stream().map(DocumentVerificationEntity::getId).toArray(String[]::new));
+        assertThat(pendingDocuments)
+                .extracting(DocumentVerificationEntity::getUploadId)
+                .containsExactlyInAnyOrder(originalDocuments.stream().map(DocumentVerificationEntity::getUploadId).toArray(String[]::new));
+        assertThat(pendingDocuments)
+                .extracting(DocumentVerificationEntity::getDataHash)
+                .containsExactlyInAnyOrder(DataExtractionService.hash("img1".getBytes()), DataExtractionService.hash("img2".getBytes()));
+    }
+
+    @Test
+    void testSubmitDocuments_partiallyIdenticalPages() throws Exception {
+        final IdentityVerificationEntity identityVerification = identityVerificationRepository.findById("v1").get();
+        assertNotNull(identityVerification);
+
+        final OwnerId ownerId = createOwnerId();
+
+        final DocumentSubmitRequest request = new DocumentSubmitRequest();
+        request.setProcessId("p1");
+        request.setResubmit(false);
+        request.setData("files".getBytes());
+        request.setDocuments(createIdCardMetadata());
+        final List<Document> data = createIdCardData();
+        when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
+
+        submitDocuments(identityVerification, request, ownerId);
+        final List<DocumentVerificationEntity> originalDocuments = documentVerificationRepository.findAll();
+
+        data.get(1).setData("img3".getBytes());
+        submitDocuments(identityVerification, request, ownerId);
+
+        final List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
+        assertEquals(4, documents.size());
+        assertThat(documents)
+                .extracting(DocumentVerificationEntity::getStatus)
+                .containsOnly(DocumentStatus.VERIFICATION_PENDING);
+        assertThat(documents)
+                .extracting(DocumentVerificationEntity::getUploadId)
+                .doesNotHaveDuplicates()
+                .contains(originalDocuments.stream().map(DocumentVerificationEntity::getUploadId).toArray(String[]::new));
+    }
+
     @Test
     @Sql
     void testResubmitDocuments() throws Exception {
@@ -202,7 +289,7 @@ class DocumentProcessingServiceTest {
         request.setDocuments(metadata);
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
-        tested.submitDocuments(identityVerification, request, ownerId);
+        submitDocuments(identityVerification, request, ownerId);
         List<DocumentVerificationEntity> documents = documentVerificationRepository.findAll();
         assertEquals(4, documents.size());
         assertThat(documents)
@@ -227,7 +314,7 @@ class DocumentProcessingServiceTest {
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
         final DocumentSubmitException exception = assertThrows(DocumentSubmitException.class,
-                () -> tested.submitDocuments(identityVerification, request, ownerId));
+                () -> submitDocuments(identityVerification, request, ownerId));
         assertEquals("Detected a resubmit request without specified originalDocumentId, %s".formatted(ownerId), exception.getMessage());
     }
 
@@ -250,10 +337,15 @@ class DocumentProcessingServiceTest {
         when(dataExtractionService.extractDocuments(request.getData())).thenReturn(data);
 
         final DocumentSubmitException exception = assertThrows(DocumentSubmitException.class,
-                () -> tested.submitDocuments(identityVerification, request, ownerId));
+                () -> submitDocuments(identityVerification, request, ownerId));
         assertEquals("Detected a submit request with specified originalDocumentId=original1, %s".formatted(ownerId), exception.getMessage());
     }
 
+    private void submitDocuments(final IdentityVerificationEntity identityVerification, final DocumentSubmitRequest request, final OwnerId ownerId) throws DocumentSubmitException {
+        final DocumentSubmission submission = tested.prepareSubmission(identityVerification, request, ownerId);
+        tested.completeSubmission(tested.submitToProvider(submission, ownerId), ownerId);
+    }
+
     private List<DocumentSubmitRequest.DocumentMetadata> createIdCardMetadata() {
         final DocumentSubmitRequest.DocumentMetadata page1 = new DocumentSubmitRequest.DocumentMetadata();
         page1.setFilename("id_card_front.png");
@@ -0,0 +1,125 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.OnboardingProcessException;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import com.wultra.app.onboardingserver.impl.service.IdentityVerificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link DocumentSubmitExecutor}.
+ */
+class DocumentSubmitExecutorTest {
+
+    private final IdentityVerificationService identityVerificationService = mock(IdentityVerificationService.class);
+
+    private final OwnerId ownerId = new OwnerId();
+
+    private final DocumentSubmission submission = new DocumentSubmission(new IdentityVerificationEntity(), List.of());
+
+    private final DocumentSubmission submitted = new DocumentSubmission(new IdentityVerificationEntity(), List.of());
+
+    @Test
+    void testSubmit_sync() throws Exception {
+        when(identityVerificationService.submitDocumentsToProvider(submission, ownerId)).thenReturn(submitted);
+        doThrow(new OnboardingProcessException()).when(identityVerificationService).completeDocumentsSubmission(submitted, ownerId);
+
+        try (final DocumentSubmitExecutor tested = new DocumentSubmitExecutor(identityVerificationService, createConfig(false), new ThreadPoolTaskExecutorBuilder())) {
+            assertThrows(OnboardingProcessException.class, () -> tested.submit(submission, ownerId));
+        }
+    }
+
+    @Test
+    void testSubmit_async() throws Exception {
+        final CountDownLatch providerCalled = new CountDownLatch(1);
+        final CountDownLatch providerReleased = new CountDownLatch(1);
+        when(identityVerificationService.submitDocumentsToProvider(submission, ownerId)).thenAnswer(invocation -> {
+            providerCalled.countDown();
+            providerReleased.await(5, TimeUnit.SECONDS);
+            return submitted;
+        });
+
+        try (final DocumentSubmitExecutor tested = new DocumentSubmitExecutor(identityVerificationService, createConfig(true), new ThreadPoolTaskExecutorBuilder())) {
+            tested.submit(submission, ownerId);
+
+            // the call returns while the provider is still processing the documents
+            providerCalled.await(5, TimeUnit.SECONDS);
+            verify(identityVerificationService, never()).completeDocumentsSubmission(any(), any());
+
+            providerReleased.countDown();
+            verify(identityVerificationService, timeout(5000)).completeDocumentsSubmission(submitted, ownerId);
+        }
+    }
+
+    @Test
+    void testSubmit_queueFull() throws Exception {
+        final CountDownLatch providerCalled = new CountDownLatch(1);
+        final CountDownLatch providerReleased = new CountDownLatch(1);
+        final DocumentSubmission queued = new DocumentSubmission(new IdentityVerificationEntity(), List.of());
+        final DocumentSubmission rejected = new DocumentSubmission(new IdentityVerificationEntity(), List.of());
+        when(identityVerificationService.submitDocumentsToProvider(same(submission), eq(ownerId))).thenAnswer(invocation -> {
+            providerCalled.countDown();
+            providerReleased.await(5, TimeUnit.SECONDS);
+            return submitted;
+        });
+        when(identityVerificationService.submitDocumentsToProvider(same(rejected), eq(ownerId))).thenReturn(rejected);
+        doThrow(new OnboardingProcessException()).when(identityVerificationService).completeDocumentsSubmission(same(rejected), eq(ownerId));
+
+        try (final DocumentSubmitExecutor tested = new DocumentSubmitExecutor(identityVerificationService, createConfig(true), new ThreadPoolTaskExecutorBuilder())) {
+            tested.submit(submission, ownerId);
+            providerCalled.await(5, TimeUnit.SECONDS);
+            tested.submit(queued, ownerId);
+
+            // the submission is processed by the calling thread and the failure is not swallowed
+            assertThrows(OnboardingProcessException.class, () -> tested.submit(rejected, ownerId));
+            providerReleased.countDown();
+        }
+    }
+
+    @Test
+    void testSubmit_queuedLongerThanTimeout() throws Exception {
+        final IdentityVerificationConfig config = createConfig(true);
+        config.setDocumentSubmitTimeout(Duration.ZERO);
+
+        try (final DocumentSubmitExecutor tested = new DocumentSubmitExecutor(identityVerificationService, config, new ThreadPoolTaskExecutorBuilder())) {
+            tested.submit(submission, ownerId);
+        }
+        verify(identityVerificationService, never()).submitDocumentsToProvider(any(), any());
+    }
+
+    private static IdentityVerificationConfig createConfig(final boolean asyncEnabled) {
+        final IdentityVerificationConfig config = new IdentityVerificationConfig();
+        config.setDocumentSubmitAsyncEnabled(asyncEnabled);
+        config.setDocumentSubmitTimeout(Duration.ofMinutes(5));
+        config.setDocumentSubmitPoolSize(1);
+        config.setDocumentSubmitQueueCapacity(1);
+        return config;
+    }
+}
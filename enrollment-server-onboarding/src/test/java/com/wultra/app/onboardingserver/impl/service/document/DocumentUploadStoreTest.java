@@ -0,0 +1,126 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.Document;
+import com.wultra.app.enrollmentserver.model.DocumentMetadata;
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.EnrollmentServerTestApplication;
+import com.wultra.app.onboardingserver.common.database.DocumentDataRepository;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentDataEntity;
+import com.wultra.app.onboardingserver.common.database.entity.IdentityVerificationEntity;
+import com.wultra.app.onboardingserver.errorhandling.DocumentUploadLimitException;
+import com.wultra.app.onboardingserver.impl.service.DataExtractionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link DocumentUploadStore}.
+ */
+@SpringBootTest(classes = EnrollmentServerTestApplication.class, properties = {
+        "enrollment-server-onboarding.identity-verification.document-upload.max-count=3",
+        "enrollment-server-onboarding.identity-verification.document-upload.max-size=16B"
+})
+@ActiveProfiles("test")
+@Transactional
+@Sql
+class DocumentUploadStoreTest {
+
+    private static final String IDENTITY_VERIFICATION_ID = "v1";
+
+    @Autowired
+    private DocumentUploadStore tested;
+
+    @Autowired
+    private DocumentDataRepository documentDataRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testStore() throws Exception {
+        final DocumentMetadata result = tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(4));
+
+        final DocumentDataEntity entity = documentDataRepository.findById(result.getId()).orElseThrow();
+        assertEquals("document.jpg", entity.getFilename());
+        assertEquals(4, entity.getDataSize());
+        assertEquals("a1", entity.getActivationId());
+    }
+
+    @Test
+    void testStore_countLimit() throws Exception {
+        tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(1));
+
+        final DocumentUploadLimitException exception = assertThrows(DocumentUploadLimitException.class,
+                () -> tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(2)));
+        assertTrue(exception.getMessage().startsWith("Maximal count of uploaded documents 3 reached"));
+    }
+
+    @Test
+    void testStore_sizeLimit() throws Exception {
+        final DocumentUploadLimitException exception = assertThrows(DocumentUploadLimitException.class,
+                () -> tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(9)));
+        assertTrue(exception.getMessage().startsWith("Maximal size of uploaded documents 16B would be exceeded by 9 B"));
+
+        tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(8));
+    }
+
+    @Test
+    void testStore_identicalData() throws Exception {
+        final DocumentMetadata result1 = tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(8));
+        final DocumentMetadata result2 = tested.store(fetchIdentityVerification(), createOwnerId(), createDocument(8));
+
+        assertEquals(result1.getId(), result2.getId());
+        assertEquals(DataExtractionService.hash(new byte[8]), documentDataRepository.findById(result1.getId()).orElseThrow().getDataHash());
+        assertEquals(4, documentDataRepository.count());
+    }
+
+    @Test
+    void testExpire() {
+        assertEquals(1, tested.expire().found());
+
+        assertTrue(documentDataRepository.findById("d1").isPresent());
+        assertTrue(documentDataRepository.findById("d2").isPresent());
+        assertFalse(documentDataRepository.findById("d3").isPresent(), "expired document data should be deleted");
+    }
+
+    private IdentityVerificationEntity fetchIdentityVerification() {
+        return entityManager.find(IdentityVerificationEntity.class, IDENTITY_VERIFICATION_ID);
+    }
+
+    private static OwnerId createOwnerId() {
+        final OwnerId ownerId = new OwnerId();
+        ownerId.setActivationId("a1");
+        ownerId.setUserId("u1");
+        return ownerId;
+    }
+
+    private static Document createDocument(final int size) {
+        final Document document = new Document();
+        document.setFilename("document.jpg");
+        document.setData(new byte[size]);
+        return document;
+    }
+}
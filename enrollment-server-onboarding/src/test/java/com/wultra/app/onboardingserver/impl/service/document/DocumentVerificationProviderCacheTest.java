@@ -0,0 +1,159 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.impl.service.document;
+
+import com.wultra.app.enrollmentserver.model.integration.Image;
+import com.wultra.app.onboardingserver.api.provider.DocumentVerificationProvider;
+import com.wultra.app.onboardingserver.common.database.entity.DocumentResultEntity;
+import com.wultra.app.onboardingserver.common.errorhandling.RemoteCommunicationException;
+import com.wultra.app.onboardingserver.configuration.IdentityVerificationConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link DocumentVerificationProviderCache}.
+ */
+class DocumentVerificationProviderCacheTest {
+
+    private final DocumentVerificationProvider documentVerificationProvider = mock(DocumentVerificationProvider.class);
+
+    private DocumentVerificationProviderCache tested;
+
+    @BeforeEach
+    void setUp() {
+        final IdentityVerificationConfig config = new IdentityVerificationConfig();
+        config.setDataRetentionTime(Duration.ofHours(1));
+        config.setPhotoCacheMaxSize(DataSize.ofMegabytes(1));
+        config.setRejectionReasonsCacheMaxEntries(100);
+        tested = new DocumentVerificationProviderCache(documentVerificationProvider, config);
+    }
+
+    @Test
+    void testGetPhoto_downloadedOnce() throws Exception {
+        final Image photo = Image.builder()
+                .filename("photo.jpg")
+                .data(new byte[]{1, 2, 3})
+                .build();
+        when(documentVerificationProvider.getPhoto("photo-1")).thenReturn(photo);
+
+        assertSame(photo, tested.getPhoto("photo-1"));
+        assertSame(photo, tested.getPhoto("photo-1"));
+
+        verify(documentVerificationProvider, times(1)).getPhoto("photo-1");
+    }
+
+    @Test
+    void testGetPhoto_concurrentMissesCoalesced() throws Exception {
+        final Image photo = Image.builder()
+                .filename("photo.jpg")
+                .data(new byte[]{1, 2, 3})
+                .build();
+        final CountDownLatch downloading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(documentVerificationProvider.getPhoto("photo-1")).thenAnswer(invocation -> {
+            downloading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return photo;
+        });
+
+        final CompletableFuture<Image> first = CompletableFuture.supplyAsync(() -> getPhoto("photo-1"));
+        assertTrue(downloading.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<Image> second = CompletableFuture.supplyAsync(() -> getPhoto("photo-1"));
+        release.countDown();
+
+        assertSame(photo, first.get(5, TimeUnit.SECONDS));
+        assertSame(photo, second.get(5, TimeUnit.SECONDS));
+        verify(documentVerificationProvider, times(1)).getPhoto("photo-1");
+    }
+
+    @Test
+    void testGetPhoto_failureNotCached() throws Exception {
+        final Image photo = Image.builder()
+                .filename("photo.jpg")
+                .data(new byte[]{1, 2, 3})
+                .build();
+        when(documentVerificationProvider.getPhoto("photo-1"))
+                .thenThrow(new RemoteCommunicationException("Connection refused"))
+                .thenReturn(photo);
+
+        assertThrows(RemoteCommunicationException.class, () -> tested.getPhoto("photo-1"));
+        assertSame(photo, tested.getPhoto("photo-1"));
+    }
+
+    @Test
+    void testParseRejectionReasons_memoized() throws Exception {
+        final DocumentResultEntity docResult = new DocumentResultEntity();
+        docResult.setId(1L);
+        docResult.setVerificationResult("[\"reason\"]");
+        when(documentVerificationProvider.parseRejectionReasons(docResult)).thenReturn(List.of("reason"));
+
+        assertEquals(List.of("reason"), tested.parseRejectionReasons(docResult));
+        assertEquals(List.of("reason"), tested.parseRejectionReasons(docResult));
+
+        verify(documentVerificationProvider, times(1)).parseRejectionReasons(docResult);
+    }
+
+    @Test
+    void testParseRejectionReasons_changedRejectReason() throws Exception {
+        final DocumentResultEntity docResult = new DocumentResultEntity();
+        docResult.setId(1L);
+        docResult.setVerificationResult("[]");
+        when(documentVerificationProvider.parseRejectionReasons(docResult))
+                .thenReturn(List.of())
+                .thenReturn(List.of("reason"));
+
+        assertEquals(List.of(), tested.parseRejectionReasons(docResult));
+
+        docResult.setRejectReason("reason");
+        assertEquals(List.of("reason"), tested.parseRejectionReasons(docResult));
+    }
+
+    @Test
+    void testParseRejectionReasons_changedResult() throws Exception {
+        final DocumentResultEntity docResult = new DocumentResultEntity();
+        docResult.setId(1L);
+        when(documentVerificationProvider.parseRejectionReasons(docResult))
+                .thenReturn(List.of())
+                .thenReturn(List.of("reason"));
+
+        assertEquals(List.of(), tested.parseRejectionReasons(docResult));
+
+        docResult.setVerificationResult("[\"reason\"]");
+        assertEquals(List.of("reason"), tested.parseRejectionReasons(docResult));
+
+        verify(documentVerificationProvider, times(2)).parseRejectionReasons(docResult);
+    }
+
+    private Image getPhoto(final String photoId) {
+        try {
+            return tested.getPhoto(photoId);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.observation;
+
+import com.wultra.app.enrollmentserver.model.enumeration.DocumentType;
+import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link OnboardingMetrics}.
+ */
+class OnboardingMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OnboardingMetrics tested = new OnboardingMetrics(meterRegistry);
+
+    @Test
+    void testRecordSweep() {
+        tested.recordSweep("test-task", () -> new SweepResult(5, 3));
+        tested.recordSweep("test-task", () -> new SweepResult(2, 2));
+
+        assertEquals(2, meterRegistry.get(OnboardingMetrics.METRIC_TASK_DURATION).tags("task", "test-task", "outcome", "success").timer().count());
+        assertEquals(5, meterRegistry.get(OnboardingMetrics.METRIC_TASK_ITEMS).tag("task", "test-task").counter().count());
+        assertEquals(2, meterRegistry.get(OnboardingMetrics.METRIC_TASK_BACKLOG).tag("task", "test-task").gauge().value());
+    }
+
+    @Test
+    void testRecordSweep_error() {
+        assertThrows(IllegalStateException.class, () -> tested.recordSweep("test-task", () -> {
+            throw new IllegalStateException("test");
+        }));
+
+        assertEquals(1, meterRegistry.get(OnboardingMetrics.METRIC_TASK_DURATION).tags("task", "test-task", "outcome", "error").timer().count());
+        assertNull(meterRegistry.find(OnboardingMetrics.METRIC_TASK_ITEMS).counter());
+    }
+
+    @Test
+    void testRecordStateTransition() {
+        tested.recordStateTransition(OnboardingState.DOCUMENT_UPLOAD_IN_PROGRESS, OnboardingState.DOCUMENT_VERIFICATION_IN_PROGRESS);
+        tested.recordStateTransition(null, OnboardingState.INITIAL);
+
+        assertEquals(1, meterRegistry.get(OnboardingMetrics.METRIC_STATE_TRANSITIONS)
+                .tags("source", "DOCUMENT_UPLOAD_IN_PROGRESS", "target", "DOCUMENT_VERIFICATION_IN_PROGRESS").counter().count());
+        assertEquals(1, meterRegistry.get(OnboardingMetrics.METRIC_STATE_TRANSITIONS)
+                .tags("source", "unknown", "target", "INITIAL").counter().count());
+    }
+
+    @Test
+    void testRecordDocumentSize() {
+        tested.recordDocumentSize("submit", DocumentType.ID_CARD, new byte[2048]);
+        tested.recordDocumentSize("submit", DocumentType.ID_CARD, null);
+
+        final var summary = meterRegistry.get(OnboardingMetrics.METRIC_DOCUMENT_SIZE).tags("operation", "submit", "type", "ID_CARD").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2048, summary.totalAmount());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * PowerAuth Enrollment Server
+ * Copyright (C) 2025 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.app.onboardingserver.observation;
+
+import com.wultra.app.enrollmentserver.model.integration.OwnerId;
+import com.wultra.app.onboardingserver.api.provider.PresenceCheckProvider;
+import com.wultra.app.onboardingserver.presencecheck.mock.provider.WultraMockPresenceCheckProvider;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link ProviderObservationAdvisor}.
+ */
+class ProviderObservationAdvisorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProviderObservationAdvisor tested;
+
+    @BeforeEach
+    void setUp() {
+        final ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("observationRegistry", observationRegistry);
+        tested = new ProviderObservationAdvisor(beanFactory.getBeanProvider(ObservationRegistry.class));
+    }
+
+    @Test
+    void testMatches() throws Exception {
+        assertTrue(tested.getClassFilter().matches(WultraMockPresenceCheckProvider.class));
+        assertFalse(tested.getClassFilter().matches(String.class));
+        assertTrue(tested.matches(WultraMockPresenceCheckProvider.class.getMethod("startPresenceCheck", OwnerId.class), WultraMockPresenceCheckProvider.class));
+        assertFalse(tested.matches(Object.class.getMethod("toString"), WultraMockPresenceCheckProvider.class));
+    }
+
+    @Test
+    void testInvocationObserved() throws Exception {
+        final ProxyFactory proxyFactory = new ProxyFactory(new WultraMockPresenceCheckProvider());
+        proxyFactory.addAdvisor(tested);
+        final PresenceCheckProvider provider = (PresenceCheckProvider) proxyFactory.getProxy();
+
+        assertNotNull(provider.startPresenceCheck(new OwnerId()));
+
+        final Timer timer = meterRegistry.find(ProviderObservationAdvisor.OBSERVATION_NAME)
+                .tag("provider", "presence-check")
+                .tag("implementation", "WultraMockPresenceCheckProvider")
+                .tag("method", "startPresenceCheck")
+                .tag("error", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -33,6 +33,7 @@ import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.messaging.Message;
 import org.springframework.statemachine.StateContext;
 import org.springframework.statemachine.StateMachine;
@@ -54,7 +55,7 @@ import static org.mockito.Mockito.*;
 @Transactional
 class ClientEvaluationTransitionsTest extends AbstractStateMachineTest {
 
-    @MockBean
+    @SpyBean
     private IdentityVerificationConfig identityVerificationConfig;
 
     @MockBean
@@ -97,7 +98,7 @@ class ClientEvaluationTransitionsTest extends AbstractStateMachineTest {
         IdentityVerificationEntity idVerification = createIdentityVerification(IdentityVerificationStatus.ACCEPTED);
         StateMachine<OnboardingState, OnboardingEvent> stateMachine = createStateMachine(idVerification);
 
-        when(identityVerificationConfig.isPresenceCheckEnabled()).thenReturn(true);
+        doReturn(true).when(identityVerificationConfig).isPresenceCheckEnabled();
         when(identityVerificationService.moveToPhaseAndStatus(idVerification, PRESENCE_CHECK, NOT_INITIALIZED, OWNER_ID))
                 .thenReturn(idVerification);
 
@@ -117,8 +118,8 @@ class ClientEvaluationTransitionsTest extends AbstractStateMachineTest {
         IdentityVerificationEntity idVerification = createIdentityVerification(IdentityVerificationStatus.ACCEPTED);
         StateMachine<OnboardingState, OnboardingEvent> stateMachine = createStateMachine(idVerification);
 
-        when(identityVerificationConfig.isPresenceCheckEnabled()).thenReturn(false);
-        when(identityVerificationConfig.isVerificationOtpEnabled()).thenReturn(true);
+        doReturn(false).when(identityVerificationConfig).isPresenceCheckEnabled();
+        doReturn(true).when(identityVerificationConfig).isVerificationOtpEnabled();
         doAnswer(args -> {
             idVerification.setPhase(IdentityVerificationPhase.OTP_VERIFICATION);
             idVerification.setStatus(IdentityVerificationStatus.VERIFICATION_PENDING);
@@ -145,8 +146,8 @@ class ClientEvaluationTransitionsTest extends AbstractStateMachineTest {
         IdentityVerificationEntity idVerification = createIdentityVerification(IdentityVerificationStatus.ACCEPTED);
         StateMachine<OnboardingState, OnboardingEvent> stateMachine = createStateMachine(idVerification);
 
-        when(identityVerificationConfig.isPresenceCheckEnabled()).thenReturn(false);
-        when(identityVerificationConfig.isVerificationOtpEnabled()).thenReturn(false);
+        doReturn(false).when(identityVerificationConfig).isPresenceCheckEnabled();
+        doReturn(false).when(identityVerificationConfig).isVerificationOtpEnabled();
         doAnswer(args -> {
             IdentityVerificationEntity identityVerification = args.getArgument(0, StateContext.class)
                     .getExtendedState()
@@ -32,6 +32,7 @@ import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.messaging.Message;
 import org.springframework.statemachine.StateMachine;
 import org.springframework.test.context.ActiveProfiles;
@@ -43,6 +44,7 @@ import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerifica
 import static com.wultra.app.enrollmentserver.model.enumeration.IdentityVerificationStatus.IN_PROGRESS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
 /**
@@ -55,7 +57,7 @@ import static org.mockito.Mockito.when;
 @Transactional
 class DocumentVerificationTransitionsTest extends AbstractStateMachineTest {
 
-    @MockBean
+    @SpyBean
     private IdentityVerificationConfig identityVerificationConfig;
 
     @MockBean
@@ -99,7 +101,7 @@ class DocumentVerificationTransitionsTest extends AbstractStateMachineTest {
                 .thenReturn(Optional.of(createOnboardingProcessEntity()));
         StateMachine<OnboardingState, OnboardingEvent> stateMachine = createStateMachine(idVerification);
 
-        when(identityVerificationConfig.isPresenceCheckEnabled()).thenReturn(true);
+        doReturn(true).when(identityVerificationConfig).isPresenceCheckEnabled();
         when(identityVerificationService.moveToPhaseAndStatus(idVerification, CLIENT_EVALUATION, IN_PROGRESS, OWNER_ID))
                 .thenReturn(idVerification);
 
@@ -31,6 +31,7 @@ import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.messaging.Message;
 import org.springframework.statemachine.StateContext;
 import org.springframework.statemachine.StateMachine;
@@ -51,7 +52,7 @@ import static org.mockito.Mockito.*;
 @Transactional
 class OtpTransitionsTest extends AbstractStateMachineTest {
 
-    @MockBean
+    @SpyBean
     private IdentityVerificationConfig identityVerificationConfig;
 
     @MockBean
@@ -67,7 +68,7 @@ class OtpTransitionsTest extends AbstractStateMachineTest {
     void testOtpResend() throws Exception {
         IdentityVerificationEntity idVerification = createIdentityVerification();
         StateMachine<OnboardingState, OnboardingEvent> stateMachine = createStateMachine(idVerification);
-        when(identityVerificationConfig.isVerificationOtpEnabled()).thenReturn(true);
+        doReturn(true).when(identityVerificationConfig).isVerificationOtpEnabled();
 
         Message<OnboardingEvent> message =
                 stateMachineService.createMessage(OWNER_ID, idVerification.getProcessId(), OnboardingEvent.OTP_VERIFICATION_RESEND);
@@ -36,6 +36,7 @@ import com.wultra.app.onboardingserver.statemachine.enums.OnboardingState;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.messaging.Message;
 import org.springframework.statemachine.StateContext;
 import org.springframework.statemachine.StateMachine;
@@ -54,7 +55,7 @@ import static org.mockito.Mockito.*;
 @Transactional
 class PresenceCheckTransitionsTest extends AbstractStateMachineTest {
 
-    @MockBean
+    @SpyBean
     private IdentityVerificationConfig identityVerificationConfig;
 
     @MockBean
@@ -79,11 +80,11 @@ class PresenceCheckTransitionsTest extends AbstractStateMachineTest {
 
         when(onboardingProcessRepository.findByActivationIdAndStatusWithLock(idVerification.getActivationId(), OnboardingStatus.VERIFICATION_IN_PROGRESS))
                 .thenReturn(Optional.of(ONBOARDING_PROCESS_ENTITY));
-        when(identityVerificationConfig.isPresenceCheckEnabled()).thenReturn(true);
+        doReturn(true).when(identityVerificationConfig).isPresenceCheckEnabled();
         doAnswer(args -> {
             idVerification.setStatus(IdentityVerificationStatus.IN_PROGRESS);
             return new SessionInfo();
-        }).when(presenceCheckService).init(OWNER_ID, idVerification.getProcessId());
+        }).when(presenceCheckService).init(OWNER_ID, idVerification.getProcessId(), idVerification);
 
         Message<OnboardingEvent> message =
                 stateMachineService.createMessage(OWNER_ID, idVerification.getProcessId(), OnboardingEvent.PRESENCE_CHECK_INIT);
@@ -95,7 +96,7 @@ class PresenceCheckTransitionsTest extends AbstractStateMachineTest {
             .build()
             .test();
 
-        verify(presenceCheckService).init(OWNER_ID, idVerification.getProcessId());
+        verify(presenceCheckService).init(OWNER_ID, idVerification.getProcessId(), idVerification);
     }
 
     @Test
@@ -132,7 +133,7 @@ class PresenceCheckTransitionsTest extends AbstractStateMachineTest {
         PresenceCheckResult presenceCheckResult = new PresenceCheckResult();
         presenceCheckResult.setStatus(PresenceCheckStatus.ACCEPTED);
 
-        when(identityVerificationConfig.isVerificationOtpEnabled()).thenReturn(true);
+        doReturn(true).when(identityVerificationConfig).isVerificationOtpEnabled();
 
         doAnswer(args -> {
             idVerification.setStatus(IdentityVerificationStatus.VERIFICATION_PENDING);
@@ -168,7 +169,7 @@ class PresenceCheckTransitionsTest extends AbstractStateMachineTest {
         PresenceCheckResult presenceCheckResult = new PresenceCheckResult();
         presenceCheckResult.setStatus(PresenceCheckStatus.ACCEPTED);
 
-        when(identityVerificationConfig.isVerificationOtpEnabled()).thenReturn(false);
+        doReturn(false).when(identityVerificationConfig).isVerificationOtpEnabled();
 
         doAnswer(args -> {
             idVerification.setStatus(IdentityVerificationStatus.VERIFICATION_PENDING);
@@ -31,6 +31,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.util.AssertionErrors.assertFalse;
 import static org.springframework.test.util.AssertionErrors.assertTrue;
@@ -57,8 +60,8 @@ class ActivationCleaningServiceTest {
 
     @Test
     void testSuccessful() throws Exception {
-        when(activationService.fetchActivationStatus("a2"))
-                .thenReturn(ActivationStatus.ACTIVE);
+        when(activationService.fetchActivationStatuses(any()))
+                .thenReturn(Map.of("a2", ActivationStatus.ACTIVE));
 
         tested.cleanupActivations();
 
@@ -69,8 +72,8 @@ class ActivationCleaningServiceTest {
 
     @Test
     void testAlreadyDeleted() throws Exception {
-        when(activationService.fetchActivationStatus("a2"))
-                .thenReturn(ActivationStatus.REMOVED);
+        when(activationService.fetchActivationStatuses(any()))
+                .thenReturn(Map.of("a2", ActivationStatus.REMOVED));
 
         tested.cleanupActivations();
 
@@ -81,6 +84,8 @@ class ActivationCleaningServiceTest {
 
     @Test
     void testCommunicationException() throws Exception {
+        when(activationService.fetchActivationStatuses(any()))
+                .thenThrow(new RemoteCommunicationException("test exception"));
         when(activationService.fetchActivationStatus("a2"))
                 .thenThrow(new RemoteCommunicationException("test exception"));
 
@@ -91,6 +96,20 @@ class ActivationCleaningServiceTest {
         verify(activationService, never()).removeActivation("a2");
     }
 
+    @Test
+    void testBulkFetchFailed() throws Exception {
+        when(activationService.fetchActivationStatuses(any()))
+                .thenThrow(new RemoteCommunicationException("test exception"));
+        when(activationService.fetchActivationStatus("a2"))
+                .thenReturn(ActivationStatus.ACTIVE);
+
+        tested.cleanupActivations();
+
+        final OnboardingProcessEntity process = fetchOnboardingProcess("22222222-df91-4053-bb3d-3970979baf5d");
+        assertTrue("activation should be marked as removed", process.isActivationRemoved());
+        verify(activationService).removeActivation("a2");
+    }
+
     private OnboardingProcessEntity fetchOnboardingProcess(final String id) {
         return entityManager.find(OnboardingProcessEntity.class, id);
     }
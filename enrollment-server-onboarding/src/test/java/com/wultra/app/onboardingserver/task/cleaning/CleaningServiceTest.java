@@ -88,6 +88,24 @@ class CleaningServiceTest {
         assertEquals(PROCESS_LIMIT_CHECK, documentVerification.getErrorOrigin());
     }
 
+    @Test
+    @Sql
+    void testFailInterruptedDocumentSubmits() {
+        final String id1 = "16055e8b-4ac0-45dd-b68e-29f4cd991a5c";
+        final String id2 = "2d036a18-f51f-4a30-92cd-04876172ebca";
+        final String id3 = "3918e1c4-5ca7-47da-8765-afc92082f717";
+
+        tested.failInterruptedDocumentSubmits();
+
+        assertStatus(id1, DocumentStatus.UPLOAD_IN_PROGRESS);
+        assertStatus(id2, DocumentStatus.FAILED);
+        assertStatus(id3, DocumentStatus.UPLOAD_IN_PROGRESS);
+
+        final DocumentVerificationEntity documentVerification = fetchDocumentVerification(id2);
+        assertEquals("documentVerificationFailed", documentVerification.getErrorDetail());
+        assertEquals(ErrorOrigin.DOCUMENT_VERIFICATION, documentVerification.getErrorOrigin());
+    }
+
     @Test
     @Sql
     void testCleanupLargeDocuments() {
@@ -0,0 +1,10 @@
+-- Resubmitted front side '3' and two pages of the back side, '4' is the newest one.
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, timestamp_created) VALUES
+    ('v1', 'a1', 'u1', 'p1', 'VERIFICATION_PENDING', 'DOCUMENT_VERIFICATION', now());
+
+INSERT INTO es_document_verification(id, activation_id, identity_verification_id, type, side, status, used_for_verification, filename, timestamp_created) VALUES
+    ('1', 'a1', 'v1', 'ID_CARD', 'FRONT', 'VERIFICATION_PENDING', true, 'id_front.png', DATEADD('MINUTE', -5, now())),
+    ('2', 'a1', 'v1', 'ID_CARD', 'BACK', 'VERIFICATION_PENDING', true, 'id_back.png', DATEADD('MINUTE', -5, now())),
+    ('3', 'a1', 'v1', 'ID_CARD', 'FRONT', 'VERIFICATION_PENDING', true, 'id_front_2.png', now()),
+    ('4', 'a1', 'v1', 'ID_CARD', 'BACK', 'VERIFICATION_PENDING', true, 'id_back_2.png', now()),
+    ('5', 'a1', 'v1', 'DRIVING_LICENSE', 'FRONT', 'VERIFICATION_PENDING', true, 'dl.png', now());
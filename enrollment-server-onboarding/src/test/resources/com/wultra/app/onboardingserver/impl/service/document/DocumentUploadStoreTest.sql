@@ -0,0 +1,7 @@
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, timestamp_created) VALUES
+    ('v1', 'a1', 'u1', 'p1', 'IN_PROGRESS', 'DOCUMENT_UPLOAD', now());
+
+INSERT INTO es_document_data(id, activation_id, identity_verification_id, filename, data, data_size, timestamp_created) VALUES
+    ('d1', 'a1', 'v1', 'f1', 'data1', 4, now()),
+    ('d2', 'a1', 'v1', 'f2', 'data2', 4, now()),
+    ('d3', 'a1', 'v1', 'f3', 'data3', 8, now() - 1); -- expired, not counted to the limits
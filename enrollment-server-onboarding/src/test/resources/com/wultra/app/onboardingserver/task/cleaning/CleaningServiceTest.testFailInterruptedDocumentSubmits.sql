@@ -0,0 +1,10 @@
+INSERT INTO es_identity_verification(id, activation_id, user_id, process_id, status, phase, timestamp_created, timestamp_last_updated) VALUES
+    ('a6055e8b-4ac0-45dd-b68e-29f4cd991a5c', 'a1', 'u1', 'p1', 'IN_PROGRESS', 'DOCUMENT_UPLOAD', now(), now());
+
+INSERT INTO es_document_verification(id, activation_id, identity_verification_id, type, status, filename, used_for_verification, timestamp_created, timestamp_last_updated) VALUES
+    ('16055e8b-4ac0-45dd-b68e-29f4cd991a5c', 'a1', 'a6055e8b-4ac0-45dd-b68e-29f4cd991a5c', 'ID_CARD', 'UPLOAD_IN_PROGRESS', 'f1', true, now(), now()),
+    ('2d036a18-f51f-4a30-92cd-04876172ebca', 'a1', 'a6055e8b-4ac0-45dd-b68e-29f4cd991a5c', 'ID_CARD', 'UPLOAD_IN_PROGRESS', 'f2', true, now() - interval '1' hour, now()), -- to be failed
+    ('3918e1c4-5ca7-47da-8765-afc92082f717', 'a1', 'a6055e8b-4ac0-45dd-b68e-29f4cd991a5c', 'PASSPORT', 'UPLOAD_IN_PROGRESS', 'f3', true, now() - interval '1' hour, now()); -- submitted, waiting for the provider
+
+INSERT INTO es_document_result(id, document_verification_id, phase, timestamp_created) VALUES
+    (1, '3918e1c4-5ca7-47da-8765-afc92082f717', 'UPLOAD', now() - interval '1' hour);
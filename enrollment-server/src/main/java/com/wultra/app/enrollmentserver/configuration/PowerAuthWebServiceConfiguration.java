@@ -18,12 +18,17 @@
 
 package com.wultra.app.enrollmentserver.configuration;
 
+import com.wultra.app.enrollmentserver.common.client.RequestLimitConfiguration;
+import com.wultra.app.enrollmentserver.common.client.RequestLimitFilter;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
 import com.wultra.security.powerauth.rest.client.PowerAuthRestClient;
 import com.wultra.security.powerauth.rest.client.PowerAuthRestClientConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -57,17 +62,40 @@ public class PowerAuthWebServiceConfiguration {
     @Value("${powerauth.service.restClientConfig.maxIdleTime}")
     private Duration powerAuthServiceMaxIdleTime;
 
+    @Value("${powerauth.service.restClientConfig.connectTimeout:5s}")
+    private Duration powerAuthServiceConnectTimeout;
+
+    @Value("${powerauth.service.restClientConfig.maxLifeTime:#{null}}")
+    private Duration powerAuthServiceMaxLifeTime;
+
     @Value("${powerauth.service.security.clientToken}")
     private String clientToken;
 
     @Value("${powerauth.service.security.clientSecret}")
     private String clientSecret;
 
+    /**
+     * Configuration of the limit of concurrent requests to PowerAuth service.
+     *
+     * @return Request limit configuration.
+     */
+    @Bean
+    @ConfigurationProperties("powerauth.service.request-limit")
+    public RequestLimitConfiguration powerAuthRequestLimitConfiguration() {
+        return new RequestLimitConfiguration();
+    }
+
     @Bean
-    public PowerAuthClient powerAuthClient() throws PowerAuthClientException {
+    public PowerAuthClient powerAuthClient(
+            @Qualifier("powerAuthRequestLimitConfiguration") final RequestLimitConfiguration requestLimitConfiguration,
+            final ObjectProvider<MeterRegistry> meterRegistry) throws PowerAuthClientException {
+
         final PowerAuthRestClientConfiguration config = new PowerAuthRestClientConfiguration();
+        config.setConnectTimeout(powerAuthServiceConnectTimeout);
         config.setResponseTimeout(powerAuthServiceTimeout);
         config.setMaxIdleTime(powerAuthServiceMaxIdleTime);
+        config.setMaxLifeTime(powerAuthServiceMaxLifeTime);
+        config.setFilter(new RequestLimitFilter("powerauth", requestLimitConfiguration, meterRegistry.getIfAvailable()));
 
         if (StringUtils.hasText(clientToken)) {
             logger.info("Configuring security for PowerAuthRestClient.");
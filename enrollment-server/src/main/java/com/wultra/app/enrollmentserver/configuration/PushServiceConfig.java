@@ -18,11 +18,14 @@
 
 package com.wultra.app.enrollmentserver.configuration;
 
+import com.wultra.app.enrollmentserver.common.client.RequestLimitFilter;
 import com.wultra.app.enrollmentserver.impl.util.ConditionalOnPropertyNotEmpty;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import io.getlime.push.client.PushServerClient;
 import io.getlime.push.client.PushServerClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -37,11 +40,15 @@ import org.springframework.context.annotation.Configuration;
 public class PushServiceConfig {
 
     @Bean
-    public PushServerClient pushServerClient(final PushServiceConfigProperties pushServiceProperties) throws PushServerClientException {
+    public PushServerClient pushServerClient(
+            final PushServiceConfigProperties pushServiceProperties,
+            final ObjectProvider<MeterRegistry> meterRegistry) throws PushServerClientException {
+
         final String url = pushServiceProperties.getUrl();
         logger.info("Configuring PushServerClient for URL: {}", url);
         final RestClientConfiguration restClientConfig = pushServiceProperties.getRestClientConfig();
         restClientConfig.setBaseUrl(url);
+        restClientConfig.setFilter(new RequestLimitFilter("push", pushServiceProperties.getRequestLimit(), meterRegistry.getIfAvailable()));
         return new PushServerClient(restClientConfig);
     }
 
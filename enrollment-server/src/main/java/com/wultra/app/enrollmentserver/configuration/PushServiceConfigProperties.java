@@ -17,6 +17,7 @@
  */
 package com.wultra.app.enrollmentserver.configuration;
 
+import com.wultra.app.enrollmentserver.common.client.RequestLimitConfiguration;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import lombok.Getter;
 import lombok.Setter;
@@ -36,4 +37,6 @@ public class PushServiceConfigProperties {
     private String url;
 
     private RestClientConfiguration restClientConfig;
+
+    private RequestLimitConfiguration requestLimit = new RequestLimitConfiguration();
 }